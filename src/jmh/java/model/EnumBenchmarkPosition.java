@@ -0,0 +1,46 @@
+package model;
+
+import model.common.Coordinates;
+
+/**
+ * Fixed corpus of positions for the benchmarks. Each position is reached by playing its moves
+ * from the starting position, so that it can be set up through the public API of ChessGame and ChessBoard.
+ * The middlegames are common opening lines, the endgames come from capture-heavy games played once at random.
+ */
+public enum EnumBenchmarkPosition {
+
+    MIDDLEGAME_RUY_LOPEZ("e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1 f8e7 f1e1 b7b5 a4b3 d7d6 c2c3 e8g8 h2h3"),
+    MIDDLEGAME_QUEENS_GAMBIT_DECLINED("d2d4 d7d5 c2c4 e7e6 b1c3 g8f6 c1g5 f8e7 e2e3 e8g8 g1f3 b8d7 a1c1 c7c6 f1d3 d5c4 d3c4"),
+    MIDDLEGAME_SICILIAN_NAJDORF("e2e4 c7c5 g1f3 d7d6 d2d4 c5d4 f3d4 g8f6 b1c3 a7a6 c1e3 e7e5 d4b3 c8e6 f2f3 f8e7 d1d2 e8g8"),
+    ENDGAME_MINOR_PIECES("b2b3 g7g6 b1a3 b8c6 f2f4 b7b5 a3b5 c6e5 b5c7 d8c7 f4e5 c7c2 d1c2 c8a6 c2g6 a6c4 g6f7 c4f7 "
+            + "d2d4 d7d6 e5d6 f7b3 e1d2 e7d6 a2b3 a7a5 a1a5 a8a5 g2g3 e8d7 d2d3 a5g5 d3c2 g5g3 h2g3 d7d8 "
+            + "f1g2 h7h5 h1h5 h8h5 c1h6 g8h6 g2e4 h5h2 e4f5 h6g4 f5g4 h2e2 g4e2 d8c7"),
+    ENDGAME_ROOK_AGAINST_PAWNS("c2c3 b8a6 d2d3 b7b5 c1f4 c8b7 f4c7 a6c7 d1c1 b7g2 f1g2 a8b8 c1d2 c7d5 g2d5 g7g6 "
+            + "b1a3 d8c7 a3b5 b8b5 f2f4 c7c3 d2c3 b5b2 d5e6 d7e6 c3h8 e8d7 h8g8 d7d6 a1b1 b2a2 e1f1 d6d5 "
+            + "g8f8 d5d4 b1b2 a2b2 f8c8 b2e2 c8g8 e2h2 h1h2 d4d3 g8f7 d3c4 f7g6 h7g6"),
+    ENDGAME_QUEEN_AND_ROOK("g1f3 e7e6 h1g1 b8a6 f3e5 d7d6 e5c4 c7c5 c4d6 f8d6 b1c3 d6h2 e2e4 f7f5 e4f5 d8d2 "
+            + "e1d2 e6f5 d1g4 h2g1 g4g7 g1f2 g7h8 a8b8 f1a6 b7a6 h8g8 e8e7 c3e2 b8b2 c1b2 f2e3 d2e3 f5f4 "
+            + "e2f4 c5c4 g8h7 e7d8 h7a7 c8b7 a7a6 b7g2 a6c4 g2h3");
+
+    private final Coordinates[][] moves;
+
+    EnumBenchmarkPosition(String moves) {
+        String[] notations = moves.split(" ");
+        this.moves = new Coordinates[notations.length][];
+        for (int i = 0; i < notations.length; i++) {
+            this.moves[i] = new Coordinates[]{toCoordinates(notations[i], 0), toCoordinates(notations[i], 2)};
+        }
+    }
+
+    /**
+     * Returns the moves leading to this position as pairs of source and target coordinates.
+     */
+    public Coordinates[][] getMoves() {
+        return this.moves;
+    }
+
+    private static Coordinates toCoordinates(String notation, int index) {
+        return new Coordinates(notation.charAt(index) - 'a', notation.charAt(index + 1) - '1');
+    }
+
+}
@@ -0,0 +1,127 @@
+package model.extern;
+
+import model.EnumBenchmarkPosition;
+import model.common.Coordinates;
+import model.intern.exceptions.ExcInvalidMove;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the facade ChessGame over the positions of the benchmark corpus.
+ *
+ * Executing and reverting a move change the position, therefore the opposite operation is done
+ * outside the measurement per invocation. Both operations take microseconds, which is long enough
+ * for the overhead of Level.Invocation not to distort the results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    /**
+     * A chess game in one of the positions of the corpus, together with a move of the active player.
+     */
+    @State(Scope.Thread)
+    public abstract static class GameState {
+
+        @Param
+        public EnumBenchmarkPosition position;
+
+        ChessGame chessGame;
+        Coordinates moveSource;
+        Coordinates moveTarget;
+
+        @Setup(Level.Trial)
+        public void setUpPosition() throws ExcInvalidMove {
+            this.chessGame = new ChessGame();
+            this.chessGame.startNewGame(null);
+            for (Coordinates[] move : this.position.getMoves()) {
+                this.chessGame.executeMove(move[0], move[1]);
+            }
+            findMoveOfActivePlayer();
+        }
+
+        private void findMoveOfActivePlayer() {
+            for (int y = 0; y < 8 && this.moveSource == null; y++) {
+                for (int x = 0; x < 8 && this.moveSource == null; x++) {
+                    Coordinates source = new Coordinates(x, y);
+                    List<Coordinates> targets = this.chessGame.findPossibleNewFields(source);
+                    if (!targets.isEmpty() && isExecutable(source, targets.get(0))) {
+                        this.moveSource = source;
+                        this.moveTarget = targets.get(0);
+                    }
+                }
+            }
+        }
+
+        private boolean isExecutable(Coordinates source, Coordinates target) {
+            try {
+                // Fails for the pieces of the player who does not have the turn.
+                this.chessGame.executeMove(source, target);
+                this.chessGame.revertLastMove();
+                return true;
+            } catch (ExcInvalidMove e) {
+                return false;
+            }
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Game extends GameState {
+    }
+
+    @State(Scope.Thread)
+    public static class GameWithMoveToRevert extends GameState {
+
+        @TearDown(Level.Invocation)
+        public void revertMove() {
+            this.chessGame.revertLastMove();
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class GameWithExecutedMove extends GameState {
+
+        @Setup(Level.Invocation)
+        public void executeMove() throws ExcInvalidMove {
+            this.chessGame.executeMove(this.moveSource, this.moveTarget);
+        }
+
+    }
+
+    @Benchmark
+    public ExtBoardState executeMove(GameWithMoveToRevert game) throws ExcInvalidMove {
+        return game.chessGame.executeMove(game.moveSource, game.moveTarget);
+    }
+
+    @Benchmark
+    public void revertLastMove(GameWithExecutedMove game) {
+        game.chessGame.revertLastMove();
+    }
+
+    @Benchmark
+    public void findPossibleNewFields(Game game, Blackhole blackhole) {
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                blackhole.consume(game.chessGame.findPossibleNewFields(new Coordinates(x, y)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void findThreateningFields(Game game, Blackhole blackhole) {
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                blackhole.consume(game.chessGame.findThreateningFields(new Coordinates(x, y)));
+            }
+        }
+    }
+
+}
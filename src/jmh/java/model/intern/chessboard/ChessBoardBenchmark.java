@@ -0,0 +1,41 @@
+package model.intern.chessboard;
+
+import model.EnumBenchmarkPosition;
+import model.common.Coordinates;
+import model.common.EnumKingThreat;
+import model.intern.exceptions.ExcInvalidMove;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the chess board, which are not reachable through the facade ChessGame.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessBoardBenchmark {
+
+    @Param
+    private EnumBenchmarkPosition position;
+
+    private ChessBoard chessBoard;
+
+    @Setup(Level.Trial)
+    public void setUpPosition() throws ExcInvalidMove {
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+        for (Coordinates[] move : this.position.getMoves()) {
+            this.chessBoard.executeMove(move[0], move[1]);
+        }
+    }
+
+    @Benchmark
+    public EnumKingThreat detectKingThreat() {
+        return this.chessBoard.detectKingThreat(this.chessBoard.getFieldOfKingActivePlayer());
+    }
+
+}
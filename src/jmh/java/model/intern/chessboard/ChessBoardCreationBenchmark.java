@@ -0,0 +1,25 @@
+package model.intern.chessboard;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the creation of a new chess board with all pieces on their starting positions,
+ * as done when starting a new game.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessBoardCreationBenchmark {
+
+    @Benchmark
+    public ChessBoard createChessBoard() {
+        ChessBoard chessBoard = new ChessBoard();
+        chessBoard.initChessPieces();
+        return chessBoard;
+    }
+
+}
@@ -0,0 +1,10 @@
+package model.common;
+
+/**
+ * Enumeration of the possible outcomes of an endgame tablebase position for the player to move.
+ */
+public enum EnumTablebaseResult {
+
+    WIN, DRAW, LOSS
+
+}
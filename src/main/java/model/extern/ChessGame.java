@@ -3,14 +3,39 @@ package model.extern;
 import model.common.EnumChessColor;
 import model.common.EnumChessPiece;
 import model.common.EnumKingThreat;
+import model.intern.archive.ArchivedGame;
+import model.intern.archive.GameArchive;
+import model.intern.archive.GameArchiveWriter;
+import model.intern.archive.PositionIndex;
+import model.intern.book.BookMove;
+import model.intern.book.PolyglotBook;
+import model.intern.book.PolyglotKeys;
+import model.intern.chessboard.BitBoard;
 import model.intern.chessboard.ChessBoard;
 import model.intern.chessboard.ChessField;
 import model.common.Coordinates;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.engine.Engine;
+import model.intern.engine.PrincipalVariation;
+import model.intern.engine.SearchLimits;
+import model.intern.engine.SearchListener;
+import model.intern.engine.SearchResult;
+import model.intern.exceptions.ExcInvalidFen;
 import model.intern.exceptions.ExcInvalidMove;
+import model.intern.tablebase.TablebaseResult;
+import model.intern.tablebase.Tablebases;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Facade for interacting with the chess model.
@@ -19,14 +44,23 @@ import java.util.Observer;
 public class ChessGame extends Observable implements Observer {
 
     private ChessBoard chessBoard;
+    private Engine engine;
+    private PolyglotBook book;
+    private Tablebases tablebases;
+    private PositionIndex positionIndex;
+    private boolean pondering;
+    // Best move of the last search, pondering starts when it is executed.
+    private volatile int engineMove = MoveEncoding.NO_MOVE;
 
     /**
      * Starts or restarts a chess game. If there is current progress, this is lost when (re)starting the game.
+     * A running analysis or ponder search is stopped.
      * The board state is returned with information about the current player.
      * @param observer Register an observer to stay updated about all piece changes on chess fields.
      *                 The update will be of type ExtFieldUpdate.
      */
     public ExtBoardState startNewGame(Observer observer) {
+        stopSearch();
         if (this.chessBoard != null) {
             // Clean up old observers
             this.chessBoard.deleteObservers();
@@ -44,6 +78,27 @@ public class ChessGame extends Observable implements Observer {
         return createExtBoardState();
     }
 
+    /**
+     * Replaces the current position by the given one in the Forsyth-Edwards Notation (FEN), e.g.
+     * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1". Moves cannot be reverted beyond this position.
+     * The observer is not notified about the single fields, so a client has to read the whole board afterwards.
+     * A running analysis or ponder search is stopped.
+     * The board state is returned with information about the current player.
+     * @throws ExcInvalidFen The given text is no valid FEN. The position is not changed then.
+     */
+    public ExtBoardState loadFen(String fen) throws ExcInvalidFen {
+        this.getChessBoard().loadFen(fen);
+        stopSearch();
+        return createExtBoardState();
+    }
+
+    /**
+     * Returns the current position in the Forsyth-Edwards Notation (FEN).
+     */
+    public String toFen() {
+        return this.getChessBoard().toFen();
+    }
+
     /**
      * Executes the given move. The status of the board is returned after executing the move.
      * @param source Source field of the move
@@ -52,11 +107,74 @@ public class ChessGame extends Observable implements Observer {
      */
     public ExtBoardState executeMove(Coordinates source, Coordinates target) throws ExcInvalidMove {
         this.getChessBoard().executeMove(source, target);
+        moveExecuted(source, target, EnumChessPiece.QUEEN);
+        return createExtBoardState();
+    }
+
+    /**
+     * Executes the given move, promoting a pawn to the given piece when it reaches the last rank.
+     * The status of the board is returned after executing the move.
+     * @param promotionPiece Piece a pawn is promoted to (queen, rook, bishop or knight; null means queen)
+     * @throws ExcInvalidMove The given move is not allowed on the current board.
+     */
+    public ExtBoardState executeMove(Coordinates source, Coordinates target, EnumChessPiece promotionPiece) throws ExcInvalidMove {
+        EnumChessPiece piece = promotionPiece != null ? promotionPiece : EnumChessPiece.QUEEN;
+        this.getChessBoard().executeMove(source, target, piece);
+        moveExecuted(source, target, piece);
+        return createExtBoardState();
+    }
+
+    /**
+     * Switches pondering on or off. While pondering, the engine searches the position after the expected reply
+     * in the background as soon as the move it found (by findBestMove or analyze) has been executed,
+     * typically while the opponent is thinking. If the opponent plays the expected reply, the next findBestMove
+     * or analyze goes on with that search (ponder hit), so its result is available much sooner.
+     * As soon as another move is executed, the search is stopped (ponder miss).
+     */
+    public void setPondering(boolean pondering) {
+        this.pondering = pondering;
+        if (!pondering && this.engine != null && this.engine.isPondering()) {
+            this.engine.stop();
+        }
+    }
+
+    /**
+     * Appends the current game from its starting position on to the given game archive.
+     * The archive is created if it does not exist.
+     * @param tags Tag pairs stored with the game, e.g. "White" or "Result"
+     * @return Index of the game in the archive, by which it is found (see findGames) and imported
+     * @throws IOException The archive cannot be written or is no complete game archive.
+     */
+    public int exportGame(Path archiveFile, Map<String, String> tags) throws IOException {
+        try (GameArchiveWriter writer = GameArchiveWriter.append(archiveFile)) {
+            return writer.write(ArchivedGame.of(this.getChessBoard(), tags));
+        }
+    }
+
+    /**
+     * Replaces the current game by the game with the given index of the given game archive: its starting position
+     * is set up and all its moves are executed, so they can be reverted one by one.
+     * A running analysis or ponder search is stopped.
+     * The board state is returned with information about the current player.
+     * @throws IOException The archive cannot be read. The game is not changed then.
+     * @throws IndexOutOfBoundsException The archive has no game with the given index.
+     * @throws ExcInvalidFen The starting position of the game is invalid.
+     * @throws ExcInvalidMove A move of the game is not allowed. The game stays at the position before this move.
+     */
+    public ExtBoardState importGame(Path archiveFile, int index) throws IOException, ExcInvalidFen, ExcInvalidMove {
+        ArchivedGame game;
+        try (GameArchive archive = GameArchive.open(archiveFile)) {
+            game = archive.readGame(index);
+        }
+        stopSearch();
+        game.replay(this.getChessBoard());
         return createExtBoardState();
     }
 
     /**
-     * Returns all possible fields that are reachable by one move, based on the given coordinates
+     * Returns all possible fields that are reachable by one move, based on the given coordinates.
+     * The fields of all pieces are computed once per position and cached until the next move or revert,
+     * so calling this method repeatedly for the same position is cheap. The returned list must not be modified.
      */
     public List<Coordinates> findPossibleNewFields(Coordinates coordinatesSource) {
         return this.getChessBoard().getField(coordinatesSource).findPossibleNewFields();
@@ -71,12 +189,145 @@ public class ChessGame extends Observable implements Observer {
 
     /**
      * Revert all effects from the last move.
-     * This method can be called several times in a row.
+     * This method can be called several times in a row. A running analysis or ponder search is stopped.
      */
     public void revertLastMove() {
+        stopSearch();
         this.getChessBoard().revertLastMove();
     }
 
+    /**
+     * Searches the best move of the active player in the current position up to the given depth (in plies).
+     * The board is not changed by the search.
+     */
+    public ExtSearchResult findBestMove(int depth) {
+        return createExtSearchResult(engineMoveFound(this.getEngine().search(this.getChessBoard(), depth)));
+    }
+
+    /**
+     * Starts analyzing the current position in the background within the given limits.
+     * The position is taken when this method is called, so moves can be executed during the analysis.
+     * An analysis, which is still running, is stopped first.
+     * @return Future of the best move, which is completed when the first limit is reached or the analysis is stopped
+     */
+    public CompletableFuture<ExtSearchResult> analyze(ExtSearchLimits limits) {
+        return analyze(limits, null);
+    }
+
+    /**
+     * Starts analyzing the current position in the background like analyze(limits), and informs the given listener
+     * about the result of each completed depth. With ExtSearchLimits.withMultiPv, the results have several best moves.
+     * The listener is called on a thread of its own, possibly after the returned future has been completed,
+     * and is not informed about any later search.
+     */
+    public CompletableFuture<ExtSearchResult> analyze(ExtSearchLimits limits, ExtAnalysisListener listener) {
+        SearchListener searchListener = listener == null ? null : result -> listener.depthCompleted(createExtSearchResult(result));
+        return this.getEngine().searchAsync(this.getChessBoard(), createSearchLimits(limits), searchListener)
+                .whenComplete((result, exception) -> this.getEngine().removeSearchListener(searchListener))
+                .thenApply(this::engineMoveFound)
+                .thenApply(this::createExtSearchResult);
+    }
+
+    /**
+     * Stops the running analysis and returns the best move found so far (of the last completed depth) right away.
+     * The future returned by analyze is completed shortly afterwards.
+     */
+    public ExtSearchResult stop() {
+        return createExtSearchResult(this.getEngine().stop());
+    }
+
+    /**
+     * Opens the given opening book in the Polyglot format (.bin). The book is kept for all following games.
+     * @throws IOException The book cannot be read.
+     */
+    public void openBook(Path bookFile) throws IOException {
+        this.book = PolyglotBook.open(bookFile, PolyglotKeys.getInstance());
+    }
+
+    /**
+     * Opens the given opening book in the Polyglot format (.bin) with the Polyglot random numbers of the given file.
+     * @throws IOException The book or the random numbers cannot be read.
+     */
+    public void openBook(Path bookFile, Path random64File) throws IOException {
+        this.book = PolyglotBook.open(bookFile, PolyglotKeys.load(random64File));
+    }
+
+    /**
+     * Returns the moves of the opening book for the current position, or an empty list
+     * if no book is opened or the position is not in the book.
+     */
+    public List<ExtBookMove> findBookMoves() {
+        if (this.book == null) {
+            return List.of();
+        }
+        return this.book.findMoves(this.getChessBoard()).stream()
+                .map(ChessGame::createExtBookMove)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Opens the endgame tablebases in the given directory (see TablebaseGenerator), which are kept for all following games.
+     * The engine uses them to play endgames with few pieces perfectly.
+     * @throws IOException A tablebase cannot be read.
+     */
+    public void openTablebases(Path directory) throws IOException {
+        this.tablebases = Tablebases.open(directory);
+        this.getEngine().setTablebases(this.tablebases);
+    }
+
+    /**
+     * Returns the result of the current position according to the endgame tablebases,
+     * or null if no tablebases are opened or none covers the position.
+     */
+    public ExtTablebaseResult probeTablebase() {
+        if (this.tablebases == null) {
+            return null;
+        }
+        TablebaseResult result = this.tablebases.probe(this.getChessBoard());
+        return result == null ? null : new ExtTablebaseResult(result.getResult(), result.getDistanceToMate());
+    }
+
+    /**
+     * Opens the position index of a game archive (see PositionIndexBuilder), which is kept for all following games.
+     * @throws IOException The index cannot be read.
+     */
+    public void openPositionIndex(Path indexFile) throws IOException {
+        this.positionIndex = PositionIndex.open(indexFile);
+    }
+
+    /**
+     * Returns the ids of the games (their indexes in the game archive) which reached the current position,
+     * in ascending order. Without an opened position index, no games are found.
+     */
+    public int[] findGames() {
+        if (this.positionIndex == null) {
+            return new int[0];
+        }
+        return this.positionIndex.find(this.getChessBoard()).toArray();
+    }
+
+    /**
+     * Returns the 64-bit Zobrist key of the current position.
+     * Equal positions (pieces, player to move, castling rights and en passant file) have equal keys.
+     */
+    public long getZobristKey() {
+        return this.getChessBoard().getZobristKey();
+    }
+
+    /**
+     * Returns how often findPossibleNewFields has been answered from the cache since the start of the current game.
+     */
+    public long getLegalMoveCacheHits() {
+        return this.getChessBoard().getLegalMoveCacheHits();
+    }
+
+    /**
+     * Returns how often findPossibleNewFields had to compute the fields since the start of the current game.
+     */
+    public long getLegalMoveCacheMisses() {
+        return this.getChessBoard().getLegalMoveCacheMisses();
+    }
+
     private ChessBoard getChessBoard() {
         if (this.chessBoard != null) {
             return this.chessBoard;
@@ -85,6 +336,105 @@ public class ChessGame extends Observable implements Observer {
         }
     }
 
+    /**
+     * Returns the engine, which searches with one thread per available processor.
+     */
+    Engine getEngine() {
+        if (this.engine == null) {
+            this.engine = new Engine(Runtime.getRuntime().availableProcessors());
+        }
+        return this.engine;
+    }
+
+    private SearchResult engineMoveFound(SearchResult result) {
+        this.engineMove = result.getBestMove();
+        return result;
+    }
+
+    /**
+     * Returns whether the given move (NO_MOVE for none) is the move from the given source to the given target.
+     */
+    private static boolean isMove(int move, Coordinates source, Coordinates target, EnumChessPiece promotionPiece) {
+        return move != MoveEncoding.NO_MOVE
+                && MoveEncoding.getFrom(move) == BitBoard.toSquare(source)
+                && MoveEncoding.getTo(move) == BitBoard.toSquare(target)
+                && (!MoveEncoding.isPromotion(move) || MoveEncoding.getPromotionPiece(move) == promotionPiece);
+    }
+
+    /**
+     * Starts pondering on the position after the expected reply, if pondering is switched on and the engine
+     * has just played its move. If the executed move is the expected reply, a running ponder search is kept,
+     * so that the next search can take it over (ponder hit). Otherwise it is stopped right away (ponder miss).
+     */
+    private void moveExecuted(Coordinates source, Coordinates target, EnumChessPiece promotionPiece) {
+        boolean isEngineMove = isMove(this.engineMove, source, target, promotionPiece);
+        this.engineMove = MoveEncoding.NO_MOVE;
+        if (this.pondering && isEngineMove) {
+            this.getEngine().startPondering(this.getChessBoard());
+        } else if (this.engine != null && this.engine.isPondering()
+                && !isMove(this.engine.getPonderMove(), source, target, promotionPiece)) {
+            this.engine.stop();
+        }
+    }
+
+    /**
+     * Stops a running analysis or ponder search, as the position it searches is no longer the one of the game.
+     */
+    private void stopSearch() {
+        this.engineMove = MoveEncoding.NO_MOVE;
+        if (this.engine != null) {
+            this.engine.stop();
+        }
+    }
+
+    private static SearchLimits createSearchLimits(ExtSearchLimits limits) {
+        SearchLimits result = SearchLimits.infinite();
+        if (limits.getDepth() != null) {
+            result = result.withDepth(limits.getDepth());
+        }
+        if (limits.getNodes() != null) {
+            result = result.withNodes(limits.getNodes());
+        }
+        if (limits.getDeadline() != null) {
+            result = result.withMoveTime(Duration.between(Instant.now(), limits.getDeadline()));
+        }
+        if (limits.getRemainingTime() != null) {
+            Duration increment = limits.getIncrement() != null ? limits.getIncrement() : Duration.ZERO;
+            result = result.withClock(limits.getRemainingTime(), increment);
+        }
+        if (limits.getMultiPv() != null) {
+            result = result.withMultiPv(limits.getMultiPv());
+        }
+        return result;
+    }
+
+    private static ExtBookMove createExtBookMove(BookMove bookMove) {
+        return new ExtBookMove(bookMove.getSource(), bookMove.getTarget(), bookMove.getPromotionPiece(), bookMove.getWeight());
+    }
+
+    private ExtSearchResult createExtSearchResult(SearchResult result) {
+        int move = result.getBestMove();
+        List<ExtPrincipalVariation> principalVariations = result.getPrincipalVariations().stream()
+                .map(ChessGame::createExtPrincipalVariation)
+                .collect(Collectors.toList());
+        if (move == MoveEncoding.NO_MOVE) {
+            return new ExtSearchResult(null, null, null,
+                    result.getScore(), result.getDepth(), result.getNodes(), result.getNodesPerSecond(), principalVariations);
+        }
+        return new ExtSearchResult(
+                BitBoard.toCoordinates(MoveEncoding.getFrom(move)),
+                BitBoard.toCoordinates(MoveEncoding.getTo(move)),
+                MoveEncoding.getPromotionPiece(move),
+                result.getScore(), result.getDepth(), result.getNodes(), result.getNodesPerSecond(), principalVariations);
+    }
+
+    private static ExtPrincipalVariation createExtPrincipalVariation(PrincipalVariation principalVariation) {
+        return new ExtPrincipalVariation(principalVariation.getScore(), Arrays.stream(principalVariation.getMoves())
+                .mapToObj(move -> new ExtMove(BitBoard.toCoordinates(MoveEncoding.getFrom(move)),
+                        BitBoard.toCoordinates(MoveEncoding.getTo(move)), MoveEncoding.getPromotionPiece(move)))
+                .collect(Collectors.toList()));
+    }
+
     private ExtBoardState createExtBoardState() {
         EnumChessColor activeColor = this.getChessBoard().getActiveColor();
         EnumKingThreat kingThreat = this.getChessBoard().getKingThreat();
@@ -96,10 +446,15 @@ public class ChessGame extends Observable implements Observer {
         if (arg instanceof ChessField) {
             ChessField changedChessField = (ChessField) arg;
             Coordinates coordinates = changedChessField.getCoordinates();
-            EnumChessPiece piece = changedChessField.getPiece().getPieceType();
-            EnumChessColor color = changedChessField.getPiece().getColor();
-            ExtFieldUpdate fieldUpdate = new ExtFieldUpdate(coordinates, piece, color);
-            System.out.println(changedChessField.getCoordinates().x() + ", " + changedChessField.getCoordinates().y());
+            ExtFieldUpdate fieldUpdate;
+            if (changedChessField.hasPiece()) {
+                EnumChessPiece piece = changedChessField.getPiece().getPieceType();
+                EnumChessColor color = changedChessField.getPiece().getColor();
+                fieldUpdate = new ExtFieldUpdate(coordinates, piece, color);
+            } else {
+                // The field has been emptied, e.g. when reverting a move.
+                fieldUpdate = new ExtFieldUpdate(coordinates, null, null);
+            }
             setChanged();
             notifyObservers(fieldUpdate);
         }
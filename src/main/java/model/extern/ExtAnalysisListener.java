@@ -0,0 +1,14 @@
+package model.extern;
+
+/**
+ * Listener of a running analysis (see ChessGame.analyze), which receives the result of each completed depth.
+ * It is called on a thread of the engine, but never blocks the search.
+ */
+public interface ExtAnalysisListener {
+
+    /**
+     * Called with the best moves and their lines (see ExtSearchResult.getPrincipalVariations) of the completed depth.
+     */
+    void depthCompleted(ExtSearchResult result);
+
+}
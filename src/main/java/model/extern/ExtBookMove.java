@@ -0,0 +1,43 @@
+package model.extern;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+
+/**
+ * A move of the opening book for the current position, which can be executed with ChessGame.executeMove.
+ * The weights of the moves of a position are relative to each other.
+ */
+public class ExtBookMove {
+
+    private final Coordinates source;
+    private final Coordinates target;
+    private final EnumChessPiece promotionPiece;
+    private final int weight;
+
+    ExtBookMove(Coordinates source, Coordinates target, EnumChessPiece promotionPiece, int weight) {
+        this.source = source;
+        this.target = target;
+        this.promotionPiece = promotionPiece;
+        this.weight = weight;
+    }
+
+    public Coordinates getSource() {
+        return this.source;
+    }
+
+    public Coordinates getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Returns the piece a pawn is promoted to, or null if the move is no promotion.
+     */
+    public EnumChessPiece getPromotionPiece() {
+        return this.promotionPiece;
+    }
+
+    public int getWeight() {
+        return this.weight;
+    }
+
+}
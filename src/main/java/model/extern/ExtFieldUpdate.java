@@ -6,6 +6,7 @@ import model.common.EnumChessPiece;
 
 /**
  * Information about an update of a field regarding its piece.
+ * If the field has been emptied, the piece type and the piece color are null.
  */
 public class ExtFieldUpdate {
 
@@ -0,0 +1,36 @@
+package model.extern;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+
+/**
+ * A move of a line of play, given by its source and target field.
+ */
+public class ExtMove {
+
+    private final Coordinates source;
+    private final Coordinates target;
+    private final EnumChessPiece promotionPiece;
+
+    ExtMove(Coordinates source, Coordinates target, EnumChessPiece promotionPiece) {
+        this.source = source;
+        this.target = target;
+        this.promotionPiece = promotionPiece;
+    }
+
+    public Coordinates getSource() {
+        return this.source;
+    }
+
+    public Coordinates getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Returns the piece a pawn is promoted to, or null if the move is no promotion.
+     */
+    public EnumChessPiece getPromotionPiece() {
+        return this.promotionPiece;
+    }
+
+}
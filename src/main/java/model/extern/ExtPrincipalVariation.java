@@ -0,0 +1,32 @@
+package model.extern;
+
+import java.util.List;
+
+/**
+ * One of the best moves of an analysis with its score and the expected line of play, which starts with that move.
+ */
+public class ExtPrincipalVariation {
+
+    private final int score;
+    private final List<ExtMove> moves;
+
+    ExtPrincipalVariation(int score, List<ExtMove> moves) {
+        this.score = score;
+        this.moves = moves;
+    }
+
+    /**
+     * Returns the score of the line in centipawns from the point of view of the active player.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Returns the moves of the line, starting with a move of the active player.
+     */
+    public List<ExtMove> getMoves() {
+        return this.moves;
+    }
+
+}
@@ -0,0 +1,117 @@
+package model.extern;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Limits of an analysis (see ChessGame.analyze): maximum depth, maximum number of nodes, a wall-clock deadline
+ * and the clock of the player to move, from which the time for the move is allocated.
+ * Limits can be combined with the with-methods; the analysis ends when the first limit is reached.
+ * withMultiPv sets the number of best moves, which are analyzed with their lines (1 by default).
+ * Without any limit, the analysis runs until it is stopped.
+ */
+public class ExtSearchLimits {
+
+    private final Integer depth;
+    private final Long nodes;
+    private final Instant deadline;
+    private final Duration remainingTime;
+    private final Duration increment;
+    private final Integer multiPv;
+
+    private ExtSearchLimits(Integer depth, Long nodes, Instant deadline, Duration remainingTime, Duration increment, Integer multiPv) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.deadline = deadline;
+        this.remainingTime = remainingTime;
+        this.increment = increment;
+        this.multiPv = multiPv;
+    }
+
+    /**
+     * Returns limits for an analysis, which runs until it is stopped.
+     */
+    public static ExtSearchLimits infinite() {
+        return new ExtSearchLimits(null, null, null, null, null, null);
+    }
+
+    public static ExtSearchLimits depth(int depth) {
+        return infinite().withDepth(depth);
+    }
+
+    public static ExtSearchLimits nodes(long nodes) {
+        return infinite().withNodes(nodes);
+    }
+
+    public static ExtSearchLimits deadline(Instant deadline) {
+        return infinite().withDeadline(deadline);
+    }
+
+    /**
+     * Returns limits for an analysis, whose time is allocated from the given remaining time on the clock
+     * of the player to move and the increment per move.
+     */
+    public static ExtSearchLimits clock(Duration remainingTime, Duration increment) {
+        return infinite().withClock(remainingTime, increment);
+    }
+
+    public ExtSearchLimits withDepth(int depth) {
+        return new ExtSearchLimits(depth, this.nodes, this.deadline, this.remainingTime, this.increment, this.multiPv);
+    }
+
+    public ExtSearchLimits withNodes(long nodes) {
+        return new ExtSearchLimits(this.depth, nodes, this.deadline, this.remainingTime, this.increment, this.multiPv);
+    }
+
+    public ExtSearchLimits withDeadline(Instant deadline) {
+        return new ExtSearchLimits(this.depth, this.nodes, deadline, this.remainingTime, this.increment, this.multiPv);
+    }
+
+    public ExtSearchLimits withClock(Duration remainingTime, Duration increment) {
+        return new ExtSearchLimits(this.depth, this.nodes, this.deadline, remainingTime, increment, this.multiPv);
+    }
+
+    public ExtSearchLimits withMultiPv(int multiPv) {
+        return new ExtSearchLimits(this.depth, this.nodes, this.deadline, this.remainingTime, this.increment, multiPv);
+    }
+
+    /**
+     * Returns the maximum depth in plies, or null if the depth is not limited.
+     */
+    public Integer getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Returns the maximum number of nodes, or null if the nodes are not limited.
+     */
+    public Long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Returns the point in time, when the analysis has to be finished, or null if there is no deadline.
+     */
+    public Instant getDeadline() {
+        return this.deadline;
+    }
+
+    /**
+     * Returns the remaining time on the clock of the player to move, or null if there is no clock.
+     */
+    public Duration getRemainingTime() {
+        return this.remainingTime;
+    }
+
+    public Duration getIncrement() {
+        return this.increment;
+    }
+
+    /**
+     * Returns the number of best moves, which are analyzed with their lines, or null for only the best move.
+     */
+    public Integer getMultiPv() {
+        return this.multiPv;
+    }
+
+}
@@ -0,0 +1,85 @@
+package model.extern;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+
+import java.util.List;
+
+/**
+ * Result of a search for the best move of the current position.
+ */
+public class ExtSearchResult {
+
+    private final Coordinates source;
+    private final Coordinates target;
+    private final EnumChessPiece promotionPiece;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nodesPerSecond;
+    private final List<ExtPrincipalVariation> principalVariations;
+
+    ExtSearchResult(Coordinates source, Coordinates target, EnumChessPiece promotionPiece,
+                    int score, int depth, long nodes, long nodesPerSecond, List<ExtPrincipalVariation> principalVariations) {
+        this.source = source;
+        this.target = target;
+        this.promotionPiece = promotionPiece;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nodesPerSecond = nodesPerSecond;
+        this.principalVariations = principalVariations;
+    }
+
+    /**
+     * Returns the source field of the best move, or null if the active player has no legal move.
+     */
+    public Coordinates getSource() {
+        return this.source;
+    }
+
+    /**
+     * Returns the target field of the best move, or null if the active player has no legal move.
+     */
+    public Coordinates getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Returns the piece a pawn is promoted to by the best move, or null if it is no promotion.
+     */
+    public EnumChessPiece getPromotionPiece() {
+        return this.promotionPiece;
+    }
+
+    /**
+     * Returns the score of the best move in centipawns from the point of view of the active player.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Returns the depth (in plies) of the deepest completed search iteration.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getNodesPerSecond() {
+        return this.nodesPerSecond;
+    }
+
+    /**
+     * Returns the best moves with their lines, the best first: as many as requested by ExtSearchLimits.withMultiPv
+     * (or fewer, if there are not as many legal moves).
+     */
+    public List<ExtPrincipalVariation> getPrincipalVariations() {
+        return this.principalVariations;
+    }
+
+}
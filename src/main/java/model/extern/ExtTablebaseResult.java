@@ -0,0 +1,29 @@
+package model.extern;
+
+import model.common.EnumTablebaseResult;
+
+/**
+ * Result of the current position according to the endgame tablebases, for the player to move.
+ */
+public class ExtTablebaseResult {
+
+    private final EnumTablebaseResult result;
+    private final int distanceToMate;
+
+    ExtTablebaseResult(EnumTablebaseResult result, int distanceToMate) {
+        this.result = result;
+        this.distanceToMate = distanceToMate;
+    }
+
+    public EnumTablebaseResult getResult() {
+        return this.result;
+    }
+
+    /**
+     * Returns the number of plies until the player to move mates (win) or is mated (loss) with best play, 0 for a draw.
+     */
+    public int getDistanceToMate() {
+        return this.distanceToMate;
+    }
+
+}
@@ -0,0 +1,144 @@
+package model.intern.archive;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.Move;
+import model.intern.chesspieces.Pawn;
+import model.intern.exceptions.ExcInvalidFen;
+import model.intern.exceptions.ExcInvalidMove;
+import model.intern.pgn.PgnGame;
+import model.intern.pgn.PgnMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A game as stored in a game archive: its tag pairs, the starting position and the moves with 16 bits each.
+ */
+public class ArchivedGame {
+
+    private final Map<String, String> tags;
+    private final String startingFen;
+    private final char[] moves;
+
+    ArchivedGame(Map<String, String> tags, String startingFen, char[] moves) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.startingFen = startingFen;
+        this.moves = moves;
+    }
+
+    /**
+     * Returns the game on the given chess board from its starting position on.
+     */
+    public static ArchivedGame of(ChessBoard board, Map<String, String> tags) {
+        List<Move> history = board.getMoveHistory();
+        char[] moves = new char[history.size()];
+        for (int i = 0; i < moves.length; i++) {
+            Move move = history.get(i);
+            int target = move.getFieldTarget().getSquare();
+            // A move only turns out to be a promotion when a pawn reaches the last rank.
+            boolean promotion = move.getPieceSource() instanceof Pawn && (target >>> 3 == 0 || target >>> 3 == 7);
+            moves[i] = GameArchiveFormat.encodeMove(move.getFieldSource().getSquare(), target,
+                    promotion ? move.getPromotionPiece() : null);
+        }
+        return new ArchivedGame(new LinkedHashMap<>(tags), toStoredFen(board.getStartingFen()), moves);
+    }
+
+    /**
+     * Returns the given game of a PGN file with its tag pairs.
+     */
+    public static ArchivedGame of(PgnGame game) {
+        List<PgnMove> pgnMoves = game.getMoves();
+        char[] moves = new char[pgnMoves.size()];
+        for (int i = 0; i < moves.length; i++) {
+            PgnMove move = pgnMoves.get(i);
+            moves[i] = GameArchiveFormat.encodeMove(BitBoard.toSquare(move.getSource()), BitBoard.toSquare(move.getTarget()),
+                    move.getPromotionPiece());
+        }
+        return new ArchivedGame(new LinkedHashMap<>(game.getTags()), toStoredFen(game.getStartingFen()), moves);
+    }
+
+    private static String toStoredFen(String fen) {
+        return ChessBoard.STARTING_FEN.equals(fen) ? null : fen;
+    }
+
+    /**
+     * Sets up the starting position on the given chess board and executes all moves.
+     * @throws ExcInvalidFen The starting position is invalid.
+     * @throws ExcInvalidMove A move is not allowed. The board stays at the position before this move.
+     */
+    public void replay(ChessBoard board) throws ExcInvalidFen, ExcInvalidMove {
+        board.loadFen(this.startingFen == null ? ChessBoard.STARTING_FEN : this.startingFen);
+        for (int i = 0; i < this.moves.length; i++) {
+            EnumChessPiece promotionPiece = getPromotionPiece(i);
+            board.executeMove(getSource(i), getTarget(i), promotionPiece == null ? EnumChessPiece.QUEEN : promotionPiece);
+        }
+    }
+
+    /**
+     * Returns the tag pairs (e.g. "White", "Event") in their original order.
+     */
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    public String getTag(String name) {
+        return this.tags.get(name);
+    }
+
+    /**
+     * Returns the FEN of the starting position, or null if the game starts from the usual starting position.
+     */
+    public String getStartingFen() {
+        return this.startingFen;
+    }
+
+    public int getNumberOfMoves() {
+        return this.moves.length;
+    }
+
+    public Coordinates getSource(int index) {
+        return BitBoard.toCoordinates(GameArchiveFormat.getFrom(this.moves[index]));
+    }
+
+    public Coordinates getTarget(int index) {
+        return BitBoard.toCoordinates(GameArchiveFormat.getTo(this.moves[index]));
+    }
+
+    /**
+     * Returns the piece a pawn is promoted to by the move with the given index, or null if the move is no promotion.
+     */
+    public EnumChessPiece getPromotionPiece(int index) {
+        return GameArchiveFormat.getPromotionPiece(this.moves[index]);
+    }
+
+    char[] getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Returns the game decoded from a game record (without record type and length).
+     */
+    static ArchivedGame decode(ByteBuffer record) throws IOException {
+        int numberOfTags = GameArchiveFormat.readLength(record);
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = 0; i < numberOfTags; i++) {
+            tags.put(GameArchiveFormat.readString(record), GameArchiveFormat.readString(record));
+        }
+        String startingFen = GameArchiveFormat.readString(record);
+        int numberOfMoves = (int) GameArchiveFormat.readVarint(record);
+        if (numberOfMoves * 2L != record.remaining()) {
+            throw new IOException("Invalid number of moves: " + numberOfMoves);
+        }
+        char[] moves = new char[numberOfMoves];
+        record.asCharBuffer().get(moves);
+        return new ArchivedGame(tags, startingFen.isEmpty() ? null : startingFen, moves);
+    }
+
+}
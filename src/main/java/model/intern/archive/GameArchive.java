@@ -0,0 +1,108 @@
+package model.intern.archive;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to the games of a game archive file. The offsets of the games are read from the footer when the
+ * archive is opened; a game is read with a single positional read, so several threads may read games at once.
+ */
+public class GameArchive implements Closeable {
+
+    private final FileChannel channel;
+    private final long[] offsets;
+
+    private GameArchive(FileChannel channel, long[] offsets) {
+        this.channel = channel;
+        this.offsets = offsets;
+    }
+
+    public static GameArchive open(Path archiveFile) throws IOException {
+        FileChannel channel = FileChannel.open(archiveFile, StandardOpenOption.READ);
+        try {
+            return new GameArchive(channel, readOffsets(channel));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the offsets of all games and, as the last one, the offset of the footer.
+     */
+    static long[] readOffsets(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < GameArchiveFormat.HEADER_SIZE + 1 + GameArchiveFormat.TRAILER_SIZE) {
+            throw new IOException("The file is too small for a game archive");
+        }
+        ByteBuffer header = read(channel, 0, GameArchiveFormat.HEADER_SIZE);
+        ByteBuffer trailer = read(channel, size - GameArchiveFormat.TRAILER_SIZE, GameArchiveFormat.TRAILER_SIZE);
+        long footerOffset = trailer.getLong();
+        if (header.getInt() != GameArchiveFormat.MAGIC || trailer.getInt() != GameArchiveFormat.MAGIC
+                || footerOffset < GameArchiveFormat.HEADER_SIZE || footerOffset >= size - GameArchiveFormat.TRAILER_SIZE
+                || size - GameArchiveFormat.TRAILER_SIZE - footerOffset > Integer.MAX_VALUE) {
+            throw new IOException("The file is no complete game archive");
+        }
+
+        ByteBuffer footer = read(channel, footerOffset, (int) (size - GameArchiveFormat.TRAILER_SIZE - footerOffset));
+        if (footer.get() != GameArchiveFormat.RECORD_FOOTER) {
+            throw new IOException("Invalid footer");
+        }
+        // Every offset takes at least one byte.
+        int numberOfGames = GameArchiveFormat.readLength(footer);
+        long[] offsets = new long[numberOfGames + 1];
+        long offset = 0;
+        for (int i = 0; i < numberOfGames; i++) {
+            offset += GameArchiveFormat.readVarint(footer);
+            if (offset >= footerOffset || i > 0 && offset <= offsets[i - 1]) {
+                throw new IOException("Invalid offset of game " + i);
+            }
+            offsets[i] = offset;
+        }
+        offsets[numberOfGames] = footerOffset;
+        return offsets;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of the game archive");
+            }
+        }
+        return buffer.flip();
+    }
+
+    public int getNumberOfGames() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * Returns the game with the given index (in the order of writing).
+     */
+    public ArchivedGame readGame(int index) throws IOException {
+        if (index < 0 || index >= getNumberOfGames()) {
+            throw new IndexOutOfBoundsException("No game " + index + " in an archive of " + getNumberOfGames() + " games");
+        }
+        long length = this.offsets[index + 1] - this.offsets[index];
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Invalid length of game " + index);
+        }
+        ByteBuffer record = read(this.channel, this.offsets[index], (int) length);
+        if (record.get() != GameArchiveFormat.RECORD_GAME || GameArchiveFormat.readLength(record) != record.remaining()) {
+            throw new IOException("Invalid record of game " + index);
+        }
+        return ArchivedGame.decode(record);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
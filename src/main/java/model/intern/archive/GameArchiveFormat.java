@@ -0,0 +1,128 @@
+package model.intern.archive;
+
+import model.common.EnumChessPiece;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The binary format of a game archive:
+ *
+ * - Magic number (4 bytes)
+ * - One record per game: RECORD_GAME, the length of the rest of the record (varint), the number of tag pairs (varint)
+ *   with their names and values, the starting FEN (empty for the usual starting position), the number of moves (varint)
+ *   and the moves with 16 bits each (see encodeMove).
+ * - Footer: RECORD_FOOTER, the number of games (varint) and the offsets of their records in the file,
+ *   each as the difference to the previous one (varint).
+ * - Trailer: the offset of the footer (8 bytes) and the magic number again (4 bytes).
+ *
+ * Strings are stored as their length in bytes (varint) and their UTF-8 bytes. Fixed-size numbers are big-endian.
+ * A varint stores 7 bits per byte, starting with the lowest ones; the highest bit tells whether another byte follows.
+ */
+final class GameArchiveFormat {
+
+    static final int MAGIC = 0x43484741; // "CHGA"
+    static final byte RECORD_FOOTER = 0;
+    static final byte RECORD_GAME = 1;
+    static final int HEADER_SIZE = Integer.BYTES;
+    static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private static final EnumChessPiece[] PROMOTION_PIECES = {null, EnumChessPiece.KNIGHT, EnumChessPiece.BISHOP,
+            EnumChessPiece.ROOK, EnumChessPiece.QUEEN};
+
+    private GameArchiveFormat() {}
+
+    /**
+     * Returns the 16 bits of a move: source square (bits 0-5), target square (bits 6-11) and
+     * promotion piece (bits 12-14: none, knight, bishop, rook, queen).
+     */
+    static char encodeMove(int from, int to, EnumChessPiece promotionPiece) {
+        int promotion = 0;
+        for (int i = 1; i < PROMOTION_PIECES.length; i++) {
+            if (PROMOTION_PIECES[i] == promotionPiece) {
+                promotion = i;
+            }
+        }
+        return (char) (from | to << 6 | promotion << 12);
+    }
+
+    static int getFrom(char move) {
+        return move & 0x3F;
+    }
+
+    static int getTo(char move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    static EnumChessPiece getPromotionPiece(char move) {
+        int promotion = (move >>> 12) & 0x7;
+        return promotion < PROMOTION_PIECES.length ? PROMOTION_PIECES[promotion] : null;
+    }
+
+    static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarint(ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new EOFException("Varint at the end of the data");
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Varint at the end of the data");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) throws IOException {
+        int length = readLength(buffer);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a varint which counts something in the rest of the buffer and must therefore not exceed its size.
+     */
+    static int readLength(ByteBuffer buffer) throws IOException {
+        long length = readVarint(buffer);
+        if (length > buffer.remaining()) {
+            throw new IOException("Invalid length " + length + " with " + buffer.remaining() + " bytes left");
+        }
+        return (int) length;
+    }
+
+}
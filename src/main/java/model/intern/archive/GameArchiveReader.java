@@ -0,0 +1,61 @@
+package model.intern.archive;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads the games of a game archive one after the other from a stream, without the footer
+ * (see GameArchive for random access).
+ */
+public class GameArchiveReader implements Closeable {
+
+    private final DataInputStream in;
+    private boolean footerReached;
+
+    public GameArchiveReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        if (this.in.readInt() != GameArchiveFormat.MAGIC) {
+            throw new IOException("The stream is no game archive");
+        }
+    }
+
+    public static GameArchiveReader open(Path archiveFile) throws IOException {
+        return new GameArchiveReader(Files.newInputStream(archiveFile));
+    }
+
+    /**
+     * Returns the next game, or null after the last one.
+     */
+    public ArchivedGame readGame() throws IOException {
+        if (this.footerReached) {
+            return null;
+        }
+        byte recordType = this.in.readByte();
+        if (recordType == GameArchiveFormat.RECORD_FOOTER) {
+            this.footerReached = true;
+            return null;
+        }
+        if (recordType != GameArchiveFormat.RECORD_GAME) {
+            throw new IOException("Invalid record type: " + recordType);
+        }
+        long length = GameArchiveFormat.readVarint(this.in);
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Invalid record length: " + length);
+        }
+        byte[] record = new byte[(int) length];
+        this.in.readFully(record);
+        return ArchivedGame.decode(ByteBuffer.wrap(record));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+}
@@ -0,0 +1,136 @@
+package model.intern.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Writes games one after the other into a game archive (see GameArchiveFormat).
+ * Only the offsets of the games are kept in memory; they are written as the footer when the writer is closed.
+ */
+public class GameArchiveWriter implements Closeable {
+
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream record;
+    private long[] offsets;
+    private int numberOfGames;
+    private long position;
+
+    public GameArchiveWriter(OutputStream out) throws IOException {
+        this(out, new long[1024], 0, GameArchiveFormat.HEADER_SIZE);
+        this.out.writeInt(GameArchiveFormat.MAGIC);
+    }
+
+    private GameArchiveWriter(OutputStream out, long[] offsets, int numberOfGames, long position) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        this.record = new ByteArrayOutputStream();
+        this.offsets = offsets;
+        this.numberOfGames = numberOfGames;
+        this.position = position;
+    }
+
+    /**
+     * Creates (or replaces) the given archive file.
+     */
+    public static GameArchiveWriter create(Path archiveFile) throws IOException {
+        return new GameArchiveWriter(Files.newOutputStream(archiveFile));
+    }
+
+    /**
+     * Opens the given archive file to append games, or creates it if it does not exist.
+     * The games are written over the old footer, so the archive is incomplete until the writer is closed.
+     * @throws IOException The file cannot be written or is no complete game archive.
+     */
+    public static GameArchiveWriter append(Path archiveFile) throws IOException {
+        if (!Files.exists(archiveFile)) {
+            return create(archiveFile);
+        }
+        FileChannel channel = FileChannel.open(archiveFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // The last offset is the one of the footer.
+            long[] offsets = GameArchive.readOffsets(channel);
+            int numberOfGames = offsets.length - 1;
+            long footerOffset = offsets[numberOfGames];
+            channel.truncate(footerOffset);
+            channel.position(footerOffset);
+            return new GameArchiveWriter(Channels.newOutputStream(channel),
+                    Arrays.copyOf(offsets, Math.max(1024, offsets.length)), numberOfGames, footerOffset);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the given game and returns its index in the archive.
+     */
+    public int write(ArchivedGame game) throws IOException {
+        this.record.reset();
+        Map<String, String> tags = game.getTags();
+        GameArchiveFormat.writeVarint(this.record, tags.size());
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            GameArchiveFormat.writeString(this.record, tag.getKey());
+            GameArchiveFormat.writeString(this.record, tag.getValue());
+        }
+        GameArchiveFormat.writeString(this.record, game.getStartingFen() == null ? "" : game.getStartingFen());
+        char[] moves = game.getMoves();
+        GameArchiveFormat.writeVarint(this.record, moves.length);
+        for (char move : moves) {
+            this.record.write(move >>> 8);
+            this.record.write(move);
+        }
+
+        if (this.numberOfGames == this.offsets.length) {
+            this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+        }
+        this.offsets[this.numberOfGames] = this.position;
+        this.out.writeByte(GameArchiveFormat.RECORD_GAME);
+        GameArchiveFormat.writeVarint(this.out, this.record.size());
+        this.record.writeTo(this.out);
+        // The size of the stream counts with an int only, so the position is tracked separately.
+        this.position += 1 + varintSize(this.record.size()) + this.record.size();
+        return this.numberOfGames++;
+    }
+
+    public int getNumberOfGames() {
+        return this.numberOfGames;
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Writes the footer with the offsets of all games and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        long footerOffset = this.position;
+        this.out.writeByte(GameArchiveFormat.RECORD_FOOTER);
+        GameArchiveFormat.writeVarint(this.out, this.numberOfGames);
+        long previousOffset = 0;
+        for (int i = 0; i < this.numberOfGames; i++) {
+            GameArchiveFormat.writeVarint(this.out, this.offsets[i] - previousOffset);
+            previousOffset = this.offsets[i];
+        }
+        this.out.writeLong(footerOffset);
+        this.out.writeInt(GameArchiveFormat.MAGIC);
+        this.out.close();
+    }
+
+}
@@ -0,0 +1,142 @@
+package model.intern.archive;
+
+import model.intern.chessboard.ChessBoard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Index of the positions of the games of a game archive (see PositionIndexBuilder), which is mapped into memory.
+ * It finds the games which reached a position by the Zobrist key of the position.
+ *
+ * The file consists of:
+ * - Magic number (4 bytes)
+ * - Blocks of up to BLOCK_SIZE keys in ascending (unsigned) order. Each key is stored as the difference to the previous
+ *   key of its block (varint; 0 for the first one) with the number of its games (varint), the length of its postings
+ *   in bytes (varint) and the postings: the ascending game ids as differences to the previous id (varint).
+ * - Directory: the first key (8 bytes) and the offset (4 bytes) of every block.
+ * - Trailer: offset of the directory, number of blocks (4 bytes each), number of keys (8 bytes), magic number (4 bytes).
+ *
+ * A lookup searches the directory binary, scans a single block and skips the postings of the other keys,
+ * so only the postings of the wanted key are decoded, and only while they are iterated.
+ */
+public class PositionIndex {
+
+    static final int MAGIC = 0x43485049; // "CHPI"
+    static final int BLOCK_SIZE = 64;
+    static final int DIRECTORY_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    static final int TRAILER_SIZE = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final ByteBuffer index;
+    private final int directoryOffset;
+    private final int numberOfBlocks;
+    private final long numberOfKeys;
+
+    private PositionIndex(ByteBuffer index, int directoryOffset, int numberOfBlocks, long numberOfKeys) {
+        this.index = index;
+        this.directoryOffset = directoryOffset;
+        this.numberOfBlocks = numberOfBlocks;
+        this.numberOfKeys = numberOfKeys;
+    }
+
+    /**
+     * Maps the given index file into memory. The file stays mapped as long as the index is referenced.
+     */
+    public static PositionIndex open(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The position index is too large to be mapped: " + indexFile);
+            }
+            if (size < Integer.BYTES + TRAILER_SIZE) {
+                throw new IOException("The file is no position index: " + indexFile);
+            }
+            // The mapping stays valid after the channel has been closed.
+            ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int trailer = (int) size - TRAILER_SIZE;
+            int directoryOffset = index.getInt(trailer);
+            int numberOfBlocks = index.getInt(trailer + Integer.BYTES);
+            long numberOfKeys = index.getLong(trailer + 2 * Integer.BYTES);
+            if (index.getInt(0) != MAGIC || index.getInt(trailer + 2 * Integer.BYTES + Long.BYTES) != MAGIC
+                    || directoryOffset < Integer.BYTES || numberOfBlocks < 0
+                    || (long) directoryOffset + (long) numberOfBlocks * DIRECTORY_ENTRY_SIZE != trailer) {
+                throw new IOException("The file is no complete position index: " + indexFile);
+            }
+            return new PositionIndex(index, directoryOffset, numberOfBlocks, numberOfKeys);
+        }
+    }
+
+    /**
+     * Returns the games which reached the current position of the given chess board.
+     */
+    public PositionPostings find(ChessBoard board) {
+        return find(board.getZobristKey());
+    }
+
+    /**
+     * Returns the games which reached the position with the given Zobrist key (empty if there is none).
+     */
+    public PositionPostings find(long zobristKey) {
+        int block = findBlock(zobristKey);
+        if (block < 0) {
+            return PositionPostings.EMPTY;
+        }
+        ByteBuffer buffer = this.index.duplicate();
+        int end = block + 1 < this.numberOfBlocks ? getBlockOffset(block + 1) : this.directoryOffset;
+        buffer.position(getBlockOffset(block)).limit(end);
+        long key = getFirstKey(block);
+        try {
+            while (buffer.hasRemaining()) {
+                key += GameArchiveFormat.readVarint(buffer);
+                int numberOfGames = (int) GameArchiveFormat.readVarint(buffer);
+                int length = (int) GameArchiveFormat.readVarint(buffer);
+                if (key == zobristKey) {
+                    return new PositionPostings(buffer.slice(buffer.position(), length), numberOfGames);
+                }
+                if (Long.compareUnsigned(key, zobristKey) > 0) {
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("The position index is corrupt in block " + block, e);
+        }
+        return PositionPostings.EMPTY;
+    }
+
+    /**
+     * Returns the last block whose first key is not greater than the given key, or -1 if there is none.
+     */
+    private int findBlock(long key) {
+        int low = 0;
+        int high = this.numberOfBlocks - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(getFirstKey(middle), key) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private long getFirstKey(int block) {
+        return this.index.getLong(this.directoryOffset + block * DIRECTORY_ENTRY_SIZE);
+    }
+
+    private int getBlockOffset(int block) {
+        return this.index.getInt(this.directoryOffset + block * DIRECTORY_ENTRY_SIZE + Long.BYTES);
+    }
+
+    /**
+     * Returns the number of different positions in the index.
+     */
+    public long getNumberOfKeys() {
+        return this.numberOfKeys;
+    }
+
+}
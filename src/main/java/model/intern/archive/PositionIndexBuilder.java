@@ -0,0 +1,407 @@
+package model.intern.archive;
+
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidFen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Builds a position index (see PositionIndex) from the games of a game archive.
+ * Every game is replayed on a bitboard and the Zobrist key of each of its positions (including the starting position)
+ * is recorded with the id of the game.
+ *
+ * The pairs of key and game id are collected in memory up to a limit. Then they are sorted by a radix sort
+ * and written into a temporary run file. Writing the index merges the runs, so the index can be larger than the memory.
+ */
+public class PositionIndexBuilder {
+
+    static final int DEFAULT_PAIRS_IN_MEMORY = 1 << 22;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int RADIX_BITS = 8;
+
+    private final Path temporaryDirectory;
+    private final ChessBoard board;
+    private final int[] moveBuffer;
+    private final long[] keys;
+    private final int[] gameIds;
+    private int numberOfPairs;
+    private int lastGameId;
+    private final List<Path> runs;
+
+    /**
+     * @param temporaryDirectory Directory for the temporary run files
+     */
+    public PositionIndexBuilder(Path temporaryDirectory) {
+        this(temporaryDirectory, DEFAULT_PAIRS_IN_MEMORY);
+    }
+
+    PositionIndexBuilder(Path temporaryDirectory, int maxPairsInMemory) {
+        this.temporaryDirectory = temporaryDirectory;
+        this.board = new ChessBoard();
+        this.moveBuffer = new int[MoveGenerator.MAX_MOVES];
+        this.keys = new long[maxPairsInMemory];
+        this.gameIds = new int[maxPairsInMemory];
+        this.lastGameId = -1;
+        this.runs = new ArrayList<>();
+    }
+
+    /**
+     * Builds the index of all games of the given archive, whose ids are their indexes in the archive.
+     */
+    public static void build(GameArchive archive, Path indexFile) throws IOException {
+        PositionIndexBuilder builder = new PositionIndexBuilder(indexFile.toAbsolutePath().getParent());
+        for (int i = 0; i < archive.getNumberOfGames(); i++) {
+            builder.addGame(i, archive.readGame(i));
+        }
+        builder.write(indexFile);
+    }
+
+    /**
+     * Records the positions of the given game. The game ids have to be ascending.
+     * A game is replayed up to its first illegal move (and at most BitBoard.MAX_PLY moves).
+     * @return Whether all moves of the game have been replayed
+     */
+    public boolean addGame(int gameId, ArchivedGame game) throws IOException {
+        if (gameId <= this.lastGameId) {
+            throw new IllegalArgumentException("Game " + gameId + " is added after game " + this.lastGameId);
+        }
+        this.lastGameId = gameId;
+        try {
+            this.board.loadFen(game.getStartingFen() == null ? ChessBoard.STARTING_FEN : game.getStartingFen());
+        } catch (ExcInvalidFen e) {
+            return false;
+        }
+        BitBoard bitBoard = new BitBoard(this.board.getBitBoard());
+        addPair(bitBoard.getZobristKey(), gameId);
+
+        char[] moves = game.getMoves();
+        for (int i = 0; i < moves.length; i++) {
+            int move = findMove(bitBoard, moves[i]);
+            if (move == MoveEncoding.NO_MOVE || i == BitBoard.MAX_PLY) {
+                return false;
+            }
+            bitBoard.makeMove(move);
+            addPair(bitBoard.getZobristKey(), gameId);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the legal move of the given bitboard which matches the given archived move, or NO_MOVE.
+     */
+    private int findMove(BitBoard bitBoard, char archivedMove) {
+        int to = GameArchiveFormat.getTo(archivedMove);
+        EnumChessPiece promotionPiece = GameArchiveFormat.getPromotionPiece(archivedMove);
+        int numberOfMoves = MoveGenerator.generateMoves(bitBoard, bitBoard.getActiveColor(),
+                1L << GameArchiveFormat.getFrom(archivedMove), this.moveBuffer);
+        for (int i = 0; i < numberOfMoves; i++) {
+            int move = this.moveBuffer[i];
+            if (MoveEncoding.getTo(move) == to && MoveEncoding.getPromotionPiece(move) == promotionPiece) {
+                return move;
+            }
+        }
+        return MoveEncoding.NO_MOVE;
+    }
+
+    private void addPair(long key, int gameId) throws IOException {
+        if (this.numberOfPairs == this.keys.length) {
+            writeRun();
+        }
+        this.keys[this.numberOfPairs] = key;
+        this.gameIds[this.numberOfPairs++] = gameId;
+    }
+
+    /**
+     * Sorts the pairs in memory and writes them into a new run file.
+     */
+    private void writeRun() throws IOException {
+        sortPairs();
+        Path run = Files.createTempFile(this.temporaryDirectory, "positions", ".run");
+        this.runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE))) {
+            for (int i = 0; i < this.numberOfPairs; i++) {
+                out.writeLong(this.keys[i]);
+                out.writeInt(this.gameIds[i]);
+            }
+        }
+        this.numberOfPairs = 0;
+    }
+
+    /**
+     * Sorts the pairs in memory by their keys (unsigned) with a least significant digit radix sort.
+     * It is stable, so the game ids of a key stay ascending.
+     */
+    private void sortPairs() {
+        int n = this.numberOfPairs;
+        long[] sourceKeys = this.keys;
+        int[] sourceGameIds = this.gameIds;
+        long[] targetKeys = new long[n];
+        int[] targetGameIds = new int[n];
+        int[] counts = new int[(1 << RADIX_BITS) + 1];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) ((sourceKeys[i] >>> shift) & 0xFF) + 1]++;
+            }
+            for (int i = 1; i < counts.length; i++) {
+                counts[i] += counts[i - 1];
+            }
+            for (int i = 0; i < n; i++) {
+                int target = counts[(int) ((sourceKeys[i] >>> shift) & 0xFF)]++;
+                targetKeys[target] = sourceKeys[i];
+                targetGameIds[target] = sourceGameIds[i];
+            }
+            long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            int[] swapGameIds = sourceGameIds;
+            sourceGameIds = targetGameIds;
+            targetGameIds = swapGameIds;
+        }
+        // After an even number of passes, the sorted pairs are in the original arrays again.
+    }
+
+    /**
+     * Writes the index of all added games into the given file and deletes the temporary run files.
+     */
+    public void write(Path indexFile) throws IOException {
+        List<Cursor> cursors = new ArrayList<>();
+        try {
+            if (this.runs.isEmpty()) {
+                sortPairs();
+                cursors.add(new MemoryCursor(this.numberOfPairs));
+            } else {
+                if (this.numberOfPairs > 0) {
+                    writeRun();
+                }
+                for (Path run : this.runs) {
+                    cursors.add(new RunCursor(run));
+                }
+            }
+            try (IndexWriter writer = new IndexWriter(indexFile)) {
+                merge(cursors, writer);
+            }
+        } finally {
+            for (Cursor cursor : cursors) {
+                cursor.close();
+            }
+            for (Path run : this.runs) {
+                Files.deleteIfExists(run);
+            }
+            this.runs.clear();
+            this.numberOfPairs = 0;
+        }
+    }
+
+    /**
+     * Merges the sorted cursors in the order of key and game id. The game ids of the runs are disjoint and ascending,
+     * so a smaller run index means smaller game ids.
+     */
+    private static void merge(List<Cursor> cursors, IndexWriter writer) throws IOException {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>((a, b) -> {
+            int result = Long.compareUnsigned(a.key, b.key);
+            return result != 0 ? result : Integer.compare(a.gameId, b.gameId);
+        });
+        for (Cursor cursor : cursors) {
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Cursor cursor = queue.poll();
+            writer.add(cursor.key, cursor.gameId);
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * A sorted sequence of pairs, positioned on its current pair.
+     */
+    private abstract static class Cursor {
+
+        long key;
+        int gameId;
+
+        abstract boolean advance() throws IOException;
+
+        void close() throws IOException {
+        }
+
+    }
+
+    private class MemoryCursor extends Cursor {
+
+        private final int numberOfPairs;
+        private int index;
+
+        MemoryCursor(int numberOfPairs) {
+            this.numberOfPairs = numberOfPairs;
+        }
+
+        @Override
+        boolean advance() {
+            if (this.index == this.numberOfPairs) {
+                return false;
+            }
+            this.key = keys[this.index];
+            this.gameId = gameIds[this.index++];
+            return true;
+        }
+
+    }
+
+    private static class RunCursor extends Cursor {
+
+        private final DataInputStream in;
+
+        RunCursor(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), BUFFER_SIZE));
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            try {
+                this.key = this.in.readLong();
+            } catch (EOFException e) {
+                return false;
+            }
+            this.gameId = this.in.readInt();
+            return true;
+        }
+
+        @Override
+        void close() throws IOException {
+            this.in.close();
+        }
+
+    }
+
+    /**
+     * Writes the sorted pairs as blocks of keys with their postings, followed by the directory of the blocks.
+     */
+    private static class IndexWriter implements AutoCloseable {
+
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream postings;
+        private final ByteArrayOutputStream block;
+        private long[] firstKeys;
+        private int[] blockOffsets;
+        private int numberOfBlocks;
+        private int keysInBlock;
+        private long numberOfKeys;
+        private long position;
+        private long previousKey;
+        private long key;
+        private int numberOfGames;
+        private int lastGameId;
+
+        IndexWriter(Path indexFile) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile), BUFFER_SIZE));
+            this.postings = new ByteArrayOutputStream();
+            this.block = new ByteArrayOutputStream();
+            this.firstKeys = new long[1024];
+            this.blockOffsets = new int[1024];
+            this.out.writeInt(PositionIndex.MAGIC);
+            this.position = Integer.BYTES;
+        }
+
+        void add(long key, int gameId) throws IOException {
+            if (this.numberOfGames > 0 && key == this.key) {
+                // A position which is reached several times in a game is recorded once.
+                if (gameId != this.lastGameId) {
+                    GameArchiveFormat.writeVarint(this.postings, gameId - this.lastGameId);
+                    this.lastGameId = gameId;
+                    this.numberOfGames++;
+                }
+                return;
+            }
+            finishKey();
+            this.key = key;
+            this.lastGameId = gameId;
+            this.numberOfGames = 1;
+            GameArchiveFormat.writeVarint(this.postings, gameId);
+        }
+
+        private void finishKey() throws IOException {
+            if (this.numberOfGames == 0) {
+                return;
+            }
+            if (this.keysInBlock == 0) {
+                startBlock();
+            }
+            GameArchiveFormat.writeVarint(this.block, this.key - this.previousKey);
+            GameArchiveFormat.writeVarint(this.block, this.numberOfGames);
+            GameArchiveFormat.writeVarint(this.block, this.postings.size());
+            this.postings.writeTo(this.block);
+            this.postings.reset();
+            this.previousKey = this.key;
+            this.numberOfKeys++;
+            if (++this.keysInBlock == PositionIndex.BLOCK_SIZE) {
+                finishBlock();
+            }
+        }
+
+        private void startBlock() throws IOException {
+            if (this.position > Integer.MAX_VALUE) {
+                throw new IOException("The position index is too large to be mapped");
+            }
+            if (this.numberOfBlocks == this.firstKeys.length) {
+                this.firstKeys = Arrays.copyOf(this.firstKeys, this.numberOfBlocks * 2);
+                this.blockOffsets = Arrays.copyOf(this.blockOffsets, this.numberOfBlocks * 2);
+            }
+            this.firstKeys[this.numberOfBlocks] = this.key;
+            this.blockOffsets[this.numberOfBlocks++] = (int) this.position;
+            this.previousKey = this.key;
+        }
+
+        private void finishBlock() throws IOException {
+            this.block.writeTo(this.out);
+            this.position += this.block.size();
+            this.block.reset();
+            this.keysInBlock = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                finishKey();
+                finishBlock();
+                long directorySize = (long) this.numberOfBlocks * PositionIndex.DIRECTORY_ENTRY_SIZE;
+                if (this.position + directorySize + PositionIndex.TRAILER_SIZE > Integer.MAX_VALUE) {
+                    throw new IOException("The position index is too large to be mapped");
+                }
+                for (int i = 0; i < this.numberOfBlocks; i++) {
+                    this.out.writeLong(this.firstKeys[i]);
+                    this.out.writeInt(this.blockOffsets[i]);
+                }
+                this.out.writeInt((int) this.position);
+                this.out.writeInt(this.numberOfBlocks);
+                this.out.writeLong(this.numberOfKeys);
+                this.out.writeInt(PositionIndex.MAGIC);
+            } finally {
+                this.out.close();
+            }
+        }
+
+    }
+
+}
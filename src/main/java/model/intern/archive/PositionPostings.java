@@ -0,0 +1,77 @@
+package model.intern.archive;
+
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * The ids of the games (their indexes in the game archive) which reached a position, in ascending order.
+ * The ids are stored as varint differences in the mapped index file and only decoded while they are iterated.
+ */
+public class PositionPostings implements Iterable<Integer> {
+
+    static final PositionPostings EMPTY = new PositionPostings(ByteBuffer.allocate(0), 0);
+
+    private final ByteBuffer postings;
+    private final int numberOfGames;
+
+    PositionPostings(ByteBuffer postings, int numberOfGames) {
+        this.postings = postings;
+        this.numberOfGames = numberOfGames;
+    }
+
+    public int getNumberOfGames() {
+        return this.numberOfGames;
+    }
+
+    public boolean isEmpty() {
+        return this.numberOfGames == 0;
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        ByteBuffer buffer = this.postings.duplicate();
+        return new PrimitiveIterator.OfInt() {
+
+            private int remaining = numberOfGames;
+            private int gameId;
+
+            @Override
+            public boolean hasNext() {
+                return this.remaining > 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (this.remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                this.remaining--;
+                int delta = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = buffer.get();
+                    delta |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                this.gameId += delta;
+                return this.gameId;
+            }
+
+        };
+    }
+
+    /**
+     * Returns all game ids, decoding them at once.
+     */
+    public int[] toArray() {
+        int[] result = new int[this.numberOfGames];
+        PrimitiveIterator.OfInt iterator = iterator();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = iterator.nextInt();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,43 @@
+package model.intern.book;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+
+/**
+ * A move of an opening book with its weight. The weights of the moves of a position are relative to each other:
+ * a move should be played with the probability of its weight divided by the sum of all weights.
+ */
+public class BookMove {
+
+    private final Coordinates source;
+    private final Coordinates target;
+    private final EnumChessPiece promotionPiece;
+    private final int weight;
+
+    BookMove(Coordinates source, Coordinates target, EnumChessPiece promotionPiece, int weight) {
+        this.source = source;
+        this.target = target;
+        this.promotionPiece = promotionPiece;
+        this.weight = weight;
+    }
+
+    public Coordinates getSource() {
+        return this.source;
+    }
+
+    public Coordinates getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Returns the piece a pawn is promoted to, or null if the move is no promotion.
+     */
+    public EnumChessPiece getPromotionPiece() {
+        return this.promotionPiece;
+    }
+
+    public int getWeight() {
+        return this.weight;
+    }
+
+}
@@ -0,0 +1,119 @@
+package model.intern.book;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opening book in the Polyglot format (.bin), which is mapped into memory.
+ * The book is a sequence of 16-byte entries (key, move, weight, learn; big-endian) sorted by the Polyglot key
+ * of their position. The entries of a position are found by binary search directly on the mapped file,
+ * so the book is never copied to the heap and the operating system only loads the pages that are touched.
+ */
+public class PolyglotBook {
+
+    static final int ENTRY_SIZE = 16;
+
+    private static final int OFFSET_MOVE = 8;
+    private static final int OFFSET_WEIGHT = 10;
+    private static final EnumChessPiece[] PROMOTION_PIECES = {null, EnumChessPiece.KNIGHT, EnumChessPiece.BISHOP,
+            EnumChessPiece.ROOK, EnumChessPiece.QUEEN};
+
+    private final ByteBuffer entries;
+    private final int numberOfEntries;
+    private final PolyglotKeys keys;
+
+    private PolyglotBook(ByteBuffer entries, PolyglotKeys keys) {
+        this.entries = entries;
+        this.numberOfEntries = entries.capacity() / ENTRY_SIZE;
+        this.keys = keys;
+    }
+
+    /**
+     * Maps the given book file into memory. The file stays mapped as long as the book is referenced.
+     * @param keys Computes the Polyglot keys of the positions
+     */
+    public static PolyglotBook open(Path bookFile, PolyglotKeys keys) throws IOException {
+        try (FileChannel channel = FileChannel.open(bookFile, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The book is too large to be mapped: " + bookFile);
+            }
+            // The mapping stays valid after the channel has been closed.
+            return new PolyglotBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), keys);
+        }
+    }
+
+    /**
+     * Returns the book moves of the current position of the given chess board (empty if the position is not in the book).
+     */
+    public List<BookMove> findMoves(ChessBoard board) {
+        board.updateBitBoardState();
+        return findMoves(board.getBitBoard());
+    }
+
+    /**
+     * Returns the book moves of the position of the given bitboard, ordered as in the book (usually by weight).
+     */
+    public List<BookMove> findMoves(BitBoard board) {
+        long key = this.keys.computeKey(board);
+        List<BookMove> result = new ArrayList<>();
+        for (int index = findFirstEntry(key); index < this.numberOfEntries && getKey(index) == key; index++) {
+            result.add(createBookMove(board, this.entries.getShort(index * ENTRY_SIZE + OFFSET_MOVE) & 0xFFFF,
+                    this.entries.getShort(index * ENTRY_SIZE + OFFSET_WEIGHT) & 0xFFFF));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the first entry with the given key or a greater one (unsigned comparison).
+     */
+    private int findFirstEntry(long key) {
+        int low = 0;
+        int high = this.numberOfEntries;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(getKey(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long getKey(int index) {
+        return this.entries.getLong(index * ENTRY_SIZE);
+    }
+
+    /**
+     * Decodes a Polyglot move: target file and row in bits 0-5, source file and row in bits 6-11,
+     * promotion piece in bits 12-14. Castling is encoded as the king moving onto its own rook.
+     */
+    private static BookMove createBookMove(BitBoard board, int move, int weight) {
+        int to = BitBoard.toSquare(move & 7, (move >>> 3) & 7);
+        int from = BitBoard.toSquare((move >>> 6) & 7, (move >>> 9) & 7);
+        EnumChessPiece promotionPiece = PROMOTION_PIECES[Math.min((move >>> 12) & 7, PROMOTION_PIECES.length - 1)];
+
+        if (board.getPieceType(from) == EnumChessPiece.KING && board.getColor(to) == board.getColor(from)
+                && board.getPieceType(to) == EnumChessPiece.ROOK) {
+            to = to > from ? from + 2 : from - 2;
+        }
+        Coordinates source = BitBoard.toCoordinates(from);
+        Coordinates target = BitBoard.toCoordinates(to);
+        return new BookMove(source, target, promotionPiece, weight);
+    }
+
+    public int getNumberOfEntries() {
+        return this.numberOfEntries;
+    }
+
+}
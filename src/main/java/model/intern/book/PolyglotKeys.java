@@ -0,0 +1,121 @@
+package model.intern.book;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessmove.AttackTables;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Computes the Polyglot key of a position, by which the entries of a Polyglot opening book are sorted.
+ * Like the Zobrist key of the bitboard, it is the XOR of random numbers for the pieces on their squares,
+ * the castling rights, the en passant file and the side to move. But the 781 random numbers (Random64)
+ * are fixed by the Polyglot format (see PolyglotRandom64), so that the keys match the books of other programs.
+ */
+public class PolyglotKeys {
+
+    public static final int NUMBER_OF_RANDOMS = 781;
+
+    private static final int OFFSET_CASTLING = 768;
+    private static final int OFFSET_EN_PASSANT = 772;
+    private static final int OFFSET_TURN = 780;
+
+    // Order of the piece kinds in the Polyglot format, black before white for each kind.
+    private static final EnumChessPiece[] PIECE_KINDS = {EnumChessPiece.PAWN, EnumChessPiece.KNIGHT,
+            EnumChessPiece.BISHOP, EnumChessPiece.ROOK, EnumChessPiece.QUEEN, EnumChessPiece.KING};
+    private static final int[] CASTLING_RIGHTS = {BitBoard.CASTLING_WHITE_KING_SIDE, BitBoard.CASTLING_WHITE_QUEEN_SIDE,
+            BitBoard.CASTLING_BLACK_KING_SIDE, BitBoard.CASTLING_BLACK_QUEEN_SIDE};
+
+    private final long[] random64;
+
+    /**
+     * @param random64 The 781 random numbers of the Polyglot format
+     */
+    public PolyglotKeys(long[] random64) {
+        if (random64.length != NUMBER_OF_RANDOMS) {
+            throw new IllegalArgumentException("Polyglot needs " + NUMBER_OF_RANDOMS + " random numbers, not " + random64.length);
+        }
+        this.random64 = random64.clone();
+    }
+
+    /**
+     * Returns the keys with the standard random numbers of the Polyglot format.
+     */
+    public static PolyglotKeys getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Creates the instance on first use; the class loader makes this thread-safe.
+     */
+    private static final class Holder {
+        private static final PolyglotKeys INSTANCE = new PolyglotKeys(PolyglotRandom64.RANDOM64);
+    }
+
+    /**
+     * Returns the keys with the random numbers of the given file (781 big-endian longs).
+     */
+    public static PolyglotKeys load(Path random64File) throws IOException {
+        try (InputStream input = Files.newInputStream(random64File)) {
+            return new PolyglotKeys(readRandom64(input));
+        }
+    }
+
+    private static long[] readRandom64(InputStream input) throws IOException {
+        DataInputStream dataInput = new DataInputStream(input);
+        long[] result = new long[NUMBER_OF_RANDOMS];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = dataInput.readLong();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the Polyglot key of the position of the given bitboard.
+     */
+    public long computeKey(BitBoard board) {
+        long key = 0;
+        for (int kind = 0; kind < PIECE_KINDS.length; kind++) {
+            for (EnumChessColor color : EnumChessColor.values()) {
+                int pieceIndex = 2 * kind + (color == EnumChessColor.WHITE ? 1 : 0);
+                long pieces = board.getPieces(color, PIECE_KINDS[kind]);
+                while (pieces != 0) {
+                    // The square index of the format (8 * row + file) equals the index of the bitboard.
+                    key ^= this.random64[64 * pieceIndex + Long.numberOfTrailingZeros(pieces)];
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+        for (int i = 0; i < CASTLING_RIGHTS.length; i++) {
+            if ((board.getCastlingRights() & CASTLING_RIGHTS[i]) != 0) {
+                key ^= this.random64[OFFSET_CASTLING + i];
+            }
+        }
+        if (isEnPassantPossible(board)) {
+            key ^= this.random64[OFFSET_EN_PASSANT + (board.getEnPassantSquare() & 7)];
+        }
+        if (board.getActiveColor() == EnumChessColor.WHITE) {
+            key ^= this.random64[OFFSET_TURN];
+        }
+        return key;
+    }
+
+    /**
+     * The en passant file only counts, if a pawn of the active color stands next to the pawn that can be captured.
+     */
+    private static boolean isEnPassantPossible(BitBoard board) {
+        int enPassantSquare = board.getEnPassantSquare();
+        if (enPassantSquare == BitBoard.NO_SQUARE) {
+            return false;
+        }
+        EnumChessColor color = board.getActiveColor();
+        long pawns = board.getPieces(color, EnumChessPiece.PAWN);
+        return (AttackTables.pawnAttacks(enPassantSquare, color.getOtherColor()) & pawns) != 0;
+    }
+
+}
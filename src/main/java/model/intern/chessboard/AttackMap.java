@@ -0,0 +1,120 @@
+package model.intern.chessboard;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessmove.AttackTables;
+
+import java.util.Arrays;
+
+/**
+ * Attack maps of both colors: for each square, the set of squares of the pieces attacking it (as bitboard).
+ * The maps are updated incrementally whenever a piece is set on or removed from a chess field,
+ * so that the questions "is this square attacked" and "by whom" are answered with a single lookup.
+ *
+ * When the occupancy of a square changes, only the attacks of the changed piece itself
+ * and of the sliding pieces whose rays run through the square have to be updated.
+ */
+class AttackMap {
+
+    private final long[][] attackersTo;
+    private final long[] attacksFrom;
+
+    AttackMap() {
+        this.attackersTo = new long[EnumChessColor.values().length][BitBoard.NUMBER_OF_SQUARES];
+        this.attacksFrom = new long[BitBoard.NUMBER_OF_SQUARES];
+    }
+
+    /**
+     * Returns the squares of all pieces of the given color attacking the given square.
+     */
+    long getAttackers(int square, EnumChessColor attackerColor) {
+        return this.attackersTo[attackerColor.ordinal()][square];
+    }
+
+    /**
+     * Returns whether the given square is attacked by any piece of the given color.
+     */
+    boolean isAttacked(int square, EnumChessColor attackerColor) {
+        return this.attackersTo[attackerColor.ordinal()][square] != 0;
+    }
+
+    /**
+     * Updates the attacks after the given piece has been registered in the given bitboard.
+     */
+    void pieceAdded(BitBoard bitBoard, int square, EnumChessColor color, EnumChessPiece pieceType) {
+        updateSlidersThrough(bitBoard, square);
+        changeAttacks(square, color, findAttacks(square, color, pieceType, bitBoard.getOccupancy()));
+    }
+
+    /**
+     * Updates the attacks after the given piece has been unregistered from the given bitboard.
+     */
+    void pieceRemoved(BitBoard bitBoard, int square, EnumChessColor color) {
+        changeAttacks(square, color, 0L);
+        updateSlidersThrough(bitBoard, square);
+    }
+
+    /**
+     * Computes the attacks of all pieces of the given bitboard from scratch, e.g. after a position has been loaded.
+     */
+    void rebuild(BitBoard bitBoard) {
+        for (long[] attackersToOfColor : this.attackersTo) {
+            Arrays.fill(attackersToOfColor, 0L);
+        }
+        Arrays.fill(this.attacksFrom, 0L);
+        for (long remaining = bitBoard.getOccupancy(); remaining != 0; remaining &= remaining - 1) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            EnumChessColor color = bitBoard.getColor(square);
+            changeAttacks(square, color, findAttacks(square, color, bitBoard.getPieceType(square), bitBoard.getOccupancy()));
+        }
+    }
+
+    /**
+     * Recomputes the attacks of all sliding pieces attacking the given square, as their rays
+     * are now blocked or continued there.
+     */
+    private void updateSlidersThrough(BitBoard bitBoard, int square) {
+        for (EnumChessColor color : EnumChessColor.values()) {
+            long sliders = this.attackersTo[color.ordinal()][square] & ~bitBoard.getPieces(color, EnumChessPiece.KING)
+                    & ~bitBoard.getPieces(color, EnumChessPiece.KNIGHT) & ~bitBoard.getPieces(color, EnumChessPiece.PAWN);
+            while (sliders != 0) {
+                int sliderSquare = Long.numberOfTrailingZeros(sliders);
+                sliders &= sliders - 1;
+                EnumChessPiece sliderType = bitBoard.getPieceType(sliderSquare);
+                changeAttacks(sliderSquare, color, findAttacks(sliderSquare, color, sliderType, bitBoard.getOccupancy()));
+            }
+        }
+    }
+
+    /**
+     * Replaces the attacks of the piece on the given square, touching only the squares whose attack state changes.
+     */
+    private void changeAttacks(int square, EnumChessColor color, long newAttacks) {
+        long[] attackersToOfColor = this.attackersTo[color.ordinal()];
+        long changedSquares = this.attacksFrom[square] ^ newAttacks;
+        long bit = 1L << square;
+        while (changedSquares != 0) {
+            attackersToOfColor[Long.numberOfTrailingZeros(changedSquares)] ^= bit;
+            changedSquares &= changedSquares - 1;
+        }
+        this.attacksFrom[square] = newAttacks;
+    }
+
+    private static long findAttacks(int square, EnumChessColor color, EnumChessPiece pieceType, long occupancy) {
+        switch (pieceType) {
+            case PAWN:
+                return AttackTables.pawnAttacks(square, color);
+            case KNIGHT:
+                return AttackTables.knightAttacks(square);
+            case BISHOP:
+                return AttackTables.diagonalAttacks(square, occupancy);
+            case ROOK:
+                return AttackTables.linearAttacks(square, occupancy);
+            case QUEEN:
+                return AttackTables.queenAttacks(square, occupancy);
+            default:
+                return AttackTables.kingAttacks(square);
+        }
+    }
+
+}
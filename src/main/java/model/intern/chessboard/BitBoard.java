@@ -0,0 +1,474 @@
+package model.intern.chessboard;
+
+import model.common.Coordinates;
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessmove.AttackTables;
+import model.intern.chessmove.MoveEncoding;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard representation of all pieces on a chess board.
+ * Every field is represented by one bit of a long (square index = y * 8 + x),
+ * so that occupancy and attack questions can be answered with a few bitwise operations
+ * and lookups in the precomputed AttackTables instead of walking over the chess fields.
+ * There is one bitboard per piece type and color, plus the occupancy per color and in total.
+ *
+ * Besides being kept in sync with the chess fields of a ChessBoard, a copy of a bitboard can execute
+ * encoded moves (see MoveEncoding) on its own with makeMove and unmakeMove, without touching any chess field.
+ */
+public class BitBoard {
+
+    public static final int NUMBER_OF_SQUARES = 64;
+
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    public static final int NO_SQUARE = -1;
+
+    public static final int CASTLING_WHITE_KING_SIDE = 1;
+    public static final int CASTLING_WHITE_QUEEN_SIDE = 2;
+    public static final int CASTLING_BLACK_KING_SIDE = 4;
+    public static final int CASTLING_BLACK_QUEEN_SIDE = 8;
+
+    /**
+     * The maximum number of moves that can be executed with makeMove without unmaking them.
+     */
+    public static final int MAX_PLY = 1024;
+
+    private static final int NO_PIECE = -1;
+    private static final int NUMBER_OF_PIECE_TYPES = 6;
+    private static final EnumChessColor[] COLORS = EnumChessColor.values();
+    private static final EnumChessPiece[] PIECE_TYPES = EnumChessPiece.values();
+    private static final int WHITE = EnumChessColor.WHITE.ordinal();
+    private static final int PAWN = EnumChessPiece.PAWN.ordinal();
+    private static final int ROOK = EnumChessPiece.ROOK.ordinal();
+
+    private static final Coordinates[] COORDINATES = new Coordinates[NUMBER_OF_SQUARES];
+    private static final int[] CASTLING_RIGHTS_KEPT = new int[NUMBER_OF_SQUARES];
+
+    static {
+        for (int square = 0; square < NUMBER_OF_SQUARES; square++) {
+            COORDINATES[square] = new Coordinates(square & 7, square >>> 3);
+            CASTLING_RIGHTS_KEPT[square] = CASTLING_WHITE_KING_SIDE | CASTLING_WHITE_QUEEN_SIDE
+                    | CASTLING_BLACK_KING_SIDE | CASTLING_BLACK_QUEEN_SIDE;
+        }
+        // Moving the king or a rook from (or capturing a rook on) its starting square loses the castling rights.
+        CASTLING_RIGHTS_KEPT[toSquare(4, 0)] &= ~(CASTLING_WHITE_KING_SIDE | CASTLING_WHITE_QUEEN_SIDE);
+        CASTLING_RIGHTS_KEPT[toSquare(7, 0)] &= ~CASTLING_WHITE_KING_SIDE;
+        CASTLING_RIGHTS_KEPT[toSquare(0, 0)] &= ~CASTLING_WHITE_QUEEN_SIDE;
+        CASTLING_RIGHTS_KEPT[toSquare(4, 7)] &= ~(CASTLING_BLACK_KING_SIDE | CASTLING_BLACK_QUEEN_SIDE);
+        CASTLING_RIGHTS_KEPT[toSquare(7, 7)] &= ~CASTLING_BLACK_KING_SIDE;
+        CASTLING_RIGHTS_KEPT[toSquare(0, 7)] &= ~CASTLING_BLACK_QUEEN_SIDE;
+    }
+
+    private final long[][] pieces;
+    private final long[] occupancyByColor;
+    private long occupancy;
+    private final int[] colorOnSquare;
+    private final int[] pieceTypeOnSquare;
+    private EnumChessColor activeColor;
+    private int castlingRights;
+    private int enPassantSquare;
+    private long enPassantKey;
+    private long zobristKey;
+    private int material;
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    private final int[] undoStack;
+    private final long[] zobristKeyStack;
+    private int ply;
+
+    BitBoard() {
+        this.pieces = new long[COLORS.length][NUMBER_OF_PIECE_TYPES];
+        this.occupancyByColor = new long[COLORS.length];
+        this.colorOnSquare = new int[NUMBER_OF_SQUARES];
+        this.pieceTypeOnSquare = new int[NUMBER_OF_SQUARES];
+        Arrays.fill(this.colorOnSquare, NO_PIECE);
+        Arrays.fill(this.pieceTypeOnSquare, NO_PIECE);
+        this.activeColor = EnumChessColor.WHITE;
+        this.enPassantSquare = NO_SQUARE;
+        this.undoStack = new int[MAX_PLY];
+        this.zobristKeyStack = new long[MAX_PLY];
+    }
+
+    /**
+     * Creates an independent copy of the given bitboard (without its history of executed moves).
+     * The copy can execute moves without changing the original, for example in another thread.
+     */
+    public BitBoard(BitBoard other) {
+        this.pieces = new long[COLORS.length][];
+        for (int color = 0; color < COLORS.length; color++) {
+            this.pieces[color] = other.pieces[color].clone();
+        }
+        this.occupancyByColor = other.occupancyByColor.clone();
+        this.occupancy = other.occupancy;
+        this.colorOnSquare = other.colorOnSquare.clone();
+        this.pieceTypeOnSquare = other.pieceTypeOnSquare.clone();
+        this.activeColor = other.activeColor;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.enPassantKey = other.enPassantKey;
+        this.zobristKey = other.zobristKey;
+        this.material = other.material;
+        this.middlegameScore = other.middlegameScore;
+        this.endgameScore = other.endgameScore;
+        this.phase = other.phase;
+        this.undoStack = new int[MAX_PLY];
+        this.zobristKeyStack = new long[MAX_PLY];
+    }
+
+    /**
+     * Removes all pieces and resets the state to an empty board with white to move
+     * (no castling rights, no en passant square, no history of executed moves).
+     */
+    void clear() {
+        for (long[] piecesOfColor : this.pieces) {
+            Arrays.fill(piecesOfColor, 0L);
+        }
+        Arrays.fill(this.occupancyByColor, 0L);
+        this.occupancy = 0L;
+        Arrays.fill(this.colorOnSquare, NO_PIECE);
+        Arrays.fill(this.pieceTypeOnSquare, NO_PIECE);
+        this.activeColor = EnumChessColor.WHITE;
+        this.castlingRights = 0;
+        this.enPassantSquare = NO_SQUARE;
+        this.enPassantKey = 0L;
+        this.zobristKey = 0L;
+        this.material = 0;
+        this.middlegameScore = 0;
+        this.endgameScore = 0;
+        this.phase = 0;
+        this.ply = 0;
+    }
+
+    /**
+     * Returns the square index of the given coordinates.
+     */
+    public static int toSquare(int x, int y) {
+        return y * 8 + x;
+    }
+
+    /**
+     * Returns the square index of the given coordinates.
+     */
+    public static int toSquare(Coordinates coordinates) {
+        return toSquare(coordinates.x(), coordinates.y());
+    }
+
+    /**
+     * Returns the coordinates of the given square index.
+     */
+    public static Coordinates toCoordinates(int square) {
+        return COORDINATES[square];
+    }
+
+    /**
+     * Registers the given piece on the given square.
+     */
+    void putPiece(int square, EnumChessColor color, EnumChessPiece pieceType) {
+        put(square, color.ordinal(), pieceType.ordinal());
+        updateEnPassantKey();
+    }
+
+    /**
+     * Removes the given piece from the given square.
+     */
+    void removePiece(int square, EnumChessColor color, EnumChessPiece pieceType) {
+        remove(square, color.ordinal(), pieceType.ordinal());
+        updateEnPassantKey();
+    }
+
+    private void put(int square, int color, int pieceType) {
+        long bit = 1L << square;
+        this.pieces[color][pieceType] |= bit;
+        this.occupancyByColor[color] |= bit;
+        this.occupancy |= bit;
+        this.colorOnSquare[square] = color;
+        this.pieceTypeOnSquare[square] = pieceType;
+        this.zobristKey ^= ZobristKeys.piece(color, pieceType, square);
+        this.material += color == WHITE ? PieceSquareTables.pieceValue(pieceType) : -PieceSquareTables.pieceValue(pieceType);
+        this.middlegameScore += PieceSquareTables.middlegame(color, pieceType, square);
+        this.endgameScore += PieceSquareTables.endgame(color, pieceType, square);
+        this.phase += PieceSquareTables.phaseWeight(pieceType);
+    }
+
+    private void remove(int square, int color, int pieceType) {
+        long bit = ~(1L << square);
+        this.pieces[color][pieceType] &= bit;
+        this.occupancyByColor[color] &= bit;
+        this.occupancy &= bit;
+        this.colorOnSquare[square] = NO_PIECE;
+        this.pieceTypeOnSquare[square] = NO_PIECE;
+        this.zobristKey ^= ZobristKeys.piece(color, pieceType, square);
+        this.material -= color == WHITE ? PieceSquareTables.pieceValue(pieceType) : -PieceSquareTables.pieceValue(pieceType);
+        this.middlegameScore -= PieceSquareTables.middlegame(color, pieceType, square);
+        this.endgameScore -= PieceSquareTables.endgame(color, pieceType, square);
+        this.phase -= PieceSquareTables.phaseWeight(pieceType);
+    }
+
+    /**
+     * Returns the type of the piece on the given square, or null if the square is empty.
+     */
+    public EnumChessPiece getPieceType(int square) {
+        int pieceType = this.pieceTypeOnSquare[square];
+        return pieceType == NO_PIECE ? null : PIECE_TYPES[pieceType];
+    }
+
+    /**
+     * Returns the color of the piece on the given square, or null if the square is empty.
+     */
+    public EnumChessColor getColor(int square) {
+        int color = this.colorOnSquare[square];
+        return color == NO_PIECE ? null : COLORS[color];
+    }
+
+    /**
+     * Returns the bitboard of all pieces of the given type and color.
+     */
+    public long getPieces(EnumChessColor color, EnumChessPiece pieceType) {
+        return this.pieces[color.ordinal()][pieceType.ordinal()];
+    }
+
+    /**
+     * Returns the bitboard of all pieces of the given color.
+     */
+    public long getOccupancy(EnumChessColor color) {
+        return this.occupancyByColor[color.ordinal()];
+    }
+
+    /**
+     * Returns the bitboard of all pieces on the board.
+     */
+    public long getOccupancy() {
+        return this.occupancy;
+    }
+
+    /**
+     * Returns the color whose turn it is.
+     */
+    public EnumChessColor getActiveColor() {
+        return this.activeColor;
+    }
+
+    void setActiveColor(EnumChessColor activeColor) {
+        this.zobristKey ^= ZobristKeys.sideToMove(this.activeColor) ^ ZobristKeys.sideToMove(activeColor);
+        this.activeColor = activeColor;
+        updateEnPassantKey();
+    }
+
+    /**
+     * Returns the Zobrist key of the position: pieces, side to move, castling rights and file of the en passant square.
+     * Like in Polyglot, the file is only part of the key if a pawn of the active color can capture en passant,
+     * so a double pawn step which allows no capture does not hide a transposition.
+     * The key is updated incrementally by each change of one of them.
+     */
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    /**
+     * Returns the material balance in centipawns from the point of view of white.
+     * Like the scores of the piece-square tables, it is updated by delta whenever a piece is put or removed.
+     */
+    public int getMaterial() {
+        return this.material;
+    }
+
+    /**
+     * Returns the middlegame score (material and piece-square tables, see PieceSquareTables) from the point of view of white.
+     */
+    public int getMiddlegameScore() {
+        return this.middlegameScore;
+    }
+
+    /**
+     * Returns the endgame score (material and piece-square tables, see PieceSquareTables) from the point of view of white.
+     */
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    /**
+     * Returns the game phase, from PieceSquareTables.MAX_PHASE (all pieces on the board) down to 0 (only kings and pawns).
+     */
+    public int getPhase() {
+        return this.phase;
+    }
+
+    /**
+     * Computes the Zobrist key of the position from scratch (to verify the incrementally updated key).
+     */
+    long computeZobristKey() {
+        long key = ZobristKeys.sideToMove(this.activeColor)
+                ^ ZobristKeys.castlingRights(this.castlingRights)
+                ^ computeEnPassantKey();
+        for (int square = 0; square < NUMBER_OF_SQUARES; square++) {
+            if (this.pieceTypeOnSquare[square] != NO_PIECE) {
+                key ^= ZobristKeys.piece(this.colorOnSquare[square], this.pieceTypeOnSquare[square], square);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Returns the castling rights as a combination of the CASTLING_* flags.
+     */
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    void setCastlingRights(int castlingRights) {
+        this.zobristKey ^= ZobristKeys.castlingRights(this.castlingRights) ^ ZobristKeys.castlingRights(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    /**
+     * Returns the square a pawn can move to by capturing en passant, or NO_SQUARE.
+     */
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    void setEnPassantSquare(int enPassantSquare) {
+        this.enPassantSquare = enPassantSquare;
+        updateEnPassantKey();
+    }
+
+    /**
+     * Replaces the part of the Zobrist key for the en passant square, which depends on the pawns and the active color.
+     */
+    private void updateEnPassantKey() {
+        long enPassantKey = computeEnPassantKey();
+        this.zobristKey ^= this.enPassantKey ^ enPassantKey;
+        this.enPassantKey = enPassantKey;
+    }
+
+    private long computeEnPassantKey() {
+        if (this.enPassantSquare == NO_SQUARE
+                || (AttackTables.pawnAttacks(this.enPassantSquare, this.activeColor.getOtherColor())
+                        & getPieces(this.activeColor, EnumChessPiece.PAWN)) == 0) {
+            return 0L;
+        }
+        return ZobristKeys.enPassantSquare(this.enPassantSquare);
+    }
+
+    /**
+     * Returns whether there is a piece on the given square.
+     */
+    public boolean isOccupied(int square) {
+        return (this.occupancy & (1L << square)) != 0;
+    }
+
+    /**
+     * Returns the bitboard of all pieces of the given color which attack the given square.
+     * A piece never attacks the square it is standing on.
+     */
+    public long findAttackers(int square, EnumChessColor attackerColor) {
+        return findAttackers(square, attackerColor, this.occupancy);
+    }
+
+    /**
+     * Returns the bitboard of all pieces of the given color which attack the given square,
+     * if the board was occupied as given. This way, pieces can be ignored as blockers of sliding pieces.
+     */
+    public long findAttackers(int square, EnumChessColor attackerColor, long occupancy) {
+        EnumChessColor defenderColor = attackerColor.getOtherColor();
+        long rooksAndQueens = getPieces(attackerColor, EnumChessPiece.ROOK) | getPieces(attackerColor, EnumChessPiece.QUEEN);
+        long bishopsAndQueens = getPieces(attackerColor, EnumChessPiece.BISHOP) | getPieces(attackerColor, EnumChessPiece.QUEEN);
+        // Pawn attacks are symmetric: a pawn of the attacker color attacks the square,
+        // if a pawn of the other color on that square would attack the pawn.
+        return (AttackTables.pawnAttacks(square, defenderColor) & getPieces(attackerColor, EnumChessPiece.PAWN))
+                | (AttackTables.knightAttacks(square) & getPieces(attackerColor, EnumChessPiece.KNIGHT))
+                | (AttackTables.kingAttacks(square) & getPieces(attackerColor, EnumChessPiece.KING))
+                | (AttackTables.linearAttacks(square, occupancy) & rooksAndQueens)
+                | (AttackTables.diagonalAttacks(square, occupancy) & bishopsAndQueens);
+    }
+
+    /**
+     * Returns whether the given square is attacked by at least one piece of the given color.
+     */
+    public boolean isAttacked(int square, EnumChessColor attackerColor) {
+        return findAttackers(square, attackerColor) != 0;
+    }
+
+    /**
+     * Executes the given legal move of the active color on this bitboard and hands the turn to the other color.
+     * The information necessary to unmake the move is kept on an internal stack.
+     */
+    public void makeMove(int move) {
+        int from = MoveEncoding.getFrom(move);
+        int to = MoveEncoding.getTo(move);
+        int flags = MoveEncoding.getFlags(move);
+        int color = this.activeColor.ordinal();
+        int opponent = color ^ 1;
+        int pieceType = this.pieceTypeOnSquare[from];
+        int capturedPieceType = this.pieceTypeOnSquare[to];
+
+        // Everything needed to restore the position: captured piece, castling rights and en passant square.
+        this.zobristKeyStack[this.ply] = this.zobristKey;
+        this.undoStack[this.ply++] = (capturedPieceType + 1) | (this.castlingRights << 3) | ((this.enPassantSquare + 1) << 7);
+
+        if (flags == MoveEncoding.FLAG_EN_PASSANT) {
+            remove(color == WHITE ? to - 8 : to + 8, opponent, PAWN);
+        } else if (capturedPieceType != NO_PIECE) {
+            remove(to, opponent, capturedPieceType);
+        }
+        remove(from, color, pieceType);
+        put(to, color, MoveEncoding.isPromotion(move) ? MoveEncoding.getPromotionPiece(move).ordinal() : pieceType);
+
+        if (flags == MoveEncoding.FLAG_KING_SIDE_CASTLING) {
+            remove(to + 1, color, ROOK);
+            put(to - 1, color, ROOK);
+        } else if (flags == MoveEncoding.FLAG_QUEEN_SIDE_CASTLING) {
+            remove(to - 2, color, ROOK);
+            put(to + 1, color, ROOK);
+        }
+
+        setCastlingRights(this.castlingRights & CASTLING_RIGHTS_KEPT[from] & CASTLING_RIGHTS_KEPT[to]);
+        setEnPassantSquare(flags == MoveEncoding.FLAG_DOUBLE_PAWN_STEP ? (from + to) / 2 : NO_SQUARE);
+        setActiveColor(COLORS[opponent]);
+    }
+
+    /**
+     * Takes back the given move, which has to be the last move executed with makeMove.
+     */
+    public void unmakeMove(int move) {
+        int from = MoveEncoding.getFrom(move);
+        int to = MoveEncoding.getTo(move);
+        int flags = MoveEncoding.getFlags(move);
+        int opponent = this.activeColor.ordinal();
+        int color = opponent ^ 1;
+        int undo = this.undoStack[--this.ply];
+        int capturedPieceType = (undo & 7) - 1;
+
+        if (flags == MoveEncoding.FLAG_KING_SIDE_CASTLING) {
+            remove(to - 1, color, ROOK);
+            put(to + 1, color, ROOK);
+        } else if (flags == MoveEncoding.FLAG_QUEEN_SIDE_CASTLING) {
+            remove(to + 1, color, ROOK);
+            put(to - 2, color, ROOK);
+        }
+
+        int pieceType = MoveEncoding.isPromotion(move) ? PAWN : this.pieceTypeOnSquare[to];
+        remove(to, color, this.pieceTypeOnSquare[to]);
+        put(from, color, pieceType);
+
+        if (flags == MoveEncoding.FLAG_EN_PASSANT) {
+            put(color == WHITE ? to - 8 : to + 8, opponent, PAWN);
+        } else if (capturedPieceType != NO_PIECE) {
+            put(to, opponent, capturedPieceType);
+        }
+
+        this.castlingRights = (undo >>> 3) & 0xF;
+        this.enPassantSquare = (undo >>> 7) - 1;
+        this.activeColor = COLORS[color];
+        // The key is restored as a whole instead of undoing each XOR of the move.
+        this.zobristKey = this.zobristKeyStack[this.ply];
+        this.enPassantKey = computeEnPassantKey();
+    }
+
+}
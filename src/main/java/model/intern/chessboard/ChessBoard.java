@@ -1,7 +1,9 @@
 package model.intern.chessboard;
 
+import model.common.EnumChessPiece;
 import model.intern.chessmove.Move;
-import model.intern.chessmove.MovePath;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
 import model.common.EnumChessColor;
 import model.intern.exceptions.*;
 import model.common.Coordinates;
@@ -16,15 +18,29 @@ import java.util.*;
  */
 public class ChessBoard extends Observable implements Observer {
 
+    /**
+     * The usual starting position in the Forsyth-Edwards Notation (FEN).
+     */
+    public static final String STARTING_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
     private static final int WIDTH = 8;
     private static final int HEIGHT = 8;
+    // Squares of the kings and rooks, whose pieces decide about the castling rights.
+    private static final long CASTLING_SQUARES = 1L << BitBoard.toSquare(0, 0) | 1L << BitBoard.toSquare(4, 0)
+            | 1L << BitBoard.toSquare(7, 0) | 1L << BitBoard.toSquare(0, 7) | 1L << BitBoard.toSquare(4, 7)
+            | 1L << BitBoard.toSquare(7, 7);
 
     private final ChessField[][] chessFields;
     private final ChessBoardState boardState;
+    private final int[] moveBuffer;
+    private final LegalMoveCache legalMoveCache;
+    private String startingFen;
 
     public ChessBoard() {
         this.chessFields = new ChessField[WIDTH][HEIGHT];
         this.boardState = new ChessBoardState();
+        this.moveBuffer = new int[MoveGenerator.MAX_MOVES];
+        this.legalMoveCache = new LegalMoveCache();
 
         initializeChessFields();
     }
@@ -44,6 +60,92 @@ public class ChessBoard extends Observable implements Observer {
      */
     public void initChessPieces() {
         ChessPieceCreator.getInstance().initChessPieces(this);
+        updateBitBoardState();
+        this.startingFen = STARTING_FEN;
+    }
+
+    /**
+     * Replaces the whole position by the given one in the Forsyth-Edwards Notation (FEN), including the castling rights,
+     * the en passant square and the move counters. The history of moves is cleared.
+     * The fields are filled in a single pass without notifying any observer.
+     * @throws ExcInvalidFen The given text is no valid FEN. The board is not changed then.
+     */
+    public void loadFen(String fen) throws ExcInvalidFen {
+        FenConverter.getInstance().loadFen(this, fen);
+        this.startingFen = fen.trim();
+    }
+
+    /**
+     * Returns the FEN of the position before the first move of the history (the starting position or the loaded one),
+     * or null if no pieces have been set up.
+     */
+    public String getStartingFen() {
+        return this.startingFen;
+    }
+
+    /**
+     * Returns the executed moves from the starting position on (read-only).
+     */
+    public List<Move> getMoveHistory() {
+        return this.boardState.getMoves();
+    }
+
+    /**
+     * Returns the current position in the Forsyth-Edwards Notation (FEN).
+     */
+    public String toFen() {
+        updateBitBoardState();
+        return FenConverter.getInstance().toFen(this.getBitBoard(), this.boardState.getHalfmoveClock(), this.boardState.getFullmoveNumber());
+    }
+
+    /**
+     * Sets up the given position: the pieces by square (null for an empty square), the color to move,
+     * the castling rights (see BitBoard.CASTLING_*), the en passant square and the move counters.
+     * Castling rights are kept by the move counts of the pieces, so a king or rook without a right counts as moved.
+     */
+    void setPosition(ChessPiece[] piecesBySquare, EnumChessColor activeColor, int castlingRights, int enPassantSquare,
+                     int halfmoveClock, int fullmoveNumber) {
+        this.legalMoveCache.clear();
+        this.boardState.reset(activeColor, enPassantSquare, halfmoveClock, fullmoveNumber);
+        BitBoard bitBoard = this.getBitBoard();
+        for (int square = 0; square < BitBoard.NUMBER_OF_SQUARES; square++) {
+            ChessPiece piece = piecesBySquare[square];
+            this.getField(square).placePiece(piece);
+            if (piece != null) {
+                bitBoard.putPiece(square, piece.getColor(), piece.getPieceType());
+                if (!isOnStartingSquare(piece, square, castlingRights)) {
+                    piece.registerExecutedMove();
+                }
+            }
+        }
+        this.getAttackMap().rebuild(bitBoard);
+        updateBitBoardState();
+        ChessField fieldKing = this.boardState.getFieldOfKing();
+        if (fieldKing != null) {
+            this.boardState.setKingThreat(detectKingThreat(fieldKing));
+        }
+    }
+
+    /**
+     * Returns whether the given piece is unmoved on the given square: pawns on their second rank,
+     * kings and rooks only with the matching castling right, other pieces always.
+     */
+    private static boolean isOnStartingSquare(ChessPiece piece, int square, int castlingRights) {
+        boolean white = piece.getColor() == EnumChessColor.WHITE;
+        int rank = white ? 0 : 7;
+        int kingSide = white ? BitBoard.CASTLING_WHITE_KING_SIDE : BitBoard.CASTLING_BLACK_KING_SIDE;
+        int queenSide = white ? BitBoard.CASTLING_WHITE_QUEEN_SIDE : BitBoard.CASTLING_BLACK_QUEEN_SIDE;
+        switch (piece.getPieceType()) {
+            case PAWN:
+                return square >>> 3 == (white ? 1 : 6);
+            case KING:
+                return square == BitBoard.toSquare(4, rank) && (castlingRights & (kingSide | queenSide)) != 0;
+            case ROOK:
+                return square == BitBoard.toSquare(7, rank) && (castlingRights & kingSide) != 0
+                        || square == BitBoard.toSquare(0, rank) && (castlingRights & queenSide) != 0;
+            default:
+                return true;
+        }
     }
 
     /**
@@ -65,6 +167,123 @@ public class ChessBoard extends Observable implements Observer {
         }
     }
 
+    /**
+     * Return the field on the board based on the given square index of the bitboards (y * 8 + x).
+     */
+    public ChessField getField(int square) {
+        return this.chessFields[square & 7][square >>> 3];
+    }
+
+    /**
+     * Returns the coordinates of all fields, where the piece on the given field can go to.
+     * The targets of all pieces of a color are computed together and cached for the current position.
+     * The returned list must not be modified.
+     */
+    List<Coordinates> findPossibleNewFields(ChessField field) {
+        EnumChessColor color = field.getPiece().getColor();
+        long key = getZobristKey();
+        List<Coordinates> cachedTargets = this.legalMoveCache.find(key, color, field.getSquare());
+        if (cachedTargets != null) {
+            return cachedTargets;
+        }
+        List<List<Coordinates>> targetsBySquare = findPossibleNewFieldsOfAllPieces(color);
+        this.legalMoveCache.fill(key, color, targetsBySquare);
+        return targetsBySquare.get(field.getSquare());
+    }
+
+    private List<List<Coordinates>> findPossibleNewFieldsOfAllPieces(EnumChessColor color) {
+        List<List<Coordinates>> targetsBySquare = new ArrayList<>(Collections.nCopies(BitBoard.NUMBER_OF_SQUARES, null));
+        long pieces = this.getBitBoard().getOccupancy(color);
+        for (long remaining = pieces; remaining != 0; remaining &= remaining - 1) {
+            targetsBySquare.set(Long.numberOfTrailingZeros(remaining), new ArrayList<>());
+        }
+
+        int numberOfMoves = MoveGenerator.generateMoves(this.getBitBoard(), color, this.moveBuffer);
+        long[] addedTargets = new long[BitBoard.NUMBER_OF_SQUARES];
+        for (int i = 0; i < numberOfMoves; i++) {
+            int source = MoveEncoding.getFrom(this.moveBuffer[i]);
+            int target = MoveEncoding.getTo(this.moveBuffer[i]);
+            // Promotions create several moves with the same target.
+            if ((addedTargets[source] & (1L << target)) == 0) {
+                addedTargets[source] |= 1L << target;
+                targetsBySquare.get(source).add(BitBoard.toCoordinates(target));
+            }
+        }
+
+        for (long remaining = pieces; remaining != 0; remaining &= remaining - 1) {
+            int square = Long.numberOfTrailingZeros(remaining);
+            targetsBySquare.set(square, Collections.unmodifiableList(targetsBySquare.get(square)));
+        }
+        return targetsBySquare;
+    }
+
+    /**
+     * Returns how often the legal targets of a piece have been found in the cache of the current position.
+     */
+    public long getLegalMoveCacheHits() {
+        return this.legalMoveCache.getHits();
+    }
+
+    /**
+     * Returns how often the legal targets of a piece had to be computed, as they were not cached for the position.
+     */
+    public long getLegalMoveCacheMisses() {
+        return this.legalMoveCache.getMisses();
+    }
+
+    /**
+     * Updates the castling rights and the en passant square of the bitboards.
+     * Both are derived from the move counts of the pieces and from the last move.
+     * The board does this itself with every change of its fields and moves, so it is only needed after changing
+     * the move count of a piece directly (see ChessPiece.registerExecutedMove).
+     */
+    public void updateBitBoardState() {
+        this.getBitBoard().setCastlingRights(deriveCastlingRights());
+        this.getBitBoard().setEnPassantSquare(deriveEnPassantSquare());
+    }
+
+    private int deriveCastlingRights() {
+        int castlingRights = 0;
+        if (isUnmovedPiece(4, 0, EnumChessPiece.KING, EnumChessColor.WHITE)) {
+            if (isUnmovedPiece(7, 0, EnumChessPiece.ROOK, EnumChessColor.WHITE)) {
+                castlingRights |= BitBoard.CASTLING_WHITE_KING_SIDE;
+            }
+            if (isUnmovedPiece(0, 0, EnumChessPiece.ROOK, EnumChessColor.WHITE)) {
+                castlingRights |= BitBoard.CASTLING_WHITE_QUEEN_SIDE;
+            }
+        }
+        if (isUnmovedPiece(4, 7, EnumChessPiece.KING, EnumChessColor.BLACK)) {
+            if (isUnmovedPiece(7, 7, EnumChessPiece.ROOK, EnumChessColor.BLACK)) {
+                castlingRights |= BitBoard.CASTLING_BLACK_KING_SIDE;
+            }
+            if (isUnmovedPiece(0, 7, EnumChessPiece.ROOK, EnumChessColor.BLACK)) {
+                castlingRights |= BitBoard.CASTLING_BLACK_QUEEN_SIDE;
+            }
+        }
+        return castlingRights;
+    }
+
+    private boolean isUnmovedPiece(int x, int y, EnumChessPiece pieceType, EnumChessColor color) {
+        ChessPiece piece = this.getField(x, y).getPiece();
+        return piece != null && piece.getPieceType() == pieceType && piece.getColor() == color && !piece.hasMoved();
+    }
+
+    private int deriveEnPassantSquare() {
+        Move lastMove = this.getLastMove();
+        if (lastMove == null) {
+            return this.boardState.getInitialEnPassantSquare();
+        }
+        if (!(lastMove.getPieceSource() instanceof Pawn)) {
+            return BitBoard.NO_SQUARE;
+        }
+        int from = lastMove.getFieldSource().getSquare();
+        int to = lastMove.getFieldTarget().getSquare();
+        if (Math.abs(to - from) != 16 || lastMove.getFieldTarget().getPiece() != lastMove.getPieceSource()) {
+            return BitBoard.NO_SQUARE;
+        }
+        return (from + to) / 2;
+    }
+
     /**
      * Execute a move of the piece being on the source field to the target field.
      * If there is no piece of the right color on the source field or the move is not legal/possible,
@@ -74,6 +293,18 @@ public class ChessBoard extends Observable implements Observer {
      * @throws ExcInvalidMove The move is not a valid chess move or the situation on the board does not allow it.
      */
     public void executeMove(Coordinates source, Coordinates target) throws ExcInvalidMove {
+        executeMove(source, target, EnumChessPiece.QUEEN);
+    }
+
+    /**
+     * Execute a move of the piece being on the source field to the target field.
+     * If the move is a pawn promotion, the pawn is promoted to the given piece.
+     * @param source Source of the move
+     * @param target Target of the move
+     * @param promotionPiece Piece which a pawn is promoted to (knight, bishop, rook or queen)
+     * @throws ExcInvalidMove The move is not a valid chess move or the situation on the board does not allow it.
+     */
+    public void executeMove(Coordinates source, Coordinates target, EnumChessPiece promotionPiece) throws ExcInvalidMove {
         ChessField fieldSource = this.getField(source);
         ChessField fieldTarget = this.getField(target);
 
@@ -85,42 +316,57 @@ public class ChessBoard extends Observable implements Observer {
             throw new ExcDoesNotHaveTurn();
         }
 
-        Move move = new Move(fieldSource, fieldTarget);
+        // The legality of the move is decided before touching the board, so an illegal move never changes any field.
+        updateBitBoardState();
+        EnumChessColor color = fieldSource.getPiece().getColor();
+        long sourceBit = 1L << fieldSource.getSquare();
+        int numberOfMoves = MoveGenerator.generateMoves(this.getBitBoard(), color, sourceBit, this.moveBuffer);
+        if (!containsMoveToSquare(numberOfMoves, fieldTarget.getSquare())) {
+            numberOfMoves = MoveGenerator.generatePseudoLegalMoves(this.getBitBoard(), color, sourceBit, this.moveBuffer);
+            if (containsMoveToSquare(numberOfMoves, fieldTarget.getSquare())) {
+                // Invalid move, as the king of the active player would be / stay checked.
+                throw new ExcKingChecked(EnumKingThreat.CHECK);
+            }
+            throw new ExcNoValidTarget();
+        }
+
+        Move move = new Move(fieldSource, fieldTarget, promotionPiece);
+        this.legalMoveCache.clear();
         move.execute(this);
         this.boardState.addMoveToHistory(move);
 
-        EnumKingThreat kingThreat = detectKingThreat(this.boardState.getFieldOfKing());
-        if (kingThreat != EnumKingThreat.NO_THREAT) {
-            // Invalid move, as the king of the active player is now / still checked.
-            revertLastMove();
-            throw new ExcKingChecked(kingThreat);
-        }
-
-        // The king of the active player is not checked. Therefore, everything is ok and the active player changes.
+        // The move is legal. Therefore, the active player changes.
         this.boardState.changePlayer();
+        updateBitBoardState();
         EnumKingThreat kingThreatNewActivePlayer = detectKingThreat(this.boardState.getFieldOfKing());
         this.boardState.setKingThreat(kingThreatNewActivePlayer);
     }
 
+    private boolean containsMoveToSquare(int numberOfMoves, int square) {
+        for (int i = 0; i < numberOfMoves; i++) {
+            if (MoveEncoding.getTo(this.moveBuffer[i]) == square) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns whether the king is threatened and to which degree (check or checkmate).
+     * The king is checkmate, if he is checked and there is no legal move of his color to escape from the check.
      * @param fieldKing Field of the king that is analysed regarding who he is threatened
      */
     EnumKingThreat detectKingThreat(ChessField fieldKing) {
-        List<MovePath> threateningMovePaths = fieldKing.findThreateningMoveDirections(fieldKing.getPiece().getColor());
+        EnumChessColor colorKing = fieldKing.getPiece().getColor();
 
-        if (threateningMovePaths.isEmpty()) {
+        if (!this.getAttackMap().isAttacked(fieldKing.getSquare(), colorKing.getOtherColor())) {
             // King is not threatened.
             return EnumKingThreat.NO_THREAT;
-        } else if (fieldKing.findPossibleNewFields().stream()
-                .anyMatch(possibleNewField ->
-                        this.getField(possibleNewField).findThreateningMoveDirections(fieldKing.getPiece().getColor()).isEmpty())) {
-            // King is checked but can move to another field that is not threatened.
-            return EnumKingThreat.CHECK;
-        } else if (threateningMovePaths.size() == 1
-                && canOwnPieceBeUsedForKingProtection(fieldKing, threateningMovePaths.get(0))) {
-            // King is checked and cannot move to another field.
-            // However, there is only one threat, and it can be stopped by another own piece.
+        }
+
+        updateBitBoardState();
+        if (MoveGenerator.generateMoves(this.getBitBoard(), colorKing, this.moveBuffer) > 0) {
+            // King is checked, but he can escape or an own piece can capture the attacker or block the check.
             return EnumKingThreat.CHECK;
         } else {
             // King is checkmate, as no possibilities can be found to escape from the threat.
@@ -128,34 +374,31 @@ public class ChessBoard extends Observable implements Observer {
         }
     }
 
-    /**
-     * Check for every field between the king and the threatening piece whether an own piece can be positioned
-     * in between to protect the king.
-     */
-    boolean canOwnPieceBeUsedForKingProtection(ChessField fieldKing, MovePath threateningMovePath) {
-        for (ChessField chessField : threateningMovePath.getFieldsOnPath()) {
-            List<MovePath> moveDirectionsOwnPieces = chessField.findThreateningMoveDirections(fieldKing.getPiece().getColor().getOtherColor());
-            for (MovePath movePath : moveDirectionsOwnPieces) {
-                // The king cannot be protected by himself.
-                if (!movePath.getLastFieldOfPath().getCoordinates().equals(fieldKing.getCoordinates())) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
     /**
      * Reverts the last move, if there has been one.
      */
     public void revertLastMove() {
         Move moveToBeReverted = this.boardState.removeMoveFromHistory();
         if (moveToBeReverted != null) {
+            this.legalMoveCache.clear();
             moveToBeReverted.revertMove();
             this.boardState.setActiveColor(moveToBeReverted.getPieceSource().getColor());
+            updateBitBoardState();
+            ChessField fieldKing = this.boardState.getFieldOfKing();
+            if (fieldKing != null) {
+                this.boardState.setKingThreat(detectKingThreat(fieldKing));
+            }
         }
     }
 
+    /**
+     * Returns the Zobrist key of the current position (pieces, active color, castling rights and en passant file).
+     * Equal positions have equal keys, so the key can be used for caching and detecting repetitions.
+     */
+    public long getZobristKey() {
+        return this.boardState.getZobristKey();
+    }
+
     /**
      * Returns the color of the active player.
      */
@@ -178,10 +421,51 @@ public class ChessBoard extends Observable implements Observer {
     }
 
     /**
-     * Update the current field of the king of the active player.
+     * Update the current field of the king standing on the given field.
      */
     public void changeFieldOfKing(ChessField field) {
-        this.boardState.changeFieldOfKing(field);
+        this.boardState.changeFieldOfKing(field.getPiece().getColor(), field);
+    }
+
+    /**
+     * Returns the bitboard representation of all pieces on this board.
+     */
+    public BitBoard getBitBoard() {
+        return this.boardState.getBitBoard();
+    }
+
+    /**
+     * Returns the attack maps of both colors, which are updated with every piece change on the chess fields.
+     */
+    AttackMap getAttackMap() {
+        return this.boardState.getAttackMap();
+    }
+
+    /**
+     * Registers the given piece, which has been set on the given field, in the bitboards and attack maps.
+     */
+    void pieceAdded(ChessField field, ChessPiece piece) {
+        this.getBitBoard().putPiece(field.getSquare(), piece.getColor(), piece.getPieceType());
+        this.getAttackMap().pieceAdded(this.getBitBoard(), field.getSquare(), piece.getColor(), piece.getPieceType());
+        updateCastlingRights(field.getSquare());
+    }
+
+    /**
+     * Unregisters the given piece, which has been removed from the given field, from the bitboards and attack maps.
+     */
+    void pieceRemoved(ChessField field, ChessPiece piece) {
+        this.getBitBoard().removePiece(field.getSquare(), piece.getColor(), piece.getPieceType());
+        this.getAttackMap().pieceRemoved(this.getBitBoard(), field.getSquare(), piece.getColor());
+        updateCastlingRights(field.getSquare());
+    }
+
+    /**
+     * Keeps the castling rights of the bitboards in sync with pieces set up or removed on the squares of kings and rooks.
+     */
+    private void updateCastlingRights(int square) {
+        if ((CASTLING_SQUARES & 1L << square) != 0) {
+            this.getBitBoard().setCastlingRights(deriveCastlingRights());
+        }
     }
 
     /**
@@ -196,6 +480,7 @@ public class ChessBoard extends Observable implements Observer {
      */
     public void addMoveToHistory(Move move) {
         this.boardState.addMoveToHistory(move);
+        updateBitBoardState();
     }
 
     @Override
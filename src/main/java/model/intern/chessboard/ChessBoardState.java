@@ -2,16 +2,19 @@ package model.intern.chessboard;
 
 import model.intern.chessmove.Move;
 import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
 import model.common.EnumKingThreat;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * The ChessBoardState keeps track of information
- * like whose turn it is and where the kings are currently positioned.
+ * like whose turn it is, where the kings are currently positioned, which pieces are on which squares (bitboards)
+ * and which squares they attack (attack maps).
  * Only a chess board is allowed to use this class.
  */
 public class ChessBoardState {
@@ -20,13 +23,41 @@ public class ChessBoardState {
     private final Map<EnumChessColor, ChessField> fieldsOfKings;
     private EnumKingThreat kingThreat;
     private final List<Move> moves;
+    private final BitBoard bitBoard;
+    private final AttackMap attackMap;
+    // The position before the first move of the history (the starting position or a loaded one).
+    private EnumChessColor initialActiveColor;
+    private int initialEnPassantSquare;
+    private int initialHalfmoveClock;
+    private int initialFullmoveNumber;
 
     ChessBoardState() {
         // The player with the white pieces starts a chess game.
         this.activeColor = EnumChessColor.WHITE;
+        this.initialActiveColor = EnumChessColor.WHITE;
+        this.initialEnPassantSquare = BitBoard.NO_SQUARE;
+        this.initialFullmoveNumber = 1;
         this.fieldsOfKings = new HashMap<>();
         this.kingThreat = EnumKingThreat.NO_THREAT;
         this.moves = new ArrayList<>();
+        this.bitBoard = new BitBoard();
+        this.attackMap = new AttackMap();
+    }
+
+    /**
+     * Resets the state for a new position without any piece, which is set up by the chess board afterwards.
+     * The history of moves is cleared, so the given values of the position are those before the next move.
+     */
+    void reset(EnumChessColor activeColor, int enPassantSquare, int halfmoveClock, int fullmoveNumber) {
+        this.moves.clear();
+        this.fieldsOfKings.clear();
+        this.kingThreat = EnumKingThreat.NO_THREAT;
+        this.bitBoard.clear();
+        this.initialActiveColor = activeColor;
+        this.initialEnPassantSquare = enPassantSquare;
+        this.initialHalfmoveClock = halfmoveClock;
+        this.initialFullmoveNumber = fullmoveNumber;
+        setActiveColor(activeColor);
     }
 
     boolean hasTurn(EnumChessColor color) {
@@ -35,10 +66,11 @@ public class ChessBoardState {
 
     void setActiveColor(EnumChessColor activeColor) {
         this.activeColor = activeColor;
+        this.bitBoard.setActiveColor(activeColor);
     }
 
     void changePlayer() {
-        this.activeColor = this.activeColor.getOtherColor();
+        setActiveColor(this.activeColor.getOtherColor());
     }
 
     public EnumChessColor getActiveColor() {
@@ -53,10 +85,6 @@ public class ChessBoardState {
         this.kingThreat = kingThreat;
     }
 
-    void changeFieldOfKing(ChessField fieldTarget) {
-        changeFieldOfKing(this.activeColor, fieldTarget);
-    }
-
     void changeFieldOfKing(EnumChessColor color, ChessField fieldTarget) {
         this.fieldsOfKings.put(color, fieldTarget);
     }
@@ -65,6 +93,71 @@ public class ChessBoardState {
         return this.fieldsOfKings.get(this.activeColor);
     }
 
+    /**
+     * Returns the Zobrist key of the current position, which is updated incrementally whenever
+     * a piece is set on or removed from a chess field (Move.movePieces/revertMove),
+     * the active color changes or the castling rights / en passant square change.
+     */
+    public long getZobristKey() {
+        return this.bitBoard.getZobristKey();
+    }
+
+    /**
+     * Returns the material balance from the point of view of white. Like the Zobrist key, the material
+     * and the scores of the piece-square tables are updated by delta whenever a piece is set or removed.
+     */
+    public int getMaterial() {
+        return this.bitBoard.getMaterial();
+    }
+
+    public int getMiddlegameScore() {
+        return this.bitBoard.getMiddlegameScore();
+    }
+
+    public int getEndgameScore() {
+        return this.bitBoard.getEndgameScore();
+    }
+
+    public int getPhase() {
+        return this.bitBoard.getPhase();
+    }
+
+    BitBoard getBitBoard() {
+        return this.bitBoard;
+    }
+
+    AttackMap getAttackMap() {
+        return this.attackMap;
+    }
+
+    /**
+     * Returns the en passant square of the position before the first move of the history.
+     */
+    int getInitialEnPassantSquare() {
+        return this.initialEnPassantSquare;
+    }
+
+    /**
+     * Returns the number of half moves since the last capture or pawn move (for the fifty-move rule).
+     */
+    int getHalfmoveClock() {
+        for (int i = this.moves.size() - 1; i >= 0; i--) {
+            Move move = this.moves.get(i);
+            if (move.getPieceSource().getPieceType() == EnumChessPiece.PAWN || move.getPieceTarget() != null) {
+                return this.moves.size() - 1 - i;
+            }
+        }
+        return this.initialHalfmoveClock + this.moves.size();
+    }
+
+    /**
+     * Returns the number of the current full move, which starts at 1 and is incremented after each move of black.
+     */
+    int getFullmoveNumber() {
+        int plies = this.moves.size() + (this.initialActiveColor == EnumChessColor.BLACK ? 1 : 0);
+        return this.initialFullmoveNumber + plies / 2;
+    }
+
     Move getLastMove() {
         if (this.moves.isEmpty()) {
             return null;
@@ -72,6 +165,10 @@ public class ChessBoardState {
         return this.moves.get(this.moves.size() - 1);
     }
 
+    List<Move> getMoves() {
+        return Collections.unmodifiableList(this.moves);
+    }
+
     void addMoveToHistory(Move move) {
         this.moves.add(move);
     }
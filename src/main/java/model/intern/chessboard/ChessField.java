@@ -1,12 +1,11 @@
 package model.intern.chessboard;
 
-import model.intern.chessmove.Move;
 import model.intern.chessmove.MovePath;
 import model.intern.chessmove.MovePathCreator;
-import model.intern.chessmove.MoveValidationResult;
 import model.intern.chesspieces.King;
 import model.common.Coordinates;
 import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
 import model.intern.chesspieces.ChessPiece;
 
 import java.util.ArrayList;
@@ -21,11 +20,13 @@ import java.util.stream.Collectors;
 public class ChessField extends Observable {
 
     private final Coordinates coordinates;
+    private final int square;
     private ChessPiece piece;
     private final ChessBoard board;
 
     public ChessField(int x, int y, ChessBoard board) {
         this.coordinates = new Coordinates(x, y);
+        this.square = BitBoard.toSquare(x, y);
         this.board = board;
     }
 
@@ -34,7 +35,14 @@ public class ChessField extends Observable {
      * All observers of this field are notified about this to be able to react to the piece change on this field.
      */
     public void setPiece(ChessPiece piece) {
+        ChessPiece oldPiece = this.piece;
         this.piece = piece;
+        if (oldPiece != null) {
+            this.board.pieceRemoved(this, oldPiece);
+        }
+        if (piece != null) {
+            this.board.pieceAdded(this, piece);
+        }
         if (piece instanceof King) {
             this.board.changeFieldOfKing(this);
         }
@@ -42,33 +50,25 @@ public class ChessField extends Observable {
         notifyObservers(this);
     }
 
+    /**
+     * Sets the given piece (or none) on this chess field without notifying the observers and without registering
+     * it in the bitboards, which is done by the chess board for a whole position at once (see ChessBoard.loadFen).
+     */
+    void placePiece(ChessPiece piece) {
+        this.piece = piece;
+        if (piece instanceof King) {
+            this.board.changeFieldOfKing(this);
+        }
+    }
+
     /**
      * Returns all possible fields, where the piece on this field can go to.
      */
     public List<Coordinates> findPossibleNewFields() {
-        List<ChessField> result = new ArrayList<>();
-
         if (!this.hasPiece()) {
             return Collections.emptyList();
         }
-
-        List<MovePath> movePaths = MovePathCreator.getInstance().findAllMovePaths(this.board, this, true);
-        for (MovePath movePath : movePaths) {
-            for (ChessField possibleField : movePath.getFieldsOnPath()) {
-                if (!possibleField.hasPiece() || possibleField.getPiece().getColor() != this.getPiece().getColor()) {
-                    Move move = new Move(this, possibleField);
-                    MoveValidationResult moveValidation = this.getPiece().isMoveValid(movePath.getDirection(), move, this.board);
-                    boolean possibleFieldThreatened = !possibleField.findThreateningMoveDirections(this.piece.getColor()).isEmpty();
-                    if (moveValidation.isMoveValid() && (!possibleFieldThreatened || this.getPiece().canMoveToThreatenedField())) {
-                        result.add(possibleField);
-                    }
-                }
-            }
-        }
-
-        return result.stream()
-                .map(ChessField::getCoordinates)
-                .collect(Collectors.toList());
+        return this.board.findPossibleNewFields(this);
     }
 
     /**
@@ -87,40 +87,33 @@ public class ChessField extends Observable {
      * at the end of the MovePath which is able to reach this field with one move.
      */
     public List<MovePath> findThreateningMoveDirections(EnumChessColor activeColor) {
-        return findThreateningMoveDirections(activeColor, true);
-    }
-
-    private List<MovePath> findThreateningMoveDirections(EnumChessColor activeColor, boolean checkOwnProtection) {
         List<MovePath> result = new ArrayList<>();
 
-        List<MovePath> movePaths = MovePathCreator.getInstance().findAllMovePaths(this.board, this, false);
-        for (MovePath movePath : movePaths) {
-            ChessField lastFieldOfPath = movePath.getLastFieldOfPath();
-            if (lastFieldOfPath != null && lastFieldOfPath.hasPiece() && lastFieldOfPath.getPiece().getColor() != activeColor) {
-                Move move = new Move(lastFieldOfPath, this);
-                MoveValidationResult attackValidation = lastFieldOfPath.getPiece().isMoveValid(movePath.getDirection(), move, this.board);
-                // The attack move has to be valid in any case AND
-                // the opponent piece must either be able to go on a protected field (so not being a King) OR
-                // the field has to be not protected at all.
-                if (attackValidation.isMoveValid() &&
-                        (lastFieldOfPath.getPiece().canMoveToThreatenedField()
-                                || !isCurrentFieldProtectedByOwnPiece(activeColor, checkOwnProtection))) {
-                    result.add(movePath);
-                }
-            }
+        BitBoard bitBoard = this.board.getBitBoard();
+        EnumChessColor opponentColor = activeColor.getOtherColor();
+        long attackers = this.board.getAttackMap().getAttackers(this.square, opponentColor);
+        long opponentKing = bitBoard.getPieces(opponentColor, EnumChessPiece.KING);
+
+        // The opponent king must not go on a protected field, so it only threatens this field if it is not protected.
+        if ((attackers & opponentKing) != 0 && isCurrentFieldProtectedByOwnPiece(activeColor)) {
+            attackers &= ~opponentKing;
+        }
+
+        while (attackers != 0) {
+            ChessField fieldAttacker = this.board.getField(Long.numberOfTrailingZeros(attackers));
+            attackers &= attackers - 1;
+            result.add(MovePathCreator.getInstance().createMovePath(this.board, this.coordinates, fieldAttacker.getCoordinates()));
         }
 
         return result;
     }
 
     /**
-     * Returns always false, if checkOwnProtection is given as false.
-     * If checkOwnProtection is true, it returns whether this field is protected by a piece of the active color.
+     * Returns whether this field is protected by a piece of the active color.
      * This field can never be protected by the piece that is currently on it.
      */
-    private boolean isCurrentFieldProtectedByOwnPiece(EnumChessColor activeColor, boolean checkOwnProtection) {
-        return !checkOwnProtection
-                || findThreateningMoveDirections(activeColor.getOtherColor(), false).isEmpty();
+    private boolean isCurrentFieldProtectedByOwnPiece(EnumChessColor activeColor) {
+        return this.board.getAttackMap().isAttacked(this.square, activeColor);
     }
 
     /**
@@ -144,12 +137,23 @@ public class ChessField extends Observable {
         return this.piece != null;
     }
 
+    /**
+     * Returns the square index of this field in the bitboards of the chess board.
+     */
+    public int getSquare() {
+        return this.square;
+    }
+
     /**
      * Removes the current piece from this field.
      * This method can also be called, when there is no piece to remove.
      */
     public void removePiece() {
+        ChessPiece oldPiece = this.piece;
         this.piece = null;
+        if (oldPiece != null) {
+            this.board.pieceRemoved(this, oldPiece);
+        }
     }
 
 }
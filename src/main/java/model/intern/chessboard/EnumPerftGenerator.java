@@ -0,0 +1,15 @@
+package model.intern.chessboard;
+
+/**
+ * Where the moves of a perft run are executed.
+ */
+public enum EnumPerftGenerator {
+    /**
+     * The moves are executed on the chess fields of the chess board (executeMove/revertLastMove).
+     */
+    CHESS_BOARD,
+    /**
+     * The moves are executed on a copy of the bitboard of the chess board (makeMove/unmakeMove).
+     */
+    BIT_BOARD
+}
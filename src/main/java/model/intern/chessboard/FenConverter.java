@@ -0,0 +1,217 @@
+package model.intern.chessboard;
+
+import model.common.EnumChessColor;
+import model.intern.chesspieces.*;
+import model.intern.exceptions.ExcInvalidFen;
+
+/**
+ * This class converts positions from and to the Forsyth-Edwards Notation (FEN), e.g. the starting position
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1".
+ * A FEN is parsed and checked completely before the chess board is changed.
+ */
+class FenConverter {
+
+    private static final int WIDTH = 8;
+    // Letters of the black pieces by ordinal of EnumChessPiece; white pieces are upper case.
+    private static final String PIECE_LETTERS = "prnbqk";
+    private static final String CASTLING_LETTERS = "KQkq";
+    private static final int[] CASTLING_FLAGS = {
+            BitBoard.CASTLING_WHITE_KING_SIDE, BitBoard.CASTLING_WHITE_QUEEN_SIDE,
+            BitBoard.CASTLING_BLACK_KING_SIDE, BitBoard.CASTLING_BLACK_QUEEN_SIDE};
+
+    private static FenConverter fenConverter;
+    private FenConverter(){}
+
+    static FenConverter getInstance() {
+        if (fenConverter == null) {
+            fenConverter = new FenConverter();
+        }
+        return fenConverter;
+    }
+
+    /**
+     * Sets up the position of the given FEN on the given chess board. The move counters may be missing.
+     */
+    void loadFen(ChessBoard board, String fen) throws ExcInvalidFen {
+        String[] parts = fen.trim().split("\\s+");
+        if (parts.length < 4 || parts.length > 6) {
+            throw new ExcInvalidFen("A FEN has four to six fields: " + fen);
+        }
+
+        ChessPiece[] piecesBySquare = parsePlacement(parts[0]);
+        EnumChessColor activeColor = parseActiveColor(parts[1]);
+        int castlingRights = parseCastlingRights(parts[2]);
+        int enPassantSquare = parseEnPassantSquare(parts[3], activeColor, piecesBySquare);
+        int halfmoveClock = parts.length > 4 ? parseNumber(parts[4], 0) : 0;
+        int fullmoveNumber = parts.length > 5 ? parseNumber(parts[5], 1) : 1;
+
+        board.setPosition(piecesBySquare, activeColor, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber);
+    }
+
+    private static ChessPiece[] parsePlacement(String placement) throws ExcInvalidFen {
+        ChessPiece[] piecesBySquare = new ChessPiece[BitBoard.NUMBER_OF_SQUARES];
+        int[] numberOfKings = new int[EnumChessColor.values().length];
+        int y = WIDTH - 1;
+        int x = 0;
+        for (int i = 0; i < placement.length(); i++) {
+            char c = placement.charAt(i);
+            if (c == '/') {
+                if (x != WIDTH || y == 0) {
+                    throw new ExcInvalidFen("Invalid rank " + (y + 1) + " in " + placement);
+                }
+                y--;
+                x = 0;
+            } else if (c >= '1' && c <= '8') {
+                x += c - '0';
+                if (x > WIDTH) {
+                    throw new ExcInvalidFen("Too many fields in rank " + (y + 1) + " in " + placement);
+                }
+            } else {
+                if (x >= WIDTH) {
+                    throw new ExcInvalidFen("Too many fields in rank " + (y + 1) + " in " + placement);
+                }
+                ChessPiece piece = createPiece(c);
+                if (piece instanceof King) {
+                    numberOfKings[piece.getColor().ordinal()]++;
+                }
+                piecesBySquare[BitBoard.toSquare(x, y)] = piece;
+                x++;
+            }
+        }
+        if (x != WIDTH || y != 0) {
+            throw new ExcInvalidFen("A FEN has eight ranks of eight fields: " + placement);
+        }
+        if (numberOfKings[EnumChessColor.WHITE.ordinal()] != 1 || numberOfKings[EnumChessColor.BLACK.ordinal()] != 1) {
+            throw new ExcInvalidFen("Each color needs exactly one king: " + placement);
+        }
+        return piecesBySquare;
+    }
+
+    private static ChessPiece createPiece(char letter) throws ExcInvalidFen {
+        EnumChessColor color = Character.isUpperCase(letter) ? EnumChessColor.WHITE : EnumChessColor.BLACK;
+        switch (Character.toLowerCase(letter)) {
+            case 'p':
+                return new Pawn(color);
+            case 'r':
+                return new Rook(color);
+            case 'n':
+                return new Knight(color);
+            case 'b':
+                return new Bishop(color);
+            case 'q':
+                return new Queen(color);
+            case 'k':
+                return new King(color);
+            default:
+                throw new ExcInvalidFen("Invalid piece: " + letter);
+        }
+    }
+
+    private static EnumChessColor parseActiveColor(String activeColor) throws ExcInvalidFen {
+        switch (activeColor) {
+            case "w":
+                return EnumChessColor.WHITE;
+            case "b":
+                return EnumChessColor.BLACK;
+            default:
+                throw new ExcInvalidFen("Invalid active color: " + activeColor);
+        }
+    }
+
+    private static int parseCastlingRights(String castling) throws ExcInvalidFen {
+        if (castling.equals("-")) {
+            return 0;
+        }
+        int castlingRights = 0;
+        for (int i = 0; i < castling.length(); i++) {
+            int index = CASTLING_LETTERS.indexOf(castling.charAt(i));
+            if (index < 0 || (castlingRights & CASTLING_FLAGS[index]) != 0) {
+                throw new ExcInvalidFen("Invalid castling rights: " + castling);
+            }
+            castlingRights |= CASTLING_FLAGS[index];
+        }
+        return castlingRights;
+    }
+
+    private static int parseEnPassantSquare(String enPassant, EnumChessColor activeColor, ChessPiece[] piecesBySquare)
+            throws ExcInvalidFen {
+        if (enPassant.equals("-")) {
+            return BitBoard.NO_SQUARE;
+        }
+        // The square behind a pawn of the other color, which has just made a double step.
+        char rank = activeColor == EnumChessColor.WHITE ? '6' : '3';
+        if (enPassant.length() != 2 || enPassant.charAt(0) < 'a' || enPassant.charAt(0) > 'h' || enPassant.charAt(1) != rank) {
+            throw new ExcInvalidFen("Invalid en passant square: " + enPassant);
+        }
+        int square = BitBoard.toSquare(enPassant.charAt(0) - 'a', enPassant.charAt(1) - '1');
+        // The pawn stands in front of the square (seen from the active color), and the squares it has passed are empty.
+        int direction = activeColor == EnumChessColor.WHITE ? -WIDTH : WIDTH;
+        ChessPiece pawn = piecesBySquare[square + direction];
+        if (!(pawn instanceof Pawn) || pawn.getColor() == activeColor
+                || piecesBySquare[square] != null || piecesBySquare[square - direction] != null) {
+            throw new ExcInvalidFen("No pawn has just made a double step over the en passant square: " + enPassant);
+        }
+        return square;
+    }
+
+    private static int parseNumber(String number, int minimum) throws ExcInvalidFen {
+        try {
+            int result = Integer.parseInt(number);
+            if (result >= minimum) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below like a number out of range.
+        }
+        throw new ExcInvalidFen("Invalid move counter: " + number);
+    }
+
+    /**
+     * Returns the FEN of the position of the given bitboard with the given move counters.
+     */
+    String toFen(BitBoard bitBoard, int halfmoveClock, int fullmoveNumber) {
+        StringBuilder result = new StringBuilder(90);
+        for (int y = WIDTH - 1; y >= 0; y--) {
+            int emptyFields = 0;
+            for (int x = 0; x < WIDTH; x++) {
+                int square = BitBoard.toSquare(x, y);
+                if (!bitBoard.isOccupied(square)) {
+                    emptyFields++;
+                    continue;
+                }
+                if (emptyFields > 0) {
+                    result.append(emptyFields);
+                    emptyFields = 0;
+                }
+                char letter = PIECE_LETTERS.charAt(bitBoard.getPieceType(square).ordinal());
+                result.append(bitBoard.getColor(square) == EnumChessColor.WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if (emptyFields > 0) {
+                result.append(emptyFields);
+            }
+            if (y > 0) {
+                result.append('/');
+            }
+        }
+
+        result.append(bitBoard.getActiveColor() == EnumChessColor.WHITE ? " w " : " b ");
+        int castlingRights = bitBoard.getCastlingRights();
+        if (castlingRights == 0) {
+            result.append('-');
+        }
+        for (int i = 0; i < CASTLING_FLAGS.length; i++) {
+            if ((castlingRights & CASTLING_FLAGS[i]) != 0) {
+                result.append(CASTLING_LETTERS.charAt(i));
+            }
+        }
+
+        int enPassantSquare = bitBoard.getEnPassantSquare();
+        if (enPassantSquare == BitBoard.NO_SQUARE) {
+            result.append(" -");
+        } else {
+            result.append(' ').append((char) ('a' + (enPassantSquare & 7))).append((char) ('1' + (enPassantSquare >>> 3)));
+        }
+        return result.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber).toString();
+    }
+
+}
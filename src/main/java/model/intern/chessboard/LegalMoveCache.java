@@ -0,0 +1,72 @@
+package model.intern.chessboard;
+
+import model.common.Coordinates;
+import model.common.EnumChessColor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cache of the legal target fields of all pieces of the current position, separately for both colors.
+ * The lists of a color are valid as long as the Zobrist key of the position is unchanged,
+ * so executing or reverting a move (or changing any field) invalidates them.
+ */
+class LegalMoveCache {
+
+    private final long[] keys;
+    private final boolean[] filled;
+    // Targets of the pieces by square, for each color.
+    private final List<List<List<Coordinates>>> targetsBySquare;
+    private long hits;
+    private long misses;
+
+    LegalMoveCache() {
+        int numberOfColors = EnumChessColor.values().length;
+        this.keys = new long[numberOfColors];
+        this.filled = new boolean[numberOfColors];
+        this.targetsBySquare = new ArrayList<>(Collections.nCopies(numberOfColors, null));
+    }
+
+    /**
+     * Returns the cached targets of the piece of the given color on the given square,
+     * or null if the targets of that color have not been cached for the position with the given key.
+     */
+    List<Coordinates> find(long key, EnumChessColor color, int square) {
+        int index = color.ordinal();
+        if (this.filled[index] && this.keys[index] == key) {
+            this.hits++;
+            return this.targetsBySquare.get(index).get(square);
+        }
+        this.misses++;
+        return null;
+    }
+
+    /**
+     * Replaces the cached targets of the given color by the given ones (indexed by square),
+     * which belong to the position with the given key.
+     */
+    void fill(long key, EnumChessColor color, List<List<Coordinates>> targetsBySquare) {
+        int index = color.ordinal();
+        this.targetsBySquare.set(index, targetsBySquare);
+        this.keys[index] = key;
+        this.filled[index] = true;
+    }
+
+    /**
+     * Invalidates the cached targets of both colors.
+     */
+    void clear() {
+        this.filled[0] = false;
+        this.filled[1] = false;
+    }
+
+    long getHits() {
+        return this.hits;
+    }
+
+    long getMisses() {
+        return this.misses;
+    }
+
+}
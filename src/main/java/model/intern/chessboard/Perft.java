@@ -0,0 +1,160 @@
+package model.intern.chessboard;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidMove;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Performance test (perft) of the move generation: counts all leaf nodes of the tree of legal moves
+ * up to a given depth, starting from the current position of a chess board.
+ * The node counts of well known positions prove the correctness of the move generation,
+ * the time needed for counting them measures its throughput.
+ *
+ * The moves can either be executed on the chess board itself (executeMove/revertLastMove),
+ * or on a copy of its bitboard (makeMove/unmakeMove), which is much faster.
+ * The chess board is in its original position again after each call.
+ */
+public class Perft {
+
+    private final ChessBoard board;
+
+    public Perft(ChessBoard board) {
+        this.board = board;
+    }
+
+    /**
+     * Returns the number of leaf nodes of the tree of legal moves with the given depth,
+     * executing all moves on the chess board.
+     */
+    public long perft(int depth) {
+        return perft(depth, EnumPerftGenerator.CHESS_BOARD);
+    }
+
+    /**
+     * Returns the number of leaf nodes of the tree of legal moves with the given depth,
+     * executing all moves with the given generator.
+     */
+    public long perft(int depth, EnumPerftGenerator generator) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[][] moves = new int[depth][MoveGenerator.MAX_MOVES];
+        if (generator == EnumPerftGenerator.BIT_BOARD) {
+            return perftBitBoard(createBitBoard(), depth, moves);
+        }
+        return perftChessBoard(depth, moves);
+    }
+
+    /**
+     * Returns the number of leaf nodes per legal move of the current position (perft divide),
+     * executing all moves on the chess board. The moves are given in the form "e2e4" or "e7e8q".
+     */
+    public Map<String, Long> divide(int depth) {
+        return divide(depth, EnumPerftGenerator.CHESS_BOARD);
+    }
+
+    /**
+     * Returns the number of leaf nodes per legal move of the current position (perft divide),
+     * executing all moves with the given generator. The moves are given in the form "e2e4" or "e7e8q".
+     */
+    public Map<String, Long> divide(int depth, EnumPerftGenerator generator) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The depth of perft divide must be at least 1: " + depth);
+        }
+        int[][] moves = new int[depth][MoveGenerator.MAX_MOVES];
+        BitBoard bitBoard = createBitBoard();
+        int numberOfMoves = MoveGenerator.generateMoves(bitBoard, bitBoard.getActiveColor(), moves[0]);
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < numberOfMoves; i++) {
+            int move = moves[0][i];
+            long nodes;
+            if (generator == EnumPerftGenerator.BIT_BOARD) {
+                bitBoard.makeMove(move);
+                nodes = depth == 1 ? 1 : perftBitBoard(bitBoard, depth - 1, moves);
+                bitBoard.unmakeMove(move);
+            } else {
+                executeMove(move);
+                nodes = depth == 1 ? 1 : perftChessBoard(depth - 1, moves);
+                this.board.revertLastMove();
+            }
+            result.put(MoveEncoding.toString(move), nodes);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the leaf nodes of the tree of legal moves with the given depth
+     * and measures the time needed for it.
+     */
+    public PerftResult measure(int depth, EnumPerftGenerator generator) {
+        long start = System.nanoTime();
+        long nodes = perft(depth, generator);
+        return new PerftResult(nodes, System.nanoTime() - start);
+    }
+
+    private long perftChessBoard(int depth, int[][] moves) {
+        int[] movesOfPly = moves[moves.length - depth];
+        this.board.updateBitBoardState();
+        int numberOfMoves = MoveGenerator.generateMoves(
+                this.board.getBitBoard(), this.board.getActiveColor(), movesOfPly);
+        if (depth == 1) {
+            // Each move is executed nevertheless, as executeMove is part of what is tested.
+            for (int i = 0; i < numberOfMoves; i++) {
+                executeMove(movesOfPly[i]);
+                this.board.revertLastMove();
+            }
+            return numberOfMoves;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < numberOfMoves; i++) {
+            executeMove(movesOfPly[i]);
+            nodes += perftChessBoard(depth - 1, moves);
+            this.board.revertLastMove();
+        }
+        return nodes;
+    }
+
+    private void executeMove(int move) {
+        try {
+            this.board.executeMove(
+                    BitBoard.toCoordinates(MoveEncoding.getFrom(move)),
+                    BitBoard.toCoordinates(MoveEncoding.getTo(move)),
+                    MoveEncoding.isPromotion(move) ? MoveEncoding.getPromotionPiece(move) : EnumChessPiece.QUEEN);
+        } catch (ExcInvalidMove e) {
+            throw new IllegalStateException("The generated move " + MoveEncoding.toString(move)
+                    + " has been rejected by the chess board", e);
+        }
+    }
+
+    private static long perftBitBoard(BitBoard bitBoard, int depth, int[][] moves) {
+        int[] movesOfPly = moves[moves.length - depth];
+        EnumChessColor color = bitBoard.getActiveColor();
+        int numberOfMoves = MoveGenerator.generateMoves(bitBoard, color, movesOfPly);
+        if (depth == 1) {
+            // Bulk counting: the moves of the last ply do not need to be executed.
+            return numberOfMoves;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < numberOfMoves; i++) {
+            int move = movesOfPly[i];
+            bitBoard.makeMove(move);
+            nodes += perftBitBoard(bitBoard, depth - 1, moves);
+            bitBoard.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    private BitBoard createBitBoard() {
+        this.board.updateBitBoardState();
+        return new BitBoard(this.board.getBitBoard());
+    }
+
+}
@@ -0,0 +1,36 @@
+package model.intern.chessboard;
+
+/**
+ * Result of a measured perft run: the number of counted leaf nodes and the time needed for counting them.
+ */
+public class PerftResult {
+
+    private final long nodes;
+    private final long nanoseconds;
+
+    PerftResult(long nodes, long nanoseconds) {
+        this.nodes = nodes;
+        this.nanoseconds = nanoseconds;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getNanoseconds() {
+        return this.nanoseconds;
+    }
+
+    /**
+     * Returns the number of counted leaf nodes per second.
+     */
+    public long getNodesPerSecond() {
+        return this.nanoseconds == 0 ? 0 : this.nodes * 1_000_000_000L / this.nanoseconds;
+    }
+
+    @Override
+    public String toString() {
+        return this.nodes + " nodes in " + this.nanoseconds / 1_000_000 + " ms (" + getNodesPerSecond() + " nodes/s)";
+    }
+
+}
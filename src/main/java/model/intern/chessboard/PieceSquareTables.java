@@ -0,0 +1,152 @@
+package model.intern.chessboard;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+
+/**
+ * Material values and piece-square tables for the middlegame and the endgame, in centipawns.
+ * The value of a piece on a square is its material value plus the bonus of the square in the table of its type.
+ * Values are signed from the point of view of white (pieces of black count negative),
+ * so that a bitboard can add and subtract them whenever a piece is put on or removed from a square.
+ *
+ * The game phase is the sum of the phase weights of all pieces on the board (MAX_PHASE at the start).
+ * The evaluation interpolates between the middlegame and the endgame scores by the phase.
+ */
+public final class PieceSquareTables {
+
+    /**
+     * Phase of the starting position: 4 knights, 4 bishops, 4 rooks and 2 queens.
+     */
+    public static final int MAX_PHASE = 24;
+
+    private static final int[] PIECE_VALUES = new int[EnumChessPiece.values().length];
+    private static final int[] PHASE_WEIGHTS = new int[EnumChessPiece.values().length];
+
+    // The tables are written as seen from white, with rank 8 in the first row.
+    private static final int[] PAWN = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] PAWN_ENDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             15,  15,  15,  15,  15,  15,  15,  15,
+              5,   5,   5,   5,   5,   5,   5,   5,
+              0,   0,   0,   0,   0,   0,   0,   0,
+              0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0};
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20};
+    private static final int[] KING = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20};
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+
+    private static final int[][][] MIDDLEGAME =
+            new int[EnumChessColor.values().length][EnumChessPiece.values().length][BitBoard.NUMBER_OF_SQUARES];
+    private static final int[][][] ENDGAME =
+            new int[EnumChessColor.values().length][EnumChessPiece.values().length][BitBoard.NUMBER_OF_SQUARES];
+
+    static {
+        setPiece(EnumChessPiece.PAWN, 100, 0, PAWN, PAWN_ENDGAME);
+        setPiece(EnumChessPiece.KNIGHT, 320, 1, KNIGHT, KNIGHT);
+        setPiece(EnumChessPiece.BISHOP, 330, 1, BISHOP, BISHOP);
+        setPiece(EnumChessPiece.ROOK, 500, 2, ROOK, ROOK);
+        setPiece(EnumChessPiece.QUEEN, 900, 4, QUEEN, QUEEN);
+        setPiece(EnumChessPiece.KING, 0, 0, KING, KING_ENDGAME);
+    }
+
+    private PieceSquareTables() {}
+
+    private static void setPiece(EnumChessPiece pieceType, int value, int phaseWeight, int[] middlegame, int[] endgame) {
+        int type = pieceType.ordinal();
+        PIECE_VALUES[type] = value;
+        PHASE_WEIGHTS[type] = phaseWeight;
+        for (int square = 0; square < BitBoard.NUMBER_OF_SQUARES; square++) {
+            // Row 0 of a table is rank 8 for white; black sees the table mirrored.
+            int whiteIndex = square ^ 56;
+            MIDDLEGAME[EnumChessColor.WHITE.ordinal()][type][square] = value + middlegame[whiteIndex];
+            ENDGAME[EnumChessColor.WHITE.ordinal()][type][square] = value + endgame[whiteIndex];
+            MIDDLEGAME[EnumChessColor.BLACK.ordinal()][type][square] = -value - middlegame[square];
+            ENDGAME[EnumChessColor.BLACK.ordinal()][type][square] = -value - endgame[square];
+        }
+    }
+
+    /**
+     * Returns the material value of the given piece type in centipawns (0 for the king).
+     */
+    public static int getPieceValue(EnumChessPiece pieceType) {
+        return PIECE_VALUES[pieceType.ordinal()];
+    }
+
+    static int pieceValue(int pieceType) {
+        return PIECE_VALUES[pieceType];
+    }
+
+    static int phaseWeight(int pieceType) {
+        return PHASE_WEIGHTS[pieceType];
+    }
+
+    static int middlegame(int color, int pieceType, int square) {
+        return MIDDLEGAME[color][pieceType][square];
+    }
+
+    static int endgame(int color, int pieceType, int square) {
+        return ENDGAME[color][pieceType][square];
+    }
+
+}
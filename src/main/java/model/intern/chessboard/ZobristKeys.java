@@ -0,0 +1,70 @@
+package model.intern.chessboard;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random numbers for the Zobrist hashing of positions.
+ * The key of a position is the XOR of the numbers of all pieces on their squares, of the side to move,
+ * of the castling rights and of the file of the en passant square. As XOR is its own inverse,
+ * a move changes the key with a few XORs instead of hashing the whole board again.
+ * The numbers are created with a fixed seed, so that keys are the same in every run.
+ */
+final class ZobristKeys {
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final long[][][] PIECES =
+            new long[EnumChessColor.values().length][EnumChessPiece.values().length][BitBoard.NUMBER_OF_SQUARES];
+    private static final long[] CASTLING_RIGHTS = new long[16];
+    private static final long[] EN_PASSANT_FILES = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[][] piecesOfColor : PIECES) {
+            for (long[] squares : piecesOfColor) {
+                for (int square = 0; square < squares.length; square++) {
+                    squares[square] = random.nextLong();
+                }
+            }
+        }
+        // One number per castling right; each combination is the XOR of its rights.
+        long[] singleRights = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int rights = 0; rights < CASTLING_RIGHTS.length; rights++) {
+            for (int i = 0; i < singleRights.length; i++) {
+                if ((rights & (1 << i)) != 0) {
+                    CASTLING_RIGHTS[rights] ^= singleRights[i];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT_FILES.length; file++) {
+            EN_PASSANT_FILES[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private ZobristKeys() {}
+
+    static long piece(int color, int pieceType, int square) {
+        return PIECES[color][pieceType][square];
+    }
+
+    static long castlingRights(int castlingRights) {
+        return CASTLING_RIGHTS[castlingRights];
+    }
+
+    /**
+     * Returns the number of the file of the given en passant square, or 0 if there is none.
+     */
+    static long enPassantSquare(int enPassantSquare) {
+        return enPassantSquare == BitBoard.NO_SQUARE ? 0L : EN_PASSANT_FILES[enPassantSquare & 7];
+    }
+
+    static long sideToMove(EnumChessColor activeColor) {
+        return activeColor == EnumChessColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+
+}
@@ -0,0 +1,261 @@
+package model.intern.chessmove;
+
+import model.common.EnumChessColor;
+
+/**
+ * Precomputed attack tables for all chess pieces, which are built once when this class is loaded.
+ * Squares are given by their bitboard index (y * 8 + x).
+ *
+ * Knight, king and pawn attacks are looked up directly by the square.
+ * Linear and diagonal attacks of sliding pieces are looked up with magic bitboards:
+ * the occupancy of the rays of the square is multiplied by a magic number,
+ * and the upper bits of the product form the index into the precomputed attack sets of that square.
+ */
+public final class AttackTables {
+
+    private static final int[][] LINEAR_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] DIAGONAL_DIRECTIONS = {{1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+    private static final int[][] JUMPS = {{-2, 1}, {-1, 2}, {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[EnumChessColor.values().length][64];
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+    private static final long[][][] RAYS = new long[3][3][64];
+
+    private static final long[] LINEAR_MAGICS = {
+            0x8080002040008010L, 0x0240100020004000L, 0x0200200A00108040L, 0x0200100822000440L,
+            0x06000A0004600810L, 0x0980020001140080L, 0x040004029008110EL, 0x0200004100802402L,
+            0x0080800040008020L, 0x0050400040201000L, 0x0004802001100080L, 0x2810801002880180L,
+            0x1300800800040080L, 0x5802001004020008L, 0x0005000402000100L, 0x0202000061008A04L,
+            0x1010820021004200L, 0x500140C010002001L, 0x0000410010200101L, 0x0900220010084200L,
+            0x8001010004100800L, 0x0A02008004008002L, 0x0400040010020108L, 0x01004A0000910044L,
+            0x0200400080008030L, 0x0000400040201000L, 0x0A41004100102000L, 0x1040080080100080L,
+            0x0008008080040008L, 0x1414020080800400L, 0x0414888400010210L, 0x0008004200008104L,
+            0x0242004082002100L, 0x2400201000400040L, 0x0006200841001100L, 0x080240100A002200L,
+            0x0124004008080080L, 0x8404004100400200L, 0xA401000401000200L, 0x4020042042001081L,
+            0x0030804000208000L, 0x3010002002444010L, 0x000A002080120040L, 0x8808008030028048L,
+            0x080C000802808004L, 0x0045000204010008L, 0x8000020110040008L, 0x320002824402002DL,
+            0xA800800220C01280L, 0x1404400084200480L, 0x4021001020004100L, 0x0200800800100080L,
+            0x498C000800048080L, 0x0300020004008080L, 0x0004411088020400L, 0x4080010084004200L,
+            0x04081A8000210143L, 0x1600400080110021L, 0x0000401008200501L, 0x0414081001002005L,
+            0x0081000800500205L, 0x40070002181C0005L, 0x0C04103802010084L, 0x2000082400830942L
+    };
+    private static final long[] DIAGONAL_MAGICS = {
+            0x6210040108003500L, 0x0011100080808801L, 0x00D000A0A1010200L, 0x8104440280462000L,
+            0x6102121008080000L, 0x2888411010400120L, 0x0014108219200A02L, 0x209A620104202680L,
+            0x0000C012044C00A0L, 0x1400040104190201L, 0x1008080828588818L, 0x0811022082000000L,
+            0x0205108820002820L, 0x0120020924205050L, 0x0003690410040420L, 0x6DC0020044044420L,
+            0x000802A008100094L, 0x0210000204180086L, 0x8802010424040008L, 0x0008881802004042L,
+            0x00C4000088A00100L, 0x0200800040602010L, 0x0A01032201012000L, 0x0003015280880102L,
+            0x0110248110241084L, 0x0050024410242902L, 0x0806280090004140L, 0x0020200802008008L,
+            0x8000840002020204L, 0x0000820208221000L, 0x1000890804880881L, 0x0800409005040101L,
+            0x08016008A0101000L, 0x0288088202082220L, 0x0208220100480802L, 0x4848600802030105L,
+            0x1020008480040020L, 0x0010060200E22080L, 0x2008410120104802L, 0x3014010A14402080L,
+            0x00112C6260204023L, 0xA0020829140C0882L, 0x2002010041180800L, 0x0100A24208020080L,
+            0x2000084104000040L, 0x0049030106020301L, 0x0864501086002901L, 0xD641850E00800202L,
+            0x0280821010040800L, 0x1001042101280090L, 0x8014420100881182L, 0x802C2080208802A0L,
+            0x000044102048481FL, 0x224040388800C000L, 0x005DC90801040008L, 0x010801114C010152L,
+            0x2010120082201005L, 0x0202082082101002L, 0x0400001600840417L, 0x0808002520460800L,
+            0x001008C020020491L, 0x0004019021012108L, 0x000110C401080214L, 0x0523040402840B00L
+    };
+
+    private static final MagicTable LINEAR = new MagicTable(LINEAR_DIRECTIONS, LINEAR_MAGICS);
+    private static final MagicTable DIAGONAL = new MagicTable(DIAGONAL_DIRECTIONS, DIAGONAL_MAGICS);
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = walk(square, 0L, JUMPS, false);
+            KING_ATTACKS[square] = walk(square, 0L, LINEAR_DIRECTIONS, false) | walk(square, 0L, DIAGONAL_DIRECTIONS, false);
+            PAWN_ATTACKS[EnumChessColor.WHITE.ordinal()][square] = walk(square, 0L, new int[][]{{-1, 1}, {1, 1}}, false);
+            PAWN_ATTACKS[EnumChessColor.BLACK.ordinal()][square] = walk(square, 0L, new int[][]{{-1, -1}, {1, -1}}, false);
+
+            for (int deltaX = -1; deltaX <= 1; deltaX++) {
+                for (int deltaY = -1; deltaY <= 1; deltaY++) {
+                    if (deltaX != 0 || deltaY != 0) {
+                        RAYS[deltaX + 1][deltaY + 1][square] = walk(square, 0L, new int[][]{{deltaX, deltaY}}, true);
+                    }
+                }
+            }
+        }
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                int deltaX = Integer.signum((to & 7) - (from & 7));
+                int deltaY = Integer.signum((to >>> 3) - (from >>> 3));
+                long ray = from == to ? 0L : RAYS[deltaX + 1][deltaY + 1][from];
+                if ((ray & (1L << to)) != 0) {
+                    BETWEEN[from][to] = ray & ~RAYS[deltaX + 1][deltaY + 1][to] & ~(1L << to);
+                    LINE[from][to] = ray | RAYS[1 - deltaX][1 - deltaY][from] | (1L << from);
+                }
+            }
+        }
+    }
+
+    private AttackTables() {}
+
+    /**
+     * Returns all squares attacked by a knight on the given square.
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Returns all squares attacked by a king on the given square.
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Returns all squares attacked by a pawn of the given color on the given square.
+     */
+    public static long pawnAttacks(int square, EnumChessColor color) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Returns all squares attacked linearly (rook movement) from the given square.
+     * The first occupied square in each direction is included.
+     */
+    public static long linearAttacks(int square, long occupancy) {
+        return LINEAR.lookup(square, occupancy);
+    }
+
+    /**
+     * Returns all squares attacked diagonally (bishop movement) from the given square.
+     * The first occupied square in each direction is included.
+     */
+    public static long diagonalAttacks(int square, long occupancy) {
+        return DIAGONAL.lookup(square, occupancy);
+    }
+
+    /**
+     * Returns all squares attacked linearly and diagonally (queen movement) from the given square.
+     */
+    public static long queenAttacks(int square, long occupancy) {
+        return LINEAR.lookup(square, occupancy) | DIAGONAL.lookup(square, occupancy);
+    }
+
+    /**
+     * Returns all squares attacked from the given square with the given way of moving.
+     */
+    public static long findAttacks(EnumMovePath movePath, int square, long occupancy) {
+        switch (movePath) {
+            case LINEAR:
+                return linearAttacks(square, occupancy);
+            case DIAGONAL:
+                return diagonalAttacks(square, occupancy);
+            default:
+                return knightAttacks(square);
+        }
+    }
+
+    /**
+     * Returns all squares strictly between the two given squares,
+     * if they are on a common line or diagonal. Otherwise, 0 is returned.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Returns all squares of the whole line or diagonal (from border to border) through the two given squares,
+     * if they are on a common line or diagonal. Otherwise, 0 is returned.
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Returns all squares from the given square (exclusive) to the border of the board
+     * in the direction given by deltaX and deltaY (each -1, 0 or 1).
+     */
+    public static long ray(int square, int deltaX, int deltaY) {
+        return RAYS[deltaX + 1][deltaY + 1][square];
+    }
+
+    /**
+     * Returns the squares reached by walking from the given square into the given directions.
+     * Sliding walks continue until the border or the first occupied square (inclusive).
+     */
+    private static long walk(int square, long occupancy, int[][] directions, boolean sliding) {
+        long result = 0L;
+        for (int[] direction : directions) {
+            int x = (square & 7) + direction[0];
+            int y = (square >>> 3) + direction[1];
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                long bit = 1L << (y * 8 + x);
+                result |= bit;
+                if (!sliding || (occupancy & bit) != 0) {
+                    break;
+                }
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Magic bitboard lookup table for one kind of sliding movement (linear or diagonal).
+     * The magic numbers have been found once by a random search; for each square, they map every
+     * relevant occupancy to a unique index (or to an index with the same attack set).
+     */
+    private static final class MagicTable {
+
+        private final long[] masks = new long[64];
+        private final long[] magics;
+        private final int[] shifts = new int[64];
+        private final long[][] attacks = new long[64][];
+
+        MagicTable(int[][] directions, long[] magics) {
+            this.magics = magics;
+            for (int square = 0; square < 64; square++) {
+                initSquare(square, directions);
+            }
+        }
+
+        long lookup(int square, long occupancy) {
+            int index = (int) (((occupancy & this.masks[square]) * this.magics[square]) >>> this.shifts[square]);
+            return this.attacks[square][index];
+        }
+
+        private void initSquare(int square, int[][] directions) {
+            long mask = relevantOccupancyMask(square, directions);
+            int bits = Long.bitCount(mask);
+            this.masks[square] = mask;
+            this.shifts[square] = 64 - bits;
+            this.attacks[square] = new long[1 << bits];
+
+            // Enumerate all subsets of the mask (carry-rippler) and store their attack sets.
+            long subset = 0L;
+            do {
+                int index = (int) ((subset * this.magics[square]) >>> this.shifts[square]);
+                this.attacks[square][index] = walk(square, subset, directions, true);
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+
+        /**
+         * Returns the squares of all rays, without the border squares at the end of each ray,
+         * because a piece on the border never blocks anything behind it.
+         */
+        private static long relevantOccupancyMask(int square, int[][] directions) {
+            long result = 0L;
+            for (int[] direction : directions) {
+                int x = (square & 7) + direction[0];
+                int y = (square >>> 3) + direction[1];
+                while (x + direction[0] >= 0 && x + direction[0] < 8 && y + direction[1] >= 0 && y + direction[1] < 8) {
+                    result |= 1L << (y * 8 + x);
+                    x += direction[0];
+                    y += direction[1];
+                }
+            }
+            return result;
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package model.intern.chessmove;
 
+import model.common.EnumChessPiece;
 import model.intern.chessboard.ChessBoard;
 import model.intern.chessboard.ChessField;
 import model.intern.chesspieces.ChessPiece;
@@ -17,17 +18,29 @@ public class Move {
     private final ChessField fieldTarget;
     private final ChessPiece pieceSource;
     private final ChessPiece pieceTarget;
+    private final EnumChessPiece promotionPiece;
 
     private MoveValidationResult moveValidationResult;
+    private ChessField fieldCapturedEnPassant;
+    private ChessPiece pieceCapturedEnPassant;
 
     /**
      * Standard move from fieldSource to fieldTarget
      */
     public Move(ChessField fieldSource, ChessField fieldTarget) {
+        this(fieldSource, fieldTarget, EnumChessPiece.QUEEN);
+    }
+
+    /**
+     * Standard move from fieldSource to fieldTarget.
+     * If the move is a pawn promotion, the pawn is promoted to the given piece.
+     */
+    public Move(ChessField fieldSource, ChessField fieldTarget, EnumChessPiece promotionPiece) {
         this.fieldSource = fieldSource;
         this.fieldTarget = fieldTarget;
         this.pieceSource = fieldSource.getPiece();
         this.pieceTarget = fieldTarget.getPiece();
+        this.promotionPiece = promotionPiece;
     }
 
     /**
@@ -39,6 +52,7 @@ public class Move {
         this.fieldTarget = fieldTarget;
         this.pieceSource = piece;
         this.pieceTarget = null;
+        this.promotionPiece = null;
     }
 
     public ChessField getFieldSource() {
@@ -53,6 +67,20 @@ public class Move {
         return this.pieceSource;
     }
 
+    /**
+     * Returns the piece captured on the target field, or null (also for a capture en passant).
+     */
+    public ChessPiece getPieceTarget() {
+        return this.pieceTarget;
+    }
+
+    /**
+     * Returns the piece which a pawn is promoted to, if this move turns out to be a pawn promotion.
+     */
+    public EnumChessPiece getPromotionPiece() {
+        return this.promotionPiece;
+    }
+
     /**
      * Execute this move (having a permanent effect on the given chess board).
      */
@@ -69,6 +97,7 @@ public class Move {
                 throw new ExcNoValidTarget();
             case VALID:
                 movePieces();
+                captureEnPassant(board);
                 break;
             case VALID_WITH_SUB_MOVE:
                 movePieces();
@@ -83,6 +112,19 @@ public class Move {
         pieceSource.registerExecutedMove();
     }
 
+    /**
+     * A pawn moving diagonally onto an empty field captures en passant:
+     * the captured pawn is standing next to the source field, not on the target field.
+     */
+    private void captureEnPassant(ChessBoard board) {
+        if (pieceSource.getPieceType() == EnumChessPiece.PAWN && pieceTarget == null
+                && fieldSource.getCoordinates().x() != fieldTarget.getCoordinates().x()) {
+            fieldCapturedEnPassant = board.getField(fieldTarget.getCoordinates().x(), fieldSource.getCoordinates().y());
+            pieceCapturedEnPassant = fieldCapturedEnPassant.getPiece();
+            fieldCapturedEnPassant.setPiece(null);
+        }
+    }
+
     /**
      * Validate this move according to chess move rules.
      */
@@ -91,35 +133,19 @@ public class Move {
             return new MoveValidationResult(false);
         }
 
-        int deltaX = fieldTarget.getCoordinates().x() - fieldSource.getCoordinates().x();
-        int deltaY = fieldTarget.getCoordinates().y() - fieldSource.getCoordinates().y();
+        EnumMovePath direction = MovePathCreator.getInstance().findMovePathDirection(
+                fieldSource.getCoordinates(), fieldTarget.getCoordinates());
 
-        MovePath movePath;
-
-        if (deltaX != 0 && Math.abs(deltaX) == Math.abs(deltaY)) {
-            // Diagonal movement
-            movePath = MovePathCreator.getInstance().createMovePathStraight(
-                    board, fieldSource.getCoordinates(), deltaX, deltaY, EnumMovePath.DIAGONAL);
-
-        } else if (deltaX == 0 ^ deltaY == 0) {
-            // Linear movement
-            movePath = MovePathCreator.getInstance().createMovePathStraight(
-                    board, fieldSource.getCoordinates(), deltaX, deltaY, EnumMovePath.LINEAR);
-
-        } else if (Math.abs(deltaX) == 1 && Math.abs(deltaY) == 2 || Math.abs(deltaX) == 2 && Math.abs(deltaY) == 1) {
-            // Jump movement
-            movePath = MovePathCreator.getInstance().createMovePathJump(
-                    board, fieldSource.getCoordinates(), deltaX, deltaY);
-
-        } else {
+        if (direction == null) {
             // Illegal movement
             return new MoveValidationResult(false);
         }
 
-        boolean targetFieldReachable = movePath.getFieldsOnPath().contains(fieldTarget);
+        long reachableSquares = AttackTables.findAttacks(direction, fieldSource.getSquare(), board.getBitBoard().getOccupancy());
+        boolean targetFieldReachable = (reachableSquares & (1L << fieldTarget.getSquare())) != 0;
 
         if (targetFieldReachable) {
-            return pieceSource.isMoveValid(movePath.getDirection(), this, board);
+            return pieceSource.isMoveValid(direction, this, board);
         }
 
         return new MoveValidationResult(false);
@@ -132,6 +158,9 @@ public class Move {
         fieldSource.setPiece(pieceSource);
         fieldTarget.setPiece(pieceTarget);
         pieceSource.revertMovement();
+        if (fieldCapturedEnPassant != null) {
+            fieldCapturedEnPassant.setPiece(pieceCapturedEnPassant);
+        }
     }
 
 }
@@ -0,0 +1,129 @@
+package model.intern.chessmove;
+
+import model.common.EnumChessPiece;
+
+/**
+ * Encoding of a chess move into the lower 16 bits of an int, so that moves can be generated and stored
+ * without creating objects:
+ * - bits 0-5: source square (y * 8 + x)
+ * - bits 6-11: target square (y * 8 + x)
+ * - bits 12-15: flags, which describe the kind of the move and the piece of a pawn promotion
+ */
+public final class MoveEncoding {
+
+    public static final int NO_MOVE = 0;
+
+    public static final int FLAG_QUIET = 0;
+    public static final int FLAG_DOUBLE_PAWN_STEP = 1;
+    public static final int FLAG_KING_SIDE_CASTLING = 2;
+    public static final int FLAG_QUEEN_SIDE_CASTLING = 3;
+    public static final int FLAG_CAPTURE = 4;
+    public static final int FLAG_EN_PASSANT = 5;
+    public static final int FLAG_PROMOTION = 8;
+    public static final int FLAG_PROMOTION_KNIGHT = 8;
+    public static final int FLAG_PROMOTION_BISHOP = 9;
+    public static final int FLAG_PROMOTION_ROOK = 10;
+    public static final int FLAG_PROMOTION_QUEEN = 11;
+
+    private static final EnumChessPiece[] PROMOTION_PIECES = {
+            EnumChessPiece.KNIGHT, EnumChessPiece.BISHOP, EnumChessPiece.ROOK, EnumChessPiece.QUEEN
+    };
+
+    private MoveEncoding() {}
+
+    /**
+     * Returns the encoded move from the source to the target square with the given flags.
+     */
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    /**
+     * Returns the source square of the given move.
+     */
+    public static int getFrom(int move) {
+        return move & 0x3F;
+    }
+
+    /**
+     * Returns the target square of the given move.
+     */
+    public static int getTo(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * Returns the flags of the given move.
+     */
+    public static int getFlags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    /**
+     * Returns whether the given move captures a piece (including en passant).
+     */
+    public static boolean isCapture(int move) {
+        return (getFlags(move) & FLAG_CAPTURE) != 0;
+    }
+
+    /**
+     * Returns whether the given move is a pawn promotion.
+     */
+    public static boolean isPromotion(int move) {
+        return (getFlags(move) & FLAG_PROMOTION) != 0;
+    }
+
+    /**
+     * Returns whether the given move is a castling move.
+     */
+    public static boolean isCastling(int move) {
+        int flags = getFlags(move);
+        return flags == FLAG_KING_SIDE_CASTLING || flags == FLAG_QUEEN_SIDE_CASTLING;
+    }
+
+    /**
+     * Returns the piece which a pawn is promoted to, or null if the given move is no promotion.
+     */
+    public static EnumChessPiece getPromotionPiece(int move) {
+        return isPromotion(move) ? PROMOTION_PIECES[getFlags(move) & 3] : null;
+    }
+
+    /**
+     * Returns the promotion flag (without capture flag) for the given piece.
+     */
+    public static int getPromotionFlag(EnumChessPiece piece) {
+        switch (piece) {
+            case KNIGHT:
+                return FLAG_PROMOTION_KNIGHT;
+            case BISHOP:
+                return FLAG_PROMOTION_BISHOP;
+            case ROOK:
+                return FLAG_PROMOTION_ROOK;
+            case QUEEN:
+                return FLAG_PROMOTION_QUEEN;
+            default:
+                throw new IllegalArgumentException("A pawn cannot be promoted to " + piece);
+        }
+    }
+
+    /**
+     * Returns a readable form of the given move, for example "e7e8q".
+     */
+    public static String toString(int move) {
+        StringBuilder result = new StringBuilder();
+        result.append(squareToString(getFrom(move))).append(squareToString(getTo(move)));
+        EnumChessPiece promotionPiece = getPromotionPiece(move);
+        if (promotionPiece != null) {
+            result.append(promotionPiece == EnumChessPiece.KNIGHT ? 'n' : Character.toLowerCase(promotionPiece.name().charAt(0)));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the algebraic name of the given square, for example "e4".
+     */
+    public static String squareToString(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('1' + (square >>> 3));
+    }
+
+}
@@ -0,0 +1,284 @@
+package model.intern.chessmove;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+
+import static model.intern.chessmove.MoveEncoding.*;
+
+/**
+ * Generates the moves of a position given as bitboards and writes them encoded (see MoveEncoding)
+ * into an int array supplied by the caller. No objects are created while generating,
+ * so the caller can reuse one buffer of size MAX_MOVES for all positions.
+ *
+ * Every piece moves according to its rules, including pawn double steps, en passant, promotions and castling.
+ * The legality of the moves is decided up front, without executing them:
+ * - If the king is checked, the other pieces may only capture the checking piece or block its path (check mask).
+ *   If he is checked twice, only the king himself can move.
+ * - A piece pinned to its own king may only move along the line between the king and the pinning piece (pin ray).
+ * - The king never moves onto an attacked field and never castles out of, through or into check.
+ */
+public final class MoveGenerator {
+
+    /**
+     * The maximum number of moves a chess position can have (218) rounded up.
+     */
+    public static final int MAX_MOVES = 256;
+
+    private static final long ALL_SQUARES = -1L;
+
+    private static final int SQUARE_E1 = 4;
+    private static final int SQUARE_E8 = 60;
+    private static final long BETWEEN_KING_AND_ROOK_KING_SIDE = 0x60L;
+    private static final long BETWEEN_KING_AND_ROOK_QUEEN_SIDE = 0x0EL;
+
+    private MoveGenerator() {}
+
+    /**
+     * Generates all legal moves of the given color and writes them into the given buffer.
+     * @return The number of generated moves
+     */
+    public static int generateMoves(BitBoard board, EnumChessColor color, int[] moves) {
+        return generateMoves(board, color, ALL_SQUARES, moves, true);
+    }
+
+    /**
+     * Generates all legal moves of the pieces of the given color standing on the given source squares
+     * and writes them into the given buffer.
+     * @param sources Bitboard of the squares whose pieces are supposed to move
+     * @return The number of generated moves
+     */
+    public static int generateMoves(BitBoard board, EnumChessColor color, long sources, int[] moves) {
+        return generateMoves(board, color, sources, moves, true);
+    }
+
+    /**
+     * Generates all moves of the pieces of the given color standing on the given source squares,
+     * according to the rules of the pieces, but without regarding whether the own king is left in check.
+     * @param sources Bitboard of the squares whose pieces are supposed to move
+     * @return The number of generated moves
+     */
+    public static int generatePseudoLegalMoves(BitBoard board, EnumChessColor color, long sources, int[] moves) {
+        return generateMoves(board, color, sources, moves, false);
+    }
+
+    /**
+     * Returns whether the king of the given color is attacked. If there is no king, false is returned.
+     */
+    public static boolean isKingChecked(BitBoard board, EnumChessColor color) {
+        long king = board.getPieces(color, EnumChessPiece.KING);
+        return king != 0 && board.findAttackers(Long.numberOfTrailingZeros(king), color.getOtherColor()) != 0;
+    }
+
+    private static int generateMoves(BitBoard board, EnumChessColor color, long sources, int[] moves, boolean legal) {
+        long king = board.getPieces(color, EnumChessPiece.KING);
+        int kingSquare = Long.numberOfTrailingZeros(king);
+        long checkMask = ALL_SQUARES;
+        long pinned = 0L;
+        int count = 0;
+
+        if (legal && king != 0) {
+            long checkers = board.findAttackers(kingSquare, color.getOtherColor());
+            if (Long.bitCount(checkers) > 1) {
+                // Double check: only the king is able to escape.
+                sources &= king;
+            } else if (checkers != 0) {
+                checkMask = checkers | AttackTables.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+            }
+            pinned = findPinnedPieces(board, color, kingSquare);
+        }
+
+        long own = board.getOccupancy(color);
+        long targets = ~own & checkMask;
+        long occupancy = board.getOccupancy();
+
+        count = generatePawnMoves(board, color, board.getPieces(color, EnumChessPiece.PAWN) & sources,
+                checkMask, pinned, kingSquare, legal && king != 0, moves, count);
+
+        // A pinned knight can never move, because a jump always leaves the pin ray.
+        long knights = board.getPieces(color, EnumChessPiece.KNIGHT) & sources & ~pinned;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count = addMoves(board, from, AttackTables.knightAttacks(from) & targets, moves, count);
+        }
+
+        long bishops = board.getPieces(color, EnumChessPiece.BISHOP) & sources;
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            long reachable = AttackTables.diagonalAttacks(from, occupancy) & targets & pinRay(pinned, kingSquare, from);
+            count = addMoves(board, from, reachable, moves, count);
+        }
+
+        long rooks = board.getPieces(color, EnumChessPiece.ROOK) & sources;
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            long reachable = AttackTables.linearAttacks(from, occupancy) & targets & pinRay(pinned, kingSquare, from);
+            count = addMoves(board, from, reachable, moves, count);
+        }
+
+        long queens = board.getPieces(color, EnumChessPiece.QUEEN) & sources;
+        while (queens != 0) {
+            int from = Long.numberOfTrailingZeros(queens);
+            queens &= queens - 1;
+            long reachable = AttackTables.queenAttacks(from, occupancy) & targets & pinRay(pinned, kingSquare, from);
+            count = addMoves(board, from, reachable, moves, count);
+        }
+
+        if ((king & sources) != 0) {
+            count = generateKingMoves(board, color, kingSquare, legal, moves, count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the bitboard of all pieces of the given color, which are pinned to their king:
+     * they are the only piece between their king and an opponent's sliding piece.
+     */
+    private static long findPinnedPieces(BitBoard board, EnumChessColor color, int kingSquare) {
+        EnumChessColor opponent = color.getOtherColor();
+        long opponentQueens = board.getPieces(opponent, EnumChessPiece.QUEEN);
+        long opponentOccupancy = board.getOccupancy(opponent);
+        // Sliding pieces which would attack the king if there were no pieces of his own color.
+        long snipers = (AttackTables.linearAttacks(kingSquare, opponentOccupancy)
+                        & (board.getPieces(opponent, EnumChessPiece.ROOK) | opponentQueens))
+                | (AttackTables.diagonalAttacks(kingSquare, opponentOccupancy)
+                        & (board.getPieces(opponent, EnumChessPiece.BISHOP) | opponentQueens));
+
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(kingSquare, sniper) & board.getOccupancy();
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & board.getOccupancy(color);
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Returns the squares the piece on the given square may move to regarding pins:
+     * all squares for an unpinned piece, and the line through the king and the piece for a pinned piece.
+     */
+    private static long pinRay(long pinned, int kingSquare, int from) {
+        return (pinned & (1L << from)) == 0 ? ALL_SQUARES : AttackTables.line(kingSquare, from);
+    }
+
+    private static int generatePawnMoves(BitBoard board, EnumChessColor color, long pawns, long checkMask, long pinned,
+                                         int kingSquare, boolean legal, int[] moves, int count) {
+        boolean white = color == EnumChessColor.WHITE;
+        int forward = white ? 8 : -8;
+        long startRank = white ? BitBoard.RANK_1 << 8 : BitBoard.RANK_8 >>> 8;
+        long opponents = board.getOccupancy(color.getOtherColor());
+        // The en passant square belongs to the side to move, the other side cannot capture en passant.
+        int enPassantSquare = color == board.getActiveColor() ? board.getEnPassantSquare() : BitBoard.NO_SQUARE;
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long fromBit = pawns & -pawns;
+            pawns &= pawns - 1;
+            long allowed = checkMask & pinRay(pinned, kingSquare, from);
+
+            int to = from + forward;
+            if (!board.isOccupied(to)) {
+                if ((allowed & (1L << to)) != 0) {
+                    count = addPawnMove(from, to, FLAG_QUIET, moves, count);
+                }
+                int toDoubleStep = to + forward;
+                if ((fromBit & startRank) != 0 && !board.isOccupied(toDoubleStep) && (allowed & (1L << toDoubleStep)) != 0) {
+                    moves[count++] = encode(from, toDoubleStep, FLAG_DOUBLE_PAWN_STEP);
+                }
+            }
+
+            long attacks = AttackTables.pawnAttacks(from, color);
+            long captures = attacks & opponents & allowed;
+            while (captures != 0) {
+                count = addPawnMove(from, Long.numberOfTrailingZeros(captures), FLAG_CAPTURE, moves, count);
+                captures &= captures - 1;
+            }
+            if (enPassantSquare != BitBoard.NO_SQUARE && (attacks & (1L << enPassantSquare)) != 0
+                    && (!legal || isEnPassantLegal(board, color, kingSquare, from, enPassantSquare))) {
+                moves[count++] = encode(from, enPassantSquare, FLAG_EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * En passant removes two pieces from the line of the king at once (and the captured pawn may be the checking piece),
+     * which is not covered by pin rays and check masks. Therefore, the resulting occupancy is checked directly.
+     */
+    private static boolean isEnPassantLegal(BitBoard board, EnumChessColor color, int kingSquare, int from, int to) {
+        int capturedSquare = color == EnumChessColor.WHITE ? to - 8 : to + 8;
+        long capturedBit = 1L << capturedSquare;
+        long occupancy = (board.getOccupancy() & ~(1L << from) & ~capturedBit) | (1L << to);
+        return (board.findAttackers(kingSquare, color.getOtherColor(), occupancy) & ~capturedBit) == 0;
+    }
+
+    private static int addPawnMove(int from, int to, int flags, int[] moves, int count) {
+        if (to >= 56 || to < 8) {
+            moves[count++] = encode(from, to, flags | FLAG_PROMOTION_QUEEN);
+            moves[count++] = encode(from, to, flags | FLAG_PROMOTION_KNIGHT);
+            moves[count++] = encode(from, to, flags | FLAG_PROMOTION_ROOK);
+            moves[count++] = encode(from, to, flags | FLAG_PROMOTION_BISHOP);
+        } else {
+            moves[count++] = encode(from, to, flags);
+        }
+        return count;
+    }
+
+    private static int generateKingMoves(BitBoard board, EnumChessColor color, int from, boolean legal, int[] moves, int count) {
+        EnumChessColor opponent = color.getOtherColor();
+        // The king must not hide behind himself from sliding pieces, therefore he is no blocker.
+        long occupancyWithoutKing = board.getOccupancy() & ~(1L << from);
+
+        long targets = AttackTables.kingAttacks(from) & ~board.getOccupancy(color);
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (!legal || board.findAttackers(to, opponent, occupancyWithoutKing) == 0) {
+                moves[count++] = encode(from, to, board.isOccupied(to) ? FLAG_CAPTURE : FLAG_QUIET);
+            }
+        }
+
+        boolean white = color == EnumChessColor.WHITE;
+        int kingSquare = white ? SQUARE_E1 : SQUARE_E8;
+        int rights = board.getCastlingRights() & (white
+                ? BitBoard.CASTLING_WHITE_KING_SIDE | BitBoard.CASTLING_WHITE_QUEEN_SIDE
+                : BitBoard.CASTLING_BLACK_KING_SIDE | BitBoard.CASTLING_BLACK_QUEEN_SIDE);
+        if (from != kingSquare || rights == 0 || legal && board.findAttackers(from, opponent) != 0) {
+            return count;
+        }
+
+        long rooks = board.getPieces(color, EnumChessPiece.ROOK);
+        int kingSideRight = white ? BitBoard.CASTLING_WHITE_KING_SIDE : BitBoard.CASTLING_BLACK_KING_SIDE;
+        if ((rights & kingSideRight) != 0
+                && (rooks & (1L << (from + 3))) != 0
+                && (board.getOccupancy() & (BETWEEN_KING_AND_ROOK_KING_SIDE << (from - SQUARE_E1))) == 0
+                && (!legal || board.findAttackers(from + 1, opponent) == 0 && board.findAttackers(from + 2, opponent) == 0)) {
+            moves[count++] = encode(from, from + 2, FLAG_KING_SIDE_CASTLING);
+        }
+        int queenSideRight = white ? BitBoard.CASTLING_WHITE_QUEEN_SIDE : BitBoard.CASTLING_BLACK_QUEEN_SIDE;
+        if ((rights & queenSideRight) != 0
+                && (rooks & (1L << (from - 4))) != 0
+                && (board.getOccupancy() & (BETWEEN_KING_AND_ROOK_QUEEN_SIDE << (from - SQUARE_E1))) == 0
+                && (!legal || board.findAttackers(from - 1, opponent) == 0 && board.findAttackers(from - 2, opponent) == 0)) {
+            moves[count++] = encode(from, from - 2, FLAG_QUEEN_SIDE_CASTLING);
+        }
+        return count;
+    }
+
+    private static int addMoves(BitBoard board, int from, long targets, int[] moves, int count) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[count++] = encode(from, to, board.isOccupied(to) ? FLAG_CAPTURE : FLAG_QUIET);
+        }
+        return count;
+    }
+
+}
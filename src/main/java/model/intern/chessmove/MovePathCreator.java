@@ -1,5 +1,6 @@
 package model.intern.chessmove;
 
+import model.intern.chessboard.BitBoard;
 import model.intern.chessboard.ChessBoard;
 import model.intern.chessboard.ChessField;
 import model.common.Coordinates;
@@ -10,6 +11,7 @@ import java.util.List;
 
 /**
  * This class has the knowledge of how to create valid move paths.
+ * The reachable fields are looked up in the precomputed AttackTables instead of walking field by field.
  */
 public class MovePathCreator {
 
@@ -47,18 +49,22 @@ public class MovePathCreator {
 
         MovePath movePath = new MovePath(direction);
 
-        int x = source.x() + deltaX;
-        int y = source.y() + deltaY;
-
-        while (x >= MIN_FIELD && x <= MAX_FIELD && y >= MIN_FIELD && y <= MAX_FIELD) {
-            ChessField currentField = board.getField(x, y);
-            movePath.addPossibleField(currentField);
-
-            if (currentField.hasPiece()) {
-                break;
-            }
-            x += deltaX;
-            y += deltaY;
+        int square = BitBoard.toSquare(source);
+        long occupancy = board.getBitBoard().getOccupancy();
+        long reachableSquares = deltaX != 0 && deltaY != 0
+                ? AttackTables.diagonalAttacks(square, occupancy)
+                : AttackTables.linearAttacks(square, occupancy);
+        reachableSquares &= AttackTables.ray(square, deltaX, deltaY);
+
+        // The fields have to be added from the nearest to the farthest one,
+        // so that the farthest one becomes the last field of the path.
+        boolean ascending = deltaY > 0 || deltaY == 0 && deltaX > 0;
+        while (reachableSquares != 0) {
+            int currentSquare = ascending
+                    ? Long.numberOfTrailingZeros(reachableSquares)
+                    : 63 - Long.numberOfLeadingZeros(reachableSquares);
+            reachableSquares &= ~(1L << currentSquare);
+            movePath.addPossibleField(board.getField(currentSquare));
         }
 
         return movePath;
@@ -87,6 +93,42 @@ public class MovePathCreator {
         return movePath;
     }
 
+    /**
+     * Returns the direction of a move from the source to the target coordinates.
+     * If the target cannot be reached by any direction, null is returned.
+     */
+    public EnumMovePath findMovePathDirection(Coordinates source, Coordinates target) {
+        int deltaX = Math.abs(target.x() - source.x());
+        int deltaY = Math.abs(target.y() - source.y());
+
+        if (deltaX != 0 && deltaX == deltaY) {
+            return EnumMovePath.DIAGONAL;
+        } else if (deltaX == 0 ^ deltaY == 0) {
+            return EnumMovePath.LINEAR;
+        } else if (deltaX == 1 && deltaY == 2 || deltaX == 2 && deltaY == 1) {
+            return EnumMovePath.JUMP;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the move path starting at the source coordinates and heading towards the target coordinates.
+     * The target has to be reachable by one of the directions of EnumMovePath.
+     */
+    public MovePath createMovePath(ChessBoard board, Coordinates source, Coordinates target) {
+        int deltaX = target.x() - source.x();
+        int deltaY = target.y() - source.y();
+        EnumMovePath direction = findMovePathDirection(source, target);
+
+        if (direction == null) {
+            throw new IllegalArgumentException("The target " + target + " cannot be reached from " + source + ".");
+        } else if (direction == EnumMovePath.JUMP) {
+            return createMovePathJump(board, source, deltaX, deltaY);
+        } else {
+            return createMovePathStraight(board, source, deltaX, deltaY, direction);
+        }
+    }
+
     /**
      * Returns all possible move paths from the source field (given by coordinates).
      * When the piece on the field is supposed to be considered as well, it has to be given as true.
@@ -30,13 +30,13 @@ public class Pawn extends ChessPiece {
                 && (isOneStepForward(deltaY) || (!this.hasMoved() && isTwoStepsForward(deltaY)))
                 && (deltaX == 0 && target.getPiece() == null
                         || Math.abs(deltaX) == 1 && target.getPiece() != null && target.getPiece().getColor() != source.getPiece().getColor()
-                        || Math.abs(deltaX) == 1 && isEnPassantPossible(board.getLastMove(), source));
+                        || Math.abs(deltaX) == 1 && isEnPassantPossible(board, source, target));
 
         // Check pawn promotion
         if (moveValid &&
-                (this.getColor() == EnumChessColor.BLACK && target.getCoordinates().y() == 0)
-                || (this.getColor() == EnumChessColor.WHITE && target.getCoordinates().y() == 7)) {
-            Move subMove = new Move(target, new Queen(this.getColor()));
+                (this.getColor() == EnumChessColor.BLACK && target.getCoordinates().y() == 0
+                        || this.getColor() == EnumChessColor.WHITE && target.getCoordinates().y() == 7)) {
+            Move subMove = new Move(target, createPromotionPiece(move.getPromotionPiece()));
             return new MoveValidationResult(subMove);
         }
 
@@ -54,10 +54,12 @@ public class Pawn extends ChessPiece {
      * "En passant" is a special play in chess. It is possible when the following conditions apply:
      * - In the move before the current one, the opponent moved a pawn from the initial position two steps forward.
      * - The own pawn stands now directly next to the opponent's pawn.
+     * Without any move on the board, the en passant square of the loaded position (FEN) tells.
      */
-    private boolean isEnPassantPossible(Move lastMove, ChessField source) {
+    private boolean isEnPassantPossible(ChessBoard board, ChessField source, ChessField target) {
+        Move lastMove = board.getLastMove();
         if (lastMove == null) {
-            return false;
+            return target.getSquare() == board.getBitBoard().getEnPassantSquare();
         }
         return lastMove.getPieceSource() instanceof Pawn
                 && lastMove.getPieceSource().getColor() != source.getPiece().getColor()
@@ -66,6 +68,21 @@ public class Pawn extends ChessPiece {
                 && Math.abs(lastMove.getFieldTarget().getCoordinates().x() - source.getCoordinates().x()) == 1;
     }
 
+    private ChessPiece createPromotionPiece(EnumChessPiece pieceType) {
+        switch (pieceType) {
+            case KNIGHT:
+                return new Knight(this.getColor());
+            case BISHOP:
+                return new Bishop(this.getColor());
+            case ROOK:
+                return new Rook(this.getColor());
+            case QUEEN:
+                return new Queen(this.getColor());
+            default:
+                throw new IllegalArgumentException("A pawn cannot be promoted to " + pieceType);
+        }
+    }
+
     private boolean isTwoStepsForward(int deltaY) {
         if (this.getColor() == EnumChessColor.BLACK) {
             return deltaY == -2;
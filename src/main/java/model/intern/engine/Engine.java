@@ -0,0 +1,437 @@
+package model.intern.engine;
+
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.tablebase.Tablebases;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Chess engine, which searches the best move of the current position of a chess board.
+ * The search runs on a copy of the bitboard of the chess board, so the chess board and its observers
+ * are never touched. The transposition table is kept from one search to the next.
+ *
+ * With more than one thread, the engine runs a Lazy SMP search: the calling thread and the helper threads
+ * search the same root position independently, each on its own bitboard copy, and only share the lock-free
+ * transposition table. When the calling thread finishes, the helpers are stopped.
+ *
+ * While the opponent thinks, the engine can ponder: it searches the position after the expected reply
+ * in the background. If the reply is played (ponder hit), the running search goes on with the limits of the
+ * requested search, so its results so far are kept. Otherwise (ponder miss) it is stopped.
+ *
+ * Only one search runs at a time: requesting a search (or pondering) stops the running one first.
+ */
+public class Engine {
+
+    /**
+     * Default size of the transposition table in bytes.
+     */
+    public static final long DEFAULT_TABLE_SIZE = 16L << 20;
+
+    private static final SearchResult NO_RESULT = new SearchResult(MoveEncoding.NO_MOVE, 0, 0, 0, 0);
+
+    private final TranspositionTable table;
+    private final int numberOfThreads;
+    private final ThreadFactory threadFactory;
+    private volatile boolean stopped;
+    private volatile SearchLimits limits;
+    private volatile long start;
+    private volatile boolean pondering;
+    private volatile long ponderKey;
+    private volatile int ponderMove;
+    private volatile SearchResult bestResult;
+    private volatile CompletableFuture<SearchResult> runningSearch;
+    private volatile Tablebases tablebases;
+    private final AtomicReference<SearchListener> listener;
+    private final AtomicLong reportedNodes;
+    private final Object listenerLock;
+    private ExecutorService listenerExecutor;
+
+    public Engine() {
+        this(1);
+    }
+
+    public Engine(int numberOfThreads) {
+        this(new TranspositionTable(DEFAULT_TABLE_SIZE, EnumReplacementPolicy.DEPTH_PREFERRED_AGING, false), numberOfThreads);
+    }
+
+    public Engine(TranspositionTable table) {
+        this(table, 1);
+    }
+
+    public Engine(TranspositionTable table, int numberOfThreads) {
+        this(table, numberOfThreads, Engine::createHelperThread);
+    }
+
+    /**
+     * @param numberOfThreads Number of search threads including the calling thread (at least 1)
+     * @param threadFactory Factory of the helper threads, e.g. to run them as virtual threads
+     */
+    public Engine(TranspositionTable table, int numberOfThreads, ThreadFactory threadFactory) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("At least one search thread is required: " + numberOfThreads);
+        }
+        this.table = table;
+        this.numberOfThreads = numberOfThreads;
+        this.threadFactory = threadFactory;
+        this.bestResult = NO_RESULT;
+        this.reportedNodes = new AtomicLong();
+        this.listener = new AtomicReference<>();
+        this.listenerLock = new Object();
+    }
+
+    /**
+     * Searches the current position of the given chess board with iterative deepening up to the given depth.
+     * @param board Chess board, whose position is searched (for the active color)
+     * @param maxDepth Maximum depth of the search in plies
+     */
+    public SearchResult search(ChessBoard board, int maxDepth) {
+        return search(board, SearchLimits.depth(maxDepth));
+    }
+
+    /**
+     * Searches the current position of the given chess board with iterative deepening within the given limits.
+     */
+    public SearchResult search(ChessBoard board, SearchLimits limits) {
+        BitBoard snapshot = createSnapshot(board);
+        CompletableFuture<SearchResult> ownSearch = new CompletableFuture<>();
+        CompletableFuture<SearchResult> ponderSearch;
+        synchronized (this) {
+            ponderSearch = takePonderHit(snapshot, limits);
+            if (ponderSearch == null) {
+                stopRunningSearch();
+                startSearch(limits);
+                // Registered as running search, so that a search requested meanwhile stops this one.
+                this.runningSearch = ownSearch;
+            }
+        }
+        if (ponderSearch != null) {
+            return ponderSearch.join();
+        }
+        try {
+            SearchResult result = runSearch(snapshot);
+            ownSearch.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            ownSearch.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts searching the current position of the given chess board within the given limits in the background.
+     * The position is copied before this method returns, so the chess board may be changed during the search.
+     * A search, which is still running, is stopped first - unless it is pondering on this position.
+     * @return Future of the result, which is completed when a limit is reached or the search is stopped
+     */
+    public CompletableFuture<SearchResult> searchAsync(ChessBoard board, SearchLimits limits) {
+        return searchAsync(board, limits, this.listener.get());
+    }
+
+    /**
+     * Starts searching like searchAsync(board, limits) and sets the given listener (null for none) for this search
+     * and the following ones. It is set after the running search has been stopped, so that it is only informed
+     * about the iterations of this search.
+     */
+    public synchronized CompletableFuture<SearchResult> searchAsync(ChessBoard board, SearchLimits limits, SearchListener listener) {
+        BitBoard snapshot = createSnapshot(board);
+        CompletableFuture<SearchResult> ponderSearch = takePonderHit(snapshot, limits);
+        if (ponderSearch != null) {
+            this.listener.set(listener);
+            return ponderSearch;
+        }
+        stopRunningSearch();
+        this.listener.set(listener);
+        return startAsync(snapshot, limits);
+    }
+
+    /**
+     * Starts pondering: the position after the expected reply to the current position of the given chess board
+     * is searched in the background without limits, until the next search is requested or the search is stopped.
+     * The expected reply is the best move of the transposition table, usually from the search of the previous move.
+     * @return Whether a reply is expected, otherwise nothing is searched
+     */
+    public synchronized boolean startPondering(ChessBoard board) {
+        BitBoard snapshot = createSnapshot(board);
+        int expectedMove = findExpectedMove(snapshot);
+        if (expectedMove == MoveEncoding.NO_MOVE) {
+            stopRunningSearch();
+            return false;
+        }
+        snapshot.makeMove(expectedMove);
+        // The key is taken before the search starts, as the search changes the snapshot.
+        long key = snapshot.getZobristKey();
+        startAsync(snapshot, SearchLimits.infinite());
+        this.ponderKey = key;
+        this.ponderMove = expectedMove;
+        this.pondering = true;
+        return true;
+    }
+
+    /**
+     * Returns the best move of the transposition table for the given position, if it is a legal move.
+     */
+    private int findExpectedMove(BitBoard board) {
+        long entry = this.table.probe(board.getZobristKey());
+        if (entry == TranspositionTable.NO_ENTRY) {
+            return MoveEncoding.NO_MOVE;
+        }
+        int tableMove = TranspositionTable.getMove(entry);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int numberOfMoves = MoveGenerator.generateMoves(board, board.getActiveColor(), moves);
+        for (int i = 0; i < numberOfMoves; i++) {
+            if (moves[i] == tableMove) {
+                return tableMove;
+            }
+        }
+        return MoveEncoding.NO_MOVE;
+    }
+
+    /**
+     * Ends pondering. On a ponder hit, the running search takes over the given limits (measured from now on)
+     * and is returned. On a ponder miss (or if the engine does not ponder), null is returned.
+     */
+    private CompletableFuture<SearchResult> takePonderHit(BitBoard snapshot, SearchLimits limits) {
+        if (!this.pondering) {
+            return null;
+        }
+        this.pondering = false;
+        if (snapshot.getZobristKey() != this.ponderKey) {
+            return null;
+        }
+        // The searchers read the limits before their start, so the start has to be replaced first.
+        this.start = System.nanoTime();
+        this.limits = limits;
+        return this.runningSearch;
+    }
+
+    /**
+     * Returns whether the engine is pondering (and no search has been requested since).
+     */
+    public boolean isPondering() {
+        return this.pondering;
+    }
+
+    /**
+     * Returns the expected reply, on whose position the engine is pondering, or NO_MOVE if it does not ponder.
+     */
+    public int getPonderMove() {
+        return this.pondering ? this.ponderMove : MoveEncoding.NO_MOVE;
+    }
+
+    private CompletableFuture<SearchResult> startAsync(BitBoard snapshot, SearchLimits limits) {
+        stopRunningSearch();
+        startSearch(limits);
+        this.runningSearch = CompletableFuture.supplyAsync(() -> runSearch(snapshot),
+                runnable -> this.threadFactory.newThread(runnable).start());
+        return this.runningSearch;
+    }
+
+    /**
+     * Stops a running search (including pondering) and waits for it to finish.
+     */
+    private void stopRunningSearch() {
+        this.pondering = false;
+        CompletableFuture<SearchResult> previousSearch = this.runningSearch;
+        if (previousSearch != null && !previousSearch.isDone()) {
+            stop();
+            previousSearch.join();
+        }
+    }
+
+    /**
+     * Searches the position of the given bitboard, which is used (and changed during the search) by the engine.
+     */
+    SearchResult search(BitBoard board, int maxDepth) {
+        return search(board, SearchLimits.depth(maxDepth));
+    }
+
+    SearchResult search(BitBoard board, SearchLimits limits) {
+        startSearch(limits);
+        return runSearch(board);
+    }
+
+    private static BitBoard createSnapshot(ChessBoard board) {
+        board.updateBitBoardState();
+        return new BitBoard(board.getBitBoard());
+    }
+
+    /**
+     * Resets the state of the previous search and sets the limits of the new one, which start now.
+     * This happens before the search runs, so that a stop right after starting a search in the background is not lost.
+     */
+    private void startSearch(SearchLimits limits) {
+        this.stopped = false;
+        this.reportedNodes.set(0);
+        this.bestResult = NO_RESULT;
+        this.start = System.nanoTime();
+        this.limits = limits;
+    }
+
+    private SearchResult runSearch(BitBoard board) {
+        this.table.newSearch();
+
+        Searcher[] helpers = new Searcher[this.numberOfThreads - 1];
+        SearchResult[] helperResults = new SearchResult[helpers.length];
+        Thread[] helperThreads = new Thread[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            int index = i;
+            helpers[i] = new Searcher(new BitBoard(board), this.table, this, i + 1);
+            helperThreads[i] = this.threadFactory.newThread(() -> helperResults[index] = helpers[index].search());
+            helperThreads[i].start();
+        }
+
+        SearchResult result = new Searcher(board, this.table, this, 0).search();
+        this.stopped = true;
+        joinAll(helperThreads);
+
+        // The deepest completed iteration of all threads is the most reliable one.
+        long nodes = result.getNodes();
+        for (SearchResult helperResult : helperResults) {
+            if (helperResult == null) {
+                continue;
+            }
+            nodes += helperResult.getNodes();
+            // With multi-PV, only the main thread has all lines.
+            if (helperResult.getDepth() > result.getDepth() && helperResult.getBestMove() != MoveEncoding.NO_MOVE
+                    && this.limits.getMultiPv() == 1) {
+                result = helperResult;
+            }
+        }
+        result = new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes, System.nanoTime() - this.start,
+                result.getPrincipalVariations());
+        this.bestResult = result;
+        return result;
+    }
+
+    private static void joinAll(Thread[] threads) {
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread createHelperThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "search-helper");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Stops the running search. The search returns the result of its last completed iteration.
+     * @return Best result found so far, without waiting for the search threads to finish
+     */
+    public SearchResult stop() {
+        this.pondering = false;
+        this.stopped = true;
+        return this.bestResult;
+    }
+
+    /**
+     * Called by the main search thread after each completed iteration.
+     */
+    void iterationCompleted(SearchResult result) {
+        this.bestResult = result;
+        SearchListener currentListener = this.listener.get();
+        if (currentListener != null) {
+            getListenerExecutor().execute(() -> currentListener.iterationCompleted(result));
+        }
+    }
+
+    /**
+     * Sets the listener, which is informed about each completed iteration of the following searches (null for none).
+     * It is called on a thread of its own in the order of the iterations, so the search never waits for it.
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.listener.set(listener);
+    }
+
+    /**
+     * Removes the given listener, unless another one has been set meanwhile.
+     * Iterations completed before are still reported to it.
+     */
+    public void removeSearchListener(SearchListener listener) {
+        this.listener.compareAndSet(listener, null);
+    }
+
+    private ExecutorService getListenerExecutor() {
+        // Not locked on the engine, which is held while waiting for a stopped search to finish.
+        synchronized (this.listenerLock) {
+            if (this.listenerExecutor == null) {
+                this.listenerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "search-listener");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            return this.listenerExecutor;
+        }
+    }
+
+    /**
+     * Returns the result of the last completed iteration of the current (or last) search.
+     */
+    public SearchResult getBestResult() {
+        return this.bestResult;
+    }
+
+    /**
+     * Adds nodes searched by one of the search threads, which count for the node limit of all threads.
+     */
+    void reportNodes(long nodes) {
+        this.reportedNodes.addAndGet(nodes);
+    }
+
+    long getReportedNodes() {
+        return this.reportedNodes.get();
+    }
+
+    boolean isStopped() {
+        return this.stopped;
+    }
+
+    SearchLimits getLimits() {
+        return this.limits;
+    }
+
+    long getStart() {
+        return this.start;
+    }
+
+    public int getNumberOfThreads() {
+        return this.numberOfThreads;
+    }
+
+    /**
+     * Sets the tablebases, which score the positions with few pieces exactly during the following searches (null for none).
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    public Tablebases getTablebases() {
+        return this.tablebases;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.table;
+    }
+
+}
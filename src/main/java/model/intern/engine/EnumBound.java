@@ -0,0 +1,11 @@
+package model.intern.engine;
+
+/**
+ * Enumeration of the kinds of scores stored in the transposition table:
+ * the exact score, or only a lower bound (fail high) or an upper bound (fail low) of it.
+ */
+public enum EnumBound {
+
+    EXACT, LOWER, UPPER
+
+}
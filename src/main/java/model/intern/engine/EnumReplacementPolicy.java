@@ -0,0 +1,21 @@
+package model.intern.engine;
+
+/**
+ * Enumeration of the strategies of the transposition table when a new entry is stored in an occupied slot.
+ */
+public enum EnumReplacementPolicy {
+
+    /**
+     * The new entry always replaces the old one.
+     */
+    ALWAYS,
+    /**
+     * The new entry replaces the old one, if it is searched at least as deep, whichever position the old one belongs to.
+     */
+    DEPTH_PREFERRED,
+    /**
+     * Like DEPTH_PREFERRED, but entries of earlier searches are always replaced.
+     */
+    DEPTH_PREFERRED_AGING
+
+}
@@ -0,0 +1,49 @@
+package model.intern.engine;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.PieceSquareTables;
+
+/**
+ * Static evaluation of a position in centipawns, from the point of view of the color to move.
+ * Material and piece-square scores are kept up to date by the bitboard itself, so an evaluation costs O(1):
+ * it interpolates between the middlegame and the endgame score by the game phase.
+ */
+public final class Evaluation {
+
+    /**
+     * Score of being checkmated at the root. A checkmate after n plies is scored -MATE_SCORE + n.
+     */
+    public static final int MATE_SCORE = 30000;
+    public static final int DRAW_SCORE = 0;
+
+    private static final int MAX_MATE_PLY = 1000;
+
+    private Evaluation() {}
+
+    /**
+     * Returns the score of the given position for the color to move.
+     */
+    public static int evaluate(BitBoard board) {
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (board.getMiddlegameScore() * phase + board.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase))
+                / PieceSquareTables.MAX_PHASE;
+        return board.getActiveColor() == EnumChessColor.WHITE ? score : -score;
+    }
+
+    /**
+     * Returns the value of the given piece type in centipawns (0 for the king).
+     */
+    public static int getPieceValue(EnumChessPiece pieceType) {
+        return PieceSquareTables.getPieceValue(pieceType);
+    }
+
+    /**
+     * Returns whether the given score announces a checkmate of one of the players.
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) >= MATE_SCORE - MAX_MATE_PLY;
+    }
+
+}
@@ -0,0 +1,39 @@
+package model.intern.engine;
+
+import java.util.Arrays;
+
+/**
+ * Table storage in a long array on the heap (up to 2^31 slots).
+ */
+class HeapTableStorage implements TableStorage {
+
+    private final long[] slots;
+
+    HeapTableStorage(long size) {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many slots for a heap table, use an off-heap table: " + size);
+        }
+        this.slots = new long[(int) size];
+    }
+
+    @Override
+    public long get(long index) {
+        return this.slots[(int) index];
+    }
+
+    @Override
+    public void set(long index, long value) {
+        this.slots[(int) index] = value;
+    }
+
+    @Override
+    public long size() {
+        return this.slots.length;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.slots, 0L);
+    }
+
+}
@@ -0,0 +1,146 @@
+package model.intern.engine;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessmove.MoveEncoding;
+
+/**
+ * Orders the moves of a node, so that alpha-beta cuts off as early as possible:
+ * first the move of the transposition table, then captures and promotions by MVV-LVA
+ * (most valuable victim, least valuable attacker), then the two killer moves of the ply
+ * (quiet moves which caused a cutoff in a sibling node) and finally the other quiet moves by their history score.
+ *
+ * The moves are not sorted up front. The next move is picked from the remaining ones when it is needed,
+ * as most nodes cut off after one or two moves. An instance belongs to one searcher (and thread).
+ */
+class MoveOrdering {
+
+    private static final int TABLE_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 20;
+    private static final int FIRST_KILLER_SCORE = CAPTURE_SCORE - 1;
+    private static final int SECOND_KILLER_SCORE = CAPTURE_SCORE - 2;
+    private static final int MAX_HISTORY_SCORE = CAPTURE_SCORE >> 1;
+
+    private static final int KILLERS_PER_PLY = 2;
+    private static final int[][] MVV_LVA = new int[EnumChessPiece.values().length][EnumChessPiece.values().length];
+
+    static {
+        // Rank of the pieces by value (the king is the most valuable attacker, but is never a victim).
+        int[] rank = new int[EnumChessPiece.values().length];
+        rank[EnumChessPiece.PAWN.ordinal()] = 1;
+        rank[EnumChessPiece.KNIGHT.ordinal()] = 2;
+        rank[EnumChessPiece.BISHOP.ordinal()] = 3;
+        rank[EnumChessPiece.ROOK.ordinal()] = 4;
+        rank[EnumChessPiece.QUEEN.ordinal()] = 5;
+        rank[EnumChessPiece.KING.ordinal()] = 6;
+        for (EnumChessPiece victim : EnumChessPiece.values()) {
+            for (EnumChessPiece attacker : EnumChessPiece.values()) {
+                MVV_LVA[victim.ordinal()][attacker.ordinal()] = rank[victim.ordinal()] * 8 - rank[attacker.ordinal()];
+            }
+        }
+    }
+
+    private final int[][] killers;
+    private final int[][] history;
+
+    MoveOrdering() {
+        this.killers = new int[Searcher.MAX_PLY][KILLERS_PER_PLY];
+        this.history = new int[EnumChessColor.values().length][BitBoard.NUMBER_OF_SQUARES * BitBoard.NUMBER_OF_SQUARES];
+    }
+
+    /**
+     * Assigns an ordering score to each of the given moves of the active color of the given bitboard.
+     */
+    void scoreMoves(BitBoard board, int[] moves, int[] scores, int numberOfMoves, int tableMove, int ply) {
+        int[] historyOfColor = this.history[board.getActiveColor().ordinal()];
+        int[] killersOfPly = this.killers[ply];
+        for (int i = 0; i < numberOfMoves; i++) {
+            int move = moves[i];
+            if (move == tableMove) {
+                scores[i] = TABLE_MOVE_SCORE;
+            } else if (MoveEncoding.isCapture(move) || MoveEncoding.isPromotion(move)) {
+                scores[i] = CAPTURE_SCORE + scoreCapture(board, move);
+            } else if (move == killersOfPly[0]) {
+                scores[i] = FIRST_KILLER_SCORE;
+            } else if (move == killersOfPly[1]) {
+                scores[i] = SECOND_KILLER_SCORE;
+            } else {
+                scores[i] = historyOfColor[fromTo(move)];
+            }
+        }
+    }
+
+    /**
+     * Returns the MVV-LVA score of the given capture or promotion; a promotion counts as capturing the new piece.
+     */
+    static int scoreCapture(BitBoard board, int move) {
+        EnumChessPiece attacker = board.getPieceType(MoveEncoding.getFrom(move));
+        int score = 0;
+        if (MoveEncoding.isCapture(move)) {
+            EnumChessPiece victim = MoveEncoding.getFlags(move) == MoveEncoding.FLAG_EN_PASSANT
+                    ? EnumChessPiece.PAWN
+                    : board.getPieceType(MoveEncoding.getTo(move));
+            score += MVV_LVA[victim.ordinal()][attacker.ordinal()];
+        }
+        if (MoveEncoding.isPromotion(move)) {
+            score += MVV_LVA[MoveEncoding.getPromotionPiece(move).ordinal()][attacker.ordinal()];
+        }
+        return score;
+    }
+
+    /**
+     * Moves the best scored of the remaining moves (from the given index on) to the given index and returns it.
+     */
+    static int pickNextMove(int[] moves, int[] scores, int numberOfMoves, int index) {
+        int best = index;
+        for (int i = index + 1; i < numberOfMoves; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    /**
+     * Remembers the given quiet move of the given color, which caused a beta cutoff at the given ply and depth.
+     */
+    void updateQuietCutoff(EnumChessColor color, int move, int ply, int depth) {
+        int[] killersOfPly = this.killers[ply];
+        if (killersOfPly[0] != move) {
+            killersOfPly[1] = killersOfPly[0];
+            killersOfPly[0] = move;
+        }
+
+        int[] historyOfColor = this.history[color.ordinal()];
+        int index = fromTo(move);
+        historyOfColor[index] += depth * depth;
+        if (historyOfColor[index] >= MAX_HISTORY_SCORE) {
+            // Age all scores, so that the history never reaches the scores of the killer moves.
+            for (int[] historyOfAnyColor : this.history) {
+                for (int i = 0; i < historyOfAnyColor.length; i++) {
+                    historyOfAnyColor[i] >>= 1;
+                }
+            }
+        }
+    }
+
+    int[] getKillers(int ply) {
+        return this.killers[ply];
+    }
+
+    int getHistory(EnumChessColor color, int move) {
+        return this.history[color.ordinal()][fromTo(move)];
+    }
+
+    private static int fromTo(int move) {
+        return move & 0xFFF;
+    }
+
+}
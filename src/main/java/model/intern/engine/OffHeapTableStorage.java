@@ -0,0 +1,56 @@
+package model.intern.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Table storage in direct (off-heap) memory, so that large tables do not enlarge the heap
+ * and are not scanned by the garbage collector. As a direct buffer is indexed by int,
+ * the slots are split into chunks of 2^27 slots (1 GiB) each.
+ */
+class OffHeapTableStorage implements TableStorage {
+
+    private static final int CHUNK_BITS = 27;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final LongBuffer[] chunks;
+    private final long size;
+
+    OffHeapTableStorage(long size) {
+        this.size = size;
+        int numberOfChunks = (int) ((size + CHUNK_MASK) >>> CHUNK_BITS);
+        this.chunks = new LongBuffer[numberOfChunks];
+        for (int i = 0; i < numberOfChunks; i++) {
+            long slotsOfChunk = Math.min(size - ((long) i << CHUNK_BITS), 1L << CHUNK_BITS);
+            this.chunks[i] = ByteBuffer.allocateDirect((int) (slotsOfChunk * Long.BYTES))
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+    }
+
+    @Override
+    public long get(long index) {
+        return this.chunks[(int) (index >>> CHUNK_BITS)].get((int) (index & CHUNK_MASK));
+    }
+
+    @Override
+    public void set(long index, long value) {
+        this.chunks[(int) (index >>> CHUNK_BITS)].put((int) (index & CHUNK_MASK), value);
+    }
+
+    @Override
+    public long size() {
+        return this.size;
+    }
+
+    @Override
+    public void clear() {
+        for (LongBuffer chunk : this.chunks) {
+            for (int i = 0; i < chunk.capacity(); i++) {
+                chunk.put(i, 0L);
+            }
+        }
+    }
+
+}
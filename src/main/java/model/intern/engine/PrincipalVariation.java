@@ -0,0 +1,48 @@
+package model.intern.engine;
+
+import model.intern.chessmove.MoveEncoding;
+
+import java.util.Arrays;
+
+/**
+ * One of the best root moves of a search with its score and the expected line of play (principal variation),
+ * which starts with that move. The moves are encoded by MoveEncoding.
+ */
+public class PrincipalVariation {
+
+    private final int score;
+    private final int[] moves;
+
+    PrincipalVariation(int score, int[] moves) {
+        this.score = score;
+        this.moves = moves;
+    }
+
+    /**
+     * Returns the root move of this line.
+     */
+    public int getMove() {
+        return this.moves[0];
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Returns the moves of the line, starting with the root move.
+     */
+    public int[] getMoves() {
+        return this.moves.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder().append(this.score);
+        for (int move : this.moves) {
+            result.append(' ').append(MoveEncoding.toString(move));
+        }
+        return result.toString();
+    }
+
+}
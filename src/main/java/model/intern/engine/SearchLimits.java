@@ -0,0 +1,122 @@
+package model.intern.engine;
+
+import java.time.Duration;
+
+/**
+ * Limits of a search: maximum depth, maximum number of nodes and the time for the move.
+ * They also tell how many of the best root moves (principal variations) are searched, which is 1 by default.
+ * Without any limit, the search runs until it is stopped (or cannot get any deeper).
+ * A limit object is immutable; the with-methods return a copy with the additional limit.
+ *
+ * The time is given by two budgets: the search does not start another iteration after the optimum time
+ * and is aborted at the maximum time. With a clock, both are allocated from the remaining time and the increment.
+ */
+public class SearchLimits {
+
+    /**
+     * Expected number of moves until the end of the game (or the next time control), if the clock does not tell.
+     */
+    static final int MOVES_TO_GO = 30;
+
+    /**
+     * Time kept back for the communication around each move.
+     */
+    static final long MOVE_OVERHEAD_NANOS = Duration.ofMillis(20).toNanos();
+
+    private static final long NO_LIMIT = Long.MAX_VALUE;
+
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long optimumNanos;
+    private final long maximumNanos;
+    private final int multiPv;
+
+    private SearchLimits(int maxDepth, long maxNodes, long optimumNanos, long maximumNanos, int multiPv) {
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.optimumNanos = optimumNanos;
+        this.maximumNanos = maximumNanos;
+        this.multiPv = multiPv;
+    }
+
+    /**
+     * Returns limits without any limit: the search runs until it is stopped.
+     */
+    public static SearchLimits infinite() {
+        return new SearchLimits(Searcher.MAX_PLY - 1, NO_LIMIT, NO_LIMIT, NO_LIMIT, 1);
+    }
+
+    /**
+     * Returns limits with the given maximum depth in plies.
+     */
+    public static SearchLimits depth(int maxDepth) {
+        return infinite().withDepth(maxDepth);
+    }
+
+    public SearchLimits withDepth(int maxDepth) {
+        return new SearchLimits(Math.max(1, Math.min(maxDepth, Searcher.MAX_PLY - 1)),
+                this.maxNodes, this.optimumNanos, this.maximumNanos, this.multiPv);
+    }
+
+    public SearchLimits withNodes(long maxNodes) {
+        return new SearchLimits(this.maxDepth, Math.max(1, maxNodes), this.optimumNanos, this.maximumNanos, this.multiPv);
+    }
+
+    /**
+     * Returns a copy of these limits, which uses at most the given time for the search.
+     */
+    public SearchLimits withMoveTime(Duration moveTime) {
+        long nanos = Math.max(0, moveTime.toNanos());
+        return new SearchLimits(this.maxDepth, this.maxNodes, Math.min(this.optimumNanos, nanos), Math.min(this.maximumNanos, nanos),
+                this.multiPv);
+    }
+
+    /**
+     * Returns a copy of these limits, whose time for the search is allocated from the given remaining time
+     * on the clock of the player to move and the given increment per move.
+     * The optimum time is an equal share of the remaining time for the expected number of moves, plus most of the increment.
+     * An iteration may run until the maximum time, which is a few times the optimum but never more than a third
+     * of the remaining time.
+     */
+    public SearchLimits withClock(Duration remaining, Duration increment) {
+        long remainingNanos = Math.max(0, remaining.toNanos() - MOVE_OVERHEAD_NANOS);
+        long maximum = Math.min(remainingNanos / 3, (remainingNanos / MOVES_TO_GO + increment.toNanos()) * 4);
+        long optimum = Math.min(maximum, remainingNanos / MOVES_TO_GO + increment.toNanos() * 3 / 4);
+        return new SearchLimits(this.maxDepth, this.maxNodes, Math.min(this.optimumNanos, optimum), Math.min(this.maximumNanos, maximum),
+                this.multiPv);
+    }
+
+    /**
+     * Returns a copy of these limits, which searches the given number of best root moves (at least 1) with their scores.
+     */
+    public SearchLimits withMultiPv(int multiPv) {
+        return new SearchLimits(this.maxDepth, this.maxNodes, this.optimumNanos, this.maximumNanos, Math.max(1, multiPv));
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    public long getMaxNodes() {
+        return this.maxNodes;
+    }
+
+    /**
+     * Returns the time in nanoseconds after which no further iteration is started.
+     */
+    public long getOptimumNanos() {
+        return this.optimumNanos;
+    }
+
+    /**
+     * Returns the time in nanoseconds after which the search is aborted.
+     */
+    public long getMaximumNanos() {
+        return this.maximumNanos;
+    }
+
+    public int getMultiPv() {
+        return this.multiPv;
+    }
+
+}
@@ -0,0 +1,14 @@
+package model.intern.engine;
+
+/**
+ * Listener of a running search, which is informed about each completed iteration of the main search thread.
+ * It is called on a thread of its own, so it may take its time without slowing down the search.
+ */
+public interface SearchListener {
+
+    /**
+     * Called with the result of each completed iteration, including its principal variations.
+     */
+    void iterationCompleted(SearchResult result);
+
+}
@@ -0,0 +1,78 @@
+package model.intern.engine;
+
+import model.intern.chessmove.MoveEncoding;
+
+import java.util.List;
+
+/**
+ * Result of a search: the best move found (see MoveEncoding), its score for the color to move,
+ * the depth of the last completed iteration and the throughput of the search.
+ * With multi-PV, it also has the best root moves with their lines, ordered by score.
+ */
+public class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nanoseconds;
+    private final List<PrincipalVariation> principalVariations;
+
+    SearchResult(int bestMove, int score, int depth, long nodes, long nanoseconds) {
+        this(bestMove, score, depth, nodes, nanoseconds, List.of());
+    }
+
+    SearchResult(int bestMove, int score, int depth, long nodes, long nanoseconds, List<PrincipalVariation> principalVariations) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanoseconds = nanoseconds;
+        this.principalVariations = principalVariations;
+    }
+
+    /**
+     * Returns the best move, or MoveEncoding.NO_MOVE if the color to move has no legal move.
+     */
+    public int getBestMove() {
+        return this.bestMove;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getNanoseconds() {
+        return this.nanoseconds;
+    }
+
+    /**
+     * Returns the best root moves with their scores and lines, the best first.
+     * The list is empty if the color to move has no legal move or no iteration has been completed.
+     */
+    public List<PrincipalVariation> getPrincipalVariations() {
+        return this.principalVariations;
+    }
+
+    /**
+     * Returns the number of searched nodes per second.
+     */
+    public long getNodesPerSecond() {
+        return this.nanoseconds == 0 ? 0 : this.nodes * 1_000_000_000L / this.nanoseconds;
+    }
+
+    @Override
+    public String toString() {
+        return MoveEncoding.toString(this.bestMove) + " score " + this.score + " depth " + this.depth
+                + " (" + this.nodes + " nodes, " + getNodesPerSecond() + " nodes/s)";
+    }
+
+}
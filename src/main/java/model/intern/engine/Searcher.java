@@ -0,0 +1,406 @@
+package model.intern.engine;
+
+import model.intern.chessboard.BitBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.tablebase.TablebaseResult;
+import model.intern.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Iterative-deepening negamax search with alpha-beta pruning on its own copy of a bitboard.
+ * The moves are executed with makeMove/unmakeMove, and results are shared through the transposition table.
+ * A searcher is used by one thread only.
+ *
+ * With multi-PV, the main thread searches the root position once per line in each iteration, each time without
+ * the root moves of the lines before. The lines are read from the best moves in the transposition table.
+ */
+class Searcher {
+
+    static final int MAX_PLY = 128;
+    static final int INFINITE_SCORE = Evaluation.MATE_SCORE + 1;
+
+    static final int STOP_CHECK_INTERVAL = 256;
+    private static final int HELPER_DEPTH_OFFSETS = 3;
+
+    private final BitBoard board;
+    private final TranspositionTable table;
+    private final Engine engine;
+    private final Tablebases tablebases;
+    private final int threadIndex;
+    private final int[][] moves;
+    private final int[][] moveScores;
+    private final MoveOrdering moveOrdering;
+    private final long[] keys;
+    private final int[] excludedRootMoves;
+    private int numberOfExcludedRootMoves;
+
+    private SearchLimits limits;
+    private long start;
+    private long nodes;
+    private boolean aborted;
+    private int rootBestMove;
+
+    /**
+     * @param threadIndex Index of the search thread (0 for the main thread, 1 and above for the helper threads)
+     */
+    Searcher(BitBoard board, TranspositionTable table, Engine engine, int threadIndex) {
+        this.board = board;
+        this.table = table;
+        this.engine = engine;
+        this.tablebases = engine.getTablebases();
+        this.threadIndex = threadIndex;
+        this.moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+        this.moveScores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+        this.moveOrdering = new MoveOrdering();
+        this.keys = new long[MAX_PLY + 1];
+        this.excludedRootMoves = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    /**
+     * Searches the root position with increasing depth until one of the limits of the engine is reached
+     * or the search is stopped. The result of the deepest completed iteration is returned.
+     * Helper threads start at a deeper first iteration (staggered by their index), so that the threads
+     * do not all search the same depth at the same time but fill the shared transposition table for each other.
+     * The limits are read from the engine again and again, as they are replaced on a ponder hit.
+     */
+    SearchResult search() {
+        refreshLimits();
+        int bestMove = MoveEncoding.NO_MOVE;
+        int bestScore = 0;
+        int completedDepth = 0;
+        List<PrincipalVariation> principalVariations = List.of();
+        int numberOfRootMoves = MoveGenerator.generateMoves(this.board, this.board.getActiveColor(), this.moves[0]);
+
+        int firstDepth = Math.min(1 + this.threadIndex % HELPER_DEPTH_OFFSETS, this.limits.getMaxDepth());
+        for (int depth = firstDepth; depth <= this.limits.getMaxDepth(); depth++) {
+            // Only the main thread searches several lines, the helpers just fill the transposition table.
+            int numberOfLines = this.threadIndex == 0 ? Math.max(1, Math.min(this.limits.getMultiPv(), numberOfRootMoves)) : 1;
+            List<PrincipalVariation> lines = new ArrayList<>(numberOfLines);
+            int score = 0;
+            for (int line = 0; line < numberOfLines; line++) {
+                this.rootBestMove = MoveEncoding.NO_MOVE;
+                int lineScore = negamax(depth, -INFINITE_SCORE, INFINITE_SCORE, 0);
+                if (line == 0) {
+                    score = lineScore;
+                }
+                if (this.aborted || this.rootBestMove == MoveEncoding.NO_MOVE) {
+                    break;
+                }
+                lines.add(new PrincipalVariation(lineScore, extractPrincipalVariation(this.rootBestMove, depth)));
+                this.excludedRootMoves[this.numberOfExcludedRootMoves++] = this.rootBestMove;
+            }
+            this.numberOfExcludedRootMoves = 0;
+            if (this.aborted) {
+                break;
+            }
+            lines.sort(Comparator.comparingInt(PrincipalVariation::getScore).reversed());
+            principalVariations = lines;
+            bestMove = lines.isEmpty() ? MoveEncoding.NO_MOVE : lines.get(0).getMove();
+            bestScore = lines.isEmpty() ? score : lines.get(0).getScore();
+            completedDepth = depth;
+            refreshLimits();
+            if (this.threadIndex == 0) {
+                this.engine.iterationCompleted(new SearchResult(bestMove, bestScore, completedDepth, this.nodes,
+                        System.nanoTime() - this.start, principalVariations));
+            }
+            if (bestMove == MoveEncoding.NO_MOVE || Evaluation.isMateScore(bestScore)) {
+                // No legal move at all, or a forced mate has been found - searching deeper does not change the result.
+                break;
+            }
+            if (System.nanoTime() - this.start >= this.limits.getOptimumNanos()) {
+                // The next iteration takes longer than all before, so it would most likely not complete in time.
+                break;
+            }
+        }
+        if (completedDepth == 0 && this.rootBestMove != MoveEncoding.NO_MOVE) {
+            // Stopped during the first iteration: better any legal move than none.
+            bestMove = this.rootBestMove;
+        }
+        return new SearchResult(bestMove, bestScore, completedDepth, this.nodes, System.nanoTime() - this.start, principalVariations);
+    }
+
+    /**
+     * Returns the line starting with the given root move, which follows the best moves of the transposition table
+     * up to the given depth. The line ends early at a position without a (legal) table move.
+     */
+    private int[] extractPrincipalVariation(int rootMove, int depth) {
+        int[] line = new int[depth];
+        line[0] = rootMove;
+        this.board.makeMove(rootMove);
+        int length = 1;
+        while (length < depth) {
+            long entry = this.table.probe(this.board.getZobristKey());
+            if (entry == TranspositionTable.NO_ENTRY || !isLegalMove(TranspositionTable.getMove(entry), this.moves[length])) {
+                break;
+            }
+            line[length] = TranspositionTable.getMove(entry);
+            this.board.makeMove(line[length]);
+            length++;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            this.board.unmakeMove(line[i]);
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    /**
+     * Returns whether the given move is legal in the current position (a table move may come from another position
+     * with the same index), using the given array for the generated moves.
+     */
+    private boolean isLegalMove(int move, int[] movesBuffer) {
+        if (move == MoveEncoding.NO_MOVE) {
+            return false;
+        }
+        int numberOfMoves = MoveGenerator.generateMoves(this.board, this.board.getActiveColor(), movesBuffer);
+        for (int i = 0; i < numberOfMoves; i++) {
+            if (movesBuffer[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isExcludedRootMove(int move) {
+        for (int i = 0; i < this.numberOfExcludedRootMoves; i++) {
+            if (this.excludedRootMoves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes over the current limits of the engine. The limits are read before their start time,
+     * as a ponder hit replaces them in the opposite order - so new limits are never measured from an old start.
+     */
+    private void refreshLimits() {
+        this.limits = this.engine.getLimits();
+        this.start = this.engine.getStart();
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (checkAborted()) {
+            return 0;
+        }
+
+        long key = this.board.getZobristKey();
+        this.keys[ply] = key;
+        if (ply > 0 && isRepetition(ply)) {
+            return Evaluation.DRAW_SCORE;
+        }
+        if (ply > 0 && this.tablebases != null && Long.bitCount(this.board.getOccupancy()) <= Tablebases.MAX_PIECES) {
+            TablebaseResult result = this.tablebases.probe(this.board);
+            if (result != null) {
+                return toScore(result, ply);
+            }
+        }
+
+        if (depth == 0 || ply == MAX_PLY - 1) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        int originalAlpha = alpha;
+        long entry = this.table.probe(key);
+        int tableMove = MoveEncoding.NO_MOVE;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            tableMove = TranspositionTable.getMove(entry);
+            if (ply > 0 && TranspositionTable.getDepth(entry) >= depth) {
+                int tableScore = fromTableScore(TranspositionTable.getScore(entry), ply);
+                EnumBound bound = TranspositionTable.getBound(entry);
+                if (bound == EnumBound.EXACT
+                        || bound == EnumBound.LOWER && tableScore >= beta
+                        || bound == EnumBound.UPPER && tableScore <= alpha) {
+                    return tableScore;
+                }
+            }
+        }
+
+        int[] movesOfPly = this.moves[ply];
+        int numberOfMoves = MoveGenerator.generateMoves(this.board, this.board.getActiveColor(), movesOfPly);
+        if (numberOfMoves == 0) {
+            return MoveGenerator.isKingChecked(this.board, this.board.getActiveColor())
+                    ? -Evaluation.MATE_SCORE + ply
+                    : Evaluation.DRAW_SCORE;
+        }
+        int[] scoresOfPly = this.moveScores[ply];
+        this.moveOrdering.scoreMoves(this.board, movesOfPly, scoresOfPly, numberOfMoves, tableMove, ply);
+
+        int bestScore = -INFINITE_SCORE;
+        int bestMove = MoveEncoding.NO_MOVE;
+        for (int i = 0; i < numberOfMoves; i++) {
+            int move = MoveOrdering.pickNextMove(movesOfPly, scoresOfPly, numberOfMoves, i);
+            if (ply == 0 && isExcludedRootMove(move)) {
+                continue;
+            }
+            this.board.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            this.board.unmakeMove(move);
+            if (this.aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    this.rootBestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                if (!MoveEncoding.isCapture(move) && !MoveEncoding.isPromotion(move)) {
+                    this.moveOrdering.updateQuietCutoff(this.board.getActiveColor(), move, ply, depth);
+                }
+                break;
+            }
+        }
+
+        if (ply > 0 || this.numberOfExcludedRootMoves == 0) {
+            // The score of a root position with excluded moves is not the score of the position.
+            EnumBound bound = bestScore <= originalAlpha ? EnumBound.UPPER : bestScore >= beta ? EnumBound.LOWER : EnumBound.EXACT;
+            this.table.store(key, depth, toTableScore(bestScore, ply), bound, bestMove);
+        }
+        return bestScore;
+    }
+
+    /**
+     * Counts the current node and returns whether the search has to be aborted: because it has been stopped,
+     * its time is up or the nodes of all threads are used up. Stop flag and clock are only checked every few nodes,
+     * which keeps the latency of a stop far below a millisecond. All threads report their nodes to the engine
+     * at the same interval, so each thread exceeds the node limit by at most two intervals. With a single thread,
+     * the limit is exact, as the main thread adds the nodes it has not reported yet at every node.
+     */
+    private boolean checkAborted() {
+        this.nodes++;
+        if (this.threadIndex == 0
+                && this.engine.getReportedNodes() + this.nodes % STOP_CHECK_INTERVAL > this.limits.getMaxNodes()) {
+            this.aborted = true;
+        } else if ((this.nodes % STOP_CHECK_INTERVAL) == 0) {
+            this.engine.reportNodes(STOP_CHECK_INTERVAL);
+            refreshLimits();
+            if (this.engine.isStopped() || System.nanoTime() - this.start >= this.limits.getMaximumNanos()
+                    || this.engine.getReportedNodes() > this.limits.getMaxNodes()) {
+                this.aborted = true;
+            }
+        }
+        return this.aborted;
+    }
+
+    /**
+     * Searches only captures and promotions (or all moves when in check) until the position is quiet,
+     * so that the static evaluation is not taken in the middle of an exchange.
+     * The color to move may always stand pat with the static evaluation, unless it is in check.
+     * Captures losing material by static exchange evaluation are skipped without making them.
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        if (checkAborted()) {
+            return 0;
+        }
+
+        boolean inCheck = MoveGenerator.isKingChecked(this.board, this.board.getActiveColor());
+        int bestScore = -INFINITE_SCORE;
+        if (!inCheck) {
+            bestScore = Evaluation.evaluate(this.board);
+            if (bestScore >= beta || ply == MAX_PLY - 1) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        } else if (ply == MAX_PLY - 1) {
+            return Evaluation.evaluate(this.board);
+        }
+
+        int[] movesOfPly = this.moves[ply];
+        int[] scoresOfPly = this.moveScores[ply];
+        int numberOfMoves = MoveGenerator.generateMoves(this.board, this.board.getActiveColor(), movesOfPly);
+        if (numberOfMoves == 0) {
+            return inCheck ? -Evaluation.MATE_SCORE + ply : Evaluation.DRAW_SCORE;
+        }
+        this.moveOrdering.scoreMoves(this.board, movesOfPly, scoresOfPly, numberOfMoves, MoveEncoding.NO_MOVE, ply);
+
+        for (int i = 0; i < numberOfMoves; i++) {
+            int move = MoveOrdering.pickNextMove(movesOfPly, scoresOfPly, numberOfMoves, i);
+            if (!inCheck) {
+                if (!MoveEncoding.isCapture(move) && !MoveEncoding.isPromotion(move)) {
+                    // Captures and promotions are ordered first, so only quiet moves are left.
+                    break;
+                }
+                if (StaticExchangeEvaluation.isLosing(this.board, move)) {
+                    continue;
+                }
+            }
+            this.board.makeMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            this.board.unmakeMove(move);
+            if (this.aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Returns whether the position of the given ply already occurred earlier in the search path
+     * (with the same color to move). A repetition is scored as a draw.
+     */
+    private boolean isRepetition(int ply) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (this.keys[i] == this.keys[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A tablebase result is exact, so a win or loss is scored like a mate found by the search.
+     */
+    private static int toScore(TablebaseResult result, int ply) {
+        switch (result.getResult()) {
+            case WIN:
+                return Evaluation.MATE_SCORE - ply - result.getDistanceToMate();
+            case LOSS:
+                return -Evaluation.MATE_SCORE + ply + result.getDistanceToMate();
+            default:
+                return Evaluation.DRAW_SCORE;
+        }
+    }
+
+    /**
+     * Mate scores are stored relative to the position in the table, as the position can occur at other plies.
+     */
+    private static int toTableScore(int score, int ply) {
+        if (Evaluation.isMateScore(score)) {
+            return score > 0 ? score + ply : score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (Evaluation.isMateScore(score)) {
+            return score > 0 ? score - ply : score + ply;
+        }
+        return score;
+    }
+
+    long getNodes() {
+        return this.nodes;
+    }
+
+}
@@ -0,0 +1,86 @@
+package model.intern.engine;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessmove.MoveEncoding;
+
+/**
+ * Static exchange evaluation (SEE): the material outcome of a capture, if both colors keep capturing on the target
+ * square with their least valuable attacker and each color may stop the exchange when continuing would lose material.
+ * The exchange is worked out from the attacker sets of the square, without making any move on the board.
+ * Sliding pieces behind a capturing piece (x-rays) join the exchange when the piece in front has left its square.
+ * Pins are not taken into account.
+ */
+final class StaticExchangeEvaluation {
+
+    // The king captures last, and capturing it ends every exchange.
+    private static final int KING_VALUE = 20000;
+    private static final EnumChessPiece[] ATTACKER_ORDER = {EnumChessPiece.PAWN, EnumChessPiece.KNIGHT,
+            EnumChessPiece.BISHOP, EnumChessPiece.ROOK, EnumChessPiece.QUEEN, EnumChessPiece.KING};
+    private static final int MAX_EXCHANGES = 32;
+
+    private StaticExchangeEvaluation() {}
+
+    /**
+     * Returns the material gain of the given move of the active color in centipawns (negative for a losing capture).
+     */
+    static int evaluate(BitBoard board, int move) {
+        int from = MoveEncoding.getFrom(move);
+        int to = MoveEncoding.getTo(move);
+        EnumChessColor color = board.getActiveColor();
+        long occupancy = board.getOccupancy();
+
+        int[] gain = new int[MAX_EXCHANGES];
+        if (MoveEncoding.getFlags(move) == MoveEncoding.FLAG_EN_PASSANT) {
+            gain[0] = Evaluation.getPieceValue(EnumChessPiece.PAWN);
+            occupancy ^= 1L << (color == EnumChessColor.WHITE ? to - 8 : to + 8);
+        } else {
+            gain[0] = MoveEncoding.isCapture(move) ? Evaluation.getPieceValue(board.getPieceType(to)) : 0;
+        }
+        int valueOnSquare = value(board.getPieceType(from));
+        if (MoveEncoding.isPromotion(move)) {
+            EnumChessPiece promotionPiece = MoveEncoding.getPromotionPiece(move);
+            gain[0] += Evaluation.getPieceValue(promotionPiece) - Evaluation.getPieceValue(EnumChessPiece.PAWN);
+            valueOnSquare = value(promotionPiece);
+        }
+
+        long attacker = 1L << from;
+        int depth = 0;
+        while (attacker != 0 && depth < MAX_EXCHANGES - 1) {
+            depth++;
+            // Gain of the next capture, if the piece now standing on the square is taken.
+            gain[depth] = valueOnSquare - gain[depth - 1];
+            occupancy ^= attacker;
+            color = color.getOtherColor();
+            long attackers = board.findAttackers(to, color, occupancy) & occupancy;
+            attacker = 0;
+            for (EnumChessPiece pieceType : ATTACKER_ORDER) {
+                long attackersOfType = attackers & board.getPieces(color, pieceType);
+                if (attackersOfType != 0) {
+                    attacker = attackersOfType & -attackersOfType;
+                    valueOnSquare = value(pieceType);
+                    break;
+                }
+            }
+        }
+        // The last entry is only a speculative capture, which no attacker is left to make.
+        // Going backwards, each color either captures or stops the exchange, whatever is better for it.
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    /**
+     * Returns whether the given capture of the active color loses material.
+     */
+    static boolean isLosing(BitBoard board, int move) {
+        return evaluate(board, move) < 0;
+    }
+
+    private static int value(EnumChessPiece pieceType) {
+        return pieceType == EnumChessPiece.KING ? KING_VALUE : Evaluation.getPieceValue(pieceType);
+    }
+
+}
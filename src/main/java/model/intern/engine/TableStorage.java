@@ -0,0 +1,17 @@
+package model.intern.engine;
+
+/**
+ * Storage of the long slots of a transposition table, either on the heap or off-heap.
+ * Reads and writes of slots are not synchronized; the table detects torn entries itself.
+ */
+interface TableStorage {
+
+    long get(long index);
+
+    void set(long index, long value);
+
+    long size();
+
+    void clear();
+
+}
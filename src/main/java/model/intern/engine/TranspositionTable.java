@@ -0,0 +1,186 @@
+package model.intern.engine;
+
+/**
+ * Fixed-size cache of search results per position, keyed by the Zobrist key of the position.
+ * The table can be shared by several search threads without locks.
+ *
+ * Each entry takes two long slots: the packed data and the key XOR the data.
+ * Threads write both slots without synchronization, so an entry can be torn by concurrent writes.
+ * A probe only accepts an entry if the key XOR the data of the second slot gives the probed key again,
+ * which fails for torn entries (and for entries of other positions). Torn entries are simply misses.
+ *
+ * The data of an entry is packed into a long (see getMove, getScore, getDepth, getBound) and returned by probe
+ * as is, so that probing does not create any objects. NO_ENTRY is returned when the position is not stored.
+ */
+public class TranspositionTable {
+
+    public static final long NO_ENTRY = 0L;
+    public static final int MAX_DEPTH = 255;
+
+    private static final int SLOTS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = SLOTS_PER_ENTRY * Long.BYTES;
+
+    // Layout of the data: move (16 bits), score (16 bits), depth (8 bits), bound (2 bits), generation (8 bits).
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int GENERATION_SHIFT = 42;
+    private static final EnumBound[] BOUNDS = EnumBound.values();
+
+    private final TableStorage storage;
+    private final long entryMask;
+    private final EnumReplacementPolicy replacementPolicy;
+    private volatile int generation;
+
+    /**
+     * Creates a table with at most the given size in bytes (rounded down to a power of two of entries).
+     * @param sizeInBytes Maximum memory used by the table
+     * @param replacementPolicy Decides whether a new entry replaces the old entry in the same slot
+     * @param offHeap If true, the table is allocated in direct memory outside the heap
+     *                (limited by -XX:MaxDirectMemorySize); otherwise it is a long array on the heap.
+     */
+    public TranspositionTable(long sizeInBytes, EnumReplacementPolicy replacementPolicy, boolean offHeap) {
+        if (sizeInBytes < BYTES_PER_ENTRY) {
+            throw new IllegalArgumentException("The table must have space for at least one entry: " + sizeInBytes);
+        }
+        long numberOfEntries = Long.highestOneBit(sizeInBytes / BYTES_PER_ENTRY);
+        long numberOfSlots = numberOfEntries * SLOTS_PER_ENTRY;
+        this.storage = offHeap ? new OffHeapTableStorage(numberOfSlots) : new HeapTableStorage(numberOfSlots);
+        this.entryMask = numberOfEntries - 1;
+        this.replacementPolicy = replacementPolicy;
+    }
+
+    /**
+     * Returns the packed data stored for the position with the given key, or NO_ENTRY.
+     */
+    public long probe(long key) {
+        long index = (key & this.entryMask) * SLOTS_PER_ENTRY;
+        long data = this.storage.get(index);
+        long checksum = this.storage.get(index + 1);
+        if (data == NO_ENTRY || (checksum ^ data) != key) {
+            return NO_ENTRY;
+        }
+        return data;
+    }
+
+    /**
+     * Stores the result of a search of the position with the given key, if the replacement policy allows it.
+     * @param key Zobrist key of the position
+     * @param depth Remaining depth of the search (0 to MAX_DEPTH)
+     * @param score Score of the position (-32768 to 32767)
+     * @param bound Whether the score is exact or only a lower / upper bound
+     * @param move Best move found (see MoveEncoding), or MoveEncoding.NO_MOVE
+     */
+    public void store(long key, int depth, int score, EnumBound bound, int move) {
+        long index = (key & this.entryMask) * SLOTS_PER_ENTRY;
+        long oldData = this.storage.get(index);
+        long oldKey = this.storage.get(index + 1) ^ oldData;
+        if (oldData != NO_ENTRY && !isReplaceable(oldData, depth)) {
+            return;
+        }
+        if (move == 0 && oldKey == key) {
+            // Keep the best move of an earlier search of the same position.
+            move = getMove(oldData);
+        }
+        long data = pack(depth, score, bound, move, this.generation);
+        this.storage.set(index, data);
+        this.storage.set(index + 1, key ^ data);
+    }
+
+    /**
+     * Returns whether the entry with the given data may be replaced by an entry of the given depth,
+     * whether it belongs to the same position or to another one sharing the slot.
+     */
+    private boolean isReplaceable(long oldData, int depth) {
+        switch (this.replacementPolicy) {
+            case ALWAYS:
+                return true;
+            case DEPTH_PREFERRED:
+                return depth >= getDepth(oldData);
+            default:
+                return getGeneration(oldData) != this.generation || depth >= getDepth(oldData);
+        }
+    }
+
+    /**
+     * Marks the beginning of a new search, so that entries of earlier searches are recognized as old.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & 0xFF;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        this.storage.clear();
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     */
+    public long getNumberOfEntries() {
+        return this.entryMask + 1;
+    }
+
+    /**
+     * Returns how full the table is in permille, estimated from the first thousand entries
+     * (only entries of the current search are counted).
+     */
+    public int getHashfull() {
+        long sample = Math.min(1000, getNumberOfEntries());
+        int used = 0;
+        for (long entry = 0; entry < sample; entry++) {
+            long data = this.storage.get(entry * SLOTS_PER_ENTRY);
+            if (data != NO_ENTRY && getGeneration(data) == this.generation) {
+                used++;
+            }
+        }
+        return (int) (used * 1000 / sample);
+    }
+
+    static long pack(int depth, int score, EnumBound bound, int move, int generation) {
+        if (depth < 0 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Invalid depth for the transposition table: " + depth);
+        }
+        // The bound is stored as ordinal + 1, so that the data of an entry is never NO_ENTRY.
+        return (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << SCORE_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) (bound.ordinal() + 1) << BOUND_SHIFT)
+                | ((long) generation << GENERATION_SHIFT);
+    }
+
+    /**
+     * Returns the best move of the given entry (see MoveEncoding).
+     */
+    public static int getMove(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    /**
+     * Returns the score of the given entry.
+     */
+    public static int getScore(long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Returns the search depth of the given entry.
+     */
+    public static int getDepth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    /**
+     * Returns whether the score of the given entry is exact or a bound.
+     */
+    public static EnumBound getBound(long entry) {
+        return BOUNDS[(int) ((entry >>> BOUND_SHIFT) & 3) - 1];
+    }
+
+    private static int getGeneration(long entry) {
+        return (int) ((entry >>> GENERATION_SHIFT) & 0xFF);
+    }
+
+}
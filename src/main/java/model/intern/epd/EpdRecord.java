@@ -0,0 +1,166 @@
+package model.intern.epd;
+
+import model.intern.exceptions.ExcInvalidFen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A record of the Extended Position Description (EPD): the first four fields of a FEN followed by operations,
+ * each of them an opcode with operands and a semicolon, e.g.
+ * "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - bm Bb5; id \"Ruy Lopez\";".
+ * The move counters may follow the four fields (as in perft suites like "... w KQkq - 0 1 ;D1 20 ;D2 400")
+ * or be given by the operations hmvc and fmvn.
+ */
+public class EpdRecord {
+
+    static final String OPCODE_BEST_MOVE = "bm";
+    static final String OPCODE_AVOID_MOVE = "am";
+    static final String OPCODE_ID = "id";
+    static final String OPCODE_PERFT_PREFIX = "D";
+
+    private final String fen;
+    private final Map<String, List<String>> operations;
+
+    EpdRecord(String fen, Map<String, List<String>> operations) {
+        this.fen = fen;
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * Parses the given EPD line.
+     * @throws ExcInvalidFen The line does not start with the four fields of a FEN.
+     */
+    public static EpdRecord parse(String line) throws ExcInvalidFen {
+        String[] fields = line.trim().split("\\s+", 5);
+        if (fields.length < 4) {
+            throw new ExcInvalidFen("An EPD record starts with four fields of a FEN: " + line);
+        }
+        Map<String, List<String>> operations = new LinkedHashMap<>();
+        String halfmoveClock = "0";
+        String fullmoveNumber = "1";
+        if (fields.length == 5) {
+            List<List<String>> operationTokens = tokenize(fields[4]);
+            if (!operationTokens.isEmpty() && isMoveCounters(operationTokens.get(0))) {
+                List<String> counters = operationTokens.remove(0);
+                halfmoveClock = counters.get(0);
+                fullmoveNumber = counters.get(1);
+            }
+            for (List<String> tokens : operationTokens) {
+                operations.put(tokens.get(0), tokens.subList(1, tokens.size()));
+            }
+            halfmoveClock = getFirstOperand(operations, "hmvc", halfmoveClock);
+            fullmoveNumber = getFirstOperand(operations, "fmvn", fullmoveNumber);
+        }
+        return new EpdRecord(String.join(" ", fields[0], fields[1], fields[2], fields[3], halfmoveClock, fullmoveNumber),
+                operations);
+    }
+
+    /**
+     * Reads all records of the given EPD file. Empty lines and lines starting with '#' are skipped.
+     * @throws ExcInvalidFen A line is no EPD record.
+     */
+    public static List<EpdRecord> readFile(Path epdFile) throws IOException, ExcInvalidFen {
+        List<EpdRecord> records = new ArrayList<>();
+        for (String line : Files.readAllLines(epdFile, StandardCharsets.UTF_8)) {
+            if (!line.isBlank() && !line.startsWith("#")) {
+                records.add(parse(line));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Splits the operations into their tokens: whitespace separates the tokens, a semicolon ends an operation
+     * and quotes enclose a string operand with whitespace or semicolons.
+     */
+    private static List<List<String>> tokenize(String text) {
+        List<List<String>> operations = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = null;
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                } else {
+                    token.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                token = token == null ? new StringBuilder() : token;
+            } else if (Character.isWhitespace(c) || c == ';') {
+                if (token != null) {
+                    tokens.add(token.toString());
+                    token = null;
+                }
+                if (c == ';' && !tokens.isEmpty()) {
+                    operations.add(tokens);
+                    tokens = new ArrayList<>();
+                }
+            } else {
+                token = token == null ? new StringBuilder() : token;
+                token.append(c);
+            }
+        }
+        if (token != null) {
+            tokens.add(token.toString());
+        }
+        if (!tokens.isEmpty()) {
+            operations.add(tokens);
+        }
+        return operations;
+    }
+
+    private static boolean isMoveCounters(List<String> tokens) {
+        return tokens.size() == 2 && tokens.get(0).matches("\\d+") && tokens.get(1).matches("\\d+");
+    }
+
+    private static String getFirstOperand(Map<String, List<String>> operations, String opcode, String defaultValue) {
+        List<String> operands = operations.get(opcode);
+        return operands == null || operands.isEmpty() ? defaultValue : operands.get(0);
+    }
+
+    /**
+     * Returns the position as a complete FEN (with the move counters).
+     */
+    public String getFen() {
+        return this.fen;
+    }
+
+    /**
+     * Returns the operations by their opcodes (e.g. "bm", "id", "D3") in the order of the record.
+     */
+    public Map<String, List<String>> getOperations() {
+        return this.operations;
+    }
+
+    /**
+     * Returns the operands of the given opcode, or an empty list if the record has no such operation.
+     */
+    public List<String> getOperands(String opcode) {
+        return this.operations.getOrDefault(opcode, Collections.emptyList());
+    }
+
+    /**
+     * Returns the id of the record, or its FEN if the record has no id.
+     */
+    public String getId() {
+        List<String> id = getOperands(OPCODE_ID);
+        return id.isEmpty() ? this.fen : id.get(0);
+    }
+
+    @Override
+    public String toString() {
+        return getId();
+    }
+
+}
@@ -0,0 +1,63 @@
+package model.intern.epd;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report of running a suite of EPD records: the results in the order of the records and the totals.
+ */
+public class EpdReport {
+
+    private final List<EpdResult> results;
+    private final long nanoseconds;
+
+    EpdReport(List<EpdResult> results, long nanoseconds) {
+        this.results = Collections.unmodifiableList(results);
+        this.nanoseconds = nanoseconds;
+    }
+
+    public List<EpdResult> getResults() {
+        return this.results;
+    }
+
+    public int getNumberOfPositions() {
+        return this.results.size();
+    }
+
+    public int getNumberOfSolved() {
+        return (int) this.results.stream().filter(EpdResult::isSolved).count();
+    }
+
+    /**
+     * Returns the elapsed (wall-clock) time of the whole run.
+     */
+    public long getNanoseconds() {
+        return this.nanoseconds;
+    }
+
+    /**
+     * Returns the average time spent on a position by a worker.
+     */
+    public long getNanosecondsPerPosition() {
+        long nanoseconds = this.results.stream().mapToLong(EpdResult::getNanoseconds).sum();
+        return this.results.isEmpty() ? 0 : nanoseconds / this.results.size();
+    }
+
+    public long getNodes() {
+        return this.results.stream().mapToLong(EpdResult::getNodes).sum();
+    }
+
+    /**
+     * Returns the nodes of all positions per second of the whole run, so all workers together.
+     */
+    public long getNodesPerSecond() {
+        return getNodes() * 1_000_000_000L / Math.max(1, this.nanoseconds);
+    }
+
+    @Override
+    public String toString() {
+        return getNumberOfSolved() + "/" + getNumberOfPositions() + " solved in " + this.nanoseconds / 1_000_000 + " ms, "
+                + getNanosecondsPerPosition() / 1_000 + " us per position, " + getNodesPerSecond() + " nodes/s";
+    }
+
+}
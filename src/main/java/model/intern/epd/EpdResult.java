@@ -0,0 +1,56 @@
+package model.intern.epd;
+
+/**
+ * Result of running a single EPD record.
+ */
+public class EpdResult {
+
+    private final EpdRecord record;
+    private final boolean solved;
+    private final String answer;
+    private final long nodes;
+    private final long nanoseconds;
+
+    EpdResult(EpdRecord record, boolean solved, String answer, long nodes, long nanoseconds) {
+        this.record = record;
+        this.solved = solved;
+        this.answer = answer;
+        this.nodes = nodes;
+        this.nanoseconds = nanoseconds;
+    }
+
+    public EpdRecord getRecord() {
+        return this.record;
+    }
+
+    /**
+     * Returns whether the engine found a best move (and avoided the moves to avoid) or all perft counts are right.
+     */
+    public boolean isSolved() {
+        return this.solved;
+    }
+
+    /**
+     * Returns what was found: the move of the engine, the perft counts or why the record could not be run.
+     */
+    public String getAnswer() {
+        return this.answer;
+    }
+
+    /**
+     * Returns the number of nodes searched or counted by perft.
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getNanoseconds() {
+        return this.nanoseconds;
+    }
+
+    @Override
+    public String toString() {
+        return this.record.getId() + ": " + (this.solved ? "solved" : "not solved") + " (" + this.answer + ")";
+    }
+
+}
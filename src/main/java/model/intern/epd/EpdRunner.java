@@ -0,0 +1,212 @@
+package model.intern.epd;
+
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessboard.EnumPerftGenerator;
+import model.intern.chessboard.Perft;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.engine.Engine;
+import model.intern.engine.EnumReplacementPolicy;
+import model.intern.engine.SearchLimits;
+import model.intern.engine.SearchResult;
+import model.intern.engine.TranspositionTable;
+import model.intern.exceptions.ExcInvalidFen;
+import model.intern.pgn.SanParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs suites of EPD records to validate and benchmark the engine and the move generation:
+ * - A record with perft counts (operations D1, D2, ...) is solved if the counts of the move generation match
+ *   up to the maximum perft depth.
+ * - A record with best moves (bm) or moves to avoid (am) is searched by the engine within the search limits.
+ *   It is solved if the engine plays one of the best moves and none of the moves to avoid.
+ *
+ * The records are spread over the threads of a fork-join pool. During a run, each thread has a worker with its own
+ * chess board and its own single-threaded engine, whose transposition table is cleared before every position,
+ * so the results of a record do not depend on the records searched before. The workers are dropped after the run,
+ * so a long-lived pool does not keep their engines.
+ */
+public class EpdRunner {
+
+    public static final int DEFAULT_MAX_PERFT_DEPTH = 5;
+
+    private final SearchLimits limits;
+    private final int maxPerftDepth;
+    private final long tableSize;
+
+    public EpdRunner(SearchLimits limits) {
+        this(limits, DEFAULT_MAX_PERFT_DEPTH, Engine.DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * @param maxPerftDepth Deeper perft counts of the records are not checked
+     * @param tableSize Size of the transposition table of each worker in bytes
+     */
+    public EpdRunner(SearchLimits limits, int maxPerftDepth, long tableSize) {
+        this.limits = limits;
+        this.maxPerftDepth = maxPerftDepth;
+        this.tableSize = tableSize;
+    }
+
+    /**
+     * Runs the given records with the workers of the given pool and returns the results in the order of the records.
+     */
+    public EpdReport run(List<EpdRecord> records, ForkJoinPool pool) {
+        EpdResult[] results = new EpdResult[records.size()];
+        long start = System.nanoTime();
+        if (!records.isEmpty()) {
+            pool.invoke(new RunTask(records, results, 0, results.length, new ConcurrentHashMap<>()));
+        }
+        return new EpdReport(Arrays.asList(results), System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the records of the given index range, each position as a task of its own,
+     * because the time needed for the positions differs a lot.
+     */
+    private class RunTask extends RecursiveAction {
+
+        private final List<EpdRecord> records;
+        private final EpdResult[] results;
+        private final int from;
+        private final int to;
+        // Workers of this run by thread of the pool.
+        private final Map<Thread, Worker> workers;
+
+        RunTask(List<EpdRecord> records, EpdResult[] results, int from, int to, Map<Thread, Worker> workers) {
+            this.records = records;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.workers = workers;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new RunTask(this.records, this.results, this.from, middle, this.workers),
+                        new RunTask(this.records, this.results, middle, this.to, this.workers));
+            } else {
+                Worker worker = this.workers.computeIfAbsent(Thread.currentThread(), thread -> new Worker());
+                this.results[this.from] = worker.run(this.records.get(this.from));
+            }
+        }
+
+    }
+
+    private class Worker {
+
+        private final ChessBoard board;
+        private final int[] moveBuffer;
+        private Engine engine;
+
+        Worker() {
+            this.board = new ChessBoard();
+            this.moveBuffer = new int[MoveGenerator.MAX_MOVES];
+        }
+
+        EpdResult run(EpdRecord record) {
+            long start = System.nanoTime();
+            try {
+                this.board.loadFen(record.getFen());
+            } catch (ExcInvalidFen e) {
+                return new EpdResult(record, false, e.getMessage(), 0, System.nanoTime() - start);
+            }
+            if (hasPerftCounts(record)) {
+                return runPerft(record, start);
+            }
+            if (!record.getOperands(EpdRecord.OPCODE_BEST_MOVE).isEmpty() || !record.getOperands(EpdRecord.OPCODE_AVOID_MOVE).isEmpty()) {
+                return runSearch(record, start);
+            }
+            return new EpdResult(record, false, "No bm, am or perft operation", 0, System.nanoTime() - start);
+        }
+
+        private boolean hasPerftCounts(EpdRecord record) {
+            return !record.getOperands(EpdRecord.OPCODE_PERFT_PREFIX + 1).isEmpty();
+        }
+
+        private EpdResult runPerft(EpdRecord record, long start) {
+            Perft perft = new Perft(this.board);
+            StringBuilder answer = new StringBuilder();
+            boolean solved = true;
+            long nodes = 0;
+            for (int depth = 1; depth <= maxPerftDepth; depth++) {
+                List<String> operands = record.getOperands(EpdRecord.OPCODE_PERFT_PREFIX + depth);
+                if (operands.isEmpty()) {
+                    break;
+                }
+                long count = perft.perft(depth, EnumPerftGenerator.BIT_BOARD);
+                nodes += count;
+                answer.append(answer.length() == 0 ? "" : " ").append(EpdRecord.OPCODE_PERFT_PREFIX).append(depth).append(' ').append(count);
+                if (!operands.get(0).equals(Long.toString(count))) {
+                    solved = false;
+                    answer.append(" (expected ").append(operands.get(0)).append(')');
+                }
+            }
+            return new EpdResult(record, solved, answer.toString(), nodes, System.nanoTime() - start);
+        }
+
+        private EpdResult runSearch(EpdRecord record, long start) {
+            List<Integer> bestMoves = new ArrayList<>();
+            List<Integer> avoidMoves = new ArrayList<>();
+            String invalidMove = resolveMoves(record.getOperands(EpdRecord.OPCODE_BEST_MOVE), bestMoves);
+            if (invalidMove == null) {
+                invalidMove = resolveMoves(record.getOperands(EpdRecord.OPCODE_AVOID_MOVE), avoidMoves);
+            }
+            if (invalidMove != null) {
+                return new EpdResult(record, false, "Invalid move: " + invalidMove, 0, System.nanoTime() - start);
+            }
+
+            Engine engine = getEngine();
+            engine.getTranspositionTable().clear();
+            SearchResult result = engine.search(this.board, limits);
+            int move = result.getBestMove();
+            boolean solved = move != MoveEncoding.NO_MOVE
+                    && (bestMoves.isEmpty() || contains(bestMoves, move)) && !contains(avoidMoves, move);
+            return new EpdResult(record, solved, move == MoveEncoding.NO_MOVE ? "No move" : MoveEncoding.toString(move),
+                    result.getNodes(), System.nanoTime() - start);
+        }
+
+        /**
+         * Adds the legal moves of the given SANs to the given list and returns the first SAN which is no legal move,
+         * or null if all are.
+         */
+        private String resolveMoves(List<String> sans, List<Integer> moves) {
+            for (String san : sans) {
+                int move = SanParser.findMove(this.board.getBitBoard(), san, this.moveBuffer);
+                if (move == MoveEncoding.NO_MOVE) {
+                    return san;
+                }
+                moves.add(move);
+            }
+            return null;
+        }
+
+        private boolean contains(List<Integer> moves, int move) {
+            for (int candidate : moves) {
+                if (MoveEncoding.getFrom(candidate) == MoveEncoding.getFrom(move) && MoveEncoding.getTo(candidate) == MoveEncoding.getTo(move)
+                        && MoveEncoding.getPromotionPiece(candidate) == MoveEncoding.getPromotionPiece(move)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Engine getEngine() {
+            if (this.engine == null) {
+                this.engine = new Engine(new TranspositionTable(tableSize, EnumReplacementPolicy.DEPTH_PREFERRED_AGING, false), 1);
+            }
+            return this.engine;
+        }
+
+    }
+
+}
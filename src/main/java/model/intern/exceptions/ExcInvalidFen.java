@@ -0,0 +1,12 @@
+package model.intern.exceptions;
+
+/**
+ * Exception: The given text is no valid position in the Forsyth-Edwards Notation (FEN).
+ */
+public class ExcInvalidFen extends Exception {
+
+    public ExcInvalidFen(String message) {
+        super(message);
+    }
+
+}
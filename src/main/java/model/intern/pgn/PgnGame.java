@@ -0,0 +1,51 @@
+package model.intern.pgn;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A game of a PGN file, whose moves have been replayed and validated on a chess board.
+ */
+public class PgnGame {
+
+    private final Map<String, String> tags;
+    private final List<PgnMove> moves;
+    private final String result;
+
+    PgnGame(Map<String, String> tags, List<PgnMove> moves, String result) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = Collections.unmodifiableList(moves);
+        this.result = result;
+    }
+
+    /**
+     * Returns the tag pairs (e.g. "White", "Event") in the order of the file.
+     */
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    public String getTag(String name) {
+        return this.tags.get(name);
+    }
+
+    /**
+     * Returns the FEN of the starting position, or null if the game starts from the usual starting position.
+     */
+    public String getStartingFen() {
+        return this.tags.get(PgnRecord.TAG_FEN);
+    }
+
+    public List<PgnMove> getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Returns the result at the end of the movetext ("1-0", "0-1", "1/2-1/2" or "*").
+     */
+    public String getResult() {
+        return this.result;
+    }
+
+}
@@ -0,0 +1,44 @@
+package model.intern.pgn;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+
+/**
+ * A move of a game in the Portable Game Notation (PGN), resolved from its standard algebraic notation (SAN)
+ * to the source and target field.
+ */
+public class PgnMove {
+
+    private final Coordinates source;
+    private final Coordinates target;
+    private final EnumChessPiece promotionPiece;
+
+    PgnMove(Coordinates source, Coordinates target, EnumChessPiece promotionPiece) {
+        this.source = source;
+        this.target = target;
+        this.promotionPiece = promotionPiece;
+    }
+
+    public Coordinates getSource() {
+        return this.source;
+    }
+
+    public Coordinates getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Returns the piece a pawn is promoted to, or null if the move is no promotion.
+     */
+    public EnumChessPiece getPromotionPiece() {
+        return this.promotionPiece;
+    }
+
+    @Override
+    public String toString() {
+        return "" + (char) ('a' + this.source.x()) + (this.source.y() + 1)
+                + (char) ('a' + this.target.x()) + (this.target.y() + 1)
+                + (this.promotionPiece == null ? "" : this.promotionPiece.name().substring(0, 1));
+    }
+
+}
@@ -0,0 +1,256 @@
+package model.intern.pgn;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Reads the games of a PGN file directly from the bytes of the mapped file.
+ * Only tag values and moves are turned into strings; comments, variations, move numbers and
+ * numeric annotation glyphs (NAG) are skipped on the bytes.
+ *
+ * A game starts with a '[' at the beginning of a line that follows an empty line (or starts the file),
+ * because the tag pairs of a game are never separated by empty lines, but the movetext usually is.
+ * Without the empty line, a game also starts after a line, which ends with the result of the previous game.
+ */
+final class PgnParser {
+
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    private PgnParser() {}
+
+    /**
+     * Returns the position of the first game start in the given range, or the end of the range if there is none.
+     */
+    static int findNextGameStart(ByteBuffer buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '[' && isGameStart(buffer, i)) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Returns the position of the last game start before the given position, or 0 if there is none.
+     */
+    static int findPreviousGameStart(ByteBuffer buffer, int before) {
+        for (int i = before - 1; i > 0; i--) {
+            if (buffer.get(i) == '[' && isGameStart(buffer, i)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isGameStart(ByteBuffer buffer, int position) {
+        if (position == 0) {
+            return true;
+        }
+        int i = position - 1;
+        if (buffer.get(i) != '\n') {
+            return false;
+        }
+        // The previous line has to be empty or end with the result of the previous game.
+        int tokenEnd = i;
+        while (tokenEnd > 0 && isWhitespace(buffer.get(tokenEnd - 1)) && buffer.get(tokenEnd - 1) != '\n') {
+            tokenEnd--;
+        }
+        if (tokenEnd == 0 || buffer.get(tokenEnd - 1) == '\n') {
+            return true;
+        }
+        int tokenStart = tokenEnd;
+        while (tokenStart > 0 && !isWhitespace(buffer.get(tokenStart - 1))) {
+            tokenStart--;
+        }
+        return tokenEnd - tokenStart <= "1/2-1/2".length() && isResult(decode(buffer, tokenStart, tokenEnd));
+    }
+
+    /**
+     * Parses the game in the given range of the buffer, or returns null if the range contains neither tags nor moves.
+     */
+    static PgnRecord parse(ByteBuffer buffer, int start, int end) {
+        LinkedHashMap<String, String> tags = new LinkedHashMap<>();
+        List<String> sanMoves = new ArrayList<>();
+        String result = null;
+        int i = start;
+        while (i < end) {
+            byte c = buffer.get(i);
+            switch (c) {
+                case ' ': case '\t': case '\r': case '\n':
+                    i++;
+                    break;
+                case '[':
+                    i = parseTag(buffer, i + 1, end, tags);
+                    break;
+                case '{':
+                    i = skipTo(buffer, i + 1, end, (byte) '}') + 1;
+                    break;
+                case ';': case '%':
+                    i = skipTo(buffer, i + 1, end, (byte) '\n') + 1;
+                    break;
+                case '(':
+                    i = skipVariation(buffer, i + 1, end);
+                    break;
+                default:
+                    int tokenEnd = findTokenEnd(buffer, i, end);
+                    String token = readMove(buffer, i, tokenEnd);
+                    if (token != null) {
+                        if (isResult(token)) {
+                            result = token;
+                        } else {
+                            sanMoves.add(token);
+                        }
+                    }
+                    i = Math.max(tokenEnd, i + 1);
+            }
+        }
+        if (tags.isEmpty() && sanMoves.isEmpty() && result == null) {
+            return null;
+        }
+        if (result == null) {
+            result = tags.getOrDefault("Result", PgnRecord.UNKNOWN_RESULT);
+        }
+        return new PgnRecord(tags, sanMoves, result);
+    }
+
+    /**
+     * Parses a tag pair like [White "Carlsen, Magnus"] and returns the position after it.
+     */
+    private static int parseTag(ByteBuffer buffer, int position, int end, LinkedHashMap<String, String> tags) {
+        int nameStart = position;
+        while (position < end && !isWhitespace(buffer.get(position)) && buffer.get(position) != '"' && buffer.get(position) != ']') {
+            position++;
+        }
+        String name = decode(buffer, nameStart, position);
+        int valueStart = Math.min(skipTo(buffer, position, end, (byte) '"') + 1, end);
+        // The value is scanned first, so that it is decoded from the buffer without a copy in most cases.
+        boolean escaped = false;
+        for (position = valueStart; position < end && buffer.get(position) != '"'; position++) {
+            byte c = buffer.get(position);
+            if (c == '\\' && position + 1 < end) {
+                if (buffer.get(position + 1) == '\n') {
+                    break;
+                }
+                escaped = true;
+                position++;
+            } else if (c == '\n') {
+                // A tag pair never spans lines, so the closing quote is missing.
+                break;
+            }
+        }
+        if (!name.isEmpty()) {
+            tags.put(name, escaped ? unescape(buffer, valueStart, position) : decode(buffer, valueStart, position));
+        }
+        return skipTo(buffer, position, end, (byte) ']') + 1;
+    }
+
+    /**
+     * Decodes the given range of a tag value, in which each character following a backslash stands for itself.
+     */
+    private static String unescape(ByteBuffer buffer, int start, int end) {
+        byte[] value = new byte[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte c = buffer.get(i);
+            if (c == '\\' && i + 1 < end) {
+                c = buffer.get(++i);
+            }
+            value[length++] = c;
+        }
+        return new String(value, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static int skipVariation(ByteBuffer buffer, int position, int end) {
+        int depth = 1;
+        while (position < end && depth > 0) {
+            byte c = buffer.get(position);
+            if (c == '{') {
+                position = skipTo(buffer, position + 1, end, (byte) '}');
+            } else if (c == ';') {
+                position = skipTo(buffer, position + 1, end, (byte) '\n');
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipTo(ByteBuffer buffer, int position, int end, byte character) {
+        while (position < end && buffer.get(position) != character) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int findTokenEnd(ByteBuffer buffer, int position, int end) {
+        while (position < end) {
+            byte c = buffer.get(position);
+            if (isWhitespace(c) || c == '{' || c == '(' || c == ')' || c == ';' || c == '[' || c == '$') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Returns the move or result of the given token without move number and annotations (e.g. "12.Nf3!?" gives "Nf3"),
+     * or null if the token contains no move (move numbers, NAGs and stray characters).
+     */
+    private static String readMove(ByteBuffer buffer, int start, int end) {
+        byte first = buffer.get(start);
+        if (first == '$') {
+            return null;
+        }
+        if (first >= '0' && first <= '9') {
+            String token = decode(buffer, start, end);
+            if (isResult(token)) {
+                return token;
+            }
+            if (token.startsWith("0-0")) {
+                // Castling written with zeros.
+                return token.replace('0', 'O');
+            }
+            while (start < end && (buffer.get(start) >= '0' && buffer.get(start) <= '9' || buffer.get(start) == '.')) {
+                start++;
+            }
+        }
+        while (start < end && buffer.get(start) == '.') {
+            start++;
+        }
+        while (end > start && isAnnotation(buffer.get(end - 1))) {
+            end--;
+        }
+        return start < end ? decode(buffer, start, end) : null;
+    }
+
+    private static boolean isAnnotation(byte c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static boolean isResult(String token) {
+        for (String result : RESULTS) {
+            if (result.equals(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
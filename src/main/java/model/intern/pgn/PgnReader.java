@@ -0,0 +1,216 @@
+package model.intern.pgn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reader of a file in the Portable Game Notation (PGN), which is mapped into memory.
+ * A file larger than 2 GB is mapped in several chunks, which are cut at game boundaries.
+ *
+ * The games are split at their boundaries on the mapped bytes, so the workers of a parallel stream
+ * each take a range of the file, parse its games and replay them on their own chess board.
+ * Games with an invalid starting position or an illegal (or ambiguous) move are left out of the stream and counted.
+ */
+public class PgnReader {
+
+    static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+
+    private final ByteBuffer[] chunks;
+    private final ThreadLocal<PgnValidator> validators;
+    private final LongAdder numberOfInvalidGames;
+
+    private PgnReader(ByteBuffer[] chunks) {
+        this.chunks = chunks;
+        this.validators = ThreadLocal.withInitial(PgnValidator::new);
+        this.numberOfInvalidGames = new LongAdder();
+    }
+
+    /**
+     * Maps the given PGN file into memory. The file stays mapped as long as the reader is referenced.
+     */
+    public static PgnReader open(Path pgnFile) throws IOException {
+        return open(pgnFile, MAX_CHUNK_SIZE);
+    }
+
+    static PgnReader open(Path pgnFile, int chunkSize) throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(pgnFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(chunkSize, size - position);
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                if (position + length < size) {
+                    // The next chunk starts with the last game, which may not be complete in this one.
+                    length = PgnParser.findPreviousGameStart(chunk, length);
+                    if (length == 0) {
+                        throw new IOException("A game at " + position + " is larger than a chunk: " + pgnFile);
+                    }
+                    chunk = chunk.slice(0, length);
+                }
+                chunks.add(chunk);
+                position += length;
+            }
+        }
+        return new PgnReader(chunks.toArray(new ByteBuffer[0]));
+    }
+
+    /**
+     * Returns the validated games of the file in their order. The games are only read while the stream is consumed.
+     * @param parallel Whether the games are read and validated by the workers of the fork-join pool,
+     *                 in which the stream is consumed (see validateAll)
+     */
+    public Stream<PgnGame> games(boolean parallel) {
+        return records(parallel)
+                .map(record -> {
+                    PgnGame game = this.validators.get().validate(record);
+                    if (game == null) {
+                        this.numberOfInvalidGames.increment();
+                    }
+                    return game;
+                })
+                .filter(Objects::nonNull);
+    }
+
+    Stream<PgnRecord> records(boolean parallel) {
+        if (this.chunks.length == 0) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(new GameSpliterator(0, this.chunks.length - 1, 0,
+                this.chunks[this.chunks.length - 1].limit()), parallel);
+    }
+
+    /**
+     * Reads and validates all games with the given number of workers, each of them with its own chess board,
+     * and hands the valid games to the given consumer (which is called concurrently, in no particular order).
+     */
+    public PgnStatistics validateAll(int numberOfWorkers, Consumer<PgnGame> consumer) {
+        long invalidGamesBefore = this.numberOfInvalidGames.sum();
+        LongAdder numberOfGames = new LongAdder();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, numberOfWorkers));
+        long start = System.nanoTime();
+        try {
+            // A parallel stream runs its tasks in the pool of the thread which consumes it.
+            pool.submit(() -> games(true).forEach(game -> {
+                consumer.accept(game);
+                numberOfGames.increment();
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new PgnStatistics(numberOfGames.sum(), this.numberOfInvalidGames.sum() - invalidGamesBefore,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the number of invalid games, which have been left out of the streams of this reader so far.
+     */
+    public long getNumberOfInvalidGames() {
+        return this.numberOfInvalidGames.sum();
+    }
+
+    /**
+     * Splits the mapped chunks at game boundaries: first into whole chunks, then the range of a single chunk in halves.
+     * The range runs from the position in the first chunk to the end in the last chunk (inclusive).
+     */
+    private class GameSpliterator implements Spliterator<PgnRecord> {
+
+        private static final int MIN_SPLIT_SIZE = 1 << 16;
+        private static final int AVERAGE_GAME_SIZE = 1 << 10;
+
+        private int chunkIndex;
+        private final int lastChunk;
+        private int position;
+        private final int end;
+
+        GameSpliterator(int chunkIndex, int lastChunk, int position, int end) {
+            this.chunkIndex = chunkIndex;
+            this.lastChunk = lastChunk;
+            this.position = position;
+            this.end = end;
+        }
+
+        private int getLimit() {
+            return this.chunkIndex == this.lastChunk ? this.end : chunks[this.chunkIndex].limit();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super PgnRecord> action) {
+            while (true) {
+                int limit = getLimit();
+                if (this.position >= limit) {
+                    if (this.chunkIndex == this.lastChunk) {
+                        return false;
+                    }
+                    this.chunkIndex++;
+                    this.position = 0;
+                    continue;
+                }
+                ByteBuffer chunk = chunks[this.chunkIndex];
+                int next = PgnParser.findNextGameStart(chunk, this.position + 1, limit);
+                PgnRecord record = PgnParser.parse(chunk, this.position, next);
+                this.position = next;
+                if (record != null) {
+                    action.accept(record);
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<PgnRecord> trySplit() {
+            if (this.chunkIndex < this.lastChunk) {
+                int middle = (this.chunkIndex + this.lastChunk + 1) >>> 1;
+                GameSpliterator prefix = new GameSpliterator(this.chunkIndex, middle - 1, this.position,
+                        chunks[middle - 1].limit());
+                this.chunkIndex = middle;
+                this.position = 0;
+                return prefix;
+            }
+            if (this.end - this.position < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            ByteBuffer chunk = chunks[this.chunkIndex];
+            int split = PgnParser.findNextGameStart(chunk, this.position + (this.end - this.position) / 2, this.end);
+            if (split >= this.end) {
+                return null;
+            }
+            GameSpliterator prefix = new GameSpliterator(this.chunkIndex, this.chunkIndex, this.position, split);
+            this.position = split;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = getLimit() - this.position;
+            for (int i = this.chunkIndex + 1; i <= this.lastChunk; i++) {
+                size += i == this.lastChunk ? this.end : chunks[i].limit();
+            }
+            return Math.max(1, size / AVERAGE_GAME_SIZE);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+    }
+
+}
@@ -0,0 +1,37 @@
+package model.intern.pgn;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A game as read from a PGN file: its tag pairs and its moves in standard algebraic notation, not yet validated.
+ */
+class PgnRecord {
+
+    static final String TAG_FEN = "FEN";
+    static final String UNKNOWN_RESULT = "*";
+
+    private final LinkedHashMap<String, String> tags;
+    private final List<String> sanMoves;
+    private final String result;
+
+    PgnRecord(LinkedHashMap<String, String> tags, List<String> sanMoves, String result) {
+        this.tags = tags;
+        this.sanMoves = sanMoves;
+        this.result = result;
+    }
+
+    Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    List<String> getSanMoves() {
+        return this.sanMoves;
+    }
+
+    String getResult() {
+        return this.result;
+    }
+
+}
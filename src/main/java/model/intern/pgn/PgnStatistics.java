@@ -0,0 +1,46 @@
+package model.intern.pgn;
+
+/**
+ * Statistics of reading and validating the games of a PGN file.
+ */
+public class PgnStatistics {
+
+    private final long numberOfGames;
+    private final long numberOfInvalidGames;
+    private final long nanos;
+
+    PgnStatistics(long numberOfGames, long numberOfInvalidGames, long nanos) {
+        this.numberOfGames = numberOfGames;
+        this.numberOfInvalidGames = numberOfInvalidGames;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Returns the number of valid games.
+     */
+    public long getNumberOfGames() {
+        return this.numberOfGames;
+    }
+
+    public long getNumberOfInvalidGames() {
+        return this.numberOfInvalidGames;
+    }
+
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * Returns the number of games (valid and invalid ones) which have been read per second.
+     */
+    public long getGamesPerSecond() {
+        return (this.numberOfGames + this.numberOfInvalidGames) * 1_000_000_000L / Math.max(1, this.nanos);
+    }
+
+    @Override
+    public String toString() {
+        return this.numberOfGames + " games (" + this.numberOfInvalidGames + " invalid) in " + this.nanos / 1_000_000 + " ms, "
+                + getGamesPerSecond() + " games/s";
+    }
+
+}
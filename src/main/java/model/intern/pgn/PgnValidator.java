@@ -0,0 +1,59 @@
+package model.intern.pgn;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidFen;
+import model.intern.exceptions.ExcInvalidMove;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays the games of a PGN file on its own chess board, which is reused for all games.
+ * A validator is not thread-safe: every worker uses its own.
+ */
+class PgnValidator {
+
+    private final ChessBoard board;
+    private final int[] moveBuffer;
+
+    PgnValidator() {
+        this.board = new ChessBoard();
+        this.moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    /**
+     * Returns the game with its moves resolved to fields, or null if the starting position or any move is invalid.
+     */
+    PgnGame validate(PgnRecord record) {
+        String fen = record.getTags().get(PgnRecord.TAG_FEN);
+        try {
+            this.board.loadFen(fen == null ? ChessBoard.STARTING_FEN : fen);
+        } catch (ExcInvalidFen e) {
+            return null;
+        }
+
+        List<PgnMove> moves = new ArrayList<>(record.getSanMoves().size());
+        for (String san : record.getSanMoves()) {
+            int move = SanParser.findMove(this.board.getBitBoard(), san, this.moveBuffer);
+            if (move == MoveEncoding.NO_MOVE) {
+                return null;
+            }
+            Coordinates source = BitBoard.toCoordinates(MoveEncoding.getFrom(move));
+            Coordinates target = BitBoard.toCoordinates(MoveEncoding.getTo(move));
+            EnumChessPiece promotionPiece = MoveEncoding.getPromotionPiece(move);
+            try {
+                this.board.executeMove(source, target, promotionPiece == null ? EnumChessPiece.QUEEN : promotionPiece);
+            } catch (ExcInvalidMove e) {
+                return null;
+            }
+            moves.add(new PgnMove(source, target, promotionPiece));
+        }
+        return new PgnGame(record.getTags(), moves, record.getResult());
+    }
+
+}
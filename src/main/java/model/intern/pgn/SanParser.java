@@ -0,0 +1,100 @@
+package model.intern.pgn;
+
+import model.common.EnumChessPiece;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+
+/**
+ * Resolves moves in the standard algebraic notation (SAN) like "Nbd2", "exd6", "e8=Q" or "O-O" against the legal moves
+ * of a position. The long form with the source field ("Ng1-f3") is accepted as well.
+ */
+public final class SanParser {
+
+    private static final String PIECE_LETTERS = "PRNBQK";
+
+    private SanParser() {}
+
+    /**
+     * Returns the legal move of the active color of the given board, which is meant by the given SAN,
+     * or NO_MOVE if there is no such move or the SAN is ambiguous.
+     * @param moves Buffer for the generated moves (at least MoveGenerator.MAX_MOVES)
+     */
+    public static int findMove(BitBoard board, String san, int[] moves) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        int numberOfMoves = MoveGenerator.generateMoves(board, board.getActiveColor(), moves);
+
+        if (san.startsWith("O-O")) {
+            int flags = end == 5 && san.startsWith("O-O-O") ? MoveEncoding.FLAG_QUEEN_SIDE_CASTLING
+                    : end == 3 ? MoveEncoding.FLAG_KING_SIDE_CASTLING : -1;
+            for (int i = 0; i < numberOfMoves; i++) {
+                if (MoveEncoding.getFlags(moves[i]) == flags) {
+                    return moves[i];
+                }
+            }
+            return MoveEncoding.NO_MOVE;
+        }
+
+        // Promotion at the end: "e8=Q" or "e8Q"
+        EnumChessPiece promotionPiece = null;
+        if (end > 2 && PIECE_LETTERS.indexOf(san.charAt(end - 1)) > 0) {
+            promotionPiece = EnumChessPiece.values()[PIECE_LETTERS.indexOf(san.charAt(end - 1))];
+            end -= san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end < 2) {
+            return MoveEncoding.NO_MOVE;
+        }
+        int targetX = san.charAt(end - 2) - 'a';
+        int targetY = san.charAt(end - 1) - '1';
+        if (!isOnBoard(targetX) || !isOnBoard(targetY)) {
+            return MoveEncoding.NO_MOVE;
+        }
+
+        int start = 0;
+        EnumChessPiece piece = EnumChessPiece.PAWN;
+        if (PIECE_LETTERS.indexOf(san.charAt(0)) >= 0) {
+            piece = EnumChessPiece.values()[PIECE_LETTERS.indexOf(san.charAt(0))];
+            start = 1;
+        }
+        // Disambiguation by file and/or rank of the source field, a capture sign or the hyphen of the long form.
+        int sourceX = -1;
+        int sourceY = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                sourceX = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                sourceY = c - '1';
+            } else if (c != 'x' && c != '-' && c != ':') {
+                return MoveEncoding.NO_MOVE;
+            }
+        }
+
+        int target = BitBoard.toSquare(targetX, targetY);
+        int result = MoveEncoding.NO_MOVE;
+        for (int i = 0; i < numberOfMoves; i++) {
+            int move = moves[i];
+            int from = MoveEncoding.getFrom(move);
+            if (MoveEncoding.getTo(move) == target
+                    && board.getPieceType(from) == piece
+                    && (sourceX < 0 || (from & 7) == sourceX)
+                    && (sourceY < 0 || (from >>> 3) == sourceY)
+                    && !MoveEncoding.isCastling(move)
+                    && MoveEncoding.getPromotionPiece(move) == promotionPiece) {
+                if (result != MoveEncoding.NO_MOVE) {
+                    return MoveEncoding.NO_MOVE;
+                }
+                result = move;
+            }
+        }
+        return result;
+    }
+
+    private static boolean isOnBoard(int coordinate) {
+        return coordinate >= 0 && coordinate < 8;
+    }
+
+}
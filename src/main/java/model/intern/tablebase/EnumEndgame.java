@@ -0,0 +1,68 @@
+package model.intern.tablebase;
+
+import model.common.EnumChessPiece;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Enumeration of the endgames covered by tablebases: a king with the given pieces against a lone king.
+ * The tables are generated in the order of this enumeration, as an endgame may need the tables
+ * of the endgames its pawn can be promoted into.
+ */
+public enum EnumEndgame {
+
+    KQK(EnumChessPiece.QUEEN),
+    KRK(EnumChessPiece.ROOK),
+    KPK(EnumChessPiece.PAWN),
+    KBNK(EnumChessPiece.BISHOP, EnumChessPiece.KNIGHT);
+
+    private final EnumChessPiece[] pieces;
+
+    EnumEndgame(EnumChessPiece... pieces) {
+        this.pieces = pieces;
+    }
+
+    /**
+     * Returns the pieces of the stronger side besides its king, in the order of their squares in the table index.
+     */
+    public List<EnumChessPiece> getPieces() {
+        return List.of(this.pieces);
+    }
+
+    EnumChessPiece getPiece(int index) {
+        return this.pieces[index];
+    }
+
+    int getNumberOfPieces() {
+        return this.pieces.length;
+    }
+
+    /**
+     * Returns the number of entries of the table: both sides to move, both kings and the pieces on all squares.
+     */
+    int getNumberOfEntries() {
+        return 2 << (6 * (2 + this.pieces.length));
+    }
+
+    String getFileName() {
+        return name() + ".tb";
+    }
+
+    /**
+     * Returns the endgame of a king with exactly the given pieces (in any order) against a lone king, or null.
+     */
+    static EnumEndgame find(EnumChessPiece[] pieces) {
+        EnumChessPiece[] sortedPieces = pieces.clone();
+        Arrays.sort(sortedPieces);
+        for (EnumEndgame endgame : values()) {
+            EnumChessPiece[] sortedPiecesOfEndgame = endgame.pieces.clone();
+            Arrays.sort(sortedPiecesOfEndgame);
+            if (Arrays.equals(sortedPieces, sortedPiecesOfEndgame)) {
+                return endgame;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,123 @@
+package model.intern.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tablebase of one endgame, which is mapped into memory from its file.
+ * The table is indexed by the side to move, the squares of both kings and the squares of the pieces
+ * (see index), where the stronger side is always white. Each entry is 0 for a draw (or an illegal position)
+ * or the distance to mate in plies plus 1: a win for white to move, a loss for black to move.
+ *
+ * The entries are bit-packed with as few bits as the longest distance needs, so that the file is small
+ * and its pages are only loaded by the operating system when they are probed. The file starts with a header
+ * (magic number, endgame, bits per entry, number of entries), followed by the entries in big-endian longs.
+ */
+public class Tablebase {
+
+    static final int NO_VALUE = 0;
+
+    private static final int MAGIC = 0x54424C31;
+    private static final int HEADER_SIZE = 32;
+
+    private final EnumEndgame endgame;
+    private final int bitsPerEntry;
+    private final long mask;
+    private final ByteBuffer data;
+
+    private Tablebase(EnumEndgame endgame, int bitsPerEntry, ByteBuffer data) {
+        this.endgame = endgame;
+        this.bitsPerEntry = bitsPerEntry;
+        this.mask = (1L << bitsPerEntry) - 1;
+        this.data = data;
+    }
+
+    /**
+     * Maps the given tablebase file into memory.
+     * @throws IOException The file cannot be read or is no tablebase.
+     */
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("No tablebase: " + file);
+            }
+            EnumEndgame endgame = EnumEndgame.values()[header.getInt(4)];
+            int bitsPerEntry = header.getInt(8);
+            return new Tablebase(endgame, bitsPerEntry,
+                    channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, channel.size() - HEADER_SIZE));
+        }
+    }
+
+    /**
+     * Writes the given entries of the given endgame bit-packed into the given file, through a memory mapping.
+     * Entries, which are not positive, are written as NO_VALUE.
+     */
+    static void write(Path file, EnumEndgame endgame, byte[] entries) throws IOException {
+        int maxValue = 1;
+        for (byte entry : entries) {
+            maxValue = Math.max(maxValue, entry);
+        }
+        int bitsPerEntry = 32 - Integer.numberOfLeadingZeros(maxValue);
+        // One additional word, so that an entry at the end can be read like any other one.
+        long numberOfWords = ((long) entries.length * bitsPerEntry + 63) / 64 + 1;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + numberOfWords * Long.BYTES);
+            buffer.putInt(0, MAGIC).putInt(4, endgame.ordinal()).putInt(8, bitsPerEntry).putLong(16, entries.length);
+            long word = 0;
+            long bitIndex = 0;
+            for (byte value : entries) {
+                long entry = value > 0 ? value : NO_VALUE;
+                int offset = (int) (bitIndex & 63);
+                word |= entry << offset;
+                if (offset + bitsPerEntry >= 64) {
+                    buffer.putLong(HEADER_SIZE + (int) (bitIndex >>> 6) * Long.BYTES, word);
+                    word = offset == 0 ? 0 : entry >>> (64 - offset);
+                }
+                bitIndex += bitsPerEntry;
+            }
+            buffer.putLong(HEADER_SIZE + (int) (bitIndex >>> 6) * Long.BYTES, word);
+        }
+    }
+
+    /**
+     * Returns the index of the entry of the given position.
+     * @param blackToMove 1 if black (the weaker side) is to move, otherwise 0
+     * @param squares Squares of the pieces of the endgame (besides the kings)
+     */
+    static int index(int blackToMove, int whiteKing, int blackKing, int[] squares) {
+        int index = (blackToMove << 12) | (whiteKing << 6) | blackKing;
+        for (int square : squares) {
+            index = (index << 6) | square;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the entry with the given index: 0 for a draw, otherwise the distance to mate in plies plus 1.
+     */
+    int getValue(int index) {
+        long bitIndex = (long) index * this.bitsPerEntry;
+        int wordIndex = (int) (bitIndex >>> 6);
+        int offset = (int) (bitIndex & 63);
+        long value = this.data.getLong(wordIndex * Long.BYTES) >>> offset;
+        if (offset + this.bitsPerEntry > 64) {
+            value |= this.data.getLong((wordIndex + 1) * Long.BYTES) << (64 - offset);
+        }
+        return (int) (value & this.mask);
+    }
+
+    public EnumEndgame getEndgame() {
+        return this.endgame;
+    }
+
+    int getBitsPerEntry() {
+        return this.bitsPerEntry;
+    }
+
+}
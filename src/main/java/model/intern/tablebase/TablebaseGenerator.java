@@ -0,0 +1,480 @@
+package model.intern.tablebase;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.intern.chessmove.AttackTables;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Generates the tablebase of an endgame by retrograde analysis over all placements of the pieces.
+ *
+ * First all positions are classified: illegal ones, checkmates (black to move, lost in 0 plies), draws by stalemate
+ * or because black can capture a piece, and for each other position with black to move the number of its moves.
+ * Then the positions are resolved ply by ply, starting from the checkmates: each white move leading to a lost position
+ * of black wins (one ply later), and a position of black is lost as soon as all of its moves lead to won positions
+ * of white, which is counted down move by move. Positions, which are never resolved, are draws.
+ * Moves are taken back (un-moves) to find the predecessors of the positions of each ply.
+ *
+ * Both the classification and each ply are split into fork-join tasks. The shared entries are changed atomically.
+ * A pawn endgame uses the tables of the endgames its pawn is promoted into, which have to be generated first.
+ */
+public class TablebaseGenerator {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte ILLEGAL = -1;
+    private static final byte DRAW = -2;
+    private static final int MAX_DISTANCE = Byte.MAX_VALUE - 1;
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+    private static final int WHITE_TO_MOVE = 0;
+    private static final int BLACK_TO_MOVE = 1;
+    private static final long FIRST_RANK = 0xFFL;
+    private static final long LAST_RANK = FIRST_RANK << 56;
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final EnumEndgame endgame;
+    private final int numberOfPieces;
+    private final ForkJoinPool pool;
+    // Resolved positions have the distance to mate plus 1, see Tablebase.
+    private final byte[] values;
+    // Black to move: number of moves, which do not lead to a won position of white yet.
+    // White to move: distance to mate plus 1 by a promotion (pawn endgames only).
+    private final byte[] counters;
+    private final Tablebase queenTable;
+    private final Tablebase rookTable;
+
+    private TablebaseGenerator(EnumEndgame endgame, ForkJoinPool pool, Tablebase queenTable, Tablebase rookTable) {
+        this.endgame = endgame;
+        this.numberOfPieces = endgame.getNumberOfPieces();
+        this.pool = pool;
+        this.values = new byte[endgame.getNumberOfEntries()];
+        this.counters = new byte[endgame.getNumberOfEntries()];
+        this.queenTable = queenTable;
+        this.rookTable = rookTable;
+    }
+
+    /**
+     * Generates the tablebases of all endgames into the given directory.
+     */
+    public static void generateAll(Path directory, ForkJoinPool pool) throws IOException {
+        for (EnumEndgame endgame : EnumEndgame.values()) {
+            generate(endgame, directory, pool);
+        }
+    }
+
+    /**
+     * Generates the tablebase of the given endgame into the given directory.
+     * For a pawn endgame, the tablebases of KQK and KRK have to be in the directory already.
+     * @return The file of the tablebase
+     */
+    public static Path generate(EnumEndgame endgame, Path directory, ForkJoinPool pool) throws IOException {
+        Tablebase queenTable = null;
+        Tablebase rookTable = null;
+        if (endgame.getPieces().contains(EnumChessPiece.PAWN)) {
+            queenTable = openRequiredTable(directory, EnumEndgame.KQK);
+            rookTable = openRequiredTable(directory, EnumEndgame.KRK);
+        }
+        TablebaseGenerator generator = new TablebaseGenerator(endgame, pool, queenTable, rookTable);
+        generator.generate();
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve(endgame.getFileName());
+        // Illegal positions and draws are negative, they are written as no value.
+        Tablebase.write(file, endgame, generator.values);
+        return file;
+    }
+
+    private static Tablebase openRequiredTable(Path directory, EnumEndgame endgame) throws IOException {
+        Path file = directory.resolve(endgame.getFileName());
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("The tablebase " + endgame + " has to be generated first.");
+        }
+        return Tablebase.open(file);
+    }
+
+    private void generate() {
+        int[] frontier = this.pool.invoke(new ClassifyTask(0, this.values.length));
+        List<List<Integer>> promotionsByDistance = collectPromotions();
+
+        for (int distance = 0; frontier.length > 0 || distance < promotionsByDistance.size(); distance++) {
+            if (distance < promotionsByDistance.size()) {
+                frontier = addPromotions(frontier, promotionsByDistance.get(distance), distance);
+            }
+            if (frontier.length > 0) {
+                if (distance + 1 > MAX_DISTANCE) {
+                    throw new IllegalStateException("Distance to mate too large for " + this.endgame);
+                }
+                frontier = this.pool.invoke(new ResolveTask(frontier, 0, frontier.length, distance));
+            }
+        }
+    }
+
+    /**
+     * Classifies the positions of the given index range and returns the checkmates.
+     */
+    private class ClassifyTask extends RecursiveTask<int[]> {
+
+        private final int from;
+        private final int to;
+
+        ClassifyTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (this.to - this.from > SEQUENTIAL_THRESHOLD) {
+                int middle = (this.from + this.to) >>> 1;
+                ClassifyTask first = new ClassifyTask(this.from, middle);
+                first.fork();
+                int[] second = new ClassifyTask(middle, this.to).compute();
+                return concat(first.join(), second);
+            }
+            IntList checkmates = new IntList();
+            int[] squares = new int[numberOfPieces];
+            for (int index = this.from; index < this.to; index++) {
+                if (classify(index, squares)) {
+                    checkmates.add(index);
+                }
+            }
+            return checkmates.toArray();
+        }
+
+    }
+
+    /**
+     * Resolves the predecessors of the given positions, which have been resolved with the given distance,
+     * and returns the positions resolved with the next distance.
+     */
+    private class ResolveTask extends RecursiveTask<int[]> {
+
+        private final int[] positions;
+        private final int from;
+        private final int to;
+        private final int distance;
+
+        ResolveTask(int[] positions, int from, int to, int distance) {
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+            this.distance = distance;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (this.to - this.from > SEQUENTIAL_THRESHOLD / 16) {
+                int middle = (this.from + this.to) >>> 1;
+                ResolveTask first = new ResolveTask(this.positions, this.from, middle, this.distance);
+                first.fork();
+                int[] second = new ResolveTask(this.positions, middle, this.to, this.distance).compute();
+                return concat(first.join(), second);
+            }
+            IntList resolved = new IntList();
+            int[] squares = new int[numberOfPieces];
+            for (int i = this.from; i < this.to; i++) {
+                int index = this.positions[i];
+                if (index >>> (6 * (2 + numberOfPieces)) == BLACK_TO_MOVE) {
+                    resolveWhitePredecessors(index, squares, this.distance + 1, resolved);
+                } else {
+                    resolveBlackPredecessors(index, squares, this.distance + 1, resolved);
+                }
+            }
+            return resolved.toArray();
+        }
+
+    }
+
+    /**
+     * Classifies the position with the given index. Returns whether it is a checkmate.
+     */
+    private boolean classify(int index, int[] squares) {
+        int blackToMove = decode(index, squares);
+        int whiteKing = (index >>> (6 * (numberOfPieces + 1))) & 63;
+        int blackKing = (index >>> (6 * numberOfPieces)) & 63;
+        if (!isLegal(blackToMove, whiteKing, blackKing, squares)) {
+            this.values[index] = ILLEGAL;
+            return false;
+        }
+
+        long whitePieces = occupancy(whiteKing, squares);
+        if (blackToMove == WHITE_TO_MOVE) {
+            if (this.queenTable != null) {
+                this.counters[index] = (byte) findPromotionValue(whiteKing, blackKing, squares, whitePieces | 1L << blackKing);
+            }
+            return false;
+        }
+
+        // The black king is no blocker of the attacks, as it cannot step back along the line of a check.
+        long attacked = attacks(whiteKing, squares, whitePieces);
+        long kingMoves = AttackTables.kingAttacks(blackKing) & ~attacked;
+        if ((kingMoves & whitePieces) != 0) {
+            // A lone king and a king with a single piece (or none) cannot win.
+            this.values[index] = DRAW;
+            return false;
+        }
+        if (kingMoves == 0) {
+            if ((attacked & (1L << blackKing)) != 0) {
+                this.values[index] = 1;
+                return true;
+            }
+            this.values[index] = DRAW;
+            return false;
+        }
+        this.counters[index] = (byte) Long.bitCount(kingMoves);
+        return false;
+    }
+
+    /**
+     * Returns the distance to mate plus 1 of the best promotion of white (to queen or rook), or 0 if none wins.
+     */
+    private int findPromotionValue(int whiteKing, int blackKing, int[] squares, long occupancy) {
+        int best = 0;
+        for (int i = 0; i < squares.length; i++) {
+            int target = squares[i] + 8;
+            if (this.endgame.getPiece(i) != EnumChessPiece.PAWN || (LAST_RANK & (1L << target)) == 0
+                    || (occupancy & (1L << target)) != 0) {
+                continue;
+            }
+            for (Tablebase table : new Tablebase[] {this.queenTable, this.rookTable}) {
+                int value = table.getValue(Tablebase.index(BLACK_TO_MOVE, whiteKing, blackKing, new int[] {target}));
+                if (value != Tablebase.NO_VALUE && (best == 0 || value + 1 < best)) {
+                    best = value + 1;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the white positions by the distance to mate of their best promotion.
+     */
+    private List<List<Integer>> collectPromotions() {
+        List<List<Integer>> result = new ArrayList<>();
+        if (this.queenTable == null) {
+            return result;
+        }
+        int numberOfWhitePositions = this.values.length / 2;
+        for (int index = 0; index < numberOfWhitePositions; index++) {
+            int value = this.counters[index];
+            if (value > 0) {
+                while (result.size() < value) {
+                    result.add(new ArrayList<>());
+                }
+                result.get(value - 1).add(index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the given white positions winning by promotion, unless they win faster otherwise.
+     */
+    private int[] addPromotions(int[] frontier, List<Integer> promotions, int distance) {
+        IntList result = new IntList();
+        for (int position : frontier) {
+            result.add(position);
+        }
+        for (int index : promotions) {
+            if (this.values[index] == UNKNOWN) {
+                this.values[index] = (byte) (distance + 1);
+                result.add(index);
+            }
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Marks all white positions, from which white reaches the given lost position of black, as won.
+     */
+    private void resolveWhitePredecessors(int index, int[] squares, int distance, IntList resolved) {
+        decode(index, squares);
+        int whiteKing = (index >>> (6 * (numberOfPieces + 1))) & 63;
+        int blackKing = (index >>> (6 * numberOfPieces)) & 63;
+        long occupancy = occupancy(whiteKing, squares) | 1L << blackKing;
+
+        long kingSources = AttackTables.kingAttacks(whiteKing) & ~occupancy & ~AttackTables.kingAttacks(blackKing);
+        while (kingSources != 0) {
+            int source = Long.numberOfTrailingZeros(kingSources);
+            kingSources &= kingSources - 1;
+            resolveWon(Tablebase.index(WHITE_TO_MOVE, source, blackKing, squares), distance, resolved);
+        }
+        for (int i = 0; i < squares.length; i++) {
+            int target = squares[i];
+            long sources = findSources(this.endgame.getPiece(i), target, occupancy);
+            while (sources != 0) {
+                squares[i] = Long.numberOfTrailingZeros(sources);
+                sources &= sources - 1;
+                resolveWon(Tablebase.index(WHITE_TO_MOVE, whiteKing, blackKing, squares), distance, resolved);
+            }
+            squares[i] = target;
+        }
+    }
+
+    /**
+     * Returns the squares, from which the given piece can have moved to the given target square.
+     */
+    private static long findSources(EnumChessPiece piece, int target, long occupancy) {
+        switch (piece) {
+            case PAWN:
+                long sources = 0;
+                long single = 1L << (target - 8);
+                if (target >= 16 && (occupancy & single) == 0) {
+                    sources |= single;
+                    if (target >>> 3 == 3 && (occupancy & (1L << (target - 16))) == 0) {
+                        sources |= 1L << (target - 16);
+                    }
+                }
+                return sources;
+            case KNIGHT:
+                return AttackTables.knightAttacks(target) & ~occupancy;
+            case BISHOP:
+                return AttackTables.diagonalAttacks(target, occupancy) & ~occupancy;
+            case ROOK:
+                return AttackTables.linearAttacks(target, occupancy) & ~occupancy;
+            default:
+                return AttackTables.queenAttacks(target, occupancy) & ~occupancy;
+        }
+    }
+
+    private void resolveWon(int index, int distance, IntList resolved) {
+        if (ENTRIES.compareAndSet(this.values, index, UNKNOWN, (byte) (distance + 1))) {
+            resolved.add(index);
+        }
+    }
+
+    /**
+     * Counts down the moves of all black positions, from which black reaches the given won position of white.
+     * A black position is lost, when none of its moves is left.
+     */
+    private void resolveBlackPredecessors(int index, int[] squares, int distance, IntList resolved) {
+        decode(index, squares);
+        int whiteKing = (index >>> (6 * (numberOfPieces + 1))) & 63;
+        int blackKing = (index >>> (6 * numberOfPieces)) & 63;
+        long occupancy = occupancy(whiteKing, squares);
+
+        long sources = AttackTables.kingAttacks(blackKing) & ~occupancy & ~AttackTables.kingAttacks(whiteKing);
+        while (sources != 0) {
+            int source = Long.numberOfTrailingZeros(sources);
+            sources &= sources - 1;
+            int predecessor = Tablebase.index(BLACK_TO_MOVE, whiteKing, source, squares);
+            if ((byte) ENTRIES.getVolatile(this.values, predecessor) == UNKNOWN && decrementCounter(predecessor) == 0) {
+                ENTRIES.setVolatile(this.values, predecessor, (byte) (distance + 1));
+                resolved.add(predecessor);
+            }
+        }
+    }
+
+    /**
+     * Atomically decrements the counter of the given position and returns its new value.
+     */
+    private int decrementCounter(int index) {
+        while (true) {
+            byte counter = (byte) ENTRIES.getVolatile(this.counters, index);
+            if (ENTRIES.compareAndSet(this.counters, index, counter, (byte) (counter - 1))) {
+                return counter - 1;
+            }
+        }
+    }
+
+    /**
+     * Decodes the squares of the pieces of the given index and returns 1 if black is to move, otherwise 0.
+     */
+    private int decode(int index, int[] squares) {
+        for (int i = squares.length - 1; i >= 0; i--) {
+            squares[i] = index & 63;
+            index >>>= 6;
+        }
+        return index >>> 12;
+    }
+
+    private boolean isLegal(int blackToMove, int whiteKing, int blackKing, int[] squares) {
+        long occupancy = (1L << whiteKing) | (1L << blackKing);
+        if (whiteKing == blackKing || (AttackTables.kingAttacks(whiteKing) & (1L << blackKing)) != 0) {
+            return false;
+        }
+        for (int i = 0; i < squares.length; i++) {
+            long bit = 1L << squares[i];
+            if ((occupancy & bit) != 0) {
+                return false;
+            }
+            if (this.endgame.getPiece(i) == EnumChessPiece.PAWN && ((FIRST_RANK | LAST_RANK) & bit) != 0) {
+                return false;
+            }
+            occupancy |= bit;
+        }
+        // With white to move, black must not be in check.
+        return blackToMove == BLACK_TO_MOVE || (attacks(whiteKing, squares, occupancy) & (1L << blackKing)) == 0;
+    }
+
+    private static long occupancy(int whiteKing, int[] squares) {
+        long result = 1L << whiteKing;
+        for (int square : squares) {
+            result |= 1L << square;
+        }
+        return result;
+    }
+
+    /**
+     * Returns all squares attacked by white with the given occupancy.
+     */
+    private long attacks(int whiteKing, int[] squares, long occupancy) {
+        long result = AttackTables.kingAttacks(whiteKing);
+        for (int i = 0; i < squares.length; i++) {
+            switch (this.endgame.getPiece(i)) {
+                case PAWN:
+                    result |= AttackTables.pawnAttacks(squares[i], EnumChessColor.WHITE);
+                    break;
+                case KNIGHT:
+                    result |= AttackTables.knightAttacks(squares[i]);
+                    break;
+                case BISHOP:
+                    result |= AttackTables.diagonalAttacks(squares[i], occupancy);
+                    break;
+                case ROOK:
+                    result |= AttackTables.linearAttacks(squares[i], occupancy);
+                    break;
+                default:
+                    result |= AttackTables.queenAttacks(squares[i], occupancy);
+            }
+        }
+        return result;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Growable list of ints, to collect positions without boxing them.
+     */
+    private static class IntList {
+
+        private int[] elements = new int[16];
+        private int size;
+
+        void add(int element) {
+            if (this.size == this.elements.length) {
+                this.elements = Arrays.copyOf(this.elements, this.size * 2);
+            }
+            this.elements[this.size++] = element;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.elements, this.size);
+        }
+
+    }
+
+}
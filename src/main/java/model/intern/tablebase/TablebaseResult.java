@@ -0,0 +1,34 @@
+package model.intern.tablebase;
+
+import model.common.EnumTablebaseResult;
+
+/**
+ * Result of probing a tablebase: win, draw or loss for the player to move and the distance to mate in plies.
+ */
+public class TablebaseResult {
+
+    private final EnumTablebaseResult result;
+    private final int distanceToMate;
+
+    TablebaseResult(EnumTablebaseResult result, int distanceToMate) {
+        this.result = result;
+        this.distanceToMate = distanceToMate;
+    }
+
+    public EnumTablebaseResult getResult() {
+        return this.result;
+    }
+
+    /**
+     * Returns the number of plies until the player to move mates (win) or is mated (loss) with best play, 0 for a draw.
+     */
+    public int getDistanceToMate() {
+        return this.distanceToMate;
+    }
+
+    @Override
+    public String toString() {
+        return this.result + (this.result == EnumTablebaseResult.DRAW ? "" : " in " + this.distanceToMate);
+    }
+
+}
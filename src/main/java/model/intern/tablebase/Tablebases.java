@@ -0,0 +1,112 @@
+package model.intern.tablebase;
+
+import model.common.EnumChessColor;
+import model.common.EnumChessPiece;
+import model.common.EnumTablebaseResult;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The available tablebases, which answer positions with at most four pieces (see EnumEndgame) without any search.
+ * The tables are stored with white as the stronger side, so positions of a stronger black side are mirrored
+ * (colors swapped and the board flipped vertically). Castling rights and en passant are not taken into account.
+ */
+public class Tablebases {
+
+    public static final int MAX_PIECES = 4;
+
+    private final Map<EnumEndgame, Tablebase> tables;
+
+    private Tablebases(Map<EnumEndgame, Tablebase> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Opens all tablebase files in the given directory (see TablebaseGenerator).
+     */
+    public static Tablebases open(Path directory) throws IOException {
+        Map<EnumEndgame, Tablebase> tables = new EnumMap<>(EnumEndgame.class);
+        for (EnumEndgame endgame : EnumEndgame.values()) {
+            Path file = directory.resolve(endgame.getFileName());
+            if (Files.exists(file)) {
+                tables.put(endgame, Tablebase.open(file));
+            }
+        }
+        return new Tablebases(tables);
+    }
+
+    /**
+     * Returns the result of the current position of the given chess board, or null if no tablebase covers it.
+     */
+    public TablebaseResult probe(ChessBoard board) {
+        board.updateBitBoardState();
+        return probe(board.getBitBoard());
+    }
+
+    /**
+     * Returns the result of the position of the given bitboard for its active color, or null if no tablebase covers it.
+     */
+    public TablebaseResult probe(BitBoard board) {
+        if (Long.bitCount(board.getOccupancy()) > MAX_PIECES) {
+            return null;
+        }
+        EnumChessColor strongColor;
+        if (Long.bitCount(board.getOccupancy(EnumChessColor.BLACK)) == 1) {
+            strongColor = EnumChessColor.WHITE;
+        } else if (Long.bitCount(board.getOccupancy(EnumChessColor.WHITE)) == 1) {
+            strongColor = EnumChessColor.BLACK;
+        } else {
+            return null;
+        }
+
+        long strongPieces = board.getOccupancy(strongColor) & ~board.getPieces(strongColor, EnumChessPiece.KING);
+        EnumChessPiece[] pieces = new EnumChessPiece[Long.bitCount(strongPieces)];
+        for (int i = 0; i < pieces.length; i++) {
+            pieces[i] = board.getPieceType(Long.numberOfTrailingZeros(strongPieces));
+            strongPieces &= strongPieces - 1;
+        }
+        EnumEndgame endgame = EnumEndgame.find(pieces);
+        Tablebase table = endgame == null ? null : this.tables.get(endgame);
+        if (table == null) {
+            return null;
+        }
+
+        // Mirroring the board vertically turns the pieces of black into the pieces of white.
+        int flip = strongColor == EnumChessColor.WHITE ? 0 : 56;
+        int[] squares = new int[endgame.getNumberOfPieces()];
+        for (int i = 0; i < squares.length; i++) {
+            squares[i] = Long.numberOfTrailingZeros(board.getPieces(strongColor, endgame.getPiece(i))) ^ flip;
+        }
+        int strongKing = Long.numberOfTrailingZeros(board.getPieces(strongColor, EnumChessPiece.KING)) ^ flip;
+        int weakKing = Long.numberOfTrailingZeros(board.getPieces(strongColor.getOtherColor(), EnumChessPiece.KING)) ^ flip;
+        boolean strongToMove = board.getActiveColor() == strongColor;
+
+        int value = table.getValue(Tablebase.index(strongToMove ? 0 : 1, strongKing, weakKing, squares));
+        if (value == Tablebase.NO_VALUE) {
+            return new TablebaseResult(EnumTablebaseResult.DRAW, 0);
+        }
+        return new TablebaseResult(strongToMove ? EnumTablebaseResult.WIN : EnumTablebaseResult.LOSS, value - 1);
+    }
+
+    /**
+     * Returns the endgames, whose tablebases are available.
+     */
+    public Set<EnumEndgame> getEndgames() {
+        return this.tables.keySet();
+    }
+
+    /**
+     * Returns the tablebase of the given endgame, or null if it is not available.
+     */
+    Tablebase getTable(EnumEndgame endgame) {
+        return this.tables.get(endgame);
+    }
+
+}
@@ -0,0 +1,221 @@
+package model.extern;
+
+import model.common.Coordinates;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.engine.Engine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAnalyze {
+
+    private ChessGame chessGame;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessGame = new ChessGame();
+        this.chessGame.startNewGame(null);
+    }
+
+    @Test
+    public void testDepthLimit() throws Exception {
+        ExtSearchResult result = this.chessGame.analyze(ExtSearchLimits.depth(3)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, result.getDepth());
+        assertNotNull(result.getSource());
+        assertNotNull(result.getTarget());
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        Instant deadline = Instant.now().plusMillis(100);
+
+        ExtSearchResult result = this.chessGame.analyze(ExtSearchLimits.deadline(deadline)).get(1, TimeUnit.SECONDS);
+
+        assertTrue(Instant.now().isBefore(deadline.plusMillis(300)));
+        assertNotNull(result.getSource());
+    }
+
+    @Test
+    public void testClock() throws Exception {
+        ExtSearchResult result = this.chessGame.analyze(ExtSearchLimits.clock(Duration.ofSeconds(3), Duration.ZERO).withDepth(64))
+                .get(2, TimeUnit.SECONDS);
+
+        assertNotNull(result.getSource());
+    }
+
+    @Test
+    public void testStopInfiniteAnalysis() throws Exception {
+        CountDownLatch firstDepth = new CountDownLatch(1);
+        CompletableFuture<ExtSearchResult> analysis = this.chessGame.analyze(ExtSearchLimits.infinite(),
+                result -> firstDepth.countDown());
+        assertTrue(firstDepth.await(10, TimeUnit.SECONDS));
+
+        ExtSearchResult bestSoFar = this.chessGame.stop();
+
+        assertNotNull(bestSoFar.getSource());
+        assertTrue(analysis.get(1, TimeUnit.SECONDS).getDepth() >= bestSoFar.getDepth());
+    }
+
+    @Test
+    public void testMovesDuringAnalysisDoNotDisturbIt() throws Exception {
+        CompletableFuture<ExtSearchResult> analysis = this.chessGame.analyze(ExtSearchLimits.depth(4));
+
+        this.chessGame.executeMove(new Coordinates(4, 1), new Coordinates(4, 3));
+
+        ExtSearchResult result = analysis.get(10, TimeUnit.SECONDS);
+        assertEquals(4, result.getDepth());
+        // A move of white, as the position was taken when the analysis started.
+        assertTrue(result.getSource().y() <= 1);
+    }
+
+    @Test
+    public void testMultiPvWithListener() throws Exception {
+        List<ExtSearchResult> updates = new CopyOnWriteArrayList<>();
+        CountDownLatch allReceived = new CountDownLatch(3);
+
+        ExtSearchResult result = this.chessGame.analyze(ExtSearchLimits.depth(3).withMultiPv(3), update -> {
+            updates.add(update);
+            allReceived.countDown();
+        }).get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, result.getPrincipalVariations().size());
+        ExtPrincipalVariation best = result.getPrincipalVariations().get(0);
+        assertEquals(result.getScore(), best.getScore());
+        assertEquals(result.getSource(), best.getMoves().get(0).getSource());
+        assertEquals(result.getTarget(), best.getMoves().get(0).getTarget());
+        assertTrue(allReceived.await(10, TimeUnit.SECONDS));
+        assertEquals(3, updates.size());
+        assertEquals(3, updates.get(2).getDepth());
+    }
+
+    @Test
+    public void testNextAnalysisReplacesRunningOne() throws Exception {
+        CountDownLatch firstDepth = new CountDownLatch(1);
+        CompletableFuture<ExtSearchResult> firstAnalysis = this.chessGame.analyze(ExtSearchLimits.infinite(),
+                result -> firstDepth.countDown());
+        assertTrue(firstDepth.await(10, TimeUnit.SECONDS));
+        this.chessGame.executeMove(new Coordinates(4, 1), new Coordinates(4, 3));
+        List<ExtSearchResult> updates = new CopyOnWriteArrayList<>();
+        CountDownLatch allReceived = new CountDownLatch(2);
+
+        ExtSearchResult result = this.chessGame.analyze(ExtSearchLimits.depth(2), update -> {
+            updates.add(update);
+            allReceived.countDown();
+        }).get(10, TimeUnit.SECONDS);
+
+        assertTrue(firstAnalysis.isDone());
+        assertTrue(allReceived.await(10, TimeUnit.SECONDS));
+        assertEquals(2, updates.size());
+        // Only moves of black, the position of the second analysis.
+        for (ExtSearchResult update : updates) {
+            assertTrue(update.getSource().y() >= 6);
+        }
+        assertEquals(result.getSource(), updates.get(1).getSource());
+    }
+
+    @Test
+    public void testListenerIsNotInformedAboutLaterSearches() throws Exception {
+        List<ExtSearchResult> updates = new CopyOnWriteArrayList<>();
+        this.chessGame.analyze(ExtSearchLimits.depth(2), updates::add).get(10, TimeUnit.SECONDS);
+
+        this.chessGame.findBestMove(2);
+        // The listeners are called in order, so all updates of the first listener arrive before the ones of the next.
+        CountDownLatch nextAnalysis = new CountDownLatch(1);
+        this.chessGame.analyze(ExtSearchLimits.depth(1), result -> nextAnalysis.countDown()).get(10, TimeUnit.SECONDS);
+        assertTrue(nextAnalysis.await(10, TimeUnit.SECONDS));
+
+        assertEquals(2, updates.size());
+    }
+
+    @Test
+    public void testPonderHitAfterEngineMove() throws Exception {
+        this.chessGame.setPondering(true);
+        ExtSearchResult engineMove = this.chessGame.findBestMove(4);
+        Engine engine = this.chessGame.getEngine();
+        CountDownLatch ponderedDeeply = new CountDownLatch(1);
+        engine.setSearchListener(result -> {
+            if (result.getDepth() >= 2) {
+                ponderedDeeply.countDown();
+            }
+        });
+
+        this.chessGame.executeMove(engineMove.getSource(), engineMove.getTarget());
+        int expectedReply = engine.getPonderMove();
+        assertNotEquals(MoveEncoding.NO_MOVE, expectedReply);
+        assertTrue(ponderedDeeply.await(10, TimeUnit.SECONDS));
+        this.chessGame.executeMove(BitBoard.toCoordinates(MoveEncoding.getFrom(expectedReply)),
+                BitBoard.toCoordinates(MoveEncoding.getTo(expectedReply)));
+        // The reply of the opponent keeps the pondering search.
+        assertEquals(expectedReply, engine.getPonderMove());
+        ExtSearchResult result = this.chessGame.findBestMove(1);
+
+        // A new search would stop after depth 1, but the pondering search has been deeper already.
+        assertTrue(result.getDepth() >= 2);
+        assertFalse(engine.isPondering());
+    }
+
+    @Test
+    public void testPonderMissStopsPondering() throws Exception {
+        this.chessGame.setPondering(true);
+        ExtSearchResult engineMove = this.chessGame.findBestMove(4);
+        Engine engine = this.chessGame.getEngine();
+        this.chessGame.executeMove(engineMove.getSource(), engineMove.getTarget());
+        int expectedReply = engine.getPonderMove();
+        assertNotEquals(MoveEncoding.NO_MOVE, expectedReply);
+        // Black moves a rook pawn, unless this is the expected reply.
+        int x = MoveEncoding.getFrom(expectedReply) == BitBoard.toSquare(0, 6) ? 7 : 0;
+
+        this.chessGame.executeMove(new Coordinates(x, 6), new Coordinates(x, 5));
+
+        assertFalse(engine.isPondering());
+    }
+
+    @Test
+    public void testRevertStopsAnalysis() throws Exception {
+        this.chessGame.executeMove(new Coordinates(4, 1), new Coordinates(4, 3));
+        CountDownLatch firstDepth = new CountDownLatch(1);
+        CompletableFuture<ExtSearchResult> analysis = this.chessGame.analyze(ExtSearchLimits.infinite(),
+                result -> firstDepth.countDown());
+        assertTrue(firstDepth.await(10, TimeUnit.SECONDS));
+
+        this.chessGame.revertLastMove();
+
+        // A move of black, as the position was taken when the analysis started.
+        assertTrue(analysis.get(1, TimeUnit.SECONDS).getSource().y() >= 6);
+    }
+
+    @Test
+    public void testLoadingFenStopsAnalysis() throws Exception {
+        CountDownLatch firstDepth = new CountDownLatch(1);
+        CompletableFuture<ExtSearchResult> analysis = this.chessGame.analyze(ExtSearchLimits.infinite(),
+                result -> firstDepth.countDown());
+        assertTrue(firstDepth.await(10, TimeUnit.SECONDS));
+
+        this.chessGame.loadFen("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+
+        assertNotNull(analysis.get(1, TimeUnit.SECONDS).getSource());
+    }
+
+    @Test
+    public void testNoPonderingAfterOtherMove() throws Exception {
+        this.chessGame.setPondering(true);
+        ExtSearchResult engineMove = this.chessGame.findBestMove(3);
+        int x = engineMove.getSource().equals(new Coordinates(0, 1)) ? 7 : 0;
+
+        this.chessGame.executeMove(new Coordinates(x, 1), new Coordinates(x, 2));
+
+        assertFalse(this.chessGame.getEngine().isPondering());
+    }
+
+}
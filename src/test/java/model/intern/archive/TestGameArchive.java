@@ -0,0 +1,220 @@
+package model.intern.archive;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+import model.extern.ChessGame;
+import model.intern.exceptions.ExcInvalidFen;
+import model.intern.exceptions.ExcInvalidMove;
+import model.intern.pgn.PgnGame;
+import model.intern.pgn.PgnReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestGameArchive {
+
+    private static final Map<String, String> TAGS = Map.of("White", "Anderssen, Adolf", "Black", "M\u00fcller");
+
+    @TempDir
+    Path directory;
+
+    private ChessGame chessGame;
+    private Path archiveFile;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessGame = new ChessGame();
+        this.chessGame.startNewGame(null);
+        this.archiveFile = this.directory.resolve("games.cga");
+    }
+
+    private void executeMove(String move) throws ExcInvalidMove {
+        Coordinates source = new Coordinates(move.charAt(0) - 'a', move.charAt(1) - '1');
+        Coordinates target = new Coordinates(move.charAt(2) - 'a', move.charAt(3) - '1');
+        EnumChessPiece promotionPiece = move.length() > 4 ? EnumChessPiece.valueOf(move.substring(4)) : null;
+        this.chessGame.executeMove(source, target, promotionPiece);
+    }
+
+    /**
+     * Plays a game with en passant, promotions and castling.
+     */
+    private void playSpecialMoves() throws ExcInvalidMove {
+        playSpecialMovesAfter(0);
+    }
+
+    /**
+     * Plays the special moves, of which the given number has already been played.
+     */
+    private void playSpecialMovesAfter(int numberOfPlayedMoves) throws ExcInvalidMove {
+        List<String> moves = Arrays.asList("e2e4", "a7a6", "e4e5", "d7d5", "e5d6", "a6a5", "d6c7", "a5a4", "c7b8KNIGHT",
+                "a4a3", "g1f3", "a3b2", "f1e2", "b2a1QUEEN", "e1g1");
+        for (String move : moves.subList(numberOfPlayedMoves, moves.size())) {
+            executeMove(move);
+        }
+    }
+
+    @Test
+    public void testRoundTripThroughChessGame() throws IOException, ExcInvalidMove, ExcInvalidFen {
+        playSpecialMoves();
+        String fen = this.chessGame.toFen();
+        long zobristKey = this.chessGame.getZobristKey();
+        assertEquals(0, this.chessGame.exportGame(this.archiveFile, TAGS));
+
+        ChessGame importedGame = new ChessGame();
+        importedGame.startNewGame(null);
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            assertEquals(1, archive.getNumberOfGames());
+            ArchivedGame game = archive.readGame(0);
+            assertEquals(15, game.getNumberOfMoves());
+            assertEquals(EnumChessPiece.KNIGHT, game.getPromotionPiece(8));
+            assertNull(game.getPromotionPiece(14));
+            assertEquals("M\u00fcller", game.getTag("Black"));
+            assertNull(game.getStartingFen());
+        }
+        importedGame.importGame(this.archiveFile, 0);
+
+        assertEquals(fen, importedGame.toFen());
+        assertEquals(zobristKey, importedGame.getZobristKey());
+        for (int i = 0; i < 15; i++) {
+            importedGame.revertLastMove();
+        }
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", importedGame.toFen());
+    }
+
+    @Test
+    public void testGameFromFen() throws IOException, ExcInvalidMove, ExcInvalidFen {
+        this.chessGame.loadFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 40");
+        executeMove("e5d6");
+        executeMove("e8d7");
+        this.chessGame.exportGame(this.archiveFile, Map.of());
+
+        ArchivedGame game;
+        try (GameArchiveReader reader = GameArchiveReader.open(this.archiveFile)) {
+            game = reader.readGame();
+            assertNull(reader.readGame());
+            assertNull(reader.readGame());
+        }
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 40", game.getStartingFen());
+        assertTrue(game.getTags().isEmpty());
+
+        ChessGame importedGame = new ChessGame();
+        importedGame.startNewGame(null);
+        importedGame.importGame(this.archiveFile, 0);
+        assertEquals("8/3k4/3P4/8/8/8/8/4K3 w - - 1 41", importedGame.toFen());
+    }
+
+    @Test
+    public void testAppendingGames() throws IOException, ExcInvalidMove, ExcInvalidFen {
+        executeMove("e2e4");
+        assertEquals(0, this.chessGame.exportGame(this.archiveFile, Map.of("Round", "1")));
+        playSpecialMovesAfter(1);
+        String fen = this.chessGame.toFen();
+
+        assertEquals(1, this.chessGame.exportGame(this.archiveFile, Map.of("Round", "2")));
+
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            assertEquals(2, archive.getNumberOfGames());
+            assertEquals("1", archive.readGame(0).getTag("Round"));
+            assertEquals(1, archive.readGame(0).getNumberOfMoves());
+            assertEquals("2", archive.readGame(1).getTag("Round"));
+            assertEquals(15, archive.readGame(1).getNumberOfMoves());
+        }
+        ChessGame importedGame = new ChessGame();
+        importedGame.startNewGame(null);
+        importedGame.importGame(this.archiveFile, 1);
+        assertEquals(fen, importedGame.toFen());
+        assertThrows(IndexOutOfBoundsException.class, () -> importedGame.importGame(this.archiveFile, 2));
+        assertEquals(fen, importedGame.toFen());
+    }
+
+    @Test
+    public void testRandomAccess() throws IOException, ExcInvalidMove {
+        playSpecialMoves();
+        int numberOfGames = 10_000;
+        Path sourceFile = this.directory.resolve("source.cga");
+        for (int i = 0; i < 15; i++) {
+            this.chessGame.exportGame(sourceFile, Map.of("Round", "" + i));
+            this.chessGame.revertLastMove();
+        }
+        List<ArchivedGame> games = new ArrayList<>();
+        try (GameArchive sourceArchive = GameArchive.open(sourceFile)) {
+            for (int i = 0; i < sourceArchive.getNumberOfGames(); i++) {
+                games.add(sourceArchive.readGame(i));
+            }
+        }
+        try (GameArchiveWriter writer = GameArchiveWriter.create(this.archiveFile)) {
+            for (int i = 0; i < numberOfGames; i++) {
+                writer.write(games.get(i % games.size()));
+            }
+            assertEquals(numberOfGames, writer.getNumberOfGames());
+        }
+
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            assertEquals(numberOfGames, archive.getNumberOfGames());
+            for (int i : new int[] {0, 1, 14, 15, 4711, numberOfGames - 1}) {
+                ArchivedGame game = archive.readGame(i);
+                ArchivedGame expected = games.get(i % games.size());
+                assertEquals(expected.getTag("Round"), game.getTag("Round"));
+                assertArrayEquals(expected.getMoves(), game.getMoves());
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> archive.readGame(numberOfGames));
+        }
+
+        // About 2 bytes per move, the tag and a few bytes of header and index per game
+        long numberOfMoves = 0;
+        for (int i = 0; i < numberOfGames; i++) {
+            numberOfMoves += games.get(i % games.size()).getNumberOfMoves();
+        }
+        assertTrue(Files.size(this.archiveFile) < numberOfMoves * 2 + numberOfGames * 20L);
+    }
+
+    @Test
+    public void testGamesFromPgn() throws IOException {
+        Path pgnFile = this.directory.resolve("games.pgn");
+        Files.write(pgnFile, ("[Event \"Test\"]\n\n1. e4 e5 2. Nf3 Nc6 1-0\n\n"
+                + "[FEN \"8/P3k3/8/8/8/8/8/4K3 w - - 0 1\"]\n\n1. a8=R *\n\n").getBytes(StandardCharsets.UTF_8));
+        List<PgnGame> pgnGames = PgnReader.open(pgnFile).games(false).collect(Collectors.toList());
+
+        try (GameArchiveWriter writer = GameArchiveWriter.create(this.archiveFile)) {
+            for (PgnGame pgnGame : pgnGames) {
+                writer.write(ArchivedGame.of(pgnGame));
+            }
+        }
+
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            assertEquals(2, archive.getNumberOfGames());
+            assertEquals("Test", archive.readGame(0).getTag("Event"));
+            assertEquals(4, archive.readGame(0).getNumberOfMoves());
+            assertEquals(new Coordinates(1, 7), archive.readGame(0).getSource(3));
+            assertEquals("8/P3k3/8/8/8/8/8/4K3 w - - 0 1", archive.readGame(1).getStartingFen());
+            assertEquals(EnumChessPiece.ROOK, archive.readGame(1).getPromotionPiece(0));
+        }
+    }
+
+    @Test
+    public void testIncompleteArchive() throws IOException, ExcInvalidMove {
+        playSpecialMoves();
+        this.chessGame.exportGame(this.archiveFile, TAGS);
+        byte[] bytes = Files.readAllBytes(this.archiveFile);
+        Files.write(this.archiveFile, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> GameArchive.open(this.archiveFile));
+        Files.write(this.archiveFile, Arrays.copyOf(bytes, 20));
+        try (GameArchiveReader reader = GameArchiveReader.open(this.archiveFile)) {
+            assertThrows(IOException.class, reader::readGame);
+        }
+    }
+
+}
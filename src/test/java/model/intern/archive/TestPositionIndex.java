@@ -0,0 +1,217 @@
+package model.intern.archive;
+
+import model.common.Coordinates;
+import model.extern.ChessGame;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPositionIndex {
+
+    @TempDir
+    Path directory;
+
+    private Path archiveFile;
+    private Path indexFile;
+
+    @BeforeEach
+    public void initTest() {
+        this.archiveFile = this.directory.resolve("games.cga");
+        this.indexFile = this.directory.resolve("games.cpi");
+    }
+
+    /**
+     * Writes random games into the archive and returns the expected game ids of every position.
+     */
+    private Map<Long, SortedSet<Integer>> writeRandomGames(int numberOfGames, int maxPly) throws IOException {
+        ChessBoard startingBoard = new ChessBoard();
+        startingBoard.initChessPieces();
+        Random random = new Random(4711);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        Map<Long, SortedSet<Integer>> expected = new HashMap<>();
+        try (GameArchiveWriter writer = GameArchiveWriter.create(this.archiveFile)) {
+            for (int gameId = 0; gameId < numberOfGames; gameId++) {
+                BitBoard board = new BitBoard(startingBoard.getBitBoard());
+                expected.computeIfAbsent(board.getZobristKey(), key -> new TreeSet<>()).add(gameId);
+                char[] archivedMoves = new char[maxPly];
+                int ply = 0;
+                for (; ply < maxPly; ply++) {
+                    int numberOfMoves = MoveGenerator.generateMoves(board, board.getActiveColor(), moves);
+                    if (numberOfMoves == 0) {
+                        break;
+                    }
+                    int move = moves[random.nextInt(numberOfMoves)];
+                    archivedMoves[ply] = GameArchiveFormat.encodeMove(MoveEncoding.getFrom(move), MoveEncoding.getTo(move),
+                            MoveEncoding.getPromotionPiece(move));
+                    board.makeMove(move);
+                    expected.computeIfAbsent(board.getZobristKey(), key -> new TreeSet<>()).add(gameId);
+                }
+                writer.write(new ArchivedGame(Map.of(), null, Arrays.copyOf(archivedMoves, ply)));
+            }
+        }
+        return expected;
+    }
+
+    private static int[] toArray(SortedSet<Integer> gameIds) {
+        return gameIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    public void testAllPositionsAreFound() throws IOException {
+        Map<Long, SortedSet<Integer>> expected = writeRandomGames(300, 60);
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            PositionIndexBuilder.build(archive, this.indexFile);
+        }
+
+        PositionIndex index = PositionIndex.open(this.indexFile);
+
+        assertEquals(expected.size(), index.getNumberOfKeys());
+        for (Map.Entry<Long, SortedSet<Integer>> entry : expected.entrySet()) {
+            PositionPostings postings = index.find(entry.getKey());
+            assertEquals(entry.getValue().size(), postings.getNumberOfGames());
+            assertArrayEquals(toArray(entry.getValue()), postings.toArray());
+        }
+        ChessBoard startingBoard = new ChessBoard();
+        startingBoard.initChessPieces();
+        assertEquals(300, index.find(startingBoard).getNumberOfGames());
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            long key = random.nextLong();
+            if (!expected.containsKey(key)) {
+                assertTrue(index.find(key).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void testRunsAreMerged() throws IOException {
+        Map<Long, SortedSet<Integer>> expected = writeRandomGames(200, 80);
+        PositionIndexBuilder builder = new PositionIndexBuilder(this.directory, 1000);
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            for (int i = 0; i < archive.getNumberOfGames(); i++) {
+                assertTrue(builder.addGame(i, archive.readGame(i)));
+            }
+        }
+        builder.write(this.indexFile);
+
+        PositionIndex index = PositionIndex.open(this.indexFile);
+        assertEquals(expected.size(), index.getNumberOfKeys());
+        for (Map.Entry<Long, SortedSet<Integer>> entry : expected.entrySet()) {
+            assertArrayEquals(toArray(entry.getValue()), index.find(entry.getKey()).toArray());
+        }
+        // Only the index is left, the runs have been deleted.
+        try (var files = Files.list(this.directory)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void testTranspositionsThroughChessGame() throws IOException, ExcInvalidMove {
+        ChessGame chessGame = new ChessGame();
+        List<String[]> games = List.of(
+                new String[] {"g1f3", "g8f6", "b1c3", "b8c6"},
+                new String[] {"b1c3", "b8c6", "g1f3", "g8f6"},
+                new String[] {"e2e4"},
+                new String[] {"g1f3", "g8f6", "f3g1", "f6g8", "b1c3"});
+        for (String[] moves : games) {
+            chessGame.startNewGame(null);
+            for (String move : moves) {
+                executeMove(chessGame, move);
+            }
+            chessGame.exportGame(this.archiveFile, Map.of());
+        }
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            PositionIndexBuilder.build(archive, this.indexFile);
+        }
+
+        chessGame.startNewGame(null);
+        assertArrayEquals(new int[0], chessGame.findGames());
+        chessGame.openPositionIndex(this.indexFile);
+
+        assertArrayEquals(new int[] {0, 1, 2, 3}, chessGame.findGames());
+        executeMove(chessGame, "g1f3");
+        assertArrayEquals(new int[] {0, 3}, chessGame.findGames());
+        for (String move : new String[] {"g8f6", "b1c3", "b8c6"}) {
+            executeMove(chessGame, move);
+        }
+        assertArrayEquals(new int[] {0, 1}, chessGame.findGames());
+        chessGame.revertLastMove();
+        assertArrayEquals(new int[] {0}, chessGame.findGames());
+    }
+
+    @Test
+    public void testDoublePawnStepTranspositions() throws IOException, ExcInvalidMove {
+        ChessGame chessGame = new ChessGame();
+        for (String[] moves : List.of(new String[] {"e2e4", "e7e6", "d2d4"}, new String[] {"d2d4", "e7e6", "e2e4"})) {
+            chessGame.startNewGame(null);
+            for (String move : moves) {
+                executeMove(chessGame, move);
+            }
+            chessGame.exportGame(this.archiveFile, Map.of());
+        }
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            PositionIndexBuilder.build(archive, this.indexFile);
+        }
+
+        chessGame.openPositionIndex(this.indexFile);
+        // No black pawn can capture en passant after the last double step of either game.
+        assertArrayEquals(new int[] {0, 1}, chessGame.findGames());
+        chessGame.startNewGame(null);
+        for (String move : new String[] {"e2e4", "e7e6", "d2d4"}) {
+            executeMove(chessGame, move);
+        }
+        assertArrayEquals(new int[] {0, 1}, chessGame.findGames());
+    }
+
+    private static void executeMove(ChessGame chessGame, String move) throws ExcInvalidMove {
+        chessGame.executeMove(new Coordinates(move.charAt(0) - 'a', move.charAt(1) - '1'),
+                new Coordinates(move.charAt(2) - 'a', move.charAt(3) - '1'));
+    }
+
+    @Test
+    public void testLookupSpeed() throws IOException {
+        Map<Long, SortedSet<Integer>> expected = writeRandomGames(2000, 80);
+        try (GameArchive archive = GameArchive.open(this.archiveFile)) {
+            PositionIndexBuilder.build(archive, this.indexFile);
+        }
+        PositionIndex index = PositionIndex.open(this.indexFile);
+        long[] keys = expected.keySet().stream().mapToLong(Long::longValue).toArray();
+
+        long start = System.nanoTime();
+        long numberOfGames = 0;
+        for (int i = 0; i < 200_000; i++) {
+            numberOfGames += index.find(keys[i % keys.length]).getNumberOfGames();
+        }
+        long nanos = System.nanoTime() - start;
+
+        assertTrue(numberOfGames >= 200_000);
+        // A lookup searches the directory and scans a single block, so it takes microseconds at most.
+        assertTrue(nanos / 200_000 < 50_000, nanos / 200_000 + " ns per lookup");
+    }
+
+    @Test
+    public void testInvalidFile() throws IOException {
+        Files.write(this.indexFile, new byte[100]);
+
+        assertThrows(IOException.class, () -> PositionIndex.open(this.indexFile));
+    }
+
+}
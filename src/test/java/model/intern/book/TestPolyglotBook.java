@@ -0,0 +1,202 @@
+package model.intern.book;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+import model.extern.ChessGame;
+import model.extern.ExtBookMove;
+import model.intern.chessboard.ChessBoard;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPolyglotBook {
+
+    @TempDir
+    Path directory;
+
+    private PolyglotKeys keys;
+    private ChessBoard chessBoard;
+
+    @BeforeEach
+    public void initTest() {
+        this.keys = PolyglotKeys.getInstance();
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+    }
+
+    @Test
+    public void testFindsWeightedMovesOfPosition() throws IOException {
+        long startKey = computeKey();
+        List<long[]> entries = new ArrayList<>();
+        entries.add(new long[] {startKey, encode("e2e4", 0), 10});
+        entries.add(new long[] {startKey, encode("d2d4", 0), 5});
+        addOtherEntries(entries, 1000);
+        PolyglotBook book = PolyglotBook.open(writeBook(entries), this.keys);
+
+        List<BookMove> moves = book.findMoves(this.chessBoard);
+
+        assertEquals(2, moves.size());
+        assertEquals(new Coordinates(4, 1), moves.get(0).getSource());
+        assertEquals(new Coordinates(4, 3), moves.get(0).getTarget());
+        assertEquals(10, moves.get(0).getWeight());
+        assertNull(moves.get(0).getPromotionPiece());
+        assertEquals(new Coordinates(3, 3), moves.get(1).getTarget());
+        assertEquals(5, moves.get(1).getWeight());
+        assertEquals(1002, book.getNumberOfEntries());
+    }
+
+    @Test
+    public void testUnknownPositionHasNoMoves() throws IOException, ExcInvalidMove {
+        List<long[]> entries = new ArrayList<>();
+        entries.add(new long[] {computeKey(), encode("e2e4", 0), 1});
+        addOtherEntries(entries, 100);
+        PolyglotBook book = PolyglotBook.open(writeBook(entries), this.keys);
+
+        executeMoves("a2a3");
+
+        assertTrue(book.findMoves(this.chessBoard).isEmpty());
+    }
+
+    @Test
+    public void testCastlingIsDecodedAsKingMove() throws IOException, ExcInvalidMove {
+        executeMoves("e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5");
+        List<long[]> entries = new ArrayList<>();
+        // Polyglot encodes castling as the king moving onto its rook.
+        entries.add(new long[] {computeKey(), encode("e1h1", 0), 1});
+        PolyglotBook book = PolyglotBook.open(writeBook(entries), this.keys);
+
+        BookMove move = book.findMoves(this.chessBoard).get(0);
+
+        assertEquals(new Coordinates(4, 0), move.getSource());
+        assertEquals(new Coordinates(6, 0), move.getTarget());
+    }
+
+    @Test
+    public void testPromotionPiece() throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        entries.add(new long[] {computeKey(), encode("e2e4", 4), 1});
+        PolyglotBook book = PolyglotBook.open(writeBook(entries), this.keys);
+
+        assertEquals(EnumChessPiece.QUEEN, book.findMoves(this.chessBoard).get(0).getPromotionPiece());
+    }
+
+    @Test
+    public void testTranspositionsHaveEqualKeys() throws ExcInvalidMove {
+        executeMoves("e2e4", "d7d5", "g1f3", "g8f6");
+        long key = computeKey();
+
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+        // The en passant square d6 does not count, as no white pawn can capture en passant.
+        executeMoves("g1f3", "g8f6", "e2e4", "d7d5");
+
+        assertEquals(key, computeKey());
+    }
+
+    @Test
+    public void testPossibleEnPassantChangesKey() throws ExcInvalidMove {
+        executeMoves("e2e4", "d7d5", "e4e5", "g8f6");
+        long key = computeKey();
+
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+        executeMoves("e2e4", "g8f6", "e4e5", "d7d5");
+
+        assertNotEquals(key, computeKey());
+    }
+
+    /**
+     * Keys of the Polyglot specification, which every program using Polyglot books computes alike.
+     */
+    @Test
+    public void testKeysOfSpecification() throws ExcInvalidMove {
+        assertEquals(0x463b96181691fc9cL, computeKey());
+        executeMoves("e2e4");
+        assertEquals(0x823c9b50fd114196L, computeKey());
+        executeMoves("d7d5");
+        assertEquals(0x0756b94461c50fb0L, computeKey());
+        executeMoves("e4e5");
+        assertEquals(0x662fafb965db29d4L, computeKey());
+        executeMoves("f7f5");
+        assertEquals(0x22a48b5a8e47ff78L, computeKey());
+        executeMoves("e1e2");
+        assertEquals(0x652a607ca3f242c1L, computeKey());
+        executeMoves("e8f7");
+        assertEquals(0x00fdd303c946bdd9L, computeKey());
+
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+        executeMoves("a2a4", "b7b5", "h2h4", "b5b4", "c2c4");
+        assertEquals(0x3c8123ea7b067637L, computeKey());
+        executeMoves("b4c3", "a1a3");
+        assertEquals(0x5c3f9b829b279560L, computeKey());
+    }
+
+    @Test
+    public void testChessGameFindsMovesOfStandardBook() throws IOException {
+        List<long[]> entries = new ArrayList<>();
+        entries.add(new long[] {0x463b96181691fc9cL, encode("e2e4", 0), 7});
+        addOtherEntries(entries, 100);
+        ChessGame chessGame = new ChessGame();
+        chessGame.startNewGame(null);
+
+        chessGame.openBook(writeBook(entries));
+        List<ExtBookMove> moves = chessGame.findBookMoves();
+
+        assertEquals(1, moves.size());
+        assertEquals(new Coordinates(4, 3), moves.get(0).getTarget());
+        assertEquals(7, moves.get(0).getWeight());
+        assertSame(PolyglotKeys.getInstance(), PolyglotKeys.getInstance());
+    }
+
+    private long computeKey() {
+        this.chessBoard.updateBitBoardState();
+        return this.keys.computeKey(this.chessBoard.getBitBoard());
+    }
+
+    private static long encode(String move, int promotion) {
+        return (move.charAt(2) - 'a') | ((move.charAt(3) - '1') << 3)
+                | ((move.charAt(0) - 'a') << 6) | ((move.charAt(1) - '1') << 9) | (promotion << 12);
+    }
+
+    private static void addOtherEntries(List<long[]> entries, int numberOfEntries) {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < numberOfEntries; i++) {
+            entries.add(new long[] {random.nextLong(), random.nextInt(1 << 12), 1 + random.nextInt(100)});
+        }
+    }
+
+    /**
+     * Writes the given entries (key, move, weight) sorted by their unsigned key, as Polyglot books are.
+     */
+    private Path writeBook(List<long[]> entries) throws IOException {
+        entries.sort((first, second) -> Long.compareUnsigned(first[0], second[0]));
+        ByteBuffer buffer = ByteBuffer.allocate(entries.size() * PolyglotBook.ENTRY_SIZE);
+        for (long[] entry : entries) {
+            buffer.putLong(entry[0]).putShort((short) entry[1]).putShort((short) entry[2]).putInt(0);
+        }
+        Path file = this.directory.resolve("book.bin");
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    private void executeMoves(String... moves) throws ExcInvalidMove {
+        for (String move : moves) {
+            this.chessBoard.executeMove(
+                    new Coordinates(move.charAt(0) - 'a', move.charAt(1) - '1'),
+                    new Coordinates(move.charAt(2) - 'a', move.charAt(3) - '1'));
+        }
+    }
+
+}
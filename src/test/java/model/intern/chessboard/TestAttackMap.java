@@ -0,0 +1,101 @@
+package model.intern.chessboard;
+
+import model.common.EnumChessColor;
+import model.intern.chesspieces.Pawn;
+import model.intern.chesspieces.Queen;
+import model.intern.chesspieces.Rook;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAttackMap {
+
+    private ChessBoard chessBoard;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+    }
+
+    @Test
+    public void testBlockedRayIsUpdated() {
+        this.chessBoard.getField(0, 0).setPiece(new Rook(EnumChessColor.WHITE));
+        AttackMap attackMap = this.chessBoard.getAttackMap();
+        assertEquals(1L, attackMap.getAttackers(BitBoard.toSquare(0, 7), EnumChessColor.WHITE));
+
+        this.chessBoard.getField(0, 3).setPiece(new Pawn(EnumChessColor.BLACK));
+        assertFalse(attackMap.isAttacked(BitBoard.toSquare(0, 7), EnumChessColor.WHITE));
+        assertTrue(attackMap.isAttacked(BitBoard.toSquare(0, 3), EnumChessColor.WHITE));
+        // Black pawn attacks diagonally downwards.
+        assertTrue(attackMap.isAttacked(BitBoard.toSquare(1, 2), EnumChessColor.BLACK));
+
+        this.chessBoard.getField(0, 3).removePiece();
+        assertTrue(attackMap.isAttacked(BitBoard.toSquare(0, 7), EnumChessColor.WHITE));
+        assertFalse(attackMap.isAttacked(BitBoard.toSquare(1, 2), EnumChessColor.BLACK));
+    }
+
+    @Test
+    public void testReplacedPieceChangesAttacks() {
+        ChessField field = this.chessBoard.getField(3, 3);
+        field.setPiece(new Pawn(EnumChessColor.WHITE));
+        field.setPiece(new Queen(EnumChessColor.BLACK));
+
+        AttackMap attackMap = this.chessBoard.getAttackMap();
+        assertFalse(attackMap.isAttacked(BitBoard.toSquare(4, 4), EnumChessColor.WHITE));
+        assertTrue(attackMap.isAttacked(BitBoard.toSquare(7, 7), EnumChessColor.BLACK));
+        assertTrue(attackMap.isAttacked(BitBoard.toSquare(3, 0), EnumChessColor.BLACK));
+    }
+
+    /**
+     * Plays random games and compares the incrementally updated attack maps
+     * with attackers computed from scratch after every executed and reverted move.
+     */
+    @Test
+    public void testAttackMapMatchesComputedAttackers() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int game = 0; game < 20; game++) {
+            this.chessBoard = new ChessBoard();
+            this.chessBoard.initChessPieces();
+            for (int ply = 0; ply < 80; ply++) {
+                BitBoard bitBoard = this.chessBoard.getBitBoard();
+                int numberOfMoves = MoveGenerator.generateMoves(bitBoard, bitBoard.getActiveColor(), moves);
+                if (numberOfMoves == 0) {
+                    break;
+                }
+                int move = moves[random.nextInt(numberOfMoves)];
+                executeMove(move);
+                assertAttackMapIsConsistent();
+                if (random.nextInt(4) == 0) {
+                    this.chessBoard.revertLastMove();
+                    assertAttackMapIsConsistent();
+                }
+            }
+        }
+    }
+
+    private void executeMove(int move) {
+        try {
+            this.chessBoard.executeMove(BitBoard.toCoordinates(MoveEncoding.getFrom(move)),
+                    BitBoard.toCoordinates(MoveEncoding.getTo(move)), MoveEncoding.getPromotionPiece(move));
+        } catch (ExcInvalidMove e) {
+            fail(e);
+        }
+    }
+
+    private void assertAttackMapIsConsistent() {
+        BitBoard bitBoard = this.chessBoard.getBitBoard();
+        for (EnumChessColor color : EnumChessColor.values()) {
+            for (int square = 0; square < BitBoard.NUMBER_OF_SQUARES; square++) {
+                assertEquals(bitBoard.findAttackers(square, color), this.chessBoard.getAttackMap().getAttackers(square, color));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package model.intern.chessboard;
+
+import model.common.Coordinates;
+import model.common.EnumChessColor;
+import model.common.EnumKingThreat;
+import model.intern.exceptions.ExcInvalidFen;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFen {
+
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private ChessBoard chessBoard;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+    }
+
+    @Test
+    public void testStartingPosition() throws ExcInvalidFen {
+        ChessBoard startingBoard = new ChessBoard();
+        startingBoard.initChessPieces();
+        assertEquals(START_FEN, startingBoard.toFen());
+
+        this.chessBoard.loadFen(START_FEN);
+
+        assertEquals(startingBoard.toString(), this.chessBoard.toString());
+        assertEquals(startingBoard.getZobristKey(), this.chessBoard.getZobristKey());
+        assertEquals(START_FEN, this.chessBoard.toFen());
+    }
+
+    @Test
+    public void testPlayedAndLoadedPositionsAreEqual() throws ExcInvalidMove, ExcInvalidFen {
+        ChessBoard playedBoard = new ChessBoard();
+        playedBoard.initChessPieces();
+        playedBoard.executeMove(new Coordinates(4, 1), new Coordinates(4, 3));
+        String fen = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+        assertEquals(fen, playedBoard.toFen());
+
+        this.chessBoard.loadFen(fen);
+
+        assertEquals(playedBoard.getZobristKey(), this.chessBoard.getZobristKey());
+        assertEquals(EnumChessColor.BLACK, this.chessBoard.getActiveColor());
+        assertEquals(fen, this.chessBoard.toFen());
+        assertEquals(this.chessBoard.getBitBoard().computeZobristKey(), this.chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void testLoadedPositionIsPlayable() throws ExcInvalidFen {
+        this.chessBoard.loadFen(KIWIPETE);
+
+        assertEquals(KIWIPETE, this.chessBoard.toFen());
+        assertEquals(97862, new Perft(this.chessBoard).perft(3, EnumPerftGenerator.BIT_BOARD));
+        assertEquals(2039, new Perft(this.chessBoard).perft(2, EnumPerftGenerator.CHESS_BOARD));
+    }
+
+    @Test
+    public void testCastlingRightsAreKeptByMoveCounts() throws ExcInvalidFen, ExcInvalidMove {
+        this.chessBoard.loadFen("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1");
+
+        assertThrows(ExcInvalidMove.class, () -> this.chessBoard.executeMove(new Coordinates(4, 0), new Coordinates(2, 0)));
+        this.chessBoard.executeMove(new Coordinates(4, 0), new Coordinates(6, 0));
+        assertEquals("r3k2r/8/8/8/8/8/8/R4RK1 b q - 1 1", this.chessBoard.toFen());
+    }
+
+    @Test
+    public void testEnPassantSquare() throws ExcInvalidFen, ExcInvalidMove {
+        this.chessBoard.loadFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1");
+
+        this.chessBoard.executeMove(new Coordinates(4, 4), new Coordinates(3, 5));
+
+        assertEquals("4k3/8/3P4/8/8/8/8/4K3 b - - 0 1", this.chessBoard.toFen());
+        this.chessBoard.revertLastMove();
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", this.chessBoard.toFen());
+    }
+
+    @Test
+    public void testMoveCounters() throws ExcInvalidFen, ExcInvalidMove {
+        this.chessBoard.loadFen("4k3/4p3/8/8/8/8/8/4K3 b - - 10 20");
+
+        this.chessBoard.executeMove(new Coordinates(4, 7), new Coordinates(3, 7));
+        assertTrue(this.chessBoard.toFen().endsWith(" w - - 11 21"));
+        this.chessBoard.executeMove(new Coordinates(4, 0), new Coordinates(3, 0));
+        assertTrue(this.chessBoard.toFen().endsWith(" b - - 12 21"));
+        this.chessBoard.executeMove(new Coordinates(4, 6), new Coordinates(4, 4));
+        assertTrue(this.chessBoard.toFen().endsWith(" w - e6 0 22"));
+    }
+
+    @Test
+    public void testCheckIsDetected() throws ExcInvalidFen {
+        this.chessBoard.loadFen("4k3/8/8/8/8/8/8/R3K2r w - - 0 1");
+        assertEquals(EnumKingThreat.CHECK, this.chessBoard.getKingThreat());
+
+        this.chessBoard.loadFen("R3k3/8/4K3/8/8/8/8/8 b - - 0 1");
+        assertEquals(EnumKingThreat.CHECKMATE, this.chessBoard.getKingThreat());
+    }
+
+    @Test
+    public void testLoadingDoesNotNotifyFields() throws ExcInvalidFen {
+        this.chessBoard.initChessPieces();
+        AtomicInteger notifications = new AtomicInteger();
+        this.chessBoard.addObserver((observable, argument) -> notifications.incrementAndGet());
+
+        this.chessBoard.loadFen(KIWIPETE);
+
+        assertEquals(0, notifications.get());
+        assertNull(this.chessBoard.getField(3, 0).getPiece());
+        assertFalse(this.chessBoard.getField(3, 1).getPiece().hasMoved());
+    }
+
+    @Test
+    public void testInvalidFenDoesNotChangeBoard() throws ExcInvalidFen {
+        this.chessBoard.loadFen(KIWIPETE);
+
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1"));
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"));
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQQBNR w KQkq - 0 1"));
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1"));
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KX - 0 1"));
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1"));
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0"));
+
+        assertEquals(KIWIPETE, this.chessBoard.toFen());
+    }
+
+    @Test
+    public void testEnPassantSquareNeedsDoubleStep() throws ExcInvalidFen {
+        this.chessBoard.loadFen(KIWIPETE);
+
+        // No black pawn on e5, which could have made a double step.
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("4k3/8/8/3PN3/8/8/8/4K3 w - e6 0 1"));
+        // The square e7, from which the pawn would have come, is occupied.
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("4k3/4p3/8/3Pp3/8/8/8/4K3 w - e6 0 1"));
+        assertThrows(ExcInvalidFen.class, () -> this.chessBoard.loadFen("4k3/8/8/8/3Np3/8/8/4K3 b - d3 0 1"));
+
+        assertEquals(KIWIPETE, this.chessBoard.toFen());
+    }
+
+    @Test
+    public void testLoadingThroughput() throws ExcInvalidFen {
+        String[] fens = {START_FEN, KIWIPETE, "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"};
+        int numberOfLoads = 200_000;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < numberOfLoads; i++) {
+            this.chessBoard.loadFen(fens[i % fens.length]);
+        }
+        long nanoseconds = System.nanoTime() - start;
+
+        assertEquals(fens[(numberOfLoads - 1) % fens.length], this.chessBoard.toFen());
+        long loadsPerSecond = numberOfLoads * 1_000_000_000L / nanoseconds;
+        // Hundreds of thousands per second are expected, the floor leaves room for slow machines.
+        assertTrue(loadsPerSecond > 20_000, loadsPerSecond + " FENs/s");
+    }
+
+}
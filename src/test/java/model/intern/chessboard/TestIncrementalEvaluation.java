@@ -0,0 +1,102 @@
+package model.intern.chessboard;
+
+import model.common.Coordinates;
+import model.common.EnumChessPiece;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestIncrementalEvaluation {
+
+    private ChessBoard chessBoard;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+    }
+
+    @Test
+    public void testStartingPositionIsBalanced() {
+        BitBoard bitBoard = this.chessBoard.getBitBoard();
+        assertEquals(0, bitBoard.getMaterial());
+        assertEquals(0, bitBoard.getMiddlegameScore());
+        assertEquals(0, bitBoard.getEndgameScore());
+        assertEquals(PieceSquareTables.MAX_PHASE, bitBoard.getPhase());
+    }
+
+    @Test
+    public void testCaptureAndPromotionChangeMaterial() throws ExcInvalidMove {
+        executeMoves("e2e4", "d7d5", "e4d5");
+        assertEquals(100, this.chessBoard.getBitBoard().getMaterial());
+
+        executeMoves("c7c6", "d5c6", "g8f6", "c6b7", "f6e4");
+        int phaseBeforePromotion = this.chessBoard.getBitBoard().getPhase();
+        this.chessBoard.executeMove(new Coordinates(1, 6), new Coordinates(0, 7), EnumChessPiece.QUEEN);
+
+        // Three pawns and a rook captured, and a pawn turned into a queen.
+        assertEquals(300 + 500 + 800, this.chessBoard.getBitBoard().getMaterial());
+        assertEquals(phaseBeforePromotion - 2 + 4, this.chessBoard.getBitBoard().getPhase());
+        assertScoresMatchComputedScores(this.chessBoard.getBitBoard());
+
+        this.chessBoard.revertLastMove();
+        assertEquals(300, this.chessBoard.getBitBoard().getMaterial());
+        assertEquals(phaseBeforePromotion, this.chessBoard.getBitBoard().getPhase());
+        assertScoresMatchComputedScores(this.chessBoard.getBitBoard());
+    }
+
+    @Test
+    public void testMakeAndUnmakeKeepScoresConsistent() {
+        Random random = new Random(42);
+        int[][] moves = new int[BitBoard.MAX_PLY][MoveGenerator.MAX_MOVES];
+        for (int game = 0; game < 20; game++) {
+            BitBoard bitBoard = new BitBoard(this.chessBoard.getBitBoard());
+            int[] playedMoves = new int[100];
+            int ply = 0;
+            while (ply < playedMoves.length) {
+                int numberOfMoves = MoveGenerator.generateMoves(bitBoard, bitBoard.getActiveColor(), moves[ply]);
+                if (numberOfMoves == 0) {
+                    break;
+                }
+                playedMoves[ply] = moves[ply][random.nextInt(numberOfMoves)];
+                bitBoard.makeMove(playedMoves[ply++]);
+                assertScoresMatchComputedScores(bitBoard);
+            }
+            while (ply > 0) {
+                bitBoard.unmakeMove(playedMoves[--ply]);
+            }
+            assertEquals(0, bitBoard.getMiddlegameScore());
+            assertEquals(PieceSquareTables.MAX_PHASE, bitBoard.getPhase());
+        }
+    }
+
+    /**
+     * Rebuilds the bitboard piece by piece and compares its scores with the incrementally updated ones.
+     */
+    private static void assertScoresMatchComputedScores(BitBoard bitBoard) {
+        BitBoard computed = new BitBoard();
+        for (int square = 0; square < BitBoard.NUMBER_OF_SQUARES; square++) {
+            if (bitBoard.getPieceType(square) != null) {
+                computed.putPiece(square, bitBoard.getColor(square), bitBoard.getPieceType(square));
+            }
+        }
+        assertEquals(computed.getMaterial(), bitBoard.getMaterial());
+        assertEquals(computed.getMiddlegameScore(), bitBoard.getMiddlegameScore());
+        assertEquals(computed.getEndgameScore(), bitBoard.getEndgameScore());
+        assertEquals(computed.getPhase(), bitBoard.getPhase());
+    }
+
+    private void executeMoves(String... moves) throws ExcInvalidMove {
+        for (String move : moves) {
+            this.chessBoard.executeMove(
+                    new Coordinates(move.charAt(0) - 'a', move.charAt(1) - '1'),
+                    new Coordinates(move.charAt(2) - 'a', move.charAt(3) - '1'));
+        }
+    }
+
+}
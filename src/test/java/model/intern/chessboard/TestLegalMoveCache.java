@@ -0,0 +1,66 @@
+package model.intern.chessboard;
+
+import model.common.Coordinates;
+import model.common.EnumChessColor;
+import model.intern.chesspieces.Rook;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLegalMoveCache {
+
+    private ChessBoard chessBoard;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+    }
+
+    @Test
+    public void testRepeatedCallsAreCacheHits() {
+        List<Coordinates> first = this.chessBoard.getField(6, 0).findPossibleNewFields();
+        List<Coordinates> second = this.chessBoard.getField(6, 0).findPossibleNewFields();
+        List<Coordinates> otherPiece = this.chessBoard.getField(4, 1).findPossibleNewFields();
+
+        assertSame(first, second);
+        assertEquals(2, otherPiece.size());
+        assertEquals(1, this.chessBoard.getLegalMoveCacheMisses());
+        assertEquals(2, this.chessBoard.getLegalMoveCacheHits());
+    }
+
+    @Test
+    public void testColorsAreCachedSeparately() {
+        assertEquals(2, this.chessBoard.getField(1, 0).findPossibleNewFields().size());
+        assertEquals(2, this.chessBoard.getField(1, 7).findPossibleNewFields().size());
+
+        assertEquals(2, this.chessBoard.getLegalMoveCacheMisses());
+    }
+
+    @Test
+    public void testExecuteAndRevertInvalidateCache() throws ExcInvalidMove {
+        this.chessBoard.getField(4, 1).findPossibleNewFields();
+
+        this.chessBoard.executeMove(new Coordinates(4, 1), new Coordinates(4, 3));
+        assertEquals(5, this.chessBoard.getField(5, 0).findPossibleNewFields().size());
+
+        this.chessBoard.revertLastMove();
+        assertTrue(this.chessBoard.getField(5, 0).findPossibleNewFields().isEmpty());
+        assertEquals(3, this.chessBoard.getLegalMoveCacheMisses());
+    }
+
+    @Test
+    public void testChangedFieldInvalidatesCache() {
+        assertTrue(this.chessBoard.getField(0, 0).findPossibleNewFields().isEmpty());
+
+        this.chessBoard.getField(0, 1).removePiece();
+        this.chessBoard.getField(0, 6).setPiece(new Rook(EnumChessColor.WHITE));
+
+        assertEquals(5, this.chessBoard.getField(0, 0).findPossibleNewFields().size());
+    }
+
+}
@@ -0,0 +1,116 @@
+package model.intern.chessboard;
+
+import model.common.Coordinates;
+import model.common.EnumChessColor;
+import model.intern.chesspieces.*;
+import model.intern.exceptions.ExcInvalidMove;
+import model.intern.exceptions.ExcKingChecked;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLegalMoves {
+
+    private ChessBoard chessBoard;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+    }
+
+    @Test
+    public void testPinnedRookMovesOnlyAlongPinRay() {
+        this.chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        ChessField fieldRook = this.chessBoard.getField(4, 2);
+        fieldRook.setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 5).setPiece(new Queen(EnumChessColor.BLACK));
+
+        List<Coordinates> possibleNewFields = fieldRook.findPossibleNewFields();
+
+        List<Coordinates> expectedList = new ArrayList<>();
+        expectedList.add(new Coordinates(4, 1));
+        expectedList.add(new Coordinates(4, 3));
+        expectedList.add(new Coordinates(4, 4));
+        expectedList.add(new Coordinates(4, 5));
+
+        Assertions.assertEquals(expectedList.size(), possibleNewFields.size());
+        assertThat(possibleNewFields, containsInAnyOrder(expectedList.toArray()));
+    }
+
+    @Test
+    public void testCheckedKingOnlyAllowsBlockingMoves() {
+        this.chessBoard.getField(0, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(0, 1).setPiece(new Pawn(EnumChessColor.WHITE));
+        this.chessBoard.getField(1, 1).setPiece(new Pawn(EnumChessColor.WHITE));
+        ChessField fieldKnight = this.chessBoard.getField(1, 2);
+        fieldKnight.setPiece(new Knight(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 0).setPiece(new Rook(EnumChessColor.BLACK));
+
+        List<Coordinates> possibleNewFields = fieldKnight.findPossibleNewFields();
+
+        // The knight reaches several fields, but only (2,0) blocks the check of the rook.
+        Assertions.assertEquals(1, possibleNewFields.size());
+        Assertions.assertEquals(new Coordinates(2, 0), possibleNewFields.get(0));
+    }
+
+    @Test
+    public void testIllegalMoveDoesNotTouchTheBoard() {
+        this.chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        ChessField fieldBishop = this.chessBoard.getField(4, 1);
+        Bishop bishop = new Bishop(EnumChessColor.WHITE);
+        fieldBishop.setPiece(bishop);
+        this.chessBoard.getField(4, 7).setPiece(new Rook(EnumChessColor.BLACK));
+        this.chessBoard.getField(0, 7).setPiece(new King(EnumChessColor.BLACK));
+        List<Object> notifications = new ArrayList<>();
+        this.chessBoard.addObserver((observable, arg) -> notifications.add(arg));
+
+        assertThrows(ExcKingChecked.class,
+                () -> this.chessBoard.executeMove(new Coordinates(4, 1), new Coordinates(5, 2)));
+
+        assertEquals(bishop, fieldBishop.getPiece());
+        assertTrue(notifications.isEmpty());
+    }
+
+    @Test
+    public void testEnPassantCapturesAndRevertRestoresThePawn() throws ExcInvalidMove {
+        this.chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 7).setPiece(new King(EnumChessColor.BLACK));
+        this.chessBoard.getField(4, 4).setPiece(new Pawn(EnumChessColor.WHITE));
+        this.chessBoard.getField(0, 1).setPiece(new Pawn(EnumChessColor.WHITE));
+        ChessPiece pawnBlack = new Pawn(EnumChessColor.BLACK);
+        this.chessBoard.getField(3, 6).setPiece(pawnBlack);
+
+        this.chessBoard.executeMove(new Coordinates(0, 1), new Coordinates(0, 2));
+        this.chessBoard.executeMove(new Coordinates(3, 6), new Coordinates(3, 4));
+        this.chessBoard.executeMove(new Coordinates(4, 4), new Coordinates(3, 5));
+
+        assertNull(this.chessBoard.getField(3, 4).getPiece());
+        assertTrue(this.chessBoard.getField(3, 5).getPiece() instanceof Pawn);
+
+        this.chessBoard.revertLastMove();
+
+        assertEquals(pawnBlack, this.chessBoard.getField(3, 4).getPiece());
+        assertNull(this.chessBoard.getField(3, 5).getPiece());
+    }
+
+    @Test
+    public void testOnlyActiveColorCapturesEnPassant() throws ExcInvalidMove {
+        this.chessBoard.initChessPieces();
+
+        this.chessBoard.executeMove(new Coordinates(4, 1), new Coordinates(4, 3));
+
+        // The white pawns next to e2 do not capture their own pawn on e3.
+        assertThat(this.chessBoard.getField(3, 1).findPossibleNewFields(),
+                containsInAnyOrder(new Coordinates(3, 2), new Coordinates(3, 3)));
+        assertThat(this.chessBoard.getField(5, 1).findPossibleNewFields(),
+                containsInAnyOrder(new Coordinates(5, 2), new Coordinates(5, 3)));
+    }
+
+}
@@ -0,0 +1,205 @@
+package model.intern.chessboard;
+
+import model.common.EnumChessColor;
+import model.intern.chesspieces.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Node counts of the standard perft reference positions (see chessprogramming.org, "Perft Results").
+ * All reference positions have white to move and no en passant square.
+ */
+public class TestPerft {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8";
+    private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1";
+    private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R";
+    private static final String POSITION_6 = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1";
+
+    private ChessBoard chessBoard;
+    private Perft perft;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+        this.perft = new Perft(this.chessBoard);
+    }
+
+    @Nested
+    class BitBoardGenerator {
+
+        @Test
+        public void testStartingPosition() {
+            chessBoard.initChessPieces();
+            assertPerft(EnumPerftGenerator.BIT_BOARD, 20, 400, 8902, 197281, 4865609);
+        }
+
+        @Test
+        public void testKiwipete() {
+            setPosition(KIWIPETE, "KQkq");
+            assertPerft(EnumPerftGenerator.BIT_BOARD, 48, 2039, 97862, 4085603);
+        }
+
+        @Test
+        public void testPosition3() {
+            setPosition(POSITION_3, "-");
+            assertPerft(EnumPerftGenerator.BIT_BOARD, 14, 191, 2812, 43238, 674624);
+        }
+
+        @Test
+        public void testPosition4() {
+            setPosition(POSITION_4, "kq");
+            assertPerft(EnumPerftGenerator.BIT_BOARD, 6, 264, 9467, 422333);
+        }
+
+        @Test
+        public void testPosition5() {
+            setPosition(POSITION_5, "KQ");
+            assertPerft(EnumPerftGenerator.BIT_BOARD, 44, 1486, 62379, 2103487);
+        }
+
+        @Test
+        public void testPosition6() {
+            setPosition(POSITION_6, "-");
+            assertPerft(EnumPerftGenerator.BIT_BOARD, 46, 2079, 89890, 3894594);
+        }
+
+    }
+
+    @Nested
+    class ChessBoardGenerator {
+
+        @Test
+        public void testStartingPosition() {
+            chessBoard.initChessPieces();
+            assertPerft(EnumPerftGenerator.CHESS_BOARD, 20, 400, 8902);
+        }
+
+        @Test
+        public void testKiwipete() {
+            setPosition(KIWIPETE, "KQkq");
+            assertPerft(EnumPerftGenerator.CHESS_BOARD, 48, 2039);
+        }
+
+        @Test
+        public void testPosition3() {
+            setPosition(POSITION_3, "-");
+            assertPerft(EnumPerftGenerator.CHESS_BOARD, 14, 191, 2812);
+        }
+
+        @Test
+        public void testPosition4() {
+            setPosition(POSITION_4, "kq");
+            assertPerft(EnumPerftGenerator.CHESS_BOARD, 6, 264);
+        }
+
+        @Test
+        public void testPosition5() {
+            setPosition(POSITION_5, "KQ");
+            assertPerft(EnumPerftGenerator.CHESS_BOARD, 44, 1486);
+        }
+
+        @Test
+        public void testBoardIsUnchangedAfterPerft() {
+            setPosition(KIWIPETE, "KQkq");
+            String positionBefore = chessBoard.toString();
+
+            perft.perft(2);
+
+            assertEquals(positionBefore, chessBoard.toString());
+            assertEquals(EnumChessColor.WHITE, chessBoard.getActiveColor());
+            assertNull(chessBoard.getLastMove());
+        }
+
+    }
+
+    @Test
+    public void testDivideMatchesPerft() {
+        setPosition(KIWIPETE, "KQkq");
+
+        Map<String, Long> divideChessBoard = this.perft.divide(2);
+        Map<String, Long> divideBitBoard = this.perft.divide(2, EnumPerftGenerator.BIT_BOARD);
+
+        assertEquals(48, divideChessBoard.size());
+        assertEquals(divideChessBoard, divideBitBoard);
+        assertEquals(2039, divideChessBoard.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(43, divideChessBoard.get("e1g1"));
+    }
+
+    @Test
+    public void testMeasureReportsNodesPerSecond() {
+        this.chessBoard.initChessPieces();
+
+        PerftResult result = this.perft.measure(4, EnumPerftGenerator.BIT_BOARD);
+
+        assertEquals(197281, result.getNodes());
+        assertTrue(result.getNanoseconds() > 0);
+        assertEquals(197281 * 1_000_000_000L / result.getNanoseconds(), result.getNodesPerSecond());
+        // Far below the speed of the bitboard generator, even on a slow machine.
+        assertTrue(result.getNodesPerSecond() > 100_000, result.toString());
+    }
+
+    private void assertPerft(EnumPerftGenerator generator, long... expectedNodes) {
+        for (int depth = 1; depth <= expectedNodes.length; depth++) {
+            assertEquals(expectedNodes[depth - 1], this.perft.perft(depth, generator), "Perft of depth " + depth);
+        }
+    }
+
+    /**
+     * Sets the pieces of the given piece placement (first part of a FEN string) with white to move.
+     * Kings and rooks on their starting fields without the given castling rights are marked as moved.
+     */
+    private void setPosition(String piecePlacement, String castlingRights) {
+        String[] ranks = piecePlacement.split("/");
+        for (int i = 0; i < ranks.length; i++) {
+            int y = 7 - i;
+            int x = 0;
+            for (char symbol : ranks[i].toCharArray()) {
+                if (Character.isDigit(symbol)) {
+                    x += symbol - '0';
+                } else {
+                    this.chessBoard.getField(x, y).setPiece(createPiece(symbol));
+                    x++;
+                }
+            }
+        }
+        markAsMovedWithoutCastlingRight(7, 0, castlingRights.contains("K"));
+        markAsMovedWithoutCastlingRight(0, 0, castlingRights.contains("Q"));
+        markAsMovedWithoutCastlingRight(4, 0, castlingRights.contains("K") || castlingRights.contains("Q"));
+        markAsMovedWithoutCastlingRight(7, 7, castlingRights.contains("k"));
+        markAsMovedWithoutCastlingRight(0, 7, castlingRights.contains("q"));
+        markAsMovedWithoutCastlingRight(4, 7, castlingRights.contains("k") || castlingRights.contains("q"));
+    }
+
+    private void markAsMovedWithoutCastlingRight(int x, int y, boolean castlingRight) {
+        ChessPiece piece = this.chessBoard.getField(x, y).getPiece();
+        if (piece != null && !castlingRight) {
+            piece.registerExecutedMove();
+        }
+    }
+
+    private static ChessPiece createPiece(char symbol) {
+        EnumChessColor color = Character.isUpperCase(symbol) ? EnumChessColor.WHITE : EnumChessColor.BLACK;
+        switch (Character.toLowerCase(symbol)) {
+            case 'p':
+                return new Pawn(color);
+            case 'n':
+                return new Knight(color);
+            case 'b':
+                return new Bishop(color);
+            case 'r':
+                return new Rook(color);
+            case 'q':
+                return new Queen(color);
+            default:
+                return new King(color);
+        }
+    }
+
+}
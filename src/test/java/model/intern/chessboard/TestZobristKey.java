@@ -0,0 +1,140 @@
+package model.intern.chessboard;
+
+import model.common.Coordinates;
+import model.common.EnumChessColor;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidFen;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestZobristKey {
+
+    private ChessBoard chessBoard;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+    }
+
+    @Test
+    public void testRevertedMoveRestoresKey() throws ExcInvalidMove {
+        long keyBefore = this.chessBoard.getZobristKey();
+
+        executeMoves("e2e4");
+        assertNotEquals(keyBefore, this.chessBoard.getZobristKey());
+
+        this.chessBoard.revertLastMove();
+        assertEquals(keyBefore, this.chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void testTranspositionsHaveEqualKeys() throws ExcInvalidMove {
+        executeMoves("e2e4", "e7e5", "g1f3", "b8c6");
+        long key = this.chessBoard.getZobristKey();
+
+        ChessBoard otherChessBoard = new ChessBoard();
+        otherChessBoard.initChessPieces();
+        this.chessBoard = otherChessBoard;
+        executeMoves("g1f3", "e7e5", "e2e4", "b8c6");
+
+        assertEquals(key, this.chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void testEnPassantSquareOnlyChangesKeyIfCapturable() throws ExcInvalidFen {
+        // The white pawn on e5 can capture en passant on d6.
+        this.chessBoard.loadFen("rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3");
+        long keyWithCapture = this.chessBoard.getZobristKey();
+        this.chessBoard.loadFen("rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3");
+        assertNotEquals(keyWithCapture, this.chessBoard.getZobristKey());
+
+        // No black pawn is next to the pawn on e4.
+        this.chessBoard.loadFen("rnbqkbnr/pppp1ppp/4p3/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 2");
+        long keyWithoutCapture = this.chessBoard.getZobristKey();
+        assertEquals(this.chessBoard.getBitBoard().computeZobristKey(), keyWithoutCapture);
+        this.chessBoard.loadFen("rnbqkbnr/pppp1ppp/4p3/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2");
+        assertEquals(keyWithoutCapture, this.chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void testLostCastlingRightsChangeKey() throws ExcInvalidMove {
+        executeMoves("e2e4", "e7e5");
+        long keyWithCastlingRights = this.chessBoard.getZobristKey();
+
+        executeMoves("e1e2", "e8e7", "e2e1", "e7e8");
+
+        // Same pieces on the same fields, but the kings have moved.
+        assertNotEquals(keyWithCastlingRights, this.chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void testActiveColorChangesKey() throws ExcInvalidMove {
+        long keyStart = this.chessBoard.getZobristKey();
+        BitBoard bitBoard = new BitBoard(this.chessBoard.getBitBoard());
+
+        bitBoard.setActiveColor(EnumChessColor.BLACK);
+        assertNotEquals(keyStart, bitBoard.getZobristKey());
+
+        executeMoves("g1f3", "g8f6", "f3g1", "f6g8");
+        assertEquals(keyStart, this.chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void testIncrementalKeyMatchesComputedKey() throws ExcInvalidMove {
+        executeMoves("e2e4", "d7d5", "e4e5", "f7f5");
+        // En passant is possible on f6.
+        assertEquals(this.chessBoard.getBitBoard().computeZobristKey(), this.chessBoard.getZobristKey());
+
+        executeMoves("e5f6", "g8f6", "f1c4", "c8e6", "g1f3", "b8c6", "e1g1");
+        assertEquals(this.chessBoard.getBitBoard().computeZobristKey(), this.chessBoard.getZobristKey());
+    }
+
+    @Test
+    public void testMakeMoveUpdatesKeyLikeExecuteMove() throws ExcInvalidMove {
+        executeMoves("e2e4", "d7d5", "e4e5", "f7f5", "g1f3", "g8f6", "f1c4", "c8e6");
+        BitBoard bitBoard = new BitBoard(this.chessBoard.getBitBoard());
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int numberOfMoves = MoveGenerator.generateMoves(bitBoard, bitBoard.getActiveColor(), moves);
+
+        for (int i = 0; i < numberOfMoves; i++) {
+            long keyBefore = bitBoard.getZobristKey();
+            bitBoard.makeMove(moves[i]);
+            executeMoves(MoveEncoding.toString(moves[i]));
+
+            assertEquals(this.chessBoard.getZobristKey(), bitBoard.getZobristKey(), MoveEncoding.toString(moves[i]));
+            assertEquals(bitBoard.computeZobristKey(), bitBoard.getZobristKey());
+
+            bitBoard.unmakeMove(moves[i]);
+            this.chessBoard.revertLastMove();
+            assertEquals(keyBefore, bitBoard.getZobristKey());
+        }
+    }
+
+    @Test
+    public void testRemovedPieceUpdatesCastlingRights() throws ExcInvalidFen {
+        this.chessBoard.getField(7, 0).removePiece();
+        long key = this.chessBoard.getZobristKey();
+
+        // Reading the key does not change the board: it has been kept in sync by removing the rook.
+        assertEquals(this.chessBoard.getBitBoard().computeZobristKey(), key);
+        assertEquals(BitBoard.CASTLING_WHITE_QUEEN_SIDE | BitBoard.CASTLING_BLACK_KING_SIDE | BitBoard.CASTLING_BLACK_QUEEN_SIDE,
+                this.chessBoard.getBitBoard().getCastlingRights());
+        ChessBoard otherChessBoard = new ChessBoard();
+        otherChessBoard.loadFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN1 w Qkq - 0 1");
+        assertEquals(otherChessBoard.getZobristKey(), key);
+    }
+
+    private void executeMoves(String... moves) throws ExcInvalidMove {
+        for (String move : moves) {
+            this.chessBoard.executeMove(
+                    new Coordinates(move.charAt(0) - 'a', move.charAt(1) - '1'),
+                    new Coordinates(move.charAt(2) - 'a', move.charAt(3) - '1'));
+        }
+    }
+
+}
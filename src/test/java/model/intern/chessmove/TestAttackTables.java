@@ -0,0 +1,73 @@
+package model.intern.chessmove;
+
+import model.common.EnumChessColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestAttackTables {
+
+    @Test
+    public void testSlidingAttacksMatchWalkingThePaths() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            long occupancy = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                assertEquals(walk(square, occupancy, new int[][]{{0, 1}, {0, -1}, {1, 0}, {-1, 0}}),
+                        AttackTables.linearAttacks(square, occupancy));
+                assertEquals(walk(square, occupancy, new int[][]{{1, 1}, {-1, 1}, {1, -1}, {-1, -1}}),
+                        AttackTables.diagonalAttacks(square, occupancy));
+            }
+        }
+    }
+
+    @Test
+    public void testKnightAttacksInCorner() {
+        // Knight on (0,0) reaches (1,2) and (2,1)
+        assertEquals((1L << 17) | (1L << 10), AttackTables.knightAttacks(0));
+    }
+
+    @Test
+    public void testPawnAttacksAtBorder() {
+        // White pawn on (0,1) only attacks (1,2), black pawn on (7,6) only attacks (6,5)
+        assertEquals(1L << 17, AttackTables.pawnAttacks(8, EnumChessColor.WHITE));
+        assertEquals(1L << 46, AttackTables.pawnAttacks(55, EnumChessColor.BLACK));
+    }
+
+    @Test
+    public void testBetween() {
+        // Between (0,0) and (3,3) are (1,1) and (2,2)
+        assertEquals((1L << 9) | (1L << 18), AttackTables.between(0, 27));
+        assertEquals((1L << 9) | (1L << 18), AttackTables.between(27, 0));
+        // (0,0) and (1,2) are not on a common line
+        assertEquals(0L, AttackTables.between(0, 17));
+    }
+
+    @Test
+    public void testLine() {
+        // The line through (1,0) and (1,5) is the whole column x = 1
+        assertEquals(0x0202020202020202L, AttackTables.line(1, 41));
+        assertEquals(0L, AttackTables.line(0, 17));
+    }
+
+    private static long walk(int square, long occupancy, int[][] directions) {
+        long result = 0L;
+        for (int[] direction : directions) {
+            int x = (square & 7) + direction[0];
+            int y = (square >>> 3) + direction[1];
+            while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+                long bit = 1L << (y * 8 + x);
+                result |= bit;
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+                x += direction[0];
+                y += direction[1];
+            }
+        }
+        return result;
+    }
+
+}
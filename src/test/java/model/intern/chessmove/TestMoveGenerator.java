@@ -0,0 +1,119 @@
+package model.intern.chessmove;
+
+import model.common.EnumChessColor;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chesspieces.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static model.intern.chessmove.MoveEncoding.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMoveGenerator {
+
+    private ChessBoard chessBoard;
+    private int[] moves;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+        this.moves = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    @Test
+    public void testStartingPosition() {
+        this.chessBoard.initChessPieces();
+        this.chessBoard.updateBitBoardState();
+
+        int numberOfMoves = MoveGenerator.generateMoves(this.chessBoard.getBitBoard(), EnumChessColor.WHITE, this.moves);
+
+        assertEquals(20, numberOfMoves);
+        assertTrue(contains(numberOfMoves, encode(12, 28, FLAG_DOUBLE_PAWN_STEP)));
+    }
+
+    @Test
+    public void testPromotionCreatesFourMoves() {
+        this.chessBoard.getField(0, 6).setPiece(new Pawn(EnumChessColor.WHITE));
+        this.chessBoard.updateBitBoardState();
+
+        int numberOfMoves = MoveGenerator.generateMoves(this.chessBoard.getBitBoard(), EnumChessColor.WHITE, this.moves);
+
+        assertEquals(4, numberOfMoves);
+        assertTrue(contains(numberOfMoves, encode(48, 56, FLAG_PROMOTION_KNIGHT)));
+        assertTrue(contains(numberOfMoves, encode(48, 56, FLAG_PROMOTION_QUEEN)));
+    }
+
+    @Test
+    public void testEnPassant() throws Exception {
+        this.chessBoard.getField(4, 4).setPiece(new Pawn(EnumChessColor.WHITE));
+        this.chessBoard.getField(3, 6).setPiece(new Pawn(EnumChessColor.BLACK));
+        Move doubleStep = new Move(this.chessBoard.getField(3, 6), this.chessBoard.getField(3, 4));
+        doubleStep.execute(this.chessBoard);
+        this.chessBoard.addMoveToHistory(doubleStep);
+        this.chessBoard.updateBitBoardState();
+
+        int numberOfMoves = MoveGenerator.generateMoves(this.chessBoard.getBitBoard(), EnumChessColor.WHITE, this.moves);
+
+        assertTrue(contains(numberOfMoves, encode(36, 43, FLAG_EN_PASSANT)));
+    }
+
+    @Test
+    public void testCastling() {
+        this.chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(7, 0).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(0, 0).setPiece(new Rook(EnumChessColor.WHITE));
+        // The black rook attacks (3,0), so castling to the queen side is not possible.
+        this.chessBoard.getField(3, 7).setPiece(new Rook(EnumChessColor.BLACK));
+        this.chessBoard.updateBitBoardState();
+
+        int numberOfMoves = MoveGenerator.generateMoves(this.chessBoard.getBitBoard(), EnumChessColor.WHITE, this.moves);
+
+        assertTrue(contains(numberOfMoves, encode(4, 6, FLAG_KING_SIDE_CASTLING)));
+        assertFalse(contains(numberOfMoves, encode(4, 2, FLAG_QUEEN_SIDE_CASTLING)));
+    }
+
+    @Test
+    public void testNoCastlingAfterRookMoved() {
+        this.chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        Rook rook = new Rook(EnumChessColor.WHITE);
+        rook.registerExecutedMove();
+        this.chessBoard.getField(7, 0).setPiece(rook);
+        this.chessBoard.updateBitBoardState();
+
+        int numberOfMoves = MoveGenerator.generateMoves(this.chessBoard.getBitBoard(), EnumChessColor.WHITE, this.moves);
+
+        assertFalse(contains(numberOfMoves, encode(4, 6, FLAG_KING_SIDE_CASTLING)));
+    }
+
+    @Test
+    public void testGeneratingMovesAllocatesNothing() {
+        this.chessBoard.initChessPieces();
+        this.chessBoard.updateBitBoardState();
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < 20000; i++) {
+            MoveGenerator.generateMoves(this.chessBoard.getBitBoard(), EnumChessColor.WHITE, this.moves);
+        }
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 20000; i++) {
+            MoveGenerator.generateMoves(this.chessBoard.getBitBoard(), EnumChessColor.WHITE, this.moves);
+        }
+        long allocatedAfter = threadBean.getThreadAllocatedBytes(threadId);
+
+        // Only the measurement itself may allocate a few bytes.
+        assertTrue(allocatedAfter - allocatedBefore < 1024);
+    }
+
+    private boolean contains(int numberOfMoves, int move) {
+        for (int i = 0; i < numberOfMoves; i++) {
+            if (this.moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,113 @@
+package model.intern.engine;
+
+import model.common.EnumChessColor;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.chesspieces.King;
+import model.intern.chesspieces.Pawn;
+import model.intern.chesspieces.Queen;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMoveOrdering {
+
+    private BitBoard bitBoard;
+    private MoveOrdering moveOrdering;
+    private int[] moves;
+    private int[] scores;
+    private int numberOfMoves;
+
+    @BeforeEach
+    public void initTest() {
+        ChessBoard chessBoard = new ChessBoard();
+        chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        chessBoard.getField(3, 0).setPiece(new Queen(EnumChessColor.WHITE));
+        chessBoard.getField(4, 3).setPiece(new Pawn(EnumChessColor.WHITE));
+        chessBoard.getField(4, 7).setPiece(new King(EnumChessColor.BLACK));
+        chessBoard.getField(3, 4).setPiece(new Queen(EnumChessColor.BLACK));
+        chessBoard.getField(5, 4).setPiece(new Pawn(EnumChessColor.BLACK));
+        chessBoard.updateBitBoardState();
+        this.bitBoard = new BitBoard(chessBoard.getBitBoard());
+        this.moveOrdering = new MoveOrdering();
+        this.moves = new int[MoveGenerator.MAX_MOVES];
+        this.scores = new int[MoveGenerator.MAX_MOVES];
+        this.numberOfMoves = MoveGenerator.generateMoves(this.bitBoard, EnumChessColor.WHITE, this.moves);
+    }
+
+    @Test
+    public void testCapturesByMostValuableVictimAndLeastValuableAttacker() {
+        List<String> orderedMoves = orderMoves(MoveEncoding.NO_MOVE, 0);
+
+        assertEquals(List.of("e4d5", "d1d5", "e4f5"), orderedMoves.subList(0, 3));
+    }
+
+    @Test
+    public void testTableMoveFirst() {
+        int tableMove = findMove("d1d3");
+
+        List<String> orderedMoves = orderMoves(tableMove, 0);
+
+        assertEquals("d1d3", orderedMoves.get(0));
+        assertEquals("e4d5", orderedMoves.get(1));
+    }
+
+    @Test
+    public void testKillersFollowCaptures() {
+        this.moveOrdering.updateQuietCutoff(EnumChessColor.WHITE, findMove("d1h5"), 3, 2);
+        this.moveOrdering.updateQuietCutoff(EnumChessColor.WHITE, findMove("d1a4"), 3, 2);
+
+        List<String> orderedMoves = orderMoves(MoveEncoding.NO_MOVE, 3);
+
+        assertEquals(List.of("d1a4", "d1h5"), orderedMoves.subList(3, 5));
+        // The killers are kept per ply.
+        assertArrayEquals(new int[] {MoveEncoding.NO_MOVE, MoveEncoding.NO_MOVE}, this.moveOrdering.getKillers(4));
+    }
+
+    @Test
+    public void testHistoryOrdersQuietMoves() {
+        this.moveOrdering.updateQuietCutoff(EnumChessColor.WHITE, findMove("e1f2"), 0, 2);
+        this.moveOrdering.updateQuietCutoff(EnumChessColor.WHITE, findMove("d1g4"), 0, 5);
+
+        List<String> orderedMoves = orderMoves(MoveEncoding.NO_MOVE, 1);
+
+        assertEquals(List.of("d1g4", "e1f2"), orderedMoves.subList(3, 5));
+        assertEquals(25, this.moveOrdering.getHistory(EnumChessColor.WHITE, findMove("d1g4")));
+        assertEquals(0, this.moveOrdering.getHistory(EnumChessColor.BLACK, findMove("d1g4")));
+    }
+
+    @Test
+    public void testPickingReturnsEveryMoveOnce() {
+        List<String> orderedMoves = orderMoves(findMove("e1f1"), 0);
+
+        assertEquals(this.numberOfMoves, orderedMoves.size());
+        assertEquals(this.numberOfMoves, new HashSet<>(orderedMoves).size());
+    }
+
+    private List<String> orderMoves(int tableMove, int ply) {
+        int[] movesToOrder = this.moves.clone();
+        this.moveOrdering.scoreMoves(this.bitBoard, movesToOrder, this.scores, this.numberOfMoves, tableMove, ply);
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < this.numberOfMoves; i++) {
+            result.add(MoveEncoding.toString(MoveOrdering.pickNextMove(movesToOrder, this.scores, this.numberOfMoves, i)));
+        }
+        return result;
+    }
+
+    private int findMove(String move) {
+        for (int i = 0; i < this.numberOfMoves; i++) {
+            if (MoveEncoding.toString(this.moves[i]).equals(move)) {
+                return this.moves[i];
+            }
+        }
+        throw new IllegalArgumentException(move);
+    }
+
+}
@@ -0,0 +1,361 @@
+package model.intern.engine;
+
+import model.common.EnumChessColor;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chesspieces.*;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSearch {
+
+    private ChessBoard chessBoard;
+    private Engine engine;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+        this.engine = new Engine();
+    }
+
+    @Test
+    public void testFindsBackRankMate() {
+        this.chessBoard.getField(6, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(0, 0).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(6, 7).setPiece(new King(EnumChessColor.BLACK));
+        this.chessBoard.getField(5, 6).setPiece(new Pawn(EnumChessColor.BLACK));
+        this.chessBoard.getField(6, 6).setPiece(new Pawn(EnumChessColor.BLACK));
+        this.chessBoard.getField(7, 6).setPiece(new Pawn(EnumChessColor.BLACK));
+
+        SearchResult result = this.engine.search(this.chessBoard, 4);
+
+        assertEquals("a1a8", MoveEncoding.toString(result.getBestMove()));
+        assertEquals(Evaluation.MATE_SCORE - 1, result.getScore());
+    }
+
+    @Test
+    public void testCapturesHangingQueen() {
+        this.chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 3).setPiece(new Pawn(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 7).setPiece(new King(EnumChessColor.BLACK));
+        this.chessBoard.getField(3, 4).setPiece(new Queen(EnumChessColor.BLACK));
+
+        SearchResult result = this.engine.search(this.chessBoard, 3);
+
+        assertEquals("e4d5", MoveEncoding.toString(result.getBestMove()));
+        assertTrue(result.getScore() > 0);
+    }
+
+    @Test
+    public void testQuiescenceSeesRecapture() {
+        this.chessBoard.getField(6, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(3, 0).setPiece(new Queen(EnumChessColor.WHITE));
+        this.chessBoard.getField(6, 7).setPiece(new King(EnumChessColor.BLACK));
+        this.chessBoard.getField(3, 4).setPiece(new Pawn(EnumChessColor.BLACK));
+        this.chessBoard.getField(4, 5).setPiece(new Pawn(EnumChessColor.BLACK));
+
+        SearchResult result = this.engine.search(this.chessBoard, 1);
+
+        // Qxd5 wins a pawn at depth 1, but loses the queen to exd5 right behind the horizon.
+        assertNotEquals("d1d5", MoveEncoding.toString(result.getBestMove()));
+        assertTrue(result.getScore() > 500);
+    }
+
+    @Test
+    public void testStalemateHasNoMove() {
+        this.chessBoard.getField(0, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(1, 2).setPiece(new Queen(EnumChessColor.BLACK));
+        this.chessBoard.getField(2, 2).setPiece(new King(EnumChessColor.BLACK));
+
+        SearchResult result = this.engine.search(this.chessBoard, 3);
+
+        assertEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+        assertEquals(Evaluation.DRAW_SCORE, result.getScore());
+    }
+
+    @Test
+    public void testCheckmateHasNoMove() {
+        this.chessBoard.getField(7, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(6, 1).setPiece(new Queen(EnumChessColor.BLACK));
+        this.chessBoard.getField(6, 2).setPiece(new King(EnumChessColor.BLACK));
+
+        SearchResult result = this.engine.search(this.chessBoard, 3);
+
+        assertEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+        assertEquals(-Evaluation.MATE_SCORE, result.getScore());
+    }
+
+    @Test
+    public void testSearchDoesNotChangeBoardAndReportsThroughput() {
+        this.chessBoard.initChessPieces();
+        String positionBefore = this.chessBoard.toString();
+
+        SearchResult result = this.engine.search(this.chessBoard, 4);
+
+        assertEquals(positionBefore, this.chessBoard.toString());
+        assertEquals(4, result.getDepth());
+        assertNotEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+        assertTrue(result.getNodes() > 0);
+        assertTrue(result.getNanoseconds() > 0);
+        assertEquals(result.getNodes() * 1_000_000_000L / result.getNanoseconds(), result.getNodesPerSecond());
+        assertFalse(result.getPrincipalVariations().isEmpty());
+        assertEquals(result.getBestMove(), result.getPrincipalVariations().get(0).getMove());
+        assertEquals(result.getScore(), result.getPrincipalVariations().get(0).getScore());
+    }
+
+    @Test
+    public void testStopReturnsLastCompletedIteration() throws Exception {
+        this.chessBoard.initChessPieces();
+
+        CountDownLatch firstIteration = new CountDownLatch(1);
+        this.engine.setSearchListener(result -> firstIteration.countDown());
+        CompletableFuture<SearchResult> search = CompletableFuture.supplyAsync(() -> this.engine.search(this.chessBoard, 100));
+        // Stopped after the search has started, otherwise the stop would be reset by its start.
+        assertTrue(firstIteration.await(10, TimeUnit.SECONDS));
+        this.engine.stop();
+        SearchResult result = search.get(1, TimeUnit.SECONDS);
+
+        assertTrue(result.getDepth() > 0);
+        assertTrue(result.getDepth() < 100);
+        assertNotEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+    }
+
+    @Nested
+    class LazySmp {
+
+        private static final int NUMBER_OF_THREADS = 4;
+
+        private AtomicInteger createdThreads;
+
+        @BeforeEach
+        public void initTest() {
+            this.createdThreads = new AtomicInteger();
+            TestSearch.this.engine = new Engine(new TranspositionTable(1 << 20, EnumReplacementPolicy.DEPTH_PREFERRED_AGING, false),
+                    NUMBER_OF_THREADS, runnable -> {
+                        this.createdThreads.incrementAndGet();
+                        Thread thread = new Thread(runnable);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        @Test
+        public void testFindsBackRankMate() {
+            chessBoard.getField(6, 0).setPiece(new King(EnumChessColor.WHITE));
+            chessBoard.getField(0, 0).setPiece(new Rook(EnumChessColor.WHITE));
+            chessBoard.getField(6, 7).setPiece(new King(EnumChessColor.BLACK));
+            chessBoard.getField(5, 6).setPiece(new Pawn(EnumChessColor.BLACK));
+            chessBoard.getField(6, 6).setPiece(new Pawn(EnumChessColor.BLACK));
+            chessBoard.getField(7, 6).setPiece(new Pawn(EnumChessColor.BLACK));
+
+            SearchResult result = engine.search(chessBoard, 4);
+
+            assertEquals("a1a8", MoveEncoding.toString(result.getBestMove()));
+            assertEquals(Evaluation.MATE_SCORE - 1, result.getScore());
+            assertEquals(NUMBER_OF_THREADS - 1, this.createdThreads.get());
+        }
+
+        @Test
+        public void testSearchDoesNotChangeBoard() {
+            chessBoard.initChessPieces();
+            String positionBefore = chessBoard.toString();
+
+            SearchResult result = engine.search(chessBoard, 4);
+
+            assertEquals(positionBefore, chessBoard.toString());
+            assertEquals(4, result.getDepth());
+            assertNotEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+            assertTrue(result.getNodes() > 0);
+            assertEquals(NUMBER_OF_THREADS - 1, this.createdThreads.get());
+        }
+
+        @Test
+        public void testStopEndsAllThreads() throws Exception {
+            chessBoard.initChessPieces();
+
+            CountDownLatch firstIteration = new CountDownLatch(1);
+            engine.setSearchListener(result -> firstIteration.countDown());
+            CompletableFuture<SearchResult> search = CompletableFuture.supplyAsync(() -> engine.search(chessBoard, 100));
+            assertTrue(firstIteration.await(10, TimeUnit.SECONDS));
+            engine.stop();
+            SearchResult result = search.get(1, TimeUnit.SECONDS);
+
+            assertTrue(result.getDepth() > 0);
+            assertNotEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+        }
+
+        @Test
+        public void testAtLeastOneThread() {
+            assertThrows(IllegalArgumentException.class, () -> new Engine(0));
+        }
+
+    }
+
+    @Nested
+    class Pondering {
+
+        @BeforeEach
+        public void initTest() throws ExcInvalidMove {
+            chessBoard.initChessPieces();
+            SearchResult result = engine.search(chessBoard, 4);
+            executeMove(result.getBestMove());
+        }
+
+        @Test
+        public void testPonderHitKeepsResults() throws Exception {
+            int expectedReply = TranspositionTable.getMove(engine.getTranspositionTable().probe(chessBoard.getZobristKey()));
+
+            CountDownLatch ponderedDeeply = listenForDepth(2);
+            assertTrue(engine.startPondering(chessBoard));
+            assertTrue(engine.isPondering());
+            assertTrue(ponderedDeeply.await(10, TimeUnit.SECONDS));
+            int ponderedDepth = engine.getBestResult().getDepth();
+            executeMove(expectedReply);
+            SearchResult result = engine.search(chessBoard, SearchLimits.depth(1).withMoveTime(Duration.ofMillis(50)));
+
+            // A new search would stop after depth 1, but the pondering search has been deeper already.
+            assertTrue(ponderedDepth > 1);
+            assertTrue(result.getDepth() >= ponderedDepth);
+            assertNotEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+            assertFalse(engine.isPondering());
+        }
+
+        @Test
+        public void testPonderMissStartsNewSearch() throws Exception {
+            int expectedReply = TranspositionTable.getMove(engine.getTranspositionTable().probe(chessBoard.getZobristKey()));
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int numberOfMoves = MoveGenerator.generateMoves(chessBoard.getBitBoard(), EnumChessColor.BLACK, moves);
+            int otherReply = moves[0] != expectedReply ? moves[0] : moves[numberOfMoves - 1];
+
+            CountDownLatch pondered = listenForDepth(1);
+            assertTrue(engine.startPondering(chessBoard));
+            assertTrue(pondered.await(10, TimeUnit.SECONDS));
+            executeMove(otherReply);
+            SearchResult result = engine.search(chessBoard, 2);
+
+            assertEquals(2, result.getDepth());
+            assertEquals(EnumChessColor.WHITE, chessBoard.getBitBoard().getColor(MoveEncoding.getFrom(result.getBestMove())));
+            assertFalse(engine.isPondering());
+        }
+
+        @Test
+        public void testNoExpectedReplyWithoutPreviousSearch() {
+            engine = new Engine();
+
+            assertFalse(engine.startPondering(chessBoard));
+            assertFalse(engine.isPondering());
+        }
+
+        /**
+         * Returns a latch, which is counted down as soon as the search has completed the given depth.
+         */
+        private CountDownLatch listenForDepth(int depth) {
+            CountDownLatch latch = new CountDownLatch(1);
+            engine.setSearchListener(result -> {
+                if (result.getDepth() >= depth) {
+                    latch.countDown();
+                }
+            });
+            return latch;
+        }
+
+        private void executeMove(int move) throws ExcInvalidMove {
+            chessBoard.executeMove(BitBoard.toCoordinates(MoveEncoding.getFrom(move)), BitBoard.toCoordinates(MoveEncoding.getTo(move)));
+        }
+
+    }
+
+    @Nested
+    class MultiPv {
+
+        @Test
+        public void testLinesAreOrderedByScore() {
+            chessBoard.initChessPieces();
+
+            SearchResult result = engine.search(chessBoard, SearchLimits.depth(4).withMultiPv(3));
+
+            List<PrincipalVariation> lines = result.getPrincipalVariations();
+            assertEquals(3, lines.size());
+            assertEquals(result.getBestMove(), lines.get(0).getMove());
+            assertEquals(result.getScore(), lines.get(0).getScore());
+            assertTrue(lines.get(0).getScore() >= lines.get(1).getScore());
+            assertTrue(lines.get(1).getScore() >= lines.get(2).getScore());
+            assertEquals(3, Arrays.stream(new int[] {lines.get(0).getMove(), lines.get(1).getMove(), lines.get(2).getMove()}).distinct().count());
+            for (PrincipalVariation line : lines) {
+                assertTrue(line.getMoves().length >= 1 && line.getMoves().length <= 4);
+                assertEquals(line.getMove(), line.getMoves()[0]);
+            }
+        }
+
+        @Test
+        public void testSecondLineIsWorseThanWinningCapture() {
+            chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+            chessBoard.getField(4, 3).setPiece(new Pawn(EnumChessColor.WHITE));
+            chessBoard.getField(4, 7).setPiece(new King(EnumChessColor.BLACK));
+            chessBoard.getField(3, 4).setPiece(new Queen(EnumChessColor.BLACK));
+
+            SearchResult result = engine.search(chessBoard, SearchLimits.depth(3).withMultiPv(2));
+
+            List<PrincipalVariation> lines = result.getPrincipalVariations();
+            assertEquals("e4d5", MoveEncoding.toString(lines.get(0).getMove()));
+            assertTrue(lines.get(1).getScore() < 0);
+            // The capture is answered by the black king.
+            assertTrue(lines.get(0).getMoves().length > 1);
+        }
+
+        @Test
+        public void testNotMoreLinesThanLegalMoves() {
+            chessBoard.getField(0, 0).setPiece(new King(EnumChessColor.WHITE));
+            chessBoard.getField(0, 3).setPiece(new King(EnumChessColor.BLACK));
+            chessBoard.getField(7, 7).setPiece(new Rook(EnumChessColor.BLACK));
+
+            SearchResult result = engine.search(chessBoard, SearchLimits.depth(2).withMultiPv(5));
+
+            // Only Ka2, Kb1 and Kb2 are legal.
+            assertEquals(3, result.getPrincipalVariations().size());
+        }
+
+        @Test
+        public void testListenerReceivesEachDepthWithoutBlockingSearch() throws Exception {
+            chessBoard.initChessPieces();
+            List<Integer> depths = new CopyOnWriteArrayList<>();
+            CountDownLatch searchFinished = new CountDownLatch(1);
+            CountDownLatch allReceived = new CountDownLatch(4);
+            engine.setSearchListener(result -> {
+                try {
+                    // A slow listener: it does not return before the search is finished.
+                    searchFinished.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                assertEquals(2, result.getPrincipalVariations().size());
+                depths.add(result.getDepth());
+                allReceived.countDown();
+            });
+
+            SearchResult result = engine.search(chessBoard, SearchLimits.depth(4).withMultiPv(2));
+            searchFinished.countDown();
+
+            assertTrue(allReceived.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of(1, 2, 3, 4), depths);
+            assertEquals(4, result.getDepth());
+        }
+
+    }
+
+}
@@ -0,0 +1,154 @@
+package model.intern.engine;
+
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.MoveEncoding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSearchLimits {
+
+    private ChessBoard chessBoard;
+    private Engine engine;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.initChessPieces();
+        this.engine = new Engine();
+    }
+
+    @Nested
+    class TimeManagement {
+
+        @Test
+        public void testClockAllocatesShareOfRemainingTime() {
+            SearchLimits limits = SearchLimits.infinite().withClock(Duration.ofMinutes(5), Duration.ZERO);
+
+            long remaining = Duration.ofMinutes(5).toNanos() - SearchLimits.MOVE_OVERHEAD_NANOS;
+            assertEquals(remaining / SearchLimits.MOVES_TO_GO, limits.getOptimumNanos());
+            assertTrue(limits.getMaximumNanos() > limits.getOptimumNanos());
+            assertTrue(limits.getMaximumNanos() <= remaining / 3);
+        }
+
+        @Test
+        public void testIncrementIncreasesBudget() {
+            SearchLimits withoutIncrement = SearchLimits.infinite().withClock(Duration.ofMinutes(1), Duration.ZERO);
+            SearchLimits withIncrement = SearchLimits.infinite().withClock(Duration.ofMinutes(1), Duration.ofSeconds(2));
+
+            assertTrue(withIncrement.getOptimumNanos() > withoutIncrement.getOptimumNanos());
+        }
+
+        @Test
+        public void testLowClockNeverExceedsRemainingTime() {
+            SearchLimits limits = SearchLimits.infinite().withClock(Duration.ofMillis(300), Duration.ofSeconds(5));
+
+            assertTrue(limits.getMaximumNanos() <= Duration.ofMillis(100).toNanos());
+            assertTrue(limits.getOptimumNanos() <= limits.getMaximumNanos());
+        }
+
+        @Test
+        public void testTighterLimitWins() {
+            SearchLimits limits = SearchLimits.infinite()
+                    .withClock(Duration.ofMinutes(5), Duration.ZERO)
+                    .withMoveTime(Duration.ofMillis(10));
+
+            assertEquals(Duration.ofMillis(10).toNanos(), limits.getMaximumNanos());
+            assertEquals(Duration.ofMillis(10).toNanos(), limits.getOptimumNanos());
+        }
+
+    }
+
+    @Test
+    public void testNodeLimit() {
+        SearchResult result = this.engine.search(this.chessBoard, SearchLimits.infinite().withNodes(5000));
+
+        assertTrue(result.getNodes() <= 5001);
+        assertTrue(result.getDepth() > 0);
+        assertNotEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+    }
+
+    @Test
+    public void testNodeLimitCountsHelperThreads() {
+        Engine engine = new Engine(new TranspositionTable(1 << 20, EnumReplacementPolicy.DEPTH_PREFERRED_AGING, false), 4);
+
+        SearchResult result = engine.search(this.chessBoard, SearchLimits.infinite().withNodes(20000));
+
+        // Each thread reports its nodes every interval and ends at its next interval after the limit is reached.
+        assertTrue(result.getNodes() <= 20001 + 4 * 2 * Searcher.STOP_CHECK_INTERVAL, "nodes " + result.getNodes());
+        assertNotEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+    }
+
+    @Test
+    public void testMoveTime() {
+        long start = System.nanoTime();
+        SearchResult result = this.engine.search(this.chessBoard, SearchLimits.infinite().withMoveTime(Duration.ofMillis(100)));
+        long elapsed = System.nanoTime() - start;
+
+        // The search runs until the move time is used up, but never much longer (generous for loaded machines).
+        assertTrue(elapsed >= Duration.ofMillis(100).toNanos(), "elapsed " + elapsed);
+        assertTrue(elapsed < Duration.ofSeconds(2).toNanos(), "elapsed " + elapsed);
+        assertNotEquals(MoveEncoding.NO_MOVE, result.getBestMove());
+    }
+
+    @Test
+    public void testStopReturnsBestResultRightAway() throws Exception {
+        CountDownLatch firstIteration = new CountDownLatch(1);
+        this.engine.setSearchListener(result -> firstIteration.countDown());
+        CompletableFuture<SearchResult> search = this.engine.searchAsync(this.chessBoard, SearchLimits.infinite());
+        assertTrue(firstIteration.await(10, TimeUnit.SECONDS));
+
+        SearchResult bestResult = this.engine.stop();
+
+        assertTrue(bestResult.getDepth() > 0);
+        assertNotEquals(MoveEncoding.NO_MOVE, bestResult.getBestMove());
+        SearchResult result = search.get(1, TimeUnit.SECONDS);
+        assertTrue(result.getDepth() >= bestResult.getDepth());
+    }
+
+    @Test
+    public void testNewSearchStopsRunningSearch() throws Exception {
+        CompletableFuture<SearchResult> firstSearch = this.engine.searchAsync(this.chessBoard, SearchLimits.infinite());
+        CompletableFuture<SearchResult> secondSearch = this.engine.searchAsync(this.chessBoard, SearchLimits.depth(3));
+
+        assertTrue(firstSearch.isDone());
+        assertEquals(3, secondSearch.get(5, TimeUnit.SECONDS).getDepth());
+    }
+
+    @Test
+    public void testConcurrentRequestsRunOneSearch() throws Exception {
+        CountDownLatch startSignal = new CountDownLatch(1);
+        Callable<CompletableFuture<SearchResult>> request = () -> {
+            startSignal.await();
+            return this.engine.searchAsync(this.chessBoard, SearchLimits.infinite());
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<CompletableFuture<SearchResult>> firstRequest = executor.submit(request);
+            Future<CompletableFuture<SearchResult>> secondRequest = executor.submit(request);
+            startSignal.countDown();
+            CompletableFuture<SearchResult> firstSearch = firstRequest.get(5, TimeUnit.SECONDS);
+            CompletableFuture<SearchResult> secondSearch = secondRequest.get(5, TimeUnit.SECONDS);
+
+            // The later request has stopped the earlier search and waited for it.
+            assertTrue(firstSearch.isDone() || secondSearch.isDone());
+            this.engine.stop();
+            firstSearch.get(5, TimeUnit.SECONDS);
+            secondSearch.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
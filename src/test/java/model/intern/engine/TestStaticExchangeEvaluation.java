@@ -0,0 +1,108 @@
+package model.intern.engine;
+
+import model.common.EnumChessColor;
+import model.intern.chessboard.BitBoard;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.chesspieces.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestStaticExchangeEvaluation {
+
+    private ChessBoard chessBoard;
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+        this.chessBoard.getField(6, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(6, 7).setPiece(new King(EnumChessColor.BLACK));
+    }
+
+    @Test
+    public void testUndefendedPiece() {
+        this.chessBoard.getField(4, 1).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 4).setPiece(new Knight(EnumChessColor.BLACK));
+
+        assertEquals(320, evaluate("e2e5"));
+    }
+
+    @Test
+    public void testCaptureOfDefendedPawnLoses() {
+        this.chessBoard.getField(2, 2).setPiece(new Knight(EnumChessColor.WHITE));
+        this.chessBoard.getField(3, 4).setPiece(new Pawn(EnumChessColor.BLACK));
+        this.chessBoard.getField(4, 5).setPiece(new Pawn(EnumChessColor.BLACK));
+
+        assertEquals(100 - 320, evaluate("c3d5"));
+        assertTrue(StaticExchangeEvaluation.isLosing(bitBoard(), findMove("c3d5")));
+    }
+
+    @Test
+    public void testLeastValuableAttackerRecaptures() {
+        this.chessBoard.getField(3, 0).setPiece(new Queen(EnumChessColor.WHITE));
+        this.chessBoard.getField(3, 5).setPiece(new Rook(EnumChessColor.BLACK));
+        this.chessBoard.getField(4, 6).setPiece(new Pawn(EnumChessColor.BLACK));
+        this.chessBoard.getField(2, 7).setPiece(new Bishop(EnumChessColor.BLACK));
+
+        // The queen is taken by the pawn, not by the bishop.
+        assertEquals(500 - 900, evaluate("d1d6"));
+    }
+
+    @Test
+    public void testSlidingPieceBehindAttackerJoinsExchange() {
+        this.chessBoard.getField(4, 0).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 1).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 4).setPiece(new Pawn(EnumChessColor.BLACK));
+        this.chessBoard.getField(4, 7).setPiece(new Rook(EnumChessColor.BLACK));
+
+        // Rxe5 Rxe5 Rxe5: the rook on e1 backs up the rook on e2.
+        assertEquals(100, evaluate("e2e5"));
+    }
+
+    @Test
+    public void testExchangeOfQueenForRookAndPawn() {
+        this.chessBoard.getField(4, 1).setPiece(new Queen(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 4).setPiece(new Rook(EnumChessColor.BLACK));
+        this.chessBoard.getField(3, 5).setPiece(new Pawn(EnumChessColor.BLACK));
+        this.chessBoard.getField(4, 0).setPiece(new Rook(EnumChessColor.WHITE));
+
+        // Qxe5 dxe5 Rxe5: the queen is given for rook and pawn.
+        assertEquals(500 - 900 + 100, evaluate("e2e5"));
+    }
+
+    @Test
+    public void testExchangeStopsWhenRecaptureLoses() {
+        this.chessBoard.getField(3, 3).setPiece(new Pawn(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 0).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 4).setPiece(new Knight(EnumChessColor.BLACK));
+        this.chessBoard.getField(4, 6).setPiece(new Queen(EnumChessColor.BLACK));
+
+        // Black does not recapture with the queen, as the rook would take it.
+        assertEquals(320, evaluate("d4e5"));
+    }
+
+    private int evaluate(String move) {
+        return StaticExchangeEvaluation.evaluate(bitBoard(), findMove(move));
+    }
+
+    private BitBoard bitBoard() {
+        this.chessBoard.updateBitBoardState();
+        return new BitBoard(this.chessBoard.getBitBoard());
+    }
+
+    private int findMove(String move) {
+        BitBoard bitBoard = bitBoard();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int numberOfMoves = MoveGenerator.generateMoves(bitBoard, bitBoard.getActiveColor(), moves);
+        for (int i = 0; i < numberOfMoves; i++) {
+            if (MoveEncoding.toString(moves[i]).equals(move)) {
+                return moves[i];
+            }
+        }
+        throw new IllegalArgumentException(move);
+    }
+
+}
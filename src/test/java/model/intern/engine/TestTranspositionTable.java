@@ -0,0 +1,189 @@
+package model.intern.engine;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTranspositionTable {
+
+    private static final long SIZE = 1 << 16;
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.ALWAYS, false);
+
+        table.store(0x1234_5678_9ABC_DEF0L, 7, -250, EnumBound.LOWER, 0x1C1C);
+        long entry = table.probe(0x1234_5678_9ABC_DEF0L);
+
+        assertNotEquals(TranspositionTable.NO_ENTRY, entry);
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(-250, TranspositionTable.getScore(entry));
+        assertEquals(EnumBound.LOWER, TranspositionTable.getBound(entry));
+        assertEquals(0x1C1C, TranspositionTable.getMove(entry));
+    }
+
+    @Test
+    public void testProbeOfOtherPositionInSameSlotMisses() {
+        TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.ALWAYS, false);
+        long key = 42L;
+        long otherKey = key + table.getNumberOfEntries();
+
+        table.store(key, 3, 10, EnumBound.EXACT, 0);
+
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(otherKey));
+        assertEquals(TranspositionTable.NO_ENTRY, new TranspositionTable(SIZE, EnumReplacementPolicy.ALWAYS, false).probe(0L));
+    }
+
+    @Test
+    public void testSizeIsRoundedDownToPowerOfTwoEntries() {
+        TranspositionTable table = new TranspositionTable(3 * 16, EnumReplacementPolicy.ALWAYS, false);
+
+        assertEquals(2, table.getNumberOfEntries());
+    }
+
+    @Nested
+    class ReplacementPolicies {
+
+        @Test
+        public void testAlwaysReplacesDeeperEntry() {
+            TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.ALWAYS, false);
+
+            table.store(5L, 10, 1, EnumBound.EXACT, 0);
+            table.store(5L, 2, 2, EnumBound.EXACT, 0);
+
+            assertEquals(2, TranspositionTable.getDepth(table.probe(5L)));
+        }
+
+        @Test
+        public void testDepthPreferredKeepsDeeperEntry() {
+            TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.DEPTH_PREFERRED, false);
+
+            table.store(5L, 10, 1, EnumBound.EXACT, 0);
+            table.store(5L, 2, 2, EnumBound.EXACT, 0);
+
+            assertEquals(10, TranspositionTable.getDepth(table.probe(5L)));
+        }
+
+        @Test
+        public void testAgingReplacesEntryOfEarlierSearch() {
+            TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.DEPTH_PREFERRED_AGING, false);
+
+            table.store(5L, 10, 1, EnumBound.EXACT, 0);
+            table.store(5L, 2, 2, EnumBound.EXACT, 0);
+            assertEquals(10, TranspositionTable.getDepth(table.probe(5L)));
+
+            table.newSearch();
+            table.store(5L, 2, 2, EnumBound.EXACT, 0);
+            assertEquals(2, TranspositionTable.getDepth(table.probe(5L)));
+        }
+
+        @Test
+        public void testDepthPreferredKeepsDeeperEntryOfOtherPosition() {
+            TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.DEPTH_PREFERRED, false);
+            long collidingKey = 5L + table.getNumberOfEntries();
+
+            table.store(5L, 10, 1, EnumBound.EXACT, 0);
+            table.store(collidingKey, 2, 2, EnumBound.EXACT, 0);
+            assertEquals(10, TranspositionTable.getDepth(table.probe(5L)));
+            assertEquals(TranspositionTable.NO_ENTRY, table.probe(collidingKey));
+
+            table.store(collidingKey, 10, 2, EnumBound.EXACT, 0);
+            assertEquals(TranspositionTable.NO_ENTRY, table.probe(5L));
+            assertEquals(10, TranspositionTable.getDepth(table.probe(collidingKey)));
+        }
+
+        @Test
+        public void testAgingReplacesDeeperEntryOfOtherPositionOnlyFromEarlierSearch() {
+            TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.DEPTH_PREFERRED_AGING, false);
+            long collidingKey = 5L + table.getNumberOfEntries();
+
+            table.store(5L, 10, 1, EnumBound.EXACT, 0);
+            table.store(collidingKey, 2, 2, EnumBound.EXACT, 0);
+            assertEquals(10, TranspositionTable.getDepth(table.probe(5L)));
+
+            table.newSearch();
+            table.store(collidingKey, 2, 2, EnumBound.EXACT, 0);
+            assertEquals(TranspositionTable.NO_ENTRY, table.probe(5L));
+            assertEquals(2, TranspositionTable.getDepth(table.probe(collidingKey)));
+        }
+
+        @Test
+        public void testBestMoveIsKeptWithoutNewMove() {
+            TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.ALWAYS, false);
+
+            table.store(5L, 1, 1, EnumBound.EXACT, 0x0F0F);
+            table.store(5L, 2, 2, EnumBound.UPPER, 0);
+
+            assertEquals(0x0F0F, TranspositionTable.getMove(table.probe(5L)));
+        }
+
+    }
+
+    @Test
+    public void testOffHeapTable() {
+        TranspositionTable table = new TranspositionTable(SIZE, EnumReplacementPolicy.ALWAYS, true);
+
+        table.store(-1L, TranspositionTable.MAX_DEPTH, Short.MAX_VALUE, EnumBound.UPPER, 0xFFFF);
+        long entry = table.probe(-1L);
+
+        assertEquals(TranspositionTable.MAX_DEPTH, TranspositionTable.getDepth(entry));
+        assertEquals(Short.MAX_VALUE, TranspositionTable.getScore(entry));
+        assertEquals(EnumBound.UPPER, TranspositionTable.getBound(entry));
+        assertEquals(0xFFFF, TranspositionTable.getMove(entry));
+
+        table.clear();
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(-1L));
+    }
+
+    /**
+     * Several threads write and read the same few slots. Every entry read must be consistent,
+     * i.e. belong completely to the probed key, even though writes are not synchronized.
+     */
+    @Test
+    public void testConcurrentAccessNeverReturnsTornEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(4 * 16, EnumReplacementPolicy.ALWAYS, true);
+        AtomicInteger inconsistentEntries = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    // Few keys for few slots, so that the threads permanently overwrite each other's entries.
+                    long key = random.nextInt(64) * 0x9E3779B97F4A7C15L;
+                    table.store(key, depthOf(key), scoreOf(key), EnumBound.EXACT, 0);
+                    long probedKey = random.nextInt(64) * 0x9E3779B97F4A7C15L;
+                    long entry = table.probe(probedKey);
+                    if (entry != TranspositionTable.NO_ENTRY
+                            && (TranspositionTable.getDepth(entry) != depthOf(probedKey)
+                            || TranspositionTable.getScore(entry) != scoreOf(probedKey))) {
+                        inconsistentEntries.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, inconsistentEntries.get());
+    }
+
+    private static int depthOf(long key) {
+        return (int) (key >>> 56) & 0xFF;
+    }
+
+    private static int scoreOf(long key) {
+        return (short) (key >>> 8);
+    }
+
+}
@@ -0,0 +1,143 @@
+package model.intern.epd;
+
+import model.intern.engine.SearchLimits;
+import model.intern.exceptions.ExcInvalidFen;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEpdRunner {
+
+    private static final String PERFT_SUITE = "# Perft counts up to depth 3\n"
+            + "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 ;D1 20 ;D2 400 ;D3 8902 ;D4 197281\n"
+            + "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1 ;D1 48 ;D2 2039 ;D3 97862\n"
+            + "\n"
+            + "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - ;D1 14 ;D2 191 ;D3 2812\n"
+            + "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1 ;D1 6 ;D2 264 ;D3 9467\n"
+            + "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8 ;D1 44 ;D2 1486 ;D3 62379\n"
+            + "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8 ;D1 44 ;D2 1487\n";
+
+    @TempDir
+    Path directory;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void initTest() {
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @AfterEach
+    public void shutdownPool() {
+        this.pool.shutdown();
+    }
+
+    private List<EpdRecord> readSuite(String suite) throws IOException, ExcInvalidFen {
+        Path epdFile = this.directory.resolve("suite.epd");
+        Files.write(epdFile, suite.getBytes(StandardCharsets.UTF_8));
+        return EpdRecord.readFile(epdFile);
+    }
+
+    @Test
+    public void testPerftSuite() throws IOException, ExcInvalidFen {
+        List<EpdRecord> records = readSuite(PERFT_SUITE);
+
+        EpdReport report = new EpdRunner(SearchLimits.depth(1), 3, 1 << 16).run(records, this.pool);
+
+        assertEquals(6, report.getNumberOfPositions());
+        assertEquals(5, report.getNumberOfSolved());
+        assertEquals("D1 20 D2 400 D3 8902", report.getResults().get(0).getAnswer());
+        assertEquals(20 + 400 + 8902, report.getResults().get(0).getNodes());
+        assertFalse(report.getResults().get(5).isSolved());
+        assertEquals("D1 44 D2 1486 (expected 1487)", report.getResults().get(5).getAnswer());
+        assertTrue(report.getNodesPerSecond() > 0);
+    }
+
+    @Test
+    public void testBestAndAvoidMoves() throws ExcInvalidFen {
+        List<EpdRecord> records = List.of(
+                EpdRecord.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - bm Ra8#; id \"back rank\";"),
+                EpdRecord.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - am Ra2 Rb1; id \"avoid\";"),
+                EpdRecord.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - bm Ra2; id \"wrong\";"),
+                EpdRecord.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - bm Qh5; id \"invalid\";"),
+                EpdRecord.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - id \"nothing\";"));
+
+        EpdReport report = new EpdRunner(SearchLimits.depth(3)).run(records, this.pool);
+
+        assertEquals(2, report.getNumberOfSolved());
+        assertEquals("a1a8", report.getResults().get(0).getAnswer());
+        assertTrue(report.getResults().get(1).isSolved());
+        assertFalse(report.getResults().get(2).isSolved());
+        assertEquals("Invalid move: Qh5", report.getResults().get(3).getAnswer());
+        assertFalse(report.getResults().get(4).isSolved());
+        assertTrue(report.getResults().get(0).getNodes() > 0);
+        assertTrue(report.getNanosecondsPerPosition() > 0);
+    }
+
+    @Test
+    public void testRunsAreIndependent() throws ExcInvalidFen {
+        List<EpdRecord> records = List.of(
+                EpdRecord.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - bm Ra8#;"),
+                EpdRecord.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - bm Bb5;"));
+        EpdRunner runner = new EpdRunner(SearchLimits.depth(3), 3, 1 << 16);
+
+        EpdReport first = runner.run(records, this.pool);
+        EpdReport second = runner.run(records, this.pool);
+
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(first.getResults().get(i).getAnswer(), second.getResults().get(i).getAnswer());
+            assertEquals(first.getResults().get(i).getNodes(), second.getResults().get(i).getNodes());
+        }
+    }
+
+    @Test
+    public void testEmptySuite() {
+        EpdReport report = new EpdRunner(SearchLimits.depth(1)).run(List.of(), this.pool);
+
+        assertEquals(0, report.getNumberOfPositions());
+        assertEquals(0, report.getNodesPerSecond());
+    }
+
+    @Nested
+    class Parsing {
+
+        @Test
+        public void testOperations() throws ExcInvalidFen {
+            EpdRecord record = EpdRecord.parse("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - "
+                    + "bm Bb5 Bc4; id \"Ruy; Lopez\"; hmvc 2; fmvn 3;");
+
+            assertEquals("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3", record.getFen());
+            assertEquals(List.of("Bb5", "Bc4"), record.getOperands("bm"));
+            assertEquals("Ruy; Lopez", record.getId());
+            assertEquals(List.of("bm", "id", "hmvc", "fmvn"), List.copyOf(record.getOperations().keySet()));
+            assertTrue(record.getOperands("am").isEmpty());
+        }
+
+        @Test
+        public void testPerftCounts() throws ExcInvalidFen {
+            EpdRecord record = EpdRecord.parse("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8 ;D1 44 ;D2 1486");
+
+            assertEquals("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", record.getFen());
+            assertEquals(List.of("1486"), record.getOperands("D2"));
+            assertEquals(record.getFen(), record.getId());
+        }
+
+        @Test
+        public void testInvalidRecord() {
+            assertThrows(ExcInvalidFen.class, () -> EpdRecord.parse("8/8/8 w"));
+        }
+
+    }
+
+}
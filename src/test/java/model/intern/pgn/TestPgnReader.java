@@ -0,0 +1,231 @@
+package model.intern.pgn;
+
+import model.intern.chessboard.ChessBoard;
+import model.intern.chessmove.MoveEncoding;
+import model.intern.chessmove.MoveGenerator;
+import model.intern.exceptions.ExcInvalidFen;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPgnReader {
+
+    private static final String OPERA_GAME = "[Event \"Paris\"]\n"
+            + "[White \"Morphy, Paul\"]\n"
+            + "[Black \"Duke Karl / Count Isouard\"]\n"
+            + "[Result \"1-0\"]\n"
+            + "\n"
+            + "1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3 5. Qxf3 dxe5\n"
+            + "6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 c6 9. Bg5 b5 $2 (9... Qb4 10. Qxb4 (10. O-O-O) Bxb4) 10. Nxb5 cxb5\n"
+            + "11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7 14. Rd1 Qe6 ; the queen has to cover d7\n"
+            + "15. Bxd7+ Nxd7 16. Qb8+! Nxb8 17. Rd8# 1-0\n"
+            + "\n";
+    private static final String EN_PASSANT_GAME = "[Event \"En passant\"]\n"
+            + "[SetUp \"1\"]\n"
+            + "[FEN \"4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1\"]\n"
+            + "\n"
+            + "1. exd6 Kd7 2. Kd2 Kxd6 1/2-1/2\n"
+            + "\n";
+    private static final String PROMOTION_GAME = "[Event \"Promotion\"]\n"
+            + "[FEN \"8/P3k3/8/8/8/8/8/4K3 w - - 0 1\"]\n"
+            + "\n"
+            + "1.a8=Q Kd6 2.Qd8+ *\n"
+            + "\n";
+    private static final String ILLEGAL_GAME = "[Event \"Illegal\"]\n"
+            + "\n"
+            + "1. e4 e5 2. Ke3 *\n"
+            + "\n";
+
+    @TempDir
+    Path directory;
+
+    private Path writePgn(String content) throws IOException {
+        Path file = this.directory.resolve("games.pgn");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String toMoveString(PgnGame game) {
+        return game.getMoves().stream().map(PgnMove::toString).collect(Collectors.joining(" "));
+    }
+
+    @Test
+    public void testTagsAndMoves() throws IOException {
+        PgnReader reader = PgnReader.open(writePgn(OPERA_GAME));
+
+        List<PgnGame> games = reader.games(false).collect(Collectors.toList());
+
+        assertEquals(1, games.size());
+        PgnGame game = games.get(0);
+        assertEquals("Morphy, Paul", game.getTag("White"));
+        assertEquals("Paris", game.getTags().keySet().stream().findFirst().map(game::getTag).orElse(null));
+        assertNull(game.getStartingFen());
+        assertEquals("1-0", game.getResult());
+        assertEquals(33, game.getMoves().size());
+        assertEquals("e2e4", game.getMoves().get(0).toString());
+        // 12. O-O-O is the move of the king
+        assertEquals("e1c1", game.getMoves().get(22).toString());
+        assertEquals("d1d8", game.getMoves().get(32).toString());
+    }
+
+    @Test
+    public void testEscapedTagValues() throws IOException {
+        PgnReader reader = PgnReader.open(writePgn(OPERA_GAME.replace("[Event \"Paris\"]",
+                "[Event \"Paris \\\"Opera\\\" \\\\ 1858\"]\n[Round \"\"]\n[Site \"Paris]")));
+
+        PgnGame game = reader.games(false).findFirst().orElseThrow();
+
+        assertEquals("Paris \"Opera\" \\ 1858", game.getTag("Event"));
+        assertEquals("", game.getTag("Round"));
+        // Without a closing quote, the tag pair ends at the next ']', which takes the following tag pair along.
+        assertEquals("Paris]", game.getTag("Site"));
+        assertNull(game.getTag("White"));
+        assertEquals("Duke Karl / Count Isouard", game.getTag("Black"));
+    }
+
+    @Test
+    public void testGamesFromFen() throws IOException {
+        PgnReader reader = PgnReader.open(writePgn(EN_PASSANT_GAME + PROMOTION_GAME));
+
+        List<PgnGame> games = reader.games(false).collect(Collectors.toList());
+
+        assertEquals(2, games.size());
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", games.get(0).getStartingFen());
+        assertEquals("e5d6 e8d7 e1d2 d7d6", toMoveString(games.get(0)));
+        assertEquals("1/2-1/2", games.get(0).getResult());
+        assertEquals("a7a8Q e7d6 a8d8", toMoveString(games.get(1)));
+        assertEquals("*", games.get(1).getResult());
+    }
+
+    @Test
+    public void testInvalidGamesAreLeftOut() throws IOException {
+        PgnReader reader = PgnReader.open(writePgn(ILLEGAL_GAME + OPERA_GAME + "[FEN \"8/8/8/8/8/8/8/8 w - - 0 1\"]\n\n*\n\n"));
+
+        List<PgnGame> games = reader.games(false).collect(Collectors.toList());
+
+        assertEquals(1, games.size());
+        assertEquals("Paris", games.get(0).getTag("Event"));
+        assertEquals(2, reader.getNumberOfInvalidGames());
+    }
+
+    @Test
+    public void testSplittingKeepsAllGames() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            content.append(OPERA_GAME.replace("Paris", "Paris " + i)).append(EN_PASSANT_GAME)
+                    .append(ILLEGAL_GAME).append(PROMOTION_GAME.replace("\n", "\r\n"));
+        }
+        Path file = writePgn(content.toString());
+        PgnReader reader = PgnReader.open(file);
+        PgnReader chunkedReader = PgnReader.open(file, 4096);
+
+        List<String> games = reader.games(false).map(game -> game.getTag("Event") + ": " + toMoveString(game))
+                .collect(Collectors.toList());
+
+        assertEquals(900, games.size());
+        assertEquals(300, reader.getNumberOfInvalidGames());
+        assertEquals("Paris 299: " + toMoveString(reader.games(false).skip(897).findFirst().orElseThrow()), games.get(897));
+        assertEquals(games, reader.games(true).map(game -> game.getTag("Event") + ": " + toMoveString(game))
+                .collect(Collectors.toList()));
+        assertEquals(games, chunkedReader.games(true).map(game -> game.getTag("Event") + ": " + toMoveString(game))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testValidateAll() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append(OPERA_GAME).append(ILLEGAL_GAME);
+        }
+        PgnReader reader = PgnReader.open(writePgn(content.toString()));
+        AtomicLong numberOfMoves = new AtomicLong();
+
+        PgnStatistics statistics = reader.validateAll(Runtime.getRuntime().availableProcessors(),
+                game -> numberOfMoves.addAndGet(game.getMoves().size()));
+
+        assertEquals(2000, statistics.getNumberOfGames());
+        assertEquals(2000, statistics.getNumberOfInvalidGames());
+        assertEquals(2000 * 33, numberOfMoves.get());
+        assertTrue(statistics.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    public void testGamesWithoutEmptyLines() throws IOException {
+        String content = (OPERA_GAME + EN_PASSANT_GAME + PROMOTION_GAME).replace("\n\n", "\n");
+        Path file = writePgn(content + content.replace("\n", "\r\n"));
+
+        List<PgnGame> games = PgnReader.open(file).games(false).collect(Collectors.toList());
+
+        assertEquals(6, games.size());
+        assertEquals(33, games.get(3).getMoves().size());
+        assertEquals("e5d6 e8d7 e1d2 d7d6", toMoveString(games.get(4)));
+        assertEquals("a7a8Q e7d6 a8d8", toMoveString(games.get(5)));
+        assertEquals(games.size(), PgnReader.open(file, 1024).games(true).count());
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        PgnReader reader = PgnReader.open(writePgn(""));
+
+        assertEquals(0, reader.games(true).count());
+    }
+
+    @Nested
+    class San {
+
+        private ChessBoard board;
+        private int[] moves;
+
+        @BeforeEach
+        public void initTest() throws ExcInvalidFen {
+            this.board = new ChessBoard();
+            this.board.loadFen("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+            this.moves = new int[MoveGenerator.MAX_MOVES];
+        }
+
+        private String findMove(String san) {
+            int move = SanParser.findMove(this.board.getBitBoard(), san, this.moves);
+            return move == MoveEncoding.NO_MOVE ? null : MoveEncoding.toString(move);
+        }
+
+        @Test
+        public void testDisambiguation() {
+            assertNull(findMove("Rd1"));
+            assertEquals("a1d1", findMove("Rad1"));
+            assertEquals("h1d1", findMove("Rhd1+"));
+            assertEquals("h1h8", findMove("R1h8"));
+            assertEquals("h1h8", findMove("Rh1-h8"));
+            assertEquals("e2f3", findMove("Kf3"));
+        }
+
+        @Test
+        public void testInvalidMoves() {
+            assertNull(findMove("Rb2"));
+            assertNull(findMove("Ra9"));
+            assertNull(findMove("O-O"));
+            assertNull(findMove("e4"));
+            assertNull(findMove("--"));
+        }
+
+        @Test
+        public void testCastling() throws ExcInvalidFen {
+            this.board.loadFen("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1");
+
+            assertEquals("e8g8", findMove("O-O"));
+            assertEquals("e8c8", findMove("O-O-O+"));
+        }
+
+    }
+
+}
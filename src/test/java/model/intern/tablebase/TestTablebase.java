@@ -0,0 +1,173 @@
+package model.intern.tablebase;
+
+import model.common.Coordinates;
+import model.common.EnumChessColor;
+import model.common.EnumTablebaseResult;
+import model.intern.chessboard.ChessBoard;
+import model.intern.chesspieces.*;
+import model.intern.engine.Engine;
+import model.intern.engine.Evaluation;
+import model.intern.engine.SearchResult;
+import model.intern.exceptions.ExcInvalidMove;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTablebase {
+
+    @TempDir
+    static Path directory;
+
+    private static Tablebases tablebases;
+
+    private ChessBoard chessBoard;
+
+    @BeforeAll
+    public static void initTables() throws IOException {
+        TablebaseGenerator.generate(EnumEndgame.KQK, directory, ForkJoinPool.commonPool());
+        TablebaseGenerator.generate(EnumEndgame.KRK, directory, ForkJoinPool.commonPool());
+        TablebaseGenerator.generate(EnumEndgame.KPK, directory, ForkJoinPool.commonPool());
+        tablebases = Tablebases.open(directory);
+    }
+
+    @BeforeEach
+    public void initTest() {
+        this.chessBoard = new ChessBoard();
+    }
+
+    @Test
+    public void testMateInOne() {
+        this.chessBoard.getField(1, 5).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(7, 6).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(1, 7).setPiece(new King(EnumChessColor.BLACK));
+
+        TablebaseResult result = tablebases.probe(this.chessBoard);
+
+        assertEquals(EnumTablebaseResult.WIN, result.getResult());
+        assertEquals(1, result.getDistanceToMate());
+    }
+
+    @Test
+    public void testCheckmateIsLost() throws ExcInvalidMove {
+        this.chessBoard.getField(1, 5).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(7, 6).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(1, 7).setPiece(new King(EnumChessColor.BLACK));
+        this.chessBoard.executeMove(new Coordinates(7, 6), new Coordinates(7, 7));
+
+        TablebaseResult result = tablebases.probe(this.chessBoard);
+
+        assertEquals(EnumTablebaseResult.LOSS, result.getResult());
+        assertEquals(0, result.getDistanceToMate());
+    }
+
+    @Test
+    public void testStrongerBlackSideIsMirrored() throws ExcInvalidMove {
+        this.chessBoard.getField(2, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(1, 2).setPiece(new King(EnumChessColor.BLACK));
+        this.chessBoard.getField(7, 1).setPiece(new Rook(EnumChessColor.BLACK));
+        this.chessBoard.executeMove(new Coordinates(2, 0), new Coordinates(1, 0));
+
+        TablebaseResult result = tablebases.probe(this.chessBoard);
+
+        // Rh1 mates.
+        assertEquals(EnumTablebaseResult.WIN, result.getResult());
+        assertEquals(1, result.getDistanceToMate());
+    }
+
+    @Test
+    public void testLongestMatesMatchTheory() {
+        // With white to move, KQK is won in at most 10 moves and KRK in at most 16 moves.
+        assertEquals(19, findLongestWin(EnumEndgame.KQK));
+        assertEquals(31, findLongestWin(EnumEndgame.KRK));
+    }
+
+    @Test
+    public void testLongestMateOfBishopAndKnight(@TempDir Path kbnkDirectory) throws IOException {
+        TablebaseGenerator.generate(EnumEndgame.KBNK, kbnkDirectory, ForkJoinPool.commonPool());
+        Tablebase table = Tablebase.open(kbnkDirectory.resolve(EnumEndgame.KBNK.getFileName()));
+
+        // With white to move, KBNK is won in at most 33 moves.
+        assertEquals(65, findLongestWin(table));
+    }
+
+    @Test
+    public void testRookPawnWithKingInCornerIsDraw() {
+        this.chessBoard.getField(1, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(0, 1).setPiece(new Pawn(EnumChessColor.WHITE));
+        this.chessBoard.getField(0, 7).setPiece(new King(EnumChessColor.BLACK));
+
+        assertEquals(EnumTablebaseResult.DRAW, tablebases.probe(this.chessBoard).getResult());
+    }
+
+    @Test
+    public void testKingInFrontOfPawnWins() {
+        this.chessBoard.getField(4, 5).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 4).setPiece(new Pawn(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 7).setPiece(new King(EnumChessColor.BLACK));
+
+        TablebaseResult result = tablebases.probe(this.chessBoard);
+
+        assertEquals(EnumTablebaseResult.WIN, result.getResult());
+        assertTrue(result.getDistanceToMate() > 10);
+    }
+
+    @Test
+    public void testUncoveredPositionsAreNotProbed() {
+        this.chessBoard.initChessPieces();
+        assertNull(tablebases.probe(this.chessBoard));
+
+        ChessBoard otherBoard = new ChessBoard();
+        otherBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        otherBoard.getField(3, 0).setPiece(new Queen(EnumChessColor.WHITE));
+        otherBoard.getField(4, 7).setPiece(new King(EnumChessColor.BLACK));
+        otherBoard.getField(0, 7).setPiece(new Rook(EnumChessColor.BLACK));
+        assertNull(tablebases.probe(otherBoard));
+
+        // KBNK has not been generated.
+        otherBoard.getField(0, 7).setPiece(null);
+        otherBoard.getField(3, 0).setPiece(new Bishop(EnumChessColor.WHITE));
+        otherBoard.getField(2, 0).setPiece(new Knight(EnumChessColor.WHITE));
+        assertNull(tablebases.probe(otherBoard));
+    }
+
+    @Test
+    public void testPawnEndgameNeedsPromotionTables(@TempDir Path emptyDirectory) {
+        assertThrows(IllegalStateException.class,
+                () -> TablebaseGenerator.generate(EnumEndgame.KPK, emptyDirectory, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void testSearchScoresTablebaseWinAsMate() {
+        this.chessBoard.getField(4, 0).setPiece(new King(EnumChessColor.WHITE));
+        this.chessBoard.getField(0, 0).setPiece(new Rook(EnumChessColor.WHITE));
+        this.chessBoard.getField(4, 4).setPiece(new King(EnumChessColor.BLACK));
+        Engine engine = new Engine();
+        engine.setTablebases(tablebases);
+
+        SearchResult result = engine.search(this.chessBoard, 2);
+
+        // Far beyond the search depth, but each move is scored exactly by the tablebase.
+        int distanceToMate = tablebases.probe(this.chessBoard).getDistanceToMate();
+        assertEquals(Evaluation.MATE_SCORE - distanceToMate, result.getScore());
+    }
+
+    private static int findLongestWin(EnumEndgame endgame) {
+        return findLongestWin(tablebases.getTable(endgame));
+    }
+
+    private static int findLongestWin(Tablebase table) {
+        int longest = 0;
+        for (int index = 0; index < table.getEndgame().getNumberOfEntries() / 2; index++) {
+            longest = Math.max(longest, table.getValue(index) - 1);
+        }
+        return longest;
+    }
+
+}